@@ -0,0 +1,44 @@
+package guru.qa.rococo.config;
+
+import guru.qa.rococo.model.ImageVariant;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class ImageSettings {
+
+    private final boolean inline;
+    private final String baseUri;
+    private final Duration maxAge;
+
+    public ImageSettings(@Value("${rococo-artist.image.inline:true}") boolean inline,
+                         @Value("${rococo-artist.image.base-uri:/api/artist}") String baseUri,
+                         @Value("${rococo-artist.image.max-age:10m}") Duration maxAge) {
+        this.inline = inline;
+        this.baseUri = baseUri;
+        this.maxAge = maxAge;
+    }
+
+    public boolean isInline() {
+        return inline;
+    }
+
+    public @Nonnull String imageUrl(@Nonnull UUID id) {
+        return baseUri + "/" + id + "/image";
+    }
+
+    public @Nonnull String imageUrl(@Nonnull UUID id, @Nonnull ImageVariant variant) {
+        return variant == ImageVariant.FULL
+                ? imageUrl(id)
+                : imageUrl(id) + "?variant=" + variant.toParam();
+    }
+
+    public @Nonnull CacheControl cacheControl() {
+        return CacheControl.maxAge(maxAge).cachePublic();
+    }
+}
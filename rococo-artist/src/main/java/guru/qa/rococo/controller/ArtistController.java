@@ -1,15 +1,39 @@
 package guru.qa.rococo.controller;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.ArtistRef;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.ExportFormat;
+import guru.qa.rococo.model.ExportImages;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.Tagged;
+import guru.qa.rococo.service.ArtistExportService;
+import guru.qa.rococo.service.ArtistImportService;
 import guru.qa.rococo.service.ArtistService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -17,22 +41,83 @@ import java.util.UUID;
 @Validated
 public class ArtistController {
     private final ArtistService artistService;
+    private final ArtistImportService artistImportService;
+    private final ArtistExportService artistExportService;
+    private final ImageSettings imageSettings;
 
     @Autowired
-    public ArtistController(ArtistService artistService) {
+    public ArtistController(ArtistService artistService,
+                            ArtistImportService artistImportService,
+                            ArtistExportService artistExportService,
+                            ImageSettings imageSettings) {
         this.artistService = artistService;
+        this.artistImportService = artistImportService;
+        this.artistExportService = artistExportService;
+        this.imageSettings = imageSettings;
     }
 
     @GetMapping("/{id}")
-    public ArtistJson getArtist(@PathVariable(name = "id") UUID id) {
-        return artistService.getArtistById(id);
+    public ResponseEntity<ArtistJson> getArtist(@PathVariable(name = "id") UUID id, WebRequest request) {
+        Tagged<ArtistJson> artist = artistService.getArtistIfModified(id, request::checkNotModified);
+        if (artist.notModified()) {
+            // 304 Not Modified без загрузки фото
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(artist.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(artist.body());
+    }
+
+    @GetMapping("/{id}/ref")
+    public ArtistRef getArtistRef(@PathVariable(name = "id") UUID id) {
+        return artistService.getArtistRefById(id);
+    }
+
+    @GetMapping("/{id}/image")
+    public ResponseEntity<Resource> getArtistImage(@PathVariable(name = "id") UUID id,
+                                                   @RequestParam(name = "variant", required = false) String variant) {
+        ImageData image = artistService.getArtistImage(id, ImageVariant.fromParam(variant));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.mimeType()))
+                .contentLength(image.content().length)
+                .eTag(image.etag())
+                .cacheControl(imageSettings.cacheControl())
+                .body(new ByteArrayResource(image.content()));
+    }
+
+    @GetMapping("/refs")
+    public List<ArtistRef> getArtistRefsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return artistService.getArtistRefsByIds(ids);
+    }
+
+    @GetMapping("/batch")
+    public List<ArtistJson> getArtistsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return artistService.getArtistsByIds(ids);
     }
 
     @GetMapping
     public Page<ArtistJson> getAllArtists(
             @PageableDefault Pageable pageable,
-            @RequestParam(name = "name", required = false) String name) {
-        return artistService.getAllArtists(pageable, name);
+            @RequestParam(name = "name", required = false) String name,
+            @RequestParam(name = "variant", required = false) String variant) {
+        return artistService.getAllArtists(pageable, name, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/scroll")
+    public SliceJson<ArtistJson> scrollArtists(
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "name", required = false) String name,
+            @RequestParam(name = "variant", required = false) String variant) {
+        return artistService.scrollArtists(after, size, name, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/search")
+    public Page<SearchHitJson> searchArtists(
+            @PageableDefault Pageable pageable,
+            @RequestParam(name = "query") String query) {
+        return artistService.searchArtists(query, pageable);
     }
 
     @PostMapping
@@ -44,4 +129,23 @@ public class ArtistController {
     public ArtistJson updateArtist(@Valid @RequestBody ArtistJson artist) {
         return artistService.updateArtist(artist);
     }
+
+    // Тело - NDJSON, по одному художнику на строку; читается потоком, без загрузки в память целиком
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkResultJson importArtists(InputStream ndjson) throws IOException {
+        return artistImportService.importArtists(ndjson);
+    }
+
+    // Ответ пишется построчно по мере чтения из БД, поэтому объем выгрузки не ограничен памятью
+    @GetMapping("/export")
+    public void exportArtists(@RequestParam(name = "format", required = false) String format,
+                              @RequestParam(name = "images", required = false) String images,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        ExportImages exportImages = ExportImages.fromParam(images);
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("artists." + exportFormat.extension()).build().toString());
+        artistExportService.exportArtists(response.getOutputStream(), exportFormat, exportImages);
+    }
 }
@@ -1,8 +1,11 @@
 package guru.qa.rococo.data;
 
+import guru.qa.rococo.data.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.LazyGroup;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serializable;
@@ -18,8 +21,8 @@ import java.util.UUID;
 public class ArtistEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    @Column(name = "id", nullable = false, columnDefinition = "UUID default gen_random_uuid()")
+    @UuidV7
+    @Column(name = "id", nullable = false, columnDefinition = "UUID")
     private UUID id;
 
     @Column(name = "name", unique = true, nullable = false)
@@ -28,9 +31,50 @@ public class ArtistEntity implements Serializable {
     @Column(name = "biography", nullable = false, length = 2000)
     private String biography;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("photo")
     @Column(name = "photo",columnDefinition = "bytea")
     private byte[] photo;
 
+    @Column(name = "photo_mime", length = 50)
+    private String photoMime;
+
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("thumb")
+    @Column(name = "photo_thumb", columnDefinition = "bytea")
+    private byte[] photoThumb;
+
+    // Превью не строится из сохранённого изображения: догенерация при старте его пропускает
+    @Column(name = "photo_thumb_failed", nullable = false, columnDefinition = "boolean default false not null")
+    private boolean photoThumbFailed;
+
+    @Formula("coalesce(octet_length(photo), 0)")
+    private Integer photoSize;
+
+    /**
+     * Растет при каждом сохранении; служит оптимистической блокировкой и основой ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Вместе с фото обновляет размер: формула photoSize пересчитывается только при чтении из БД,
+     * и без этого hasPhoto() после замены фото в той же сессии отражал бы прежнее состояние.
+     */
+    public void setPhoto(byte[] photo) {
+        this.photo = photo;
+        this.photoSize = photo != null ? photo.length : 0;
+    }
+
+    /**
+     * Проверяет наличие фото по размеру, не загружая саму колонку.
+     */
+    public boolean hasPhoto() {
+        return photoSize != null
+                ? photoSize > 0
+                : photo != null && photo.length > 0;
+    }
 
     @Override
     public final boolean equals(Object o) {
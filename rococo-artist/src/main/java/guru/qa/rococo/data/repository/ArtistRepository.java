@@ -1,13 +1,89 @@
 package guru.qa.rococo.data.repository;
 
 import guru.qa.rococo.data.ArtistEntity;
+import guru.qa.rococo.data.SearchRow;
+import guru.qa.rococo.model.ArtistRef;
+import guru.qa.rococo.model.StoredImage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ArtistRepository extends JpaRepository<ArtistEntity, UUID> {
     Page<ArtistEntity> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    // Keyset-пагинация: страница ищется по индексу (name, id) без OFFSET и count(*)
+    @Query("select a from ArtistEntity a order by a.name, a.id")
+    Slice<ArtistEntity> findSlice(Pageable pageable);
+
+    @Query("select a from ArtistEntity a where (a.name, a.id) > (:name, :id) order by a.name, a.id")
+    Slice<ArtistEntity> findSliceAfter(@Param("name") String name, @Param("id") UUID id, Pageable pageable);
+
+    // escape(...) экранирует % и _ в фильтре, как в производных запросах ...Containing
+    @Query("""
+            select a from ArtistEntity a
+            where upper(a.name) like upper(concat('%', :#{escape(#filter)}, '%')) escape :#{escapeCharacter()}
+            order by a.name, a.id
+            """)
+    Slice<ArtistEntity> findSliceByName(@Param("filter") String filter, Pageable pageable);
+
+    @Query("""
+            select a from ArtistEntity a
+            where upper(a.name) like upper(concat('%', :#{escape(#filter)}, '%')) escape :#{escapeCharacter()}
+              and (a.name, a.id) > (:name, :id)
+            order by a.name, a.id
+            """)
+    Slice<ArtistEntity> findSliceByNameAfter(@Param("filter") String filter,
+                                             @Param("name") String name,
+                                             @Param("id") UUID id,
+                                             Pageable pageable);
+
+    @Query("select new guru.qa.rococo.model.ArtistRef(a.id, a.name) from ArtistEntity a where a.id = :id")
+    Optional<ArtistRef> findRefById(@Param("id") UUID id);
+
+    @Query("select new guru.qa.rococo.model.ArtistRef(a.id, a.name) from ArtistEntity a where a.id in :ids")
+    List<ArtistRef> findRefsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new guru.qa.rococo.model.StoredImage(a.id, a.photoMime, a.photo) from ArtistEntity a where a.id in :ids")
+    List<StoredImage> findPhotosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new guru.qa.rococo.model.StoredImage(a.id, a.photoMime, a.photoThumb) from ArtistEntity a where a.id in :ids and a.photoThumb is not null")
+    List<StoredImage> findThumbnailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Проверка уникальности имен порции массового импорта одним запросом
+    @Query("select a.name from ArtistEntity a where a.name in :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    @Query("select a.id from ArtistEntity a where a.photo is not null and a.photoThumb is null and a.photoThumbFailed = false")
+    List<UUID> findIdsWithoutThumbnail();
+
+    // Полнотекстовый поиск с префиксами слов и нечёткий поиск по триграммам названия, ранжирование по сумме оценок
+    // Совпадения в snippet отмечены символами U+E000/U+E001, теги <mark> ставит SearchHitJson после экранирования текста
+    @Query(nativeQuery = true,
+            value = """
+                    select a.id as id,
+                           a.name as title,
+                           ts_headline('russian', a.biography, to_tsquery('russian', :tsQuery),
+                                       'MaxFragments=1, MaxWords=25, MinWords=10, StartSel=\uE000, StopSel=\uE001') as snippet,
+                           cast(ts_rank_cd(a.search_vector, to_tsquery('russian', :tsQuery))
+                                + similarity(upper(a.name), upper(:term)) as double precision) as rank
+                    from "artist" a
+                    where a.search_vector @@ to_tsquery('russian', :tsQuery)
+                       or upper(a.name) % upper(:term)
+                    order by rank desc, a.name
+                    """,
+            countQuery = """
+                    select count(*)
+                    from "artist" a
+                    where a.search_vector @@ to_tsquery('russian', :tsQuery)
+                       or upper(a.name) % upper(:term)
+                    """)
+    Page<SearchRow> search(@Param("term") String term, @Param("tsQuery") String tsQuery, Pageable pageable);
 }
@@ -5,8 +5,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import guru.qa.rococo.data.ArtistEntity;
 
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -22,26 +22,38 @@ public record ArtistJson(
 ) {
 
     public static @Nonnull ArtistJson fromEntity(@Nonnull ArtistEntity entity) {
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
         return new ArtistJson(
                 entity.getId(),
                 entity.getName(),
                 entity.getBiography(),
-                entity.getPhoto() != null && entity.getPhoto().length > 0
-                        ? new String(entity.getPhoto(), StandardCharsets.UTF_8)
-                        : null
+                photo != null ? photo.toDataUri() : null
         );
     }
 
+    public static @Nonnull ArtistJson fromEntity(@Nonnull ArtistEntity entity, @Nullable String photo) {
+        return new ArtistJson(
+                entity.getId(),
+                entity.getName(),
+                entity.getBiography(),
+                entity.hasPhoto() ? photo : null
+        );
+    }
+
+    public @Nonnull ArtistJson withoutPhoto() {
+        return new ArtistJson(id, name, biography, null);
+    }
+
     public @Nonnull ArtistEntity toEntity() {
         ArtistEntity entity = new ArtistEntity();
         entity.setId(this.id);
         entity.setName(this.name.trim());
         entity.setBiography(this.biography.trim());
-        entity.setPhoto(
-                this.photo != null && this.photo.startsWith("data:image")
-                        ? this.photo.getBytes(StandardCharsets.UTF_8)
-                        : null
-        );
+        if (this.photo != null && this.photo.startsWith("data:image")) {
+            ImageData image = ImageData.fromDataUri(this.photo);
+            entity.setPhoto(image.content());
+            entity.setPhotoMime(image.mimeType());
+        }
         return entity;
     }
 }
\ No newline at end of file
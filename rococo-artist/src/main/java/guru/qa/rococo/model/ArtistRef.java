@@ -0,0 +1,18 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Облегченное представление художника без биографии и фото - для ссылок из других сервисов.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ArtistRef(
+        @JsonProperty("id")
+        UUID id,
+        @JsonProperty("name")
+        String name
+) {
+}
@@ -0,0 +1,20 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Итог массового импорта: сколько записей прочитано, сохранено и отклонено, и ошибки по строкам.
+ */
+public record BulkResultJson(
+        @JsonProperty("total")
+        int total,
+        @JsonProperty("imported")
+        int imported,
+        @JsonProperty("failed")
+        int failed,
+        @JsonProperty("errors")
+        List<BulkErrorJson> errors
+) {
+}
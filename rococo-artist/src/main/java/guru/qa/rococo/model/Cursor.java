@@ -0,0 +1,41 @@
+package guru.qa.rococo.model;
+
+import guru.qa.rococo.ex.BadRequestException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Курсор keyset-пагинации: ключ сортировки и id последней записи страницы.
+ * Следующая страница выбирается условием {@code (key, id) > (:key, :id)} по составному индексу,
+ * без OFFSET и count(*). Клиенту курсор передается непрозрачной строкой.
+ */
+public record Cursor(@Nonnull String key,
+                     @Nonnull UUID id) {
+
+    private static final int UUID_LENGTH = 36;
+
+    public static @Nullable Cursor parse(@Nullable String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            if (value.length() <= UUID_LENGTH || value.charAt(UUID_LENGTH) != ':') {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new Cursor(value.substring(UUID_LENGTH + 1), UUID.fromString(value.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("after: Некорректный курсор");
+        }
+    }
+
+    public @Nonnull String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((id + ":" + key).getBytes(StandardCharsets.UTF_8));
+    }
+}
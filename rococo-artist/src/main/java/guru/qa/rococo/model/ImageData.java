@@ -0,0 +1,70 @@
+package guru.qa.rococo.model;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Изображение в формате хранения: бинарные данные и MIME-тип.
+ * Записи без MIME-типа хранят исходную строку data URI (legacy-формат).
+ */
+public record ImageData(@Nullable String mimeType,
+                        @Nonnull byte[] content) {
+
+    private static final Pattern DATA_URI = Pattern.compile(
+            "^data:([A-Za-z0-9.+-]{1,24}/[A-Za-z0-9.+-]{1,24});base64,(.*)$", Pattern.DOTALL);
+
+    public static @Nonnull ImageData fromDataUri(@Nonnull String dataUri) {
+        return decode(dataUri, true)
+                .orElseGet(() -> new ImageData(null, dataUri.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static @Nullable ImageData fromStored(@Nullable byte[] content, @Nullable String mimeType) {
+        return content != null && content.length > 0
+                ? new ImageData(mimeType, content)
+                : null;
+    }
+
+    public @Nonnull String toDataUri() {
+        return mimeType == null
+                ? new String(content, StandardCharsets.UTF_8)
+                : "data:" + mimeType + ";base64," + Base64.getEncoder().encodeToString(content);
+    }
+
+    /**
+     * Бинарное представление; legacy-записи декодируются на лету.
+     */
+    public @Nonnull Optional<ImageData> binary() {
+        return mimeType != null
+                ? Optional.of(this)
+                : decode(new String(content, StandardCharsets.UTF_8), false);
+    }
+
+    public @Nonnull String etag() {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    private static @Nonnull Optional<ImageData> decode(@Nonnull String dataUri, boolean lossless) {
+        Matcher matcher = DATA_URI.matcher(dataUri);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        String payload = matcher.group(2);
+        try {
+            byte[] bytes = Base64.getMimeDecoder().decode(payload);
+            // Сохраняем в бинарном виде только без потерь, иначе ответ разойдётся с присланным data URI
+            if (lossless && !Base64.getEncoder().encodeToString(bytes).equals(payload)) {
+                return Optional.empty();
+            }
+            return Optional.of(new ImageData(matcher.group(1), bytes));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
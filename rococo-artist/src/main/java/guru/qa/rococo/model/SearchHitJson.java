@@ -0,0 +1,52 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import guru.qa.rococo.data.SearchRow;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.UUID;
+
+/**
+ * Результат поиска: заголовок, фрагмент текста с подсветкой совпадений в тегах {@code <mark>} и ранг.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SearchHitJson(
+        @JsonProperty("id")
+        UUID id,
+        @JsonProperty("title")
+        String title,
+        @JsonProperty("snippet")
+        String snippet,
+        @JsonProperty("rank")
+        double rank
+) {
+
+    // Маркеры совпадений из ts_headline (символы Private Use Area, в тексте каталога не встречаются)
+    private static final String MARK_START = "\uE000";
+    private static final String MARK_STOP = "\uE001";
+
+    public static @Nonnull SearchHitJson fromRow(@Nonnull SearchRow row) {
+        return new SearchHitJson(
+                row.getId(),
+                row.getTitle(),
+                highlight(row.getSnippet()),
+                row.getRank() != null ? row.getRank() : 0.0
+        );
+    }
+
+    /**
+     * Текст описания вводится пользователями: HTML в нем экранируется, разметкой остаются только
+     * теги {@code <mark>}, поставленные на место маркеров совпадений.
+     */
+    static @Nullable String highlight(@Nullable String snippet) {
+        if (snippet == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(snippet, "UTF-8")
+                .replace(MARK_START, "<mark>")
+                .replace(MARK_STOP, "</mark>");
+    }
+}
@@ -0,0 +1,42 @@
+package guru.qa.rococo.model;
+
+import guru.qa.rococo.ex.BadRequestException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Поисковый запрос: нормализованная строка для нечёткого сравнения по триграммам
+ * и префиксный tsquery для полнотекстового поиска.
+ */
+public record SearchQuery(@Nonnull String term,
+                          @Nonnull String tsQuery) {
+
+    // Всё, кроме букв и цифр, считается разделителем - в том числе операторы tsquery
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_TOKENS = 8;
+
+    public static @Nonnull SearchQuery parse(@Nullable String query) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("query: Поисковый запрос не должен быть пустым");
+        }
+        List<String> tokens = Arrays.stream(SEPARATOR.split(query.trim().toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .limit(MAX_TOKENS)
+                .toList();
+        if (tokens.isEmpty()) {
+            throw new BadRequestException("query: Поисковый запрос должен содержать буквы или цифры");
+        }
+        return new SearchQuery(
+                String.join(" ", tokens),
+                tokens.stream()
+                        .map(token -> token + ":*")
+                        .collect(Collectors.joining(" & "))
+        );
+    }
+}
@@ -0,0 +1,49 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница keyset-пагинации. Общее число записей не считается;
+ * {@code next} - курсор для параметра {@code after} следующего запроса.
+ */
+public record SliceJson<T>(
+        @JsonProperty("content")
+        List<T> content,
+
+        @JsonProperty("size")
+        int size,
+
+        @JsonProperty("hasNext")
+        boolean hasNext,
+
+        @JsonProperty("next")
+        @Nullable
+        String next
+) {
+
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * Запрос первых {@code size} записей; размер ограничивается {@link #MAX_SIZE}.
+     */
+    public static @Nonnull Pageable request(int size) {
+        return PageRequest.of(0, Math.clamp(size, 1, MAX_SIZE));
+    }
+
+    public static @Nonnull <T> SliceJson<T> of(@Nonnull Slice<T> slice,
+                                               @Nonnull Function<T, Cursor> cursorOf) {
+        List<T> content = slice.getContent();
+        String next = slice.hasNext() && !content.isEmpty()
+                ? cursorOf.apply(content.getLast()).encode()
+                : null;
+        return new SliceJson<>(content, slice.getSize(), slice.hasNext(), next);
+    }
+}
@@ -0,0 +1,18 @@
+package guru.qa.rococo.model;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Ответ на условный запрос: strong ETag и тело, построенные по одному чтению записи.
+ * Тело равно {@code null}, если тег совпал с {@code If-None-Match} и отвечать нужно 304 Not Modified.
+ */
+public record Tagged<T>(
+        @Nonnull String etag,
+        @Nullable T body
+) {
+
+    public boolean notModified() {
+        return body == null;
+    }
+}
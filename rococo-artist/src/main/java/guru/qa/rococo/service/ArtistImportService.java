@@ -0,0 +1,102 @@
+package guru.qa.rococo.service;
+
+import guru.qa.rococo.data.ArtistEntity;
+import guru.qa.rococo.data.repository.ArtistRepository;
+import guru.qa.rococo.ex.BadRequestException;
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.service.bulk.BulkImporter;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт художников из NDJSON ({@code POST /internal/artist/bulk}).
+ * <p>
+ * Имена порции проверяются на уникальность одним запросом, превью генерируются до открытия
+ * транзакции. События Kafka не отправляются: они сбрасывают кэши по id, а новых id в них еще нет.
+ * Импорт идет в обход gateway и не сбрасывает его кэш ответов, поэтому списки {@code /api/artist}
+ * могут не показывать новых художников до истечения {@code rococo-gateway.response-cache.ttl}.
+ */
+@Service
+public class ArtistImportService {
+
+    private final ArtistRepository artistRepository;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BulkImporter bulkImporter;
+
+    @Autowired
+    public ArtistImportService(ArtistRepository artistRepository,
+                               ThumbnailGenerator thumbnailGenerator,
+                               BulkImporter bulkImporter) {
+        this.artistRepository = artistRepository;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.bulkImporter = bulkImporter;
+    }
+
+    public @Nonnull BulkResultJson importArtists(@Nonnull InputStream ndjson) throws IOException {
+        return bulkImporter.importNdjson(ndjson, ArtistJson.class, this::importBatch);
+    }
+
+    private @Nonnull List<BulkErrorJson> importBatch(@Nonnull List<BulkImporter.Line<ArtistJson>> batch) {
+        Set<String> names = batch.stream()
+                .map(line -> line.value().name())
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>(names.isEmpty() ? List.of() : artistRepository.findNamesIn(names));
+
+        List<BulkErrorJson> errors = new ArrayList<>();
+        List<BulkImporter.Line<Supplier<ArtistEntity>>> prepared = new ArrayList<>();
+        for (BulkImporter.Line<ArtistJson> line : batch) {
+            try {
+                ArtistJson artist = line.value();
+                validate(artist);
+                // Повтор имени внутри порции отклоняется так же, как уже существующее
+                if (!taken.add(artist.name().trim())) {
+                    throw new BadRequestException("Художник с именем '" + artist.name().trim() + "' уже существует");
+                }
+                prepared.add(line.with(prepare(artist)));
+            } catch (RuntimeException e) {
+                errors.add(line.error(e.getMessage()));
+            }
+        }
+        errors.addAll(bulkImporter.save(prepared, artistRepository::saveAll));
+        return errors;
+    }
+
+    private @Nonnull Supplier<ArtistEntity> prepare(@Nonnull ArtistJson artist) {
+        ImageData photo = artist.photo() != null ? ImageData.fromDataUri(artist.photo()) : null;
+        byte[] thumb = photo != null ? thumbnailGenerator.generate(photo) : null;
+        return () -> {
+            ArtistEntity entity = artist.toEntity();
+            entity.setId(null);
+            entity.setPhotoThumb(thumb);
+            return entity;
+        };
+    }
+
+    private void validate(@Nonnull ArtistJson artist) {
+        if (artist.name() == null || artist.name().isBlank()) {
+            throw new BadRequestException("Имя художника не должно быть пустым");
+        }
+        if (artist.biography() == null || artist.biography().isBlank()) {
+            throw new BadRequestException("Биография художника не должна быть пустой");
+        }
+        if (artist.photo() != null && !artist.photo().startsWith("data:image")) {
+            throw new BadRequestException("Фото должно быть в формате data:image");
+        }
+    }
+}
@@ -1,53 +1,187 @@
 package guru.qa.rococo.service;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.data.ArtistEntity;
 import guru.qa.rococo.data.repository.ArtistRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.ArtistRef;
+import guru.qa.rococo.model.Cursor;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchQuery;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.StoredImage;
+import guru.qa.rococo.model.Tagged;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static guru.qa.rococo.service.tx.TransactionCallbacks.afterCommit;
 
 @Service
 public class ArtistService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ArtistService.class);
+
     private final ArtistRepository artistRepository;
+    private final KafkaTemplate<String, ArtistJson> kafkaTemplate;
+    private final ImageSettings imageSettings;
+    private final ThumbnailGenerator thumbnailGenerator;
 
     @Autowired
-    public ArtistService(ArtistRepository artistRepository) {
+    public ArtistService(ArtistRepository artistRepository,
+                         KafkaTemplate<String, ArtistJson> kafkaTemplate,
+                         ImageSettings imageSettings,
+                         ThumbnailGenerator thumbnailGenerator) {
         this.artistRepository = artistRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.imageSettings = imageSettings;
+        this.thumbnailGenerator = thumbnailGenerator;
     }
 
     @Transactional(readOnly = true)
     public @Nonnull Page<ArtistJson> getAllArtists(@Nonnull Pageable pageable,
                                                    @Nullable String name) {
+        return getAllArtists(pageable, name, ImageVariant.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull Page<ArtistJson> getAllArtists(@Nonnull Pageable pageable,
+                                                   @Nullable String name,
+                                                   @Nonnull ImageVariant variant) {
         Page<ArtistEntity> entities = (name != null && !name.isBlank())
                 ? artistRepository.findByNameContainingIgnoreCase(name.trim(), pageable)
                 : artistRepository.findAll(pageable);
-        return entities.map(ArtistJson::fromEntity);
+        return toJson(entities, variant);
+    }
+
+    /**
+     * Keyset-пагинация по (name, id): страница без count(*) и курсор следующей страницы.
+     */
+    @Transactional(readOnly = true)
+    public @Nonnull SliceJson<ArtistJson> scrollArtists(@Nullable String after,
+                                                        int size,
+                                                        @Nullable String name,
+                                                        @Nonnull ImageVariant variant) {
+        Cursor cursor = Cursor.parse(after);
+        Pageable request = SliceJson.request(size);
+        Slice<ArtistEntity> entities;
+        if (name != null && !name.isBlank()) {
+            entities = cursor == null
+                    ? artistRepository.findSliceByName(name.trim(), request)
+                    : artistRepository.findSliceByNameAfter(name.trim(), cursor.key(), cursor.id(), request);
+        } else {
+            entities = cursor == null
+                    ? artistRepository.findSlice(request)
+                    : artistRepository.findSliceAfter(cursor.key(), cursor.id(), request);
+        }
+        return SliceJson.of(toJson(entities, variant), artist -> new Cursor(artist.name(), artist.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull Page<SearchHitJson> searchArtists(@Nullable String query, @Nonnull Pageable pageable) {
+        SearchQuery search = SearchQuery.parse(query);
+        // Порядок задаётся рангом совпадения, сортировка из запроса не применяется
+        return artistRepository.search(search.term(), search.tsQuery(), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(SearchHitJson::fromRow);
     }
 
     @Transactional(readOnly = true)
     public @Nonnull ArtistJson getArtistById(@Nonnull UUID id) {
-        return ArtistJson.fromEntity(
+        return toJson(
                 artistRepository.findById(id)
                         .orElseThrow(() -> new NotFoundException("Artist not found id:" + id))
         );
     }
 
+    /**
+     * Карточка художника для условного запроса с {@code If-None-Match}.
+     * Strong ETag строится по версии записи, а тело - по той же записи в той же транзакции.
+     * Если {@code notModified} подтверждает совпадение тега, фото не загружается.
+     */
+    @Transactional(readOnly = true)
+    public @Nonnull Tagged<ArtistJson> getArtistIfModified(@Nonnull UUID id, @Nonnull Predicate<String> notModified) {
+        ArtistEntity entity = artistRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Artist not found id:" + id));
+        String etag = etag(entity);
+        return new Tagged<>(etag, notModified.test(etag) ? null : toJson(entity));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ImageData getArtistImage(@Nonnull UUID id) {
+        return getArtistImage(id, ImageVariant.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ImageData getArtistImage(@Nonnull UUID id, @Nonnull ImageVariant variant) {
+        ArtistEntity entity = artistRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Artist not found id:" + id));
+        if (variant == ImageVariant.THUMB && entity.getPhotoThumb() != null) {
+            return thumbnailOf(entity);
+        }
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
+        if (photo == null) {
+            throw new NotFoundException("Artist photo not found id:" + id);
+        }
+        return photo.binary()
+                .orElseThrow(() -> new NotFoundException("Artist photo not found id:" + id));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull List<ArtistJson> getArtistsByIds(@Nonnull Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ArtistEntity> entities = artistRepository.findAllById(ids);
+        Map<UUID, String> photos = inlinePhotos(entities, ImageVariant.FULL);
+        return entities.stream()
+                .map(entity -> toJson(entity, ImageVariant.FULL, photos))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ArtistRef getArtistRefById(@Nonnull UUID id) {
+        return artistRepository.findRefById(id)
+                .orElseThrow(() -> new NotFoundException("Artist not found id:" + id));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull List<ArtistRef> getArtistRefsByIds(@Nonnull Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return artistRepository.findRefsByIdIn(ids);
+    }
+
     @Transactional
     public @Nonnull ArtistJson addArtist(@Nonnull ArtistJson artist) {
         ArtistEntity entity = artist.toEntity();
         entity.setId(null);
-        return ArtistJson.fromEntity(artistRepository.save(entity));
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
+        entity.setPhotoThumb(photo != null ? thumbnailGenerator.generate(photo) : null);
+        return toJson(artistRepository.save(entity));
     }
 
     @Transactional
@@ -67,8 +201,114 @@ public class ArtistService {
         }
 
         if (artist.photo() != null && artist.photo().startsWith("data:image")) {
-            existing.setPhoto(artist.photo().getBytes(StandardCharsets.UTF_8));
+            ImageData photo = ImageData.fromDataUri(artist.photo());
+            existing.setPhoto(photo.content());
+            existing.setPhotoMime(photo.mimeType());
+            existing.setPhotoThumb(thumbnailGenerator.generate(photo));
+            existing.setPhotoThumbFailed(false);
+        }
+        ArtistJson updated = toJson(artistRepository.save(existing));
+        // Сбрасывает кэш метаданных художника в rococo-painting. Только после коммита: painting перечитывает
+        // запись по событию и не должен получить старую версию, а ожидание Kafka не держит транзакцию БД
+        afterCommit(() -> {
+            kafkaTemplate.send("artist-updated", updated.id().toString(), updated.withoutPhoto());
+            LOG.info("### Kafka topic [artist-updated] sent message: {}", updated.id());
+        });
+        return updated;
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull List<UUID> getArtistIdsWithoutThumbnail() {
+        return artistRepository.findIdsWithoutThumbnail();
+    }
+
+    @Transactional
+    public boolean generateThumbnail(@Nonnull UUID id) {
+        ArtistEntity entity = artistRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Artist not found id:" + id));
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
+        byte[] thumb = photo != null ? thumbnailGenerator.generate(photo) : null;
+        if (thumb == null) {
+            // Изображение не декодируется: без отметки запись повторялась бы при каждом старте
+            entity.setPhotoThumbFailed(true);
+            artistRepository.save(entity);
+            return false;
+        }
+        entity.setPhotoThumb(thumb);
+        artistRepository.save(entity);
+        return true;
+    }
+
+    private @Nonnull ArtistJson toJson(@Nonnull ArtistEntity entity) {
+        return toJson(entity, ImageVariant.FULL);
+    }
+
+    // Режим выдачи фото (data URI или ссылка) меняет представление, поэтому входит в тег
+    private @Nonnull String etag(@Nonnull ArtistEntity entity) {
+        return "\"" + entity.getVersion() + (imageSettings.isInline() ? "" : "-ref") + "\"";
+    }
+
+    private @Nonnull ArtistJson toJson(@Nonnull ArtistEntity entity, @Nonnull ImageVariant variant) {
+        if (!imageSettings.isInline()) {
+            return ArtistJson.fromEntity(entity, imageSettings.imageUrl(entity.getId(), variant));
+        }
+        if (variant == ImageVariant.THUMB && entity.getPhotoThumb() != null) {
+            return ArtistJson.fromEntity(entity, thumbnailOf(entity).toDataUri());
+        }
+        return ArtistJson.fromEntity(entity);
+    }
+
+    private @Nonnull Page<ArtistJson> toJson(@Nonnull Page<ArtistEntity> entities, @Nonnull ImageVariant variant) {
+        Map<UUID, String> photos = inlinePhotos(entities.getContent(), variant);
+        return entities.map(entity -> toJson(entity, variant, photos));
+    }
+
+    private @Nonnull Slice<ArtistJson> toJson(@Nonnull Slice<ArtistEntity> entities, @Nonnull ImageVariant variant) {
+        Map<UUID, String> photos = inlinePhotos(entities.getContent(), variant);
+        return entities.map(entity -> toJson(entity, variant, photos));
+    }
+
+    private @Nonnull ArtistJson toJson(@Nonnull ArtistEntity entity,
+                                       @Nonnull ImageVariant variant,
+                                       @Nonnull Map<UUID, String> photos) {
+        return imageSettings.isInline()
+                ? ArtistJson.fromEntity(entity, photos.get(entity.getId()))
+                : ArtistJson.fromEntity(entity, imageSettings.imageUrl(entity.getId(), variant));
+    }
+
+    // Фото списка догружаются одним запросом вместо ленивой загрузки по каждой записи
+    private @Nonnull Map<UUID, String> inlinePhotos(@Nonnull List<ArtistEntity> entities,
+                                                    @Nonnull ImageVariant variant) {
+        if (!imageSettings.isInline()) {
+            return Map.of();
+        }
+        Set<UUID> ids = entities.stream()
+                .filter(ArtistEntity::hasPhoto)
+                .map(ArtistEntity::getId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
         }
-        return ArtistJson.fromEntity(artistRepository.save(existing));
+        Map<UUID, String> photos = new HashMap<>();
+        if (variant == ImageVariant.THUMB) {
+            for (StoredImage thumb : artistRepository.findThumbnailsByIdIn(ids)) {
+                photos.put(thumb.id(), new ImageData(ThumbnailGenerator.THUMBNAIL_MIME, thumb.content()).toDataUri());
+            }
+        }
+        Set<UUID> missing = new HashSet<>(ids);
+        missing.removeAll(photos.keySet());
+        if (!missing.isEmpty()) {
+            for (StoredImage photo : artistRepository.findPhotosByIdIn(missing)) {
+                ImageData image = photo.image();
+                if (image != null) {
+                    photos.put(photo.id(), image.toDataUri());
+                }
+            }
+        }
+        return photos;
+    }
+
+    private @Nonnull ImageData thumbnailOf(@Nonnull ArtistEntity entity) {
+        return new ImageData(ThumbnailGenerator.THUMBNAIL_MIME, entity.getPhotoThumb());
     }
 }
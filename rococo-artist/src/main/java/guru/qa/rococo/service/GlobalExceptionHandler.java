@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -80,6 +81,20 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
 
+    // Запись изменена параллельным запросом после чтения (проверка версии при сохранении)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorJson> handleOptimisticLockingFailureException(@Nonnull OptimisticLockingFailureException ex,
+                                                                             @Nonnull HttpServletRequest request) {
+        LOG.warn("Concurrent modification: {}", ex.getMessage());
+        return withStatus(
+                "Conflict",
+                HttpStatus.CONFLICT,
+                ex.getMessage(),
+                request
+        );
+    }
+
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorJson> handleException(@Nonnull Exception ex,
                                                      @Nonnull HttpServletRequest request) {
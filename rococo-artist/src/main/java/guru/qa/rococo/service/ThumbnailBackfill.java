@@ -0,0 +1,50 @@
+package guru.qa.rococo.service;
+
+import jakarta.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Догенерирует превью для записей, сохранённых до появления превью.
+ */
+@Component
+public class ThumbnailBackfill implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThumbnailBackfill.class);
+
+    private final ArtistService artistService;
+    private final boolean enabled;
+
+    @Autowired
+    public ThumbnailBackfill(ArtistService artistService,
+                             @Value("${rococo-artist.image.thumb-backfill:true}") boolean enabled) {
+        this.artistService = artistService;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> ids = artistService.getArtistIdsWithoutThumbnail();
+        int generated = 0;
+        // Каждая запись в своей транзакции, чтобы не держать в памяти все изображения сразу
+        for (UUID id : ids) {
+            if (artistService.generateThumbnail(id)) {
+                generated++;
+            }
+        }
+        if (!ids.isEmpty()) {
+            LOG.info("### Thumbnails generated: {} of {}", generated, ids.size());
+        }
+    }
+}
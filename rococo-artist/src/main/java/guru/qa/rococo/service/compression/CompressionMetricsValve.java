@@ -0,0 +1,61 @@
+package guru.qa.rococo.service.compression;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.ServletException;
+import org.apache.catalina.AccessLog;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+
+/**
+ * Метрики сжатия ответов, которое выполняет Tomcat ({@code server.compression}).
+ * <p>
+ * Tomcat вызывает {@link #log} после отправки ответа целиком, в том числе асинхронного
+ * ({@code StreamingResponseBody}), поэтому объем берется из счетчиков коннектора без обертки над телом.
+ * <p>
+ * Метрики: {@code rococo.http.compression.bytes.in} и {@code .bytes.out} - объем сжатых ответов до и после сжатия.
+ */
+public class CompressionMetricsValve extends ValveBase implements AccessLog {
+
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+
+    public CompressionMetricsValve(@Nonnull MeterRegistry meterRegistry) {
+        super(true);
+        this.bytesIn = Counter.builder("rococo.http.compression.bytes.in")
+                .description("Размер сжатых ответов до сжатия")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.bytesOut = Counter.builder("rococo.http.compression.bytes.out")
+                .description("Размер сжатых ответов после сжатия")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        getNext().invoke(request, response);
+    }
+
+    @Override
+    public void log(Request request, Response response, long time) {
+        if ("gzip".equalsIgnoreCase(response.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            bytesIn.increment(response.getContentWritten());
+            bytesOut.increment(response.getBytesWritten(false));
+        }
+    }
+
+    @Override
+    public void setRequestAttributesEnabled(boolean requestAttributesEnabled) {
+    }
+
+    @Override
+    public boolean getRequestAttributesEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package guru.qa.rococo.service.tx;
+
+import jakarta.annotation.Nonnull;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Действия, привязанные к завершению текущей транзакции.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Выполняет {@code action} после коммита текущей транзакции; при откате действие не выполняется.
+     * Вне транзакции действие выполняется сразу.
+     */
+    public static void afterCommit(@Nonnull Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
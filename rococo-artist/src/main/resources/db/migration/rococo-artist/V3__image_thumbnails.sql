@@ -0,0 +1,2 @@
+alter table "artist"
+    add column if not exists photo_thumb bytea;
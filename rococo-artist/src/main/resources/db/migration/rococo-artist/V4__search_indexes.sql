@@ -0,0 +1,17 @@
+create extension if not exists pg_trgm;
+
+-- Поиск по подстроке: Spring Data строит для *IgnoreCase условие upper(col) like upper(?),
+-- поэтому триграммный индекс построен по тому же выражению. Он же используется для нечёткого поиска.
+create index if not exists idx_artist_name_trgm
+    on "artist" using gin (upper(name) gin_trgm_ops);
+
+-- Полнотекстовый поиск: конфигурация russian стеммит кириллицу русским, а латиницу английским словарём
+alter table "artist"
+    add column if not exists search_vector tsvector
+        generated always as (
+            setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+            setweight(to_tsvector('russian', coalesce(biography, '')), 'B')
+        ) stored;
+
+create index if not exists idx_artist_search_vector
+    on "artist" using gin (search_vector);
@@ -0,0 +1,3 @@
+-- Keyset-пагинация: выборка следующей страницы по (name, id) > (:name, :id) идет по индексу без OFFSET
+create index if not exists idx_artist_name_id
+    on "artist" (name, id);
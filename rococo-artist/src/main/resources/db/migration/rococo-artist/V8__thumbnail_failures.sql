@@ -0,0 +1,3 @@
+-- Записи, для которых превью не строится (изображение не декодируется): догенерация их пропускает
+alter table "artist"
+    add column if not exists photo_thumb_failed boolean not null default false;
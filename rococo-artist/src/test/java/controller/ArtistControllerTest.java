@@ -7,17 +7,24 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Base64;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,6 +42,9 @@ class ArtistControllerTest {
     @Autowired
     private ObjectMapper om;
 
+    @MockBean
+    private KafkaTemplate<String, ArtistJson> kafkaTemplate;
+
     private final UUID existingArtistId = UUID.fromString("a9c9a9c9-a9c9-a9c9-a9c9-a9c9a9c9a9c9");
     private final UUID nonExistingArtistId = UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff");
     private final String existingArtistName = "Existing Artist";
@@ -53,6 +63,21 @@ class ArtistControllerTest {
                 .andExpect(jsonPath("$.photo").exists());
     }
 
+    @Test
+    @Sql("/testdata/singleArtist.sql")
+    void getArtist_shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        MvcResult artist = mockMvc.perform(get("/internal/artist/{id}", existingArtistId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+
+        mockMvc.perform(get("/internal/artist/{id}", existingArtistId)
+                        .header(HttpHeaders.IF_NONE_MATCH, artist.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     @Sql("/testdata/multipleArtists.sql")
     void getAllArtists_shouldReturnFilteredAndPaginatedResults() throws Exception {
@@ -85,8 +110,80 @@ class ArtistControllerTest {
                 .andExpect(jsonPath("$.photo").isNotEmpty());
     }
 
+    @Test
+    @Sql("/testdata/emptyArtists.sql")
+    void getArtistImage_shouldReturnBinaryPhotoWithCacheHeaders() throws Exception {
+        String pngBase64 = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+        byte[] png = Base64.getDecoder().decode(pngBase64);
+        ArtistJson newArtist = new ArtistJson(null, "New Artist", "New Biography", "data:image/png;base64," + pngBase64);
+
+        String created = mockMvc.perform(post("/internal/artist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(newArtist)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.photo").value(newArtist.photo()))
+                .andReturn().getResponse().getContentAsString();
+        UUID id = om.readValue(created, ArtistJson.class).id();
+
+        MvcResult image = mockMvc.perform(get("/internal/artist/{id}/image", id))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, png.length))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().bytes(png))
+                .andReturn();
+
+        mockMvc.perform(get("/internal/artist/{id}/image", id)
+                        .header(HttpHeaders.IF_NONE_MATCH, image.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Sql("/testdata/singleArtist.sql")
+    void getArtistImage_shouldDecodeLegacyPhoto() throws Exception {
+        mockMvc.perform(get("/internal/artist/{id}/image", existingArtistId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"));
+    }
+
+    @Test
+    @Sql("/testdata/multipleArtists.sql")
+    void exportArtists_shouldStreamAllArtistsAsNdjson() throws Exception {
+        // В профиле test chunk-size = 2: три художника читаются двумя порциями
+        mockMvc.perform(get("/internal/artist/export").param("images", "none"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"artists.ndjson\""))
+                .andExpect(content().string(
+                        "{\"id\":\"00000000-0000-0000-0000-000000000001\",\"name\":\"Artist 1\",\"biography\":\"" + PHOTO_PLACEHOLDER + "\"}\n" +
+                        "{\"id\":\"00000000-0000-0000-0000-000000000002\",\"name\":\"Artist 2\",\"biography\":\"" + PHOTO_PLACEHOLDER + "\"}\n" +
+                        "{\"id\":\"00000000-0000-0000-0000-000000000003\",\"name\":\"Artist 3\",\"biography\":\"" + PHOTO_PLACEHOLDER + "\"}\n"
+                ));
+    }
+
+    @Test
+    @Sql("/testdata/multipleArtists.sql")
+    void exportArtists_shouldStreamCsvWithHeader() throws Exception {
+        mockMvc.perform(get("/internal/artist/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string(
+                        "id,name,biography,photo\r\n" +
+                        "00000000-0000-0000-0000-000000000001,Artist 1," + PHOTO_PLACEHOLDER + ",\r\n" +
+                        "00000000-0000-0000-0000-000000000002,Artist 2," + PHOTO_PLACEHOLDER + ",\r\n" +
+                        "00000000-0000-0000-0000-000000000003,Artist 3," + PHOTO_PLACEHOLDER + ",\r\n"
+                ));
+    }
+
     // Negative tests
 
+    @Test
+    void getArtistImage_shouldReturnNotFoundForNonExistingId() throws Exception {
+        mockMvc.perform(get("/internal/artist/{id}/image", nonExistingArtistId))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void getArtist_shouldReturnNotFoundForNonExistingId() throws Exception {
         mockMvc.perform(get("/internal/artist/{id}", nonExistingArtistId))
@@ -178,6 +275,41 @@ class ArtistControllerTest {
                 .andExpect(jsonPath("$.photo").value(PHOTO_PLACEHOLDER));
     }
 
+    @Test
+    @Sql("/testdata/artistListShouldBeReturned.sql")
+    void artistsShouldBeReturnedByIds() throws Exception {
+        mockMvc.perform(get("/internal/artist/batch")
+                        .param("ids", "a1b2c3d4-e5f6-7890-1234-56789abcdef0", "b2c3d4e5-f678-9012-3456-789abcdef012", UUID.randomUUID().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.name == 'Claude Monet')]").exists())
+                .andExpect(jsonPath("$[?(@.name == 'Pierre-Auguste Renoir')]").exists());
+    }
+
+    @Test
+    @Sql("/testdata/artistShouldBeReturnedById.sql")
+    void artistRefShouldBeReturnedWithoutBiographyAndPhoto() throws Exception {
+        UUID fixtureArtistId = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+        mockMvc.perform(get("/internal/artist/{id}/ref", fixtureArtistId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(fixtureArtistId.toString()))
+                .andExpect(jsonPath("$.name").value("Vincent van Gogh"))
+                .andExpect(jsonPath("$.biography").doesNotExist())
+                .andExpect(jsonPath("$.photo").doesNotExist());
+    }
+
+    @Test
+    @Sql("/testdata/artistListShouldBeReturned.sql")
+    void artistRefsShouldBeReturnedByIds() throws Exception {
+        mockMvc.perform(get("/internal/artist/refs")
+                        .param("ids", "a1b2c3d4-e5f6-7890-1234-56789abcdef0", "b2c3d4e5-f678-9012-3456-789abcdef012"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[*].photo").isEmpty())
+                .andExpect(jsonPath("$[?(@.name == 'Claude Monet')]").exists());
+    }
+
     @Test
     void notFoundExceptionShouldBeReturned() throws Exception {
         UUID nonExistentId = UUID.randomUUID();
@@ -245,4 +377,11 @@ class ArtistControllerTest {
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.detail").value("id: ID художника обязателен для заполнения"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void badRequestExceptionShouldBeThrownOnUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/internal/artist/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("format: Неизвестный формат выгрузки 'xml'"));
+    }
+}
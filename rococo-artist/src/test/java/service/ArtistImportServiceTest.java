@@ -0,0 +1,88 @@
+package service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.data.ArtistEntity;
+import guru.qa.rococo.data.repository.ArtistRepository;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.service.ArtistImportService;
+import guru.qa.rococo.service.ThumbnailGenerator;
+import guru.qa.rococo.service.bulk.BulkImporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ArtistImportServiceTest {
+
+    @Mock
+    private ArtistRepository artistRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private ArtistImportService artistImportService;
+
+    private final List<List<String>> savedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        artistImportService = new ArtistImportService(artistRepository, new ThumbnailGenerator(320, 0.8),
+                new BulkImporter(new ObjectMapper(), transactionManager, 2, DataSize.ofMegabytes(16)));
+    }
+
+    @Test
+    void importShouldReportRecordErrorsWithoutAbortingStream() throws Exception {
+        when(artistRepository.findNamesIn(any())).thenReturn(List.of("Taken"));
+        when(artistRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ArtistEntity> entities = invocation.getArgument(0);
+            savedBatches.add(entities.stream().map(ArtistEntity::getName).toList());
+            if (entities.stream().anyMatch(entity -> entity.getName().equals("Boom"))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            return entities;
+        });
+        String ndjson = """
+                {"name":"Repin","biography":"Передвижник"}
+
+                {"name":
+                {"name":"Taken","biography":"Уже есть"}
+                {"name":"Boom","biography":"Нарушает ограничение"}
+                {"name":"Shishkin","biography":"Пейзажист"}
+                {"name":" ","biography":"Без имени"}
+                """;
+
+        BulkResultJson result = artistImportService.importArtists(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.total()).isEqualTo(6);
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.failed()).isEqualTo(4);
+        assertThat(result.errors()).extracting(BulkErrorJson::line).containsExactly(3, 4, 5, 7);
+        assertThat(result.errors().get(2).message()).contains("duplicate key");
+        // Порция с ошибкой вставки откатывается и сохраняется по одной записи
+        assertThat(savedBatches).containsExactly(
+                List.of("Repin"),
+                List.of("Boom", "Shishkin"),
+                List.of("Boom"),
+                List.of("Shishkin")
+        );
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+}
@@ -1,11 +1,21 @@
 package service;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.data.ArtistEntity;
+import guru.qa.rococo.data.SearchRow;
 import guru.qa.rococo.data.repository.ArtistRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.Cursor;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.StoredImage;
+import guru.qa.rococo.model.Tagged;
 import guru.qa.rococo.service.ArtistService;
+import guru.qa.rococo.service.ThumbnailGenerator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,21 +27,31 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 
 @ExtendWith(MockitoExtension.class)
 public class ArtistServiceTest {
     @Mock
     private ArtistRepository artistRepository;
+    @Mock
+    private KafkaTemplate<String, ArtistJson> kafkaTemplate;
     private ArtistService artistService;
 
     private UUID artistId;
@@ -47,7 +67,9 @@ public class ArtistServiceTest {
 
     @BeforeEach
     void setUp() {
-        artistService = new ArtistService(artistRepository);
+        artistService = new ArtistService(artistRepository, kafkaTemplate,
+                new ImageSettings(true, "/api/artist", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
         artistId = UUID.randomUUID();
         artistEntity = new ArtistEntity();
         artistEntity.setId(artistId);
@@ -77,6 +99,21 @@ public class ArtistServiceTest {
         assertThat(result.photo()).isEqualTo(photo);
     }
 
+    @Test
+    void getArtistIfModifiedShouldReturnBodyOnlyForChangedEtag() {
+        Mockito.when(artistRepository.findById(artistId)).thenReturn(Optional.of(artistEntity));
+        artistEntity.setVersion(3L);
+
+        Tagged<ArtistJson> modified = artistService.getArtistIfModified(artistId, etag -> false);
+        Tagged<ArtistJson> notModified = artistService.getArtistIfModified(artistId, modified.etag()::equals);
+
+        assertThat(modified.etag()).isEqualTo("\"3\"");
+        assertThat(modified.body()).isNotNull();
+        assertThat(modified.body().photo()).isEqualTo(photo);
+        assertThat(notModified.notModified()).isTrue();
+        assertThat(notModified.etag()).isEqualTo(modified.etag());
+    }
+
     @Test
     void getArtistByIdShouldThrowExceptionForInvalidId() {
         UUID nonExistentId = UUID.randomUUID();
@@ -118,6 +155,48 @@ public class ArtistServiceTest {
         assertThat(result.getContent().getFirst().name()).isEqualTo(name);
     }
 
+    @Test
+    void getArtistsByIdsShouldReturnArtistsInOneQuery() {
+        List<UUID> ids = List.of(artistId, artistEntity2.getId());
+        Mockito.when(artistRepository.findAllById(ids)).thenReturn(List.of(artistEntity, artistEntity2));
+
+        List<ArtistJson> result = artistService.getArtistsByIds(ids);
+
+        Mockito.verify(artistRepository, Mockito.times(1)).findAllById(ids);
+        assertThat(result)
+                .extracting(ArtistJson::id, ArtistJson::name)
+                .containsExactly(
+                        tuple(artistId, name),
+                        tuple(artistEntity2.getId(), name2)
+                );
+    }
+
+    @Test
+    void getArtistsByIdsShouldLoadPhotosWithSingleQuery() {
+        List<UUID> ids = List.of(artistId, artistEntity2.getId());
+        Mockito.when(artistRepository.findAllById(ids)).thenReturn(List.of(artistEntity, artistEntity2));
+        Mockito.when(artistRepository.findPhotosByIdIn(Set.copyOf(ids))).thenReturn(List.of(
+                new StoredImage(artistId, null, photo.getBytes(StandardCharsets.UTF_8)),
+                new StoredImage(artistEntity2.getId(), null, photo2.getBytes(StandardCharsets.UTF_8))
+        ));
+
+        List<ArtistJson> result = artistService.getArtistsByIds(ids);
+
+        Mockito.verify(artistRepository, Mockito.times(1)).findPhotosByIdIn(Set.copyOf(ids));
+        assertThat(result)
+                .extracting(ArtistJson::id, ArtistJson::photo)
+                .containsExactly(
+                        tuple(artistId, photo),
+                        tuple(artistEntity2.getId(), photo2)
+                );
+    }
+
+    @Test
+    void getArtistsByIdsShouldNotQueryRepositoryForEmptyIds() {
+        assertThat(artistService.getArtistsByIds(List.of())).isEmpty();
+        Mockito.verifyNoInteractions(artistRepository);
+    }
+
     @Test
     void addArtistShouldSaveAndReturnArtist() {
         Mockito.when(artistRepository.save(any(ArtistEntity.class))).thenReturn(artistEntity2);
@@ -137,6 +216,178 @@ public class ArtistServiceTest {
         assertThat(captor.getValue().getPhoto()).isEqualTo(photo2.getBytes(StandardCharsets.UTF_8));
     }
 
+    @Test
+    void addArtistShouldStoreDecodedPhotoWithMimeType() {
+        String pngBase64 = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+        String dataUri = "data:image/png;base64," + pngBase64;
+        Mockito.when(artistRepository.save(any(ArtistEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        ArtistJson result = artistService.addArtist(new ArtistJson(null, name2, biography2, dataUri));
+
+        ArgumentCaptor<ArtistEntity> captor = ArgumentCaptor.forClass(ArtistEntity.class);
+        Mockito.verify(artistRepository).save(captor.capture());
+        assertThat(captor.getValue().getPhoto()).isEqualTo(Base64.getDecoder().decode(pngBase64));
+        assertThat(captor.getValue().getPhotoMime()).isEqualTo("image/png");
+        assertThat(result.photo()).isEqualTo(dataUri);
+    }
+
+    @Test
+    void updateArtistShouldReturnPhotoUrlForPhotoAddedInSameSession() {
+        artistService = new ArtistService(artistRepository, kafkaTemplate,
+                new ImageSettings(false, "http://127.0.0.1:8090/api/artist", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
+        // Загружен без фото: формула размера при чтении дала 0
+        artistEntity.setPhoto(null);
+        Mockito.when(artistRepository.findById(artistId)).thenReturn(Optional.of(artistEntity));
+        Mockito.when(artistRepository.save(artistEntity)).thenReturn(artistEntity);
+
+        ArtistJson result = artistService.updateArtist(new ArtistJson(artistId, null, null, photo));
+
+        assertThat(artistEntity.hasPhoto()).isTrue();
+        assertThat(result.photo()).isEqualTo("http://127.0.0.1:8090/api/artist/" + artistId + "/image");
+    }
+
+    @Test
+    void getArtistByIdShouldReturnPhotoUrlWhenInlineModeIsDisabled() {
+        artistService = new ArtistService(artistRepository, kafkaTemplate,
+                new ImageSettings(false, "http://127.0.0.1:8090/api/artist", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
+        Mockito.when(artistRepository.findById(artistId)).thenReturn(Optional.of(artistEntity));
+
+        ArtistJson result = artistService.getArtistById(artistId);
+
+        assertThat(result.photo()).isEqualTo("http://127.0.0.1:8090/api/artist/" + artistId + "/image");
+    }
+
+    @Test
+    void addArtistShouldStoreJpegThumbnail() {
+        String dataUri = "data:image/png;base64,iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==";
+        Mockito.when(artistRepository.save(any(ArtistEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        artistService.addArtist(new ArtistJson(null, name2, biography2, dataUri));
+
+        ArgumentCaptor<ArtistEntity> captor = ArgumentCaptor.forClass(ArtistEntity.class);
+        Mockito.verify(artistRepository).save(captor.capture());
+        byte[] thumb = captor.getValue().getPhotoThumb();
+        assertThat(thumb).isNotEmpty();
+        // JPEG начинается с маркера SOI 0xFFD8
+        assertThat(thumb[0]).isEqualTo((byte) 0xFF);
+        assertThat(thumb[1]).isEqualTo((byte) 0xD8);
+    }
+
+    @Test
+    void getAllArtistsShouldReturnThumbnailForThumbVariant() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        UUID artistId2 = artistEntity2.getId();
+        Mockito.when(artistRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(artistEntity, artistEntity2)));
+        Mockito.when(artistRepository.findThumbnailsByIdIn(Set.of(artistId, artistId2)))
+                .thenReturn(List.of(new StoredImage(artistId, "image/png", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})));
+        Mockito.when(artistRepository.findPhotosByIdIn(Set.of(artistId2)))
+                .thenReturn(List.of(new StoredImage(artistId2, null, photo2.getBytes(StandardCharsets.UTF_8))));
+
+        Page<ArtistJson> result = artistService.getAllArtists(pageable, null, ImageVariant.THUMB);
+
+        assertThat(result.getContent().get(0).photo()).isEqualTo("data:image/jpeg;base64,/9j/");
+        // Без превью возвращается полное изображение
+        assertThat(result.getContent().get(1).photo()).isEqualTo(photo2);
+    }
+
+    @Test
+    void getAllArtistsShouldReturnThumbnailUrlWhenInlineModeIsDisabled() {
+        artistService = new ArtistService(artistRepository, kafkaTemplate,
+                new ImageSettings(false, "http://127.0.0.1:8090/api/artist", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
+        PageRequest pageable = PageRequest.of(0, 10);
+        Mockito.when(artistRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(artistEntity)));
+
+        Page<ArtistJson> result = artistService.getAllArtists(pageable, null, ImageVariant.THUMB);
+
+        assertThat(result.getContent().get(0).photo())
+                .isEqualTo("http://127.0.0.1:8090/api/artist/" + artistId + "/image?variant=thumb");
+    }
+
+    @Test
+    void scrollArtistsShouldReturnCursorOfLastArtist() {
+        PageRequest request = PageRequest.of(0, 2);
+        Mockito.when(artistRepository.findSlice(request))
+                .thenReturn(new SliceImpl<>(List.of(artistEntity, artistEntity2), request, true));
+        Mockito.when(artistRepository.findPhotosByIdIn(Set.of(artistId, artistEntity2.getId()))).thenReturn(List.of());
+
+        SliceJson<ArtistJson> result = artistService.scrollArtists(null, 2, null, ImageVariant.FULL);
+
+        assertThat(result.content()).extracting(ArtistJson::id).containsExactly(artistId, artistEntity2.getId());
+        assertThat(result.hasNext()).isTrue();
+        assertThat(Cursor.parse(result.next())).isEqualTo(new Cursor(name2, artistEntity2.getId()));
+    }
+
+    @Test
+    void scrollArtistsShouldSeekAfterCursor() {
+        PageRequest request = PageRequest.of(0, 20);
+        String after = new Cursor(name, artistId).encode();
+        Mockito.when(artistRepository.findSliceByNameAfter("Леонардо", name, artistId, request))
+                .thenReturn(new SliceImpl<>(List.of(artistEntity2), request, false));
+        Mockito.when(artistRepository.findPhotosByIdIn(Set.of(artistEntity2.getId()))).thenReturn(List.of());
+
+        SliceJson<ArtistJson> result = artistService.scrollArtists(after, 20, " Леонардо ", ImageVariant.FULL);
+
+        assertThat(result.content()).extracting(ArtistJson::name).containsExactly(name2);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.next()).isNull();
+    }
+
+    @Test
+    void scrollArtistsShouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> artistService.scrollArtists("not-a-cursor", 20, null, ImageVariant.FULL))
+                .isInstanceOf(BadRequestException.class);
+        Mockito.verifyNoInteractions(artistRepository);
+    }
+
+    @Test
+    void searchArtistsShouldBuildPrefixQueryAndMapRanks() {
+        PageRequest pageable = PageRequest.of(0, 10, Sort.by("name"));
+        SearchRow row = Mockito.mock(SearchRow.class);
+        Mockito.when(row.getId()).thenReturn(artistId);
+        Mockito.when(row.getTitle()).thenReturn(name);
+        Mockito.when(row.getSnippet()).thenReturn("\uE000Пушкин\uE001 <script>alert(1)</script>");
+        Mockito.when(row.getRank()).thenReturn(0.75);
+        Mockito.when(artistRepository.search("пушкин алекс", "пушкин:* & алекс:*", PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        Page<SearchHitJson> result = artistService.searchArtists("  Пушкин, Алекс! ", pageable);
+
+        assertThat(result.getContent())
+                .containsExactly(new SearchHitJson(artistId, name, "<mark>Пушкин</mark> &lt;script&gt;alert(1)&lt;/script&gt;", 0.75));
+    }
+
+    @Test
+    void searchArtistsShouldRejectQueryWithoutWords() {
+        assertThatThrownBy(() -> artistService.searchArtists(" & | !", PageRequest.of(0, 10)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("query:");
+        Mockito.verifyNoInteractions(artistRepository);
+    }
+
+    @Test
+    void getArtistImageShouldDecodeLegacyPhoto() {
+        artistEntity.setPhoto("data:image/jpeg;base64,/9j/4AAQSkZJRg==".getBytes(StandardCharsets.UTF_8));
+        Mockito.when(artistRepository.findById(artistId)).thenReturn(Optional.of(artistEntity));
+
+        ImageData image = artistService.getArtistImage(artistId);
+
+        assertThat(image.mimeType()).isEqualTo("image/jpeg");
+        assertThat(image.content()).isEqualTo(Base64.getDecoder().decode("/9j/4AAQSkZJRg=="));
+    }
+
+    @Test
+    void getArtistImageShouldThrowNotFoundExceptionIfPhotoIsMissing() {
+        artistEntity.setPhoto(null);
+        Mockito.when(artistRepository.findById(artistId)).thenReturn(Optional.of(artistEntity));
+
+        assertThatThrownBy(() -> artistService.getArtistImage(artistId))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Artist photo not found id:" + artistId);
+    }
+
     @Test
     void updateArtistShouldModifyAndReturnArtist() {
         artistEntity2.setId(artistId);
@@ -168,6 +419,33 @@ public class ArtistServiceTest {
                         biography2,
                         photo2.getBytes(StandardCharsets.UTF_8)
                 );
+
+        Mockito.verify(kafkaTemplate).send(
+                "artist-updated",
+                artistId.toString(),
+                new ArtistJson(artistId, name2, biography2, null)
+        );
+    }
+
+    @Test
+    void artistUpdatedEventShouldBeSentAfterCommit() {
+        artistEntity2.setId(artistId);
+        Mockito.when(artistRepository.findById(artistId)).thenReturn(Optional.of(artistEntity));
+        Mockito.when(artistRepository.save(any(ArtistEntity.class))).thenReturn(artistEntity2);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            artistService.updateArtist(ArtistJson.fromEntity(artistEntity2));
+            Mockito.verifyNoInteractions(kafkaTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Mockito.verify(kafkaTemplate).send(
+                "artist-updated",
+                artistId.toString(),
+                new ArtistJson(artistId, name2, biography2, null)
+        );
     }
 
     @Test
@@ -177,6 +455,7 @@ public class ArtistServiceTest {
         assertThatThrownBy(() -> artistService.updateArtist(ArtistJson.fromEntity(artistEntity)))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Artist not found id:" + artistId);
+        Mockito.verifyNoInteractions(kafkaTemplate);
     }
 
     @Test
@@ -0,0 +1,89 @@
+package service;
+
+import guru.qa.rococo.data.id.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    void idShouldCarryVersionVariantAndCreationTime() {
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        UUID id = generator.generate();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(NOW.toEpochMilli());
+    }
+
+    @Test
+    void idsWithinSameMillisecondShouldBeStrictlyIncreasing() {
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        List<UUID> ids = new ArrayList<>();
+        // Больше 4096 id за миллисекунду: счетчик переполняется в метку времени
+        for (int i = 0; i < 5000; i++) {
+            ids.add(generator.generate());
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(ids.size());
+        assertThat(ids).isSortedAccordingTo(UuidV7GeneratorTest::compareAsPostgres);
+    }
+
+    @Test
+    void idsShouldStayOrderedWhenClockGoesBackwards() {
+        MutableClock clock = new MutableClock(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock);
+
+        UUID before = generator.generate();
+        clock.now = NOW.minusSeconds(5);
+        UUID after = generator.generate();
+
+        assertThat(compareAsPostgres(before, after)).isNegative();
+    }
+
+    // PostgreSQL сравнивает uuid побайтно без знака, UUID.compareTo - как два long со знаком
+    private static int compareAsPostgres(UUID left, UUID right) {
+        int msb = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return msb != 0
+                ? msb
+                : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
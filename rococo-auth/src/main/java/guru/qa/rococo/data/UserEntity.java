@@ -1,5 +1,6 @@
 package guru.qa.rococo.data;
 
+import guru.qa.rococo.data.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -21,7 +22,7 @@ import static jakarta.persistence.FetchType.EAGER;
 public class UserEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidV7
     @Column(name = "id", nullable = false, columnDefinition = "BINARY(16)")
     private UUID id;
 
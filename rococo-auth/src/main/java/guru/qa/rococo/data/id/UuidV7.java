@@ -0,0 +1,21 @@
+package guru.qa.rococo.data.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Идентификатор сущности - UUID версии 7 (RFC 9562), упорядоченный по времени создания.
+ * Новые записи попадают в конец индекса первичного ключа, а не в случайную его страницу,
+ * и keyset-выборки по id возвращают записи в порядке создания.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface UuidV7 {
+}
@@ -42,6 +42,9 @@ public class ArtistEntity implements Serializable {
     @Column(name = "photo", columnDefinition = "bytea")
     private byte[] photo;
 
+    @Column(name = "photo_mime", length = 50)
+    private String photoMime;
+
 
     @Override
     public final boolean equals(Object o) {
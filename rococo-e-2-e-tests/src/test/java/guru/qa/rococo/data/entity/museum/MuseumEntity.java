@@ -42,6 +42,9 @@ public class MuseumEntity implements Serializable {
     @Column(columnDefinition = "bytea", nullable = false)
     private byte[] photo;
 
+    @Column(name = "photo_mime", length = 50)
+    private String photoMime;
+
     /**
      * Геолокация, в которой находится музей.
      * Аннотация @ManyToOne указывает на связь "многие к одному" между музеем и геолокацией.
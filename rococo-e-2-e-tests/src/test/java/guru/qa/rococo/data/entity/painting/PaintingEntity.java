@@ -80,6 +80,12 @@ public class PaintingEntity implements Serializable {
     @Column(name = "content", columnDefinition = "bytea", nullable = false)
     private byte[] content;
 
+    /**
+     * MIME-тип изображения; null у legacy-записей, где content хранит текст data URI.
+     */
+    @Column(name = "content_mime", length = 50)
+    private String contentMime;
+
     /**
      * Переопределение метода equals для сравнения объектов PaintingEntity.
      * Сравнение происходит по идентификатору (id).
@@ -35,6 +35,9 @@ public class UserEntity implements Serializable {
     @Column(name = "avatar", columnDefinition = "bytea")
     private byte[] avatar;
 
+    @Column(name = "avatar_mime", length = 50)
+    private String avatarMime;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
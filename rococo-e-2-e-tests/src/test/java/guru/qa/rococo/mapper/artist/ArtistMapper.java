@@ -2,10 +2,9 @@ package guru.qa.rococo.mapper.artist;
 
 import guru.qa.rococo.data.entity.artist.ArtistEntity;
 import guru.qa.rococo.model.rest.artist.ArtistJson;
+import guru.qa.rococo.utils.PhotoConverter;
 import lombok.NonNull;
 
-import java.nio.charset.StandardCharsets;
-
 public class ArtistMapper {
 
   /**
@@ -19,9 +18,7 @@ public class ArtistMapper {
         entity.getId(),
         entity.getName(),
         entity.getBiography(),
-        entity.getPhoto() != null && entity.getPhoto().length > 0
-            ? new String(entity.getPhoto(), StandardCharsets.UTF_8)
-            : null
+        PhotoConverter.toDataUri(entity.getPhoto(), entity.getPhotoMime())
     );
   }
 
@@ -36,7 +33,8 @@ public class ArtistMapper {
         json.id(),
         json.name(),
         json.biography(),
-        json.photo() != null ? json.photo().getBytes(StandardCharsets.UTF_8) : null
+        PhotoConverter.convert(json.photo()),
+        PhotoConverter.mimeType(json.photo())
     );
   }
 }
@@ -2,10 +2,9 @@ package guru.qa.rococo.mapper.museum;
 
 import guru.qa.rococo.data.entity.museum.MuseumEntity;
 import guru.qa.rococo.model.rest.museum.MuseumJson;
+import guru.qa.rococo.utils.PhotoConverter;
 import lombok.NonNull;
 
-import java.nio.charset.StandardCharsets;
-
 public class MuseumMapper {
 
   /**
@@ -19,9 +18,7 @@ public class MuseumMapper {
         entity.getId(),
         entity.getTitle(),
         entity.getDescription(),
-        entity.getPhoto() != null && entity.getPhoto().length > 0
-            ? new String(entity.getPhoto(), StandardCharsets.UTF_8)
-            : null,
+        PhotoConverter.toDataUri(entity.getPhoto(), entity.getPhotoMime()),
         GeoMapper.mapToJson(entity.getGeo())
     );
   }
@@ -37,7 +34,8 @@ public class MuseumMapper {
         json.id(),
         json.title(),
         json.description(),
-        json.photo() != null ? json.photo().getBytes(StandardCharsets.UTF_8) : null,
+        PhotoConverter.convert(json.photo()),
+        PhotoConverter.mimeType(json.photo()),
         json.geo() != null ? GeoMapper.mapToEntity(json.geo()) : null
     );
   }
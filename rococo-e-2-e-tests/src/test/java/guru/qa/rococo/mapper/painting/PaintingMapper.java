@@ -4,10 +4,9 @@ import guru.qa.rococo.data.entity.painting.PaintingEntity;
 import guru.qa.rococo.model.rest.artist.ArtistJson;
 import guru.qa.rococo.model.rest.museum.MuseumJson;
 import guru.qa.rococo.model.rest.painting.PaintingJson;
+import guru.qa.rococo.utils.PhotoConverter;
 import lombok.NonNull;
 
-import java.nio.charset.StandardCharsets;
-
 public class PaintingMapper {
 
 
@@ -22,9 +21,7 @@ public class PaintingMapper {
                 entity.getId(),
                 entity.getTitle(),
                 entity.getDescription(),
-                entity.getContent() != null && entity.getContent().length > 0
-                        ? new String(entity.getContent(), StandardCharsets.UTF_8)
-                        : null,
+                PhotoConverter.toDataUri(entity.getContent(), entity.getContentMime()),
                 artist,
                 museum
         );
@@ -43,7 +40,8 @@ public class PaintingMapper {
                 json.description(),
                 json.artist() != null ? json.artist().id() : null,
                 json.museum() != null ? json.museum().id() : null,
-                json.content() != null ? json.content().getBytes(StandardCharsets.UTF_8) : null
+                PhotoConverter.convert(json.content()),
+                PhotoConverter.mimeType(json.content())
         );
     }
 }
\ No newline at end of file
@@ -2,10 +2,9 @@ package guru.qa.rococo.mapper.userdata;
 
 import guru.qa.rococo.data.entity.userdata.UserEntity;
 import guru.qa.rococo.model.rest.userdata.UserJson;
+import guru.qa.rococo.utils.PhotoConverter;
 import lombok.NonNull;
 
-import java.nio.charset.StandardCharsets;
-
 public class UserdataMapper {
 
     /**
@@ -20,9 +19,7 @@ public class UserdataMapper {
                 entity.getUsername(),
                 entity.getFirstname(),
                 entity.getLastname(),
-                entity.getAvatar() != null && entity.getAvatar().length > 0
-                        ? new String(entity.getAvatar(), StandardCharsets.UTF_8)
-                        : null,
+                PhotoConverter.toDataUri(entity.getAvatar(), entity.getAvatarMime()),
             ""
         );
     }
@@ -39,7 +36,8 @@ public class UserdataMapper {
                 json.username(),
                 json.firstname(),
                 json.lastname(),
-                json.avatar() != null ? json.avatar().getBytes(StandardCharsets.UTF_8) : null
+                PhotoConverter.convert(json.avatar()),
+                PhotoConverter.mimeType(json.avatar())
         );
     }
 }
@@ -38,6 +38,27 @@ public class PhotoConverter {
     return str.getBytes(StandardCharsets.UTF_8);
   }
 
+  /**
+   * Изображение из БД сервиса в data URI: при заданном MIME-типе байты хранятся в бинарном виде,
+   * без него - legacy-запись с текстом data URI.
+   */
+  @Nullable
+  public static String toDataUri(@Nullable byte[] content, @Nullable String mimeType) {
+    if (content == null || content.length == 0) return null;
+    return mimeType == null
+        ? new String(content, StandardCharsets.UTF_8)
+        : "data:" + mimeType + ";base64," + Base64.getEncoder().encodeToString(content);
+  }
+
+  /**
+   * MIME-тип data URI для колонки *_mime; null, если строка не data URI.
+   */
+  @Nullable
+  public static String mimeType(@Nullable String dataUri) {
+    if (StringUtils.isEmpty(dataUri) || !dataUri.startsWith("data:") || !dataUri.contains(";base64,")) return null;
+    return dataUri.substring("data:".length(), dataUri.indexOf(";base64,"));
+  }
+
   @Nullable
   public static String convert(@Nullable byte[] bytes) {
     if (bytes == null || bytes.length == 0) return null;
@@ -0,0 +1,51 @@
+package guru.qa.rococo.config;
+
+import jakarta.annotation.Nonnull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Настройки HTTP-клиентов к микросервисам: отдельный пул соединений и таймауты на каждый сервис.
+ * <p>
+ * Ключ {@code routes} - имя сервиса ({@code artist}, {@code museum}, ...);
+ * для сервиса без настроек используются значения по умолчанию.
+ */
+@ConfigurationProperties(prefix = "rococo-gateway.http")
+public record HttpClientProperties(Map<String, Route> routes) {
+
+    public HttpClientProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    public @Nonnull Route route(@Nonnull String name) {
+        return routes.getOrDefault(name, Route.DEFAULT);
+    }
+
+    /**
+     * @param maxConnections Размер пула (keep-alive соединения переиспользуются)
+     * @param connectTimeout Таймаут установки соединения
+     * @param readTimeout    Таймаут ожидания ответа
+     * @param poolTimeout    Максимальное ожидание свободного соединения из пула
+     * @param timeToLive     Время жизни соединения, после которого оно пересоздается
+     * @param idleTimeout    Простаивающие дольше соединения закрываются
+     */
+    public record Route(@DefaultValue("50") int maxConnections,
+                        @DefaultValue("2s") Duration connectTimeout,
+                        @DefaultValue("5s") Duration readTimeout,
+                        @DefaultValue("1s") Duration poolTimeout,
+                        @DefaultValue("5m") Duration timeToLive,
+                        @DefaultValue("30s") Duration idleTimeout) {
+
+        static final Route DEFAULT = new Route(
+                50,
+                Duration.ofSeconds(2),
+                Duration.ofSeconds(5),
+                Duration.ofSeconds(1),
+                Duration.ofMinutes(5),
+                Duration.ofSeconds(30)
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package guru.qa.rococo.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import guru.qa.rococo.service.jwt.CachingJwtDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка JWT в gateway: ключи rococo-auth (JWKS) и кэш проверенных токенов.
+ * <p>
+ * Вместо ленивого декодера Spring Boot ключи загружаются при старте и обновляются заранее, до
+ * истечения {@code jwks-ttl}, в фоне. rococo-auth генерирует новый ключ при каждом перезапуске:
+ * токен с неизвестным {@code kid} вызывает внеочередную загрузку JWKS (не чаще раза в 30 секунд).
+ * Допустимые алгоритмы подписи задает {@code spring.security.oauth2.resourceserver.jwt.jws-algorithms}
+ * (по умолчанию RS256). Проверенные токены кэшируются в {@link CachingJwtDecoder}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class JwtDecoderConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JwtDecoderConfiguration.class);
+
+    private static final int JWKS_TIMEOUT_MILLIS = 2000;
+    private static final int JWKS_SIZE_LIMIT = 50 * 1024;
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(
+            @Value("${rococo-gateway.jwt.jwk-set-uri:${spring.security.oauth2.resourceserver.jwt.issuer-uri}/oauth2/jwks}") String jwkSetUri,
+            @Value("${rococo-gateway.jwt.jwks-ttl:15m}") Duration jwksTtl,
+            @Value("${rococo-gateway.jwt.jwks-refresh-ahead:1m}") Duration jwksRefreshAhead) throws MalformedURLException {
+        return JWKSourceBuilder.<SecurityContext>create(
+                        URI.create(jwkSetUri).toURL(),
+                        new DefaultResourceRetriever(JWKS_TIMEOUT_MILLIS, JWKS_TIMEOUT_MILLIS, JWKS_SIZE_LIMIT)
+                )
+                .cache(jwksTtl.toMillis(), JWKS_TIMEOUT_MILLIS)
+                .refreshAheadCache(jwksRefreshAhead.toMillis(), true)
+                .retrying(true)
+                .build();
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+                                 @Value("${spring.security.oauth2.resourceserver.jwt.jws-algorithms:RS256}") List<String> jwsAlgorithms,
+                                 @Value("${rococo-gateway.jwt.cache-size:10000}") long cacheSize,
+                                 @Value("${rococo-gateway.jwt.cache-max-ttl:10m}") Duration cacheMaxTtl) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        // Тот же параметр, что у декодера Spring Boot в профиле reactive
+        Set<JWSAlgorithm> algorithms = jwsAlgorithms.stream()
+                .map(algorithm -> JWSAlgorithm.parse(algorithm.trim()))
+                .collect(Collectors.toUnmodifiableSet());
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSource));
+        // exp, nbf и iss проверяют валидаторы Spring Security, как в декодере по умолчанию
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return new CachingJwtDecoder(decoder, meterRegistry, cacheSize, cacheMaxTtl);
+    }
+
+    @Bean
+    public ApplicationRunner jwksPrefetch(JWKSource<SecurityContext> jwkSource) {
+        return args -> {
+            try {
+                int keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null).size();
+                LOG.info("### JWKS prefetched: {} key(s)", keys);
+            } catch (KeySourceException e) {
+                // rococo-auth недоступен: ключи загрузятся при первом запросе с токеном
+                LOG.warn("### JWKS prefetch failed: {}", e.getMessage());
+            }
+        };
+    }
+}
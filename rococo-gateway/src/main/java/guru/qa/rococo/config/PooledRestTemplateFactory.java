@@ -0,0 +1,103 @@
+package guru.qa.rococo.config;
+
+import guru.qa.rococo.service.resilience.DownstreamGuardHandler;
+import guru.qa.rococo.service.resilience.DownstreamGuards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.Nonnull;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Создает RestTemplate на Apache HttpClient 5 с отдельным пулом соединений для каждого сервиса.
+ * <p>
+ * Соединения переиспользуются (keep-alive), ожидание свободного соединения, подключение и ответ
+ * ограничены таймаутами, поэтому медленный сервис не занимает потоки бесконечно и не выбирает
+ * соединения других сервисов. Заполненность пулов публикуется в actuator как метрики
+ * {@code httpcomponents.httpclient.pool.*} с тегом {@code httpclient=<имя сервиса>}.
+ * HttpClient запрашивает ответы сжатыми ({@code Accept-Encoding: gzip, x-gzip, deflate}) и распаковывает
+ * их сам, поэтому большие JSON с изображениями между сервисами передаются в gzip.
+ * <p>
+ * Каждый запрос проходит через {@link guru.qa.rococo.service.resilience.DownstreamGuard} сервиса:
+ * при перегрузке или недоступности сервиса вызов отклоняется сразу, без ожидания таймаутов.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PooledRestTemplateFactory implements DisposableBean {
+
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final HttpClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final DownstreamGuards downstreamGuards;
+    private final List<CloseableHttpClient> clients = new CopyOnWriteArrayList<>();
+
+    public PooledRestTemplateFactory(RestTemplateBuilder restTemplateBuilder,
+                                     HttpClientProperties properties,
+                                     MeterRegistry meterRegistry,
+                                     DownstreamGuards downstreamGuards) {
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.downstreamGuards = downstreamGuards;
+    }
+
+    public @Nonnull RestTemplate create(@Nonnull String name) {
+        HttpClientProperties.Route route = properties.route(name);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(route.maxConnections())
+                .setMaxConnPerRoute(route.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(timeout(route.connectTimeout()))
+                        .setSocketTimeout(timeout(route.readTimeout()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(route.timeToLive().toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(timeout(route.poolTimeout()))
+                        .setResponseTimeout(timeout(route.readTimeout()))
+                        .build())
+                .addExecInterceptorFirst("downstream-guard", new DownstreamGuardHandler(downstreamGuards.guard(name)))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(route.idleTimeout().toMillis()))
+                .build();
+        clients.add(client);
+
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(client))
+                .build();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (CloseableHttpClient client : clients) {
+            client.close();
+        }
+    }
+
+    private static @Nonnull Timeout timeout(@Nonnull Duration duration) {
+        return Timeout.ofMilliseconds(duration.toMillis());
+    }
+}
@@ -0,0 +1,68 @@
+package guru.qa.rococo.config;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Создает WebClient на Reactor Netty с отдельным пулом соединений для каждого сервиса
+ * (неблокирующий аналог {@link PooledRestTemplateFactory}, профиль {@code reactive}).
+ * <p>
+ * Настройки пула и таймауты берутся из тех же {@code rococo-gateway.http.routes}.
+ * Ожидающий ответа запрос не занимает поток, поэтому число одновременных запросов
+ * ограничено только размером пула. Заполненность пулов публикуется в actuator как метрики
+ * {@code reactor.netty.connection.provider.*} с тегом {@code name=<имя сервиса>}.
+ * Ответы запрашиваются сжатыми ({@code Accept-Encoding: gzip}) и распаковываются клиентом.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PooledWebClientFactory implements DisposableBean {
+
+    private final WebClient.Builder webClientBuilder;
+    private final HttpClientProperties properties;
+    private final List<ConnectionProvider> providers = new CopyOnWriteArrayList<>();
+
+    public PooledWebClientFactory(WebClient.Builder webClientBuilder,
+                                  HttpClientProperties properties) {
+        this.webClientBuilder = webClientBuilder;
+        this.properties = properties;
+    }
+
+    public @Nonnull WebClient create(@Nonnull String name) {
+        HttpClientProperties.Route route = properties.route(name);
+
+        ConnectionProvider provider = ConnectionProvider.builder(name)
+                .maxConnections(route.maxConnections())
+                .pendingAcquireTimeout(route.poolTimeout())
+                .maxIdleTime(route.idleTimeout())
+                .maxLifeTime(route.timeToLive())
+                .metrics(true)
+                .build();
+        providers.add(provider);
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(route.connectTimeout().toMillis()))
+                .responseTimeout(route.readTimeout())
+                .compress(true);
+
+        return webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        for (ConnectionProvider provider : providers) {
+            provider.dispose();
+        }
+    }
+}
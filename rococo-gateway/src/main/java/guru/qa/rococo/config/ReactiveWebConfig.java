@@ -0,0 +1,27 @@
+package guru.qa.rococo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+/**
+ * Настройки WebFlux для профиля {@code reactive}.
+ * <p>
+ * Spring Data регистрирует резолвер {@code Pageable} только для Spring MVC, поэтому
+ * для реактивных контроллеров он подключается явно (с поддержкой {@code @PageableDefault}).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(
+                new ReactivePageableHandlerMethodArgumentResolver(),
+                new ReactiveSortHandlerMethodArgumentResolver()
+        );
+    }
+}
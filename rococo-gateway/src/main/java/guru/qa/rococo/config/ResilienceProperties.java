@@ -0,0 +1,70 @@
+package guru.qa.rococo.config;
+
+import jakarta.annotation.Nonnull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Настройки защиты gateway от медленных и недоступных микросервисов: адаптивный лимит
+ * одновременных запросов с очередью (bulkhead) и circuit breaker на каждый сервис.
+ * <p>
+ * Ключ {@code routes} - имя сервиса, как в {@link HttpClientProperties};
+ * для сервиса без настроек используются значения по умолчанию.
+ */
+@ConfigurationProperties(prefix = "rococo-gateway.resilience")
+public record ResilienceProperties(Map<String, Route> routes) {
+
+    public ResilienceProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    public @Nonnull Route route(@Nonnull String name) {
+        return routes.getOrDefault(name, Route.DEFAULT);
+    }
+
+    /**
+     * @param initialLimit         Начальный лимит одновременных запросов
+     * @param minLimit             Нижняя граница адаптивного лимита
+     * @param maxLimit             Верхняя граница адаптивного лимита
+     * @param latencyThreshold     Ответ медленнее порога считается признаком перегрузки
+     * @param backoffRatio         Множитель уменьшения лимита при перегрузке или ошибке
+     * @param maxQueue             Максимум запросов, ожидающих свободного места
+     * @param queueTimeout         Максимальное ожидание в очереди
+     * @param slidingWindow        Число последних вызовов, по которым считается доля ошибок
+     * @param minimumCalls         Минимум вызовов в окне для размыкания
+     * @param failureRateThreshold Доля ошибок в процентах, при которой цепь размыкается
+     * @param openDuration         Время в разомкнутом состоянии до пробных запросов
+     * @param halfOpenProbes       Число пробных запросов, которые должны пройти для замыкания
+     */
+    public record Route(@DefaultValue("20") int initialLimit,
+                        @DefaultValue("4") int minLimit,
+                        @DefaultValue("50") int maxLimit,
+                        @DefaultValue("1s") Duration latencyThreshold,
+                        @DefaultValue("0.9") double backoffRatio,
+                        @DefaultValue("50") int maxQueue,
+                        @DefaultValue("200ms") Duration queueTimeout,
+                        @DefaultValue("20") int slidingWindow,
+                        @DefaultValue("10") int minimumCalls,
+                        @DefaultValue("50") int failureRateThreshold,
+                        @DefaultValue("10s") Duration openDuration,
+                        @DefaultValue("3") int halfOpenProbes) {
+
+        static final Route DEFAULT = new Route(
+                20,
+                4,
+                50,
+                Duration.ofSeconds(1),
+                0.9,
+                50,
+                Duration.ofMillis(200),
+                20,
+                10,
+                50,
+                Duration.ofSeconds(10),
+                3
+        );
+    }
+}
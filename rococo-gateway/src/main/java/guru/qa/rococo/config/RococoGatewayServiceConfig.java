@@ -1,5 +1,8 @@
 package guru.qa.rococo.config;
 
+import guru.qa.rococo.service.cache.CatalogResponseCache;
+import guru.qa.rococo.service.cache.CatalogResponseCacheFilter;
+import guru.qa.rococo.service.proxy.StreamingProxyFilter;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
@@ -7,16 +10,25 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.util.List;
+import java.util.Map;
 
 
 @Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, ResilienceProperties.class})
 public class RococoGatewayServiceConfig {
 
   public static final int ONE_MB = 1024 * 1024;
@@ -35,8 +47,89 @@ public class RococoGatewayServiceConfig {
   }
 
   @Bean
-  public RestTemplate restTemplate(RestTemplateBuilder builder) {
-    return builder.build();
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  public RestTemplate artistRestTemplate(PooledRestTemplateFactory factory) {
+    return factory.create("artist");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  public RestTemplate museumRestTemplate(PooledRestTemplateFactory factory) {
+    return factory.create("museum");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  public RestTemplate paintingRestTemplate(PooledRestTemplateFactory factory) {
+    return factory.create("painting");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  public RestTemplate userdataRestTemplate(PooledRestTemplateFactory factory) {
+    return factory.create("userdata");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  public WebClient artistWebClient(PooledWebClientFactory factory) {
+    return factory.create("artist");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  public WebClient museumWebClient(PooledWebClientFactory factory) {
+    return factory.create("museum");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  public WebClient paintingWebClient(PooledWebClientFactory factory) {
+    return factory.create("painting");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+  public WebClient userdataWebClient(PooledWebClientFactory factory) {
+    return factory.create("userdata");
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @ConditionalOnProperty(name = "rococo-gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+  public FilterRegistrationBean<CatalogResponseCacheFilter> catalogResponseCacheFilter(
+      CatalogResponseCache cache,
+      @Value("${rococo-gateway.streaming-proxy.enabled:false}") boolean streamingProxy) {
+    // Потоковые ответы не кэшируются: буфер кэша держал бы тело целиком
+    FilterRegistrationBean<CatalogResponseCacheFilter> registration = new FilterRegistrationBean<>(
+        new CatalogResponseCacheFilter(cache, streamingProxy ? StreamingProxyFilter::isProxied : path -> false));
+    registration.addUrlPatterns("/api/*");
+    // После Spring Security: кэш используется только для анонимных запросов
+    registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+    return registration;
+  }
+
+  @Bean
+  @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+  @ConditionalOnProperty(name = "rococo-gateway.streaming-proxy.enabled", havingValue = "true")
+  public FilterRegistrationBean<StreamingProxyFilter> streamingProxyFilter(
+      @Qualifier("artistRestTemplate") RestTemplate artistRestTemplate,
+      @Qualifier("museumRestTemplate") RestTemplate museumRestTemplate,
+      @Qualifier("paintingRestTemplate") RestTemplate paintingRestTemplate,
+      @Value("${rococo-artist.base-uri}") String rococoArtistBaseUri,
+      @Value("${rococo-museum.base-uri}") String rococoMuseumBaseUri,
+      @Value("${rococo-painting.base-uri}") String rococoPaintingBaseUri,
+      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+    FilterRegistrationBean<StreamingProxyFilter> registration = new FilterRegistrationBean<>(
+        new StreamingProxyFilter(Map.of(
+            "artist", new StreamingProxyFilter.Downstream(artistRestTemplate, rococoArtistBaseUri),
+            "museum", new StreamingProxyFilter.Downstream(museumRestTemplate, rococoMuseumBaseUri),
+            "painting", new StreamingProxyFilter.Downstream(paintingRestTemplate, rococoPaintingBaseUri)
+        ), handlerExceptionResolver));
+    registration.addUrlPatterns("/api/*");
+    // Последним; пути этого фильтра кэш анонимных чтений пропускает без буферизации
+    registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+    return registration;
   }
 
   @Bean
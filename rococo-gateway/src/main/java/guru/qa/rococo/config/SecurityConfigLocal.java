@@ -1,6 +1,7 @@
 package guru.qa.rococo.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -18,6 +19,7 @@ import static org.springframework.security.web.util.matcher.AntPathRequestMatche
 @EnableWebSecurity
 @Configuration
 @Profile({"local", "docker"})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfigLocal {
 
     private final CorsCustomizer corsCustomizer;
@@ -41,7 +43,8 @@ public class SecurityConfigLocal {
                                         antMatcher(HttpMethod.GET, "/api/country/**"),
                                         antMatcher(HttpMethod.GET, "/api/artist/**"),
                                         antMatcher(HttpMethod.GET, "/api/museum/**"),
-                                        antMatcher(HttpMethod.GET, "/api/painting/**"))
+                                        antMatcher(HttpMethod.GET, "/api/painting/**"),
+                                        antMatcher(HttpMethod.GET, "/api/search"))
                                 .permitAll()
                                 .anyRequest()
                                 .authenticated()
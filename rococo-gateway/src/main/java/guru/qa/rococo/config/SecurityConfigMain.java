@@ -2,6 +2,7 @@ package guru.qa.rococo.config;
 
 import guru.qa.rococo.service.cors.CorsCustomizer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -16,6 +17,7 @@ import static org.springframework.security.web.util.matcher.AntPathRequestMatche
 @EnableWebSecurity
 @Configuration
 @Profile({"staging", "prod"})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfigMain {
 
     private final CorsCustomizer corsCustomizer;
@@ -36,7 +38,8 @@ public class SecurityConfigMain {
                                 antMatcher(HttpMethod.GET, "/api/country/**"),
                                 antMatcher(HttpMethod.GET, "/api/artist/**"),
                                 antMatcher(HttpMethod.GET, "/api/museum/**"),
-                                antMatcher(HttpMethod.GET, "/api/painting/**"))
+                                antMatcher(HttpMethod.GET, "/api/painting/**"),
+                                antMatcher(HttpMethod.GET, "/api/search"))
                         .permitAll()
                         .anyRequest()
                         .authenticated()
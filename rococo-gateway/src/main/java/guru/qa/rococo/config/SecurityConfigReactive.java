@@ -0,0 +1,54 @@
+package guru.qa.rococo.config;
+
+import guru.qa.rococo.service.cors.CorsCustomizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * Безопасность неблокирующего режима (профиль {@code reactive}): те же открытые эндпоинты
+ * и проверка JWT, что и в {@link SecurityConfigLocal}/{@link SecurityConfigMain}.
+ */
+@EnableWebFluxSecurity
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class SecurityConfigReactive {
+
+    private final CorsCustomizer corsCustomizer;
+
+    @Autowired
+    public SecurityConfigReactive(CorsCustomizer corsCustomizer) {
+        this.corsCustomizer = corsCustomizer;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        corsCustomizer.corsCustomizer(http);
+
+        // API аутентифицируется только Bearer-токеном, сессии и куки не используются
+        http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authorizeExchange(customizer ->
+                        customizer.pathMatchers(HttpMethod.GET,
+                                        "/api/session",
+                                        "/api/country/**",
+                                        "/api/artist/**",
+                                        "/api/museum/**",
+                                        "/api/painting/**",
+                                        "/api/search")
+                                .permitAll()
+                                .pathMatchers("/actuator/health", "/swagger-ui/**", "/v3/api-docs/**")
+                                .permitAll()
+                                .anyExchange()
+                                .authenticated()
+                )
+                .oauth2ResourceServer((oauth2) -> oauth2.jwt(Customizer.withDefaults()));
+
+        return http.build();
+    }
+}
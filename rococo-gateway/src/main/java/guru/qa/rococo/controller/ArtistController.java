@@ -2,13 +2,17 @@ package guru.qa.rococo.controller;
 
 import guru.qa.rococo.config.RococoGatewayServiceConfig;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.page.RestSlice;
 import guru.qa.rococo.service.api.RestArtistClient;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +21,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/artist")
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ArtistController {
 
     private final RestArtistClient restArtistClient;
@@ -27,14 +32,31 @@ public class ArtistController {
     }
 
     @GetMapping("/{id}")
-    public ArtistJson getArtistById(@PathVariable("id") UUID id) {
-        return restArtistClient.getArtistById(id);
+    public ResponseEntity<ArtistJson> getArtistById(@PathVariable("id") UUID id,
+                                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restArtistClient.getArtistById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getArtistImage(@PathVariable("id") UUID id,
+                                                 @RequestParam(name = "variant", required = false) String variant,
+                                                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restArtistClient.getArtistImage(id, variant, ifNoneMatch);
     }
 
     @GetMapping
     public Page<ArtistJson> getAllArtists(@PageableDefault Pageable pageable,
-                                          @RequestParam(name = "name", required = false) String name) {
-        return restArtistClient.getAllArtists(pageable, name);
+                                          @RequestParam(name = "name", required = false) String name,
+                                          @RequestParam(name = "variant", required = false) String variant) {
+        return restArtistClient.getAllArtists(pageable, name, variant);
+    }
+
+    @GetMapping("/scroll")
+    public RestSlice<ArtistJson> scrollArtists(@RequestParam(name = "after", required = false) String after,
+                                               @RequestParam(name = "size", defaultValue = "20") int size,
+                                               @RequestParam(name = "name", required = false) String name,
+                                               @RequestParam(name = "variant", required = false) String variant) {
+        return restArtistClient.scrollArtists(after, size, name, variant);
     }
 
     @PostMapping
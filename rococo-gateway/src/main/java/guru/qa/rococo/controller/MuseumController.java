@@ -3,13 +3,18 @@ package guru.qa.rococo.controller;
 import guru.qa.rococo.config.RococoGatewayServiceConfig;
 import guru.qa.rococo.model.CountryJson;
 import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
 import guru.qa.rococo.service.api.RestMuseumClient;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,6 +23,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api")
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class MuseumController {
     private final RestMuseumClient restMuseumClient;
 
@@ -27,20 +33,44 @@ public class MuseumController {
     }
 
     @GetMapping("/museum/{id}")
-    public MuseumJson getMuseumById(@PathVariable("id") UUID id) {
-        return restMuseumClient.getMuseumById(id);
+    public ResponseEntity<MuseumJson> getMuseumById(@PathVariable("id") UUID id,
+                                                    @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restMuseumClient.getMuseumById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/museum/{id}/image")
+    public ResponseEntity<byte[]> getMuseumImage(@PathVariable("id") UUID id,
+                                                 @RequestParam(name = "variant", required = false) String variant,
+                                                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restMuseumClient.getMuseumImage(id, variant, ifNoneMatch);
     }
 
     @GetMapping("/museum")
     public Page<MuseumJson> getAllMuseums(
             @PageableDefault Pageable pageable,
-            @RequestParam(name = "title", required = false) String title) {
-        return restMuseumClient.getAllMuseums(pageable, title);
+            @RequestParam(name = "title", required = false) String title,
+            @RequestParam(name = "variant", required = false) String variant) {
+        return restMuseumClient.getAllMuseums(pageable, title, variant);
     }
 
     @GetMapping("/country")
-    public Page<CountryJson> getAllCountries(@PageableDefault Pageable pageable) {
-        return restMuseumClient.getAllCountries(pageable);
+    public ResponseEntity<RestPage<CountryJson>> getAllCountries(@PageableDefault Pageable pageable,
+                                                                 @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restMuseumClient.getAllCountries(pageable, ifNoneMatch);
+    }
+
+    @GetMapping("/museum/scroll")
+    public RestSlice<MuseumJson> scrollMuseums(@RequestParam(name = "after", required = false) String after,
+                                               @RequestParam(name = "size", defaultValue = "20") int size,
+                                               @RequestParam(name = "title", required = false) String title,
+                                               @RequestParam(name = "variant", required = false) String variant) {
+        return restMuseumClient.scrollMuseums(after, size, title, variant);
+    }
+
+    @GetMapping("/country/scroll")
+    public RestSlice<CountryJson> scrollCountries(@RequestParam(name = "after", required = false) String after,
+                                                  @RequestParam(name = "size", defaultValue = "20") int size) {
+        return restMuseumClient.scrollCountries(after, size);
     }
 
     @PostMapping("/museum")
@@ -2,13 +2,17 @@ package guru.qa.rococo.controller;
 
 import guru.qa.rococo.config.RococoGatewayServiceConfig;
 import guru.qa.rococo.model.PaintingJson;
+import guru.qa.rococo.model.page.RestSlice;
 import guru.qa.rococo.service.api.RestPaintingClient;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,6 +21,7 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/painting")
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PaintingController {
     private final RestPaintingClient restPaintingClient;
 
@@ -26,19 +31,46 @@ public class PaintingController {
     }
 
     @GetMapping("/{id}")
-    public PaintingJson getPaintingById(@PathVariable("id") UUID id) {
-        return restPaintingClient.getPaintingById(id);
+    public ResponseEntity<PaintingJson> getPaintingById(@PathVariable("id") UUID id,
+                                                        @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restPaintingClient.getPaintingById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/image")
+    public ResponseEntity<byte[]> getPaintingImage(@PathVariable("id") UUID id,
+                                                   @RequestParam(name = "variant", required = false) String variant,
+                                                   @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return restPaintingClient.getPaintingImage(id, variant, ifNoneMatch);
     }
 
     @GetMapping
     public Page<PaintingJson> getAllPaintings(@PageableDefault Pageable pageable,
-                                              @RequestParam(name = "title", required = false) String title) {
-        return restPaintingClient.getAllPaintings(pageable, title);
+                                              @RequestParam(name = "title", required = false) String title,
+                                              @RequestParam(name = "variant", required = false) String variant) {
+        return restPaintingClient.getAllPaintings(pageable, title, variant);
     }
 
     @GetMapping("/author/{id}")
-    public Page<PaintingJson> getPaintingsByAuthorId(@PathVariable("id") UUID id, @PageableDefault Pageable pageable) {
-        return restPaintingClient.getPaintingsByAuthorId(id, pageable);
+    public Page<PaintingJson> getPaintingsByAuthorId(@PathVariable("id") UUID id,
+                                                     @PageableDefault Pageable pageable,
+                                                     @RequestParam(name = "variant", required = false) String variant) {
+        return restPaintingClient.getPaintingsByAuthorId(id, pageable, variant);
+    }
+
+    @GetMapping("/scroll")
+    public RestSlice<PaintingJson> scrollPaintings(@RequestParam(name = "after", required = false) String after,
+                                                   @RequestParam(name = "size", defaultValue = "20") int size,
+                                                   @RequestParam(name = "title", required = false) String title,
+                                                   @RequestParam(name = "variant", required = false) String variant) {
+        return restPaintingClient.scrollPaintings(after, size, title, variant);
+    }
+
+    @GetMapping("/author/{id}/scroll")
+    public RestSlice<PaintingJson> scrollPaintingsByAuthorId(@PathVariable("id") UUID id,
+                                                             @RequestParam(name = "after", required = false) String after,
+                                                             @RequestParam(name = "size", defaultValue = "20") int size,
+                                                             @RequestParam(name = "variant", required = false) String variant) {
+        return restPaintingClient.scrollPaintingsByAuthorId(id, after, size, variant);
     }
 
     @PostMapping
@@ -0,0 +1,72 @@
+package guru.qa.rococo.controller.reactive;
+
+import guru.qa.rococo.config.RococoGatewayServiceConfig;
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.api.ReactiveArtistClient;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/artist")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveArtistController {
+
+    private final ReactiveArtistClient artistClient;
+
+    @Autowired
+    public ReactiveArtistController(ReactiveArtistClient artistClient) {
+        this.artistClient = artistClient;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ArtistJson>> getArtistById(@PathVariable("id") UUID id,
+                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return artistClient.getArtistById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/image")
+    public Mono<ResponseEntity<byte[]>> getArtistImage(@PathVariable("id") UUID id,
+                                                       @RequestParam(name = "variant", required = false) String variant,
+                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return artistClient.getArtistImage(id, variant, ifNoneMatch);
+    }
+
+    @GetMapping
+    public Mono<RestPage<ArtistJson>> getAllArtists(@PageableDefault Pageable pageable,
+                                                    @RequestParam(name = "name", required = false) String name,
+                                                    @RequestParam(name = "variant", required = false) String variant) {
+        return artistClient.getAllArtists(pageable, name, variant);
+    }
+
+    @GetMapping("/scroll")
+    public Mono<RestSlice<ArtistJson>> scrollArtists(@RequestParam(name = "after", required = false) String after,
+                                                     @RequestParam(name = "size", defaultValue = "20") int size,
+                                                     @RequestParam(name = "name", required = false) String name,
+                                                     @RequestParam(name = "variant", required = false) String variant) {
+        return artistClient.scrollArtists(after, size, name, variant);
+    }
+
+    @PostMapping
+    @SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+    public Mono<ArtistJson> addArtist(@Valid @RequestBody ArtistJson artist) {
+        return artistClient.addArtist(artist);
+    }
+
+    @PatchMapping
+    @SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+    public Mono<ArtistJson> updateArtist(@Valid @RequestBody ArtistJson artist) {
+        return artistClient.updateArtist(artist);
+    }
+}
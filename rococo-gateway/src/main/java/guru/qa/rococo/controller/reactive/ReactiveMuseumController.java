@@ -0,0 +1,85 @@
+package guru.qa.rococo.controller.reactive;
+
+import guru.qa.rococo.config.RococoGatewayServiceConfig;
+import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.api.ReactiveMuseumClient;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMuseumController {
+
+    private final ReactiveMuseumClient museumClient;
+
+    @Autowired
+    public ReactiveMuseumController(ReactiveMuseumClient museumClient) {
+        this.museumClient = museumClient;
+    }
+
+    @GetMapping("/museum/{id}")
+    public Mono<ResponseEntity<MuseumJson>> getMuseumById(@PathVariable("id") UUID id,
+                                                          @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return museumClient.getMuseumById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/museum/{id}/image")
+    public Mono<ResponseEntity<byte[]>> getMuseumImage(@PathVariable("id") UUID id,
+                                                       @RequestParam(name = "variant", required = false) String variant,
+                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return museumClient.getMuseumImage(id, variant, ifNoneMatch);
+    }
+
+    @GetMapping("/museum")
+    public Mono<RestPage<MuseumJson>> getAllMuseums(@PageableDefault Pageable pageable,
+                                                    @RequestParam(name = "title", required = false) String title,
+                                                    @RequestParam(name = "variant", required = false) String variant) {
+        return museumClient.getAllMuseums(pageable, title, variant);
+    }
+
+    @GetMapping("/country")
+    public Mono<ResponseEntity<RestPage<CountryJson>>> getAllCountries(@PageableDefault Pageable pageable,
+                                                                       @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return museumClient.getAllCountries(pageable, ifNoneMatch);
+    }
+
+    @GetMapping("/museum/scroll")
+    public Mono<RestSlice<MuseumJson>> scrollMuseums(@RequestParam(name = "after", required = false) String after,
+                                                     @RequestParam(name = "size", defaultValue = "20") int size,
+                                                     @RequestParam(name = "title", required = false) String title,
+                                                     @RequestParam(name = "variant", required = false) String variant) {
+        return museumClient.scrollMuseums(after, size, title, variant);
+    }
+
+    @GetMapping("/country/scroll")
+    public Mono<RestSlice<CountryJson>> scrollCountries(@RequestParam(name = "after", required = false) String after,
+                                                        @RequestParam(name = "size", defaultValue = "20") int size) {
+        return museumClient.scrollCountries(after, size);
+    }
+
+    @PostMapping("/museum")
+    @SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+    public Mono<MuseumJson> addMuseum(@Valid @RequestBody MuseumJson museum) {
+        return museumClient.addMuseum(museum);
+    }
+
+    @PatchMapping("/museum")
+    @SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+    public Mono<MuseumJson> updateMuseum(@Valid @RequestBody MuseumJson museum) {
+        return museumClient.updateMuseum(museum);
+    }
+}
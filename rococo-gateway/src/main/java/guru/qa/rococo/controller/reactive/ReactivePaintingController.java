@@ -0,0 +1,87 @@
+package guru.qa.rococo.controller.reactive;
+
+import guru.qa.rococo.config.RococoGatewayServiceConfig;
+import guru.qa.rococo.model.PaintingJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.api.ReactivePaintingClient;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/painting")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaintingController {
+
+    private final ReactivePaintingClient paintingClient;
+
+    @Autowired
+    public ReactivePaintingController(ReactivePaintingClient paintingClient) {
+        this.paintingClient = paintingClient;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PaintingJson>> getPaintingById(@PathVariable("id") UUID id,
+                                                              @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return paintingClient.getPaintingById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/image")
+    public Mono<ResponseEntity<byte[]>> getPaintingImage(@PathVariable("id") UUID id,
+                                                         @RequestParam(name = "variant", required = false) String variant,
+                                                         @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return paintingClient.getPaintingImage(id, variant, ifNoneMatch);
+    }
+
+    @GetMapping
+    public Mono<RestPage<PaintingJson>> getAllPaintings(@PageableDefault Pageable pageable,
+                                                        @RequestParam(name = "title", required = false) String title,
+                                                        @RequestParam(name = "variant", required = false) String variant) {
+        return paintingClient.getAllPaintings(pageable, title, variant);
+    }
+
+    @GetMapping("/author/{id}")
+    public Mono<RestPage<PaintingJson>> getPaintingsByAuthorId(@PathVariable("id") UUID id,
+                                                               @PageableDefault Pageable pageable,
+                                                               @RequestParam(name = "variant", required = false) String variant) {
+        return paintingClient.getPaintingsByAuthorId(id, pageable, variant);
+    }
+
+    @GetMapping("/scroll")
+    public Mono<RestSlice<PaintingJson>> scrollPaintings(@RequestParam(name = "after", required = false) String after,
+                                                         @RequestParam(name = "size", defaultValue = "20") int size,
+                                                         @RequestParam(name = "title", required = false) String title,
+                                                         @RequestParam(name = "variant", required = false) String variant) {
+        return paintingClient.scrollPaintings(after, size, title, variant);
+    }
+
+    @GetMapping("/author/{id}/scroll")
+    public Mono<RestSlice<PaintingJson>> scrollPaintingsByAuthorId(@PathVariable("id") UUID id,
+                                                                   @RequestParam(name = "after", required = false) String after,
+                                                                   @RequestParam(name = "size", defaultValue = "20") int size,
+                                                                   @RequestParam(name = "variant", required = false) String variant) {
+        return paintingClient.scrollPaintingsByAuthorId(id, after, size, variant);
+    }
+
+    @PostMapping
+    @SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+    public Mono<PaintingJson> addPainting(@Valid @RequestBody PaintingJson painting) {
+        return paintingClient.addPainting(painting);
+    }
+
+    @PatchMapping
+    @SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+    public Mono<PaintingJson> updatePainting(@Valid @RequestBody PaintingJson painting) {
+        return paintingClient.updatePainting(painting);
+    }
+}
@@ -0,0 +1,29 @@
+package guru.qa.rococo.controller.reactive;
+
+import guru.qa.rococo.model.SearchResponseJson;
+import guru.qa.rococo.service.ReactiveSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/search")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSearchController {
+
+    private final ReactiveSearchService searchService;
+
+    @Autowired
+    public ReactiveSearchController(ReactiveSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping
+    public Mono<SearchResponseJson> search(@RequestParam(name = "q", required = false) String query) {
+        return searchService.search(query);
+    }
+}
@@ -0,0 +1,49 @@
+package guru.qa.rococo.controller.reactive;
+
+import guru.qa.rococo.config.RococoGatewayServiceConfig;
+import guru.qa.rococo.model.UserJson;
+import guru.qa.rococo.service.api.ReactiveUserDataClient;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.annotation.Nonnull;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/user")
+@SecurityRequirement(name = RococoGatewayServiceConfig.OPEN_API_AUTH_SCHEME)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserDataController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveUserDataController.class);
+    private final ReactiveUserDataClient userDataClient;
+
+    @Autowired
+    public ReactiveUserDataController(ReactiveUserDataClient userDataClient) {
+        this.userDataClient = userDataClient;
+    }
+
+    @GetMapping
+    public Mono<UserJson> getUser(@AuthenticationPrincipal @Nonnull Jwt principal) {
+        String username = principal.getClaim("sub");
+        LOG.debug("Requesting current user data for: {}", username);
+        return userDataClient.getUser(username);
+    }
+
+    @PatchMapping
+    public Mono<UserJson> updateUser(@AuthenticationPrincipal @Nonnull Jwt principal,
+                                     @Valid @RequestBody @Nonnull UserJson user) {
+        String username = principal.getClaim("sub");
+        LOG.info("Updating user profile for: {}", username);
+
+        return userDataClient.updateUserInfo(
+                user.addUsername(username)
+        );
+    }
+}
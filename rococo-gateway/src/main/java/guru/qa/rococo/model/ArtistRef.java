@@ -1,13 +1,28 @@
 package guru.qa.rococo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.UUID;
 
+/**
+ * Ссылка на художника в картине.
+ * <p>
+ * В запросах достаточно {@code id}; в ответах дополнительно приходит имя,
+ * но не биография и не фото.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record ArtistRef(
         @NotNull(message = "artist.id: ID художника обязателен для заполнения")
         @JsonProperty("id")
-        UUID id
+        UUID id,
+
+        @JsonProperty("name")
+        String name
 ) {
+
+    public ArtistRef(UUID id) {
+        this(id, null);
+    }
 }
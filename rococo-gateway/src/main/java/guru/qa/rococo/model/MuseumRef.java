@@ -1,13 +1,28 @@
 package guru.qa.rococo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.UUID;
 
+/**
+ * Ссылка на музей в картине.
+ * <p>
+ * В запросах достаточно {@code id}; в ответах дополнительно приходит название,
+ * но не описание, фото и геоданные.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record MuseumRef(
         @NotNull(message = "Укажите, где хранится оригинал - обязателен для заполнения")
         @JsonProperty("id")
-        UUID id
+        UUID id,
+
+        @JsonProperty("title")
+        String title
 ) {
+
+    public MuseumRef(UUID id) {
+        this(id, null);
+    }
 }
@@ -0,0 +1,25 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Результат поиска в одном микросервисе: заголовок, фрагмент с подсветкой в тегах {@code <mark>} и ранг.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record SearchHitJson(
+        @JsonProperty("id")
+        UUID id,
+
+        @JsonProperty("title")
+        String title,
+
+        @JsonProperty("snippet")
+        String snippet,
+
+        @JsonProperty("rank")
+        double rank
+) {
+}
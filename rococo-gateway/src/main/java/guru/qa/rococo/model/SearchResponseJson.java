@@ -0,0 +1,30 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Ответ общего поиска.
+ *
+ * @param query       Поисковая строка
+ * @param results     Найденные объекты всех типов, отсортированные по рангу
+ * @param unavailable Типы, по которым сервис не ответил вовремя (результат неполный)
+ */
+public record SearchResponseJson(
+        @JsonProperty("query")
+        String query,
+
+        @JsonProperty("results")
+        List<SearchResultJson> results,
+
+        @JsonProperty("unavailable")
+        List<String> unavailable
+) {
+
+    @JsonIgnore
+    public boolean isComplete() {
+        return unavailable.isEmpty();
+    }
+}
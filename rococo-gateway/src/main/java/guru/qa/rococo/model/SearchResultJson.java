@@ -0,0 +1,36 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.annotation.Nonnull;
+
+import java.util.UUID;
+
+/**
+ * Ссылка на найденный объект в общем поиске.
+ * <p>
+ * Содержит только тип, идентификатор, заголовок и фрагмент текста - без изображений,
+ * полные данные клиент получает по {@code /api/{type}/{id}}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SearchResultJson(
+        @JsonProperty("type")
+        String type,
+
+        @JsonProperty("id")
+        UUID id,
+
+        @JsonProperty("title")
+        String title,
+
+        @JsonProperty("snippet")
+        String snippet,
+
+        @JsonProperty("rank")
+        double rank
+) {
+
+    public static @Nonnull SearchResultJson of(@Nonnull String type, @Nonnull SearchHitJson hit) {
+        return new SearchResultJson(type, hit.id(), hit.title(), hit.snippet(), hit.rank());
+    }
+}
@@ -0,0 +1,26 @@
+package guru.qa.rococo.model.page;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации из микросервиса: без общего числа записей.
+ * {@code next} - непрозрачный курсор, передается в параметре {@code after} следующего запроса.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record RestSlice<T>(
+    @JsonProperty("content")
+    List<T> content,
+
+    @JsonProperty("size")
+    int size,
+
+    @JsonProperty("hasNext")
+    boolean hasNext,
+
+    @JsonProperty("next")
+    String next
+) {
+}
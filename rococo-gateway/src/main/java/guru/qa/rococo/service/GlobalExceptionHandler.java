@@ -7,6 +7,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -33,6 +35,7 @@ import java.util.stream.Collectors;
  * </p>
  */
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(GlobalExceptionHandler.class);
@@ -97,13 +100,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
   }
 
   /**
-   * Обрабатывает случаи отсутствия ответа от REST сервиса.
+   * Обрабатывает случаи отсутствия ответа от REST сервиса, в том числе таймауты
+   * подключения, ожидания соединения из пула и ответа ({@link ResourceAccessException}).
    *
    * @param ex      Исключение с информацией о проблеме
    * @param request HTTP запрос
    * @return Ответ со статусом 503 Service Unavailable
    */
-  @ExceptionHandler(NoRestResponseException.class)
+  @ExceptionHandler({NoRestResponseException.class, ResourceAccessException.class})
   public ResponseEntity<ErrorJson> handleApiNoResponseException(@Nonnull RuntimeException ex,
                                                                 @Nonnull HttpServletRequest request) {
     LOG.warn("### No REST Response ", ex);
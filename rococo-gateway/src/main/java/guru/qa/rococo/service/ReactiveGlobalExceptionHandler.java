@@ -0,0 +1,172 @@
+package guru.qa.rococo.service;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.ErrorJson;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Глобальный обработчик исключений для реактивных контроллеров (профиль {@code reactive}).
+ * <p>
+ * Возвращает ошибки в том же формате {@link ErrorJson}, что и {@link GlobalExceptionHandler}:
+ * ошибки микросервисов пробрасываются с исходным статусом, отсутствие ответа
+ * (таймауты, недоступность, пустой пул соединений) превращается в 503.
+ * </p>
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReactiveGlobalExceptionHandler.class);
+
+  @Value("${spring.application.name}")
+  private String appName;
+
+  /**
+   * Обрабатывает ошибки валидации тела запроса.
+   *
+   * @param ex      Исключение с информацией о нарушении валидации
+   * @param request HTTP запрос
+   * @return Ответ с детализированной информацией об ошибках валидации
+   */
+  @ExceptionHandler(WebExchangeBindException.class)
+  public ResponseEntity<ErrorJson> handleValidationException(@Nonnull WebExchangeBindException ex,
+                                                             @Nonnull ServerHttpRequest request) {
+    List<String> validationErrors = ex.getBindingResult()
+        .getFieldErrors()
+        .stream()
+        .map(FieldError::getDefaultMessage)
+        .toList();
+
+    ErrorJson errorResponse = new ErrorJson(
+        appName + ": Validation error",
+        HttpStatus.BAD_REQUEST.getReasonPhrase(),
+        HttpStatus.BAD_REQUEST.value(),
+        "Validation failed. Check 'errors' field for details",
+        validationErrors,
+        LocalDateTime.now().toString(),
+        request.getPath().value()
+    );
+
+    return ResponseEntity.badRequest().body(errorResponse);
+  }
+
+  /**
+   * Обрабатывает ответы микросервисов со статусом 4xx и 5xx.
+   *
+   * @param ex      Исключение WebClient с ответом удаленного сервиса
+   * @param request HTTP запрос
+   * @return Ответ с оригинальными параметрами ошибки из удаленного сервиса
+   */
+  @ExceptionHandler(WebClientResponseException.class)
+  public ResponseEntity<ErrorJson> handleWebClientResponseException(@Nonnull WebClientResponseException ex,
+                                                                    @Nonnull ServerHttpRequest request) {
+    LOG.warn("### REST Exception caught in Gateway: {}", ex.getMessage());
+    ErrorJson originalError = readError(ex);
+    if (originalError == null || originalError.status() == null) {
+      return withEnhancedStatus("API Error", ex.getStatusCode(), ex.getMessage(), request);
+    }
+
+    ErrorJson enhancedError = new ErrorJson(
+        originalError.type(),
+        originalError.title(),
+        originalError.status(),
+        originalError.detail(),
+        List.of(String.valueOf(originalError.detail())),
+        LocalDateTime.now().toString(),
+        request.getPath().value()
+    );
+
+    return ResponseEntity.status(originalError.status()).body(enhancedError);
+  }
+
+  /**
+   * Обрабатывает случаи отсутствия ответа от сервиса: ошибки подключения, таймауты
+   * ожидания соединения из пула и ответа.
+   *
+   * @param ex      Исключение с информацией о проблеме
+   * @param request HTTP запрос
+   * @return Ответ со статусом 503 Service Unavailable
+   */
+  @ExceptionHandler({NoRestResponseException.class, WebClientRequestException.class, TimeoutException.class})
+  public ResponseEntity<ErrorJson> handleApiNoResponseException(@Nonnull Exception ex,
+                                                                @Nonnull ServerHttpRequest request) {
+    LOG.warn("### No REST Response ", ex);
+    return withEnhancedStatus("API Error", HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request);
+  }
+
+  /**
+   * Обрабатывает ошибки разбора запроса (некорректные параметры пути и запроса, неподдерживаемый тип и т.п.).
+   *
+   * @param ex      Исключение со статусом ответа
+   * @param request HTTP запрос
+   * @return Ответ со статусом из исключения
+   */
+  @ExceptionHandler(ResponseStatusException.class)
+  public ResponseEntity<ErrorJson> handleResponseStatusException(@Nonnull ResponseStatusException ex,
+                                                                 @Nonnull ServerHttpRequest request) {
+    HttpStatus status = HttpStatus.resolve(ex.getStatusCode().value());
+    String type = status != null ? status.getReasonPhrase() : String.valueOf(ex.getStatusCode().value());
+    return withEnhancedStatus(type, ex.getStatusCode(), String.valueOf(ex.getReason()), request);
+  }
+
+  /**
+   * Перехватывает все непредвиденные исключения.
+   *
+   * @param ex      Пойманное исключение
+   * @param request HTTP запрос
+   * @return Ответ со статусом 500 Internal Server Error
+   */
+  @ExceptionHandler(Exception.class)
+  public ResponseEntity<ErrorJson> handleUnexpectedException(@Nonnull Exception ex,
+                                                             @Nonnull ServerHttpRequest request) {
+    LOG.error("### Internal Server Error ", ex);
+    return withEnhancedStatus("Internal Error", HttpStatus.INTERNAL_SERVER_ERROR, String.valueOf(ex.getMessage()), request);
+  }
+
+  private @Nonnull ResponseEntity<ErrorJson> withEnhancedStatus(@Nonnull String type,
+                                                                @Nonnull HttpStatusCode status,
+                                                                @Nonnull String message,
+                                                                @Nonnull ServerHttpRequest request) {
+    HttpStatus resolved = HttpStatus.resolve(status.value());
+    ErrorJson errorResponse = new ErrorJson(
+        appName + ": " + type,
+        resolved != null ? resolved.getReasonPhrase() : String.valueOf(status.value()),
+        status.value(),
+        message,
+        List.of(message),
+        LocalDateTime.now().toString(),
+        request.getPath().value()
+    );
+
+    return ResponseEntity.status(status).body(errorResponse);
+  }
+
+  private static @Nullable ErrorJson readError(@Nonnull WebClientResponseException ex) {
+    try {
+      return ex.getResponseBodyAs(ErrorJson.class);
+    } catch (RuntimeException e) {
+      // Тело ошибки не в формате ErrorJson (например, ответ прокси)
+      return null;
+    }
+  }
+}
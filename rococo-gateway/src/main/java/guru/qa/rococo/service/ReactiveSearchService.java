@@ -0,0 +1,135 @@
+package guru.qa.rococo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchResponseJson;
+import guru.qa.rococo.service.api.ReactiveArtistClient;
+import guru.qa.rococo.service.api.ReactiveMuseumClient;
+import guru.qa.rococo.service.api.ReactivePaintingClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Неблокирующий вариант {@link SearchService} (профиль {@code reactive}).
+ * <p>
+ * Запросы к трем микросервисам подписываются одновременно и ограничены общим таймаутом;
+ * по истечении таймаута запрос к сервису отменяется, а сервис попадает в {@code unavailable}.
+ * Объединение результатов и кэширование полных ответов - как в {@link SearchService}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveSearchService.class);
+
+    private final ReactiveArtistClient artistClient;
+    private final ReactiveMuseumClient museumClient;
+    private final ReactivePaintingClient paintingClient;
+    private final Cache<String, SearchResponseJson> cache;
+    private final Duration timeout;
+    private final int perTypeLimit;
+    private final int limit;
+
+    @Autowired
+    public ReactiveSearchService(ReactiveArtistClient artistClient,
+                                 ReactiveMuseumClient museumClient,
+                                 ReactivePaintingClient paintingClient,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${rococo-gateway.search.timeout:800ms}") Duration timeout,
+                                 @Value("${rococo-gateway.search.per-type-limit:10}") int perTypeLimit,
+                                 @Value("${rococo-gateway.search.limit:20}") int limit,
+                                 @Value("${rococo-gateway.search.cache.ttl:30s}") Duration cacheTtl,
+                                 @Value("${rococo-gateway.search.cache.max-size:1000}") long cacheMaxSize) {
+        this.artistClient = artistClient;
+        this.museumClient = museumClient;
+        this.paintingClient = paintingClient;
+        this.timeout = timeout;
+        this.perTypeLimit = perTypeLimit;
+        this.limit = limit;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search");
+    }
+
+    /**
+     * Ищет объекты всех типов по строке запроса.
+     *
+     * @param query Поисковая строка (может быть null)
+     * @return Объединенные результаты, отсортированные по рангу
+     */
+    public @Nonnull Mono<SearchResponseJson> search(@Nullable String query) {
+        String normalized = SearchService.normalize(query);
+        if (normalized.isEmpty()) {
+            return Mono.just(new SearchResponseJson(normalized, List.of(), List.of()));
+        }
+
+        SearchResponseJson cached = cache.getIfPresent(normalized);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return searchAll(normalized)
+                .doOnNext(response -> {
+                    // Неполный ответ не кэшируем, чтобы следующий запрос снова обратился к недоступному сервису
+                    if (response.isComplete()) {
+                        cache.put(normalized, response);
+                    }
+                });
+    }
+
+    private @Nonnull Mono<SearchResponseJson> searchAll(@Nonnull String query) {
+        Map<String, Mono<List<SearchHitJson>>> calls = new LinkedHashMap<>();
+        calls.put(SearchService.ARTIST, artistClient.searchArtists(query, perTypeLimit));
+        calls.put(SearchService.MUSEUM, museumClient.searchMuseums(query, perTypeLimit));
+        calls.put(SearchService.PAINTING, paintingClient.searchPaintings(query, perTypeLimit));
+
+        return Flux.fromIterable(calls.entrySet())
+                .flatMap(call -> call.getValue()
+                        .timeout(timeout)
+                        .map(Optional::of)
+                        .onErrorResume(e -> {
+                            if (e instanceof TimeoutException) {
+                                LOG.warn("### Search in rococo-{} timed out after {} ms", call.getKey(), timeout.toMillis());
+                            } else {
+                                LOG.warn("### Search in rococo-{} failed: {}", call.getKey(), e.getMessage());
+                            }
+                            return Mono.just(Optional.<List<SearchHitJson>>empty());
+                        })
+                        .map(result -> Map.entry(call.getKey(), result)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(results -> {
+                    // Порядок типов в ответе не зависит от того, какой сервис ответил первым
+                    Map<String, List<SearchHitJson>> hits = new LinkedHashMap<>();
+                    List<String> unavailable = new ArrayList<>();
+                    for (String type : calls.keySet()) {
+                        results.get(type).ifPresentOrElse(
+                                typeHits -> hits.put(type, typeHits),
+                                () -> unavailable.add(type)
+                        );
+                    }
+                    return SearchService.merge(query, hits, unavailable, perTypeLimit, limit);
+                });
+    }
+}
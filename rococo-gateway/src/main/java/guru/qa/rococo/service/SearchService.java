@@ -0,0 +1,182 @@
+package guru.qa.rococo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchResponseJson;
+import guru.qa.rococo.model.SearchResultJson;
+import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.RestMuseumClient;
+import guru.qa.rococo.service.api.RestPaintingClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Общий поиск по художникам, музеям и картинам.
+ * <p>
+ * Запросы к трем микросервисам выполняются параллельно на виртуальных потоках с общим дедлайном.
+ * Сервис, не ответивший вовремя или вернувший ошибку, попадает в {@code unavailable},
+ * а результаты остальных возвращаются как есть.
+ * <p>
+ * Из каждого сервиса берется не больше {@code per-type-limit} результатов, затем они
+ * объединяются и сортируются по рангу. Полные ответы кэшируются на короткое время
+ * по нормализованной строке запроса, неполные - нет.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SearchService {
+
+    public static final String ARTIST = "artist";
+    public static final String MUSEUM = "museum";
+    public static final String PAINTING = "painting";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchService.class);
+
+    private final RestArtistClient restArtistClient;
+    private final RestMuseumClient restMuseumClient;
+    private final RestPaintingClient restPaintingClient;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Cache<String, SearchResponseJson> cache;
+    private final Duration timeout;
+    private final int perTypeLimit;
+    private final int limit;
+
+    @Autowired
+    public SearchService(RestArtistClient restArtistClient,
+                         RestMuseumClient restMuseumClient,
+                         RestPaintingClient restPaintingClient,
+                         MeterRegistry meterRegistry,
+                         @Value("${rococo-gateway.search.timeout:800ms}") Duration timeout,
+                         @Value("${rococo-gateway.search.per-type-limit:10}") int perTypeLimit,
+                         @Value("${rococo-gateway.search.limit:20}") int limit,
+                         @Value("${rococo-gateway.search.cache.ttl:30s}") Duration cacheTtl,
+                         @Value("${rococo-gateway.search.cache.max-size:1000}") long cacheMaxSize) {
+        this.restArtistClient = restArtistClient;
+        this.restMuseumClient = restMuseumClient;
+        this.restPaintingClient = restPaintingClient;
+        this.timeout = timeout;
+        this.perTypeLimit = perTypeLimit;
+        this.limit = limit;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(cacheTtl)
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "search");
+    }
+
+    /**
+     * Ищет объекты всех типов по строке запроса.
+     *
+     * @param query Поисковая строка (может быть null)
+     * @return Объединенные результаты, отсортированные по рангу
+     */
+    public @Nonnull SearchResponseJson search(@Nullable String query) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return new SearchResponseJson(normalized, List.of(), List.of());
+        }
+
+        SearchResponseJson cached = cache.getIfPresent(normalized);
+        if (cached != null) {
+            return cached;
+        }
+
+        SearchResponseJson response = searchAll(normalized);
+        // Неполный ответ не кэшируем, чтобы следующий запрос снова обратился к недоступному сервису
+        if (response.isComplete()) {
+            cache.put(normalized, response);
+        }
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private @Nonnull SearchResponseJson searchAll(@Nonnull String query) {
+        Map<String, Future<List<SearchHitJson>>> calls = new LinkedHashMap<>();
+        calls.put(ARTIST, executor.submit(() -> restArtistClient.searchArtists(query, perTypeLimit)));
+        calls.put(MUSEUM, executor.submit(() -> restMuseumClient.searchMuseums(query, perTypeLimit)));
+        calls.put(PAINTING, executor.submit(() -> restPaintingClient.searchPaintings(query, perTypeLimit)));
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Map<String, List<SearchHitJson>> hits = new LinkedHashMap<>();
+        List<String> unavailable = new ArrayList<>();
+
+        for (Map.Entry<String, Future<List<SearchHitJson>>> call : calls.entrySet()) {
+            String type = call.getKey();
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                hits.put(type, call.getValue().get(remaining, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                // Прерываем зависший вызов, ответ отдаем без этого типа
+                call.getValue().cancel(true);
+                LOG.warn("### Search in rococo-{} timed out after {} ms", type, timeout.toMillis());
+                unavailable.add(type);
+            } catch (ExecutionException e) {
+                LOG.warn("### Search in rococo-{} failed: {}", type, e.getCause().getMessage());
+                unavailable.add(type);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                call.getValue().cancel(true);
+                unavailable.add(type);
+            }
+        }
+
+        return merge(query, hits, unavailable, perTypeLimit, limit);
+    }
+
+    /**
+     * Объединяет результаты сервисов: не больше {@code perTypeLimit} от каждого,
+     * сортировка по рангу и общий лимит {@code limit}.
+     */
+    static @Nonnull SearchResponseJson merge(@Nonnull String query,
+                                             @Nonnull Map<String, List<SearchHitJson>> hits,
+                                             @Nonnull List<String> unavailable,
+                                             int perTypeLimit,
+                                             int limit) {
+        List<SearchResultJson> results = new ArrayList<>();
+        hits.forEach((type, typeHits) -> typeHits.stream()
+                .limit(perTypeLimit)
+                .map(hit -> SearchResultJson.of(type, hit))
+                .forEach(results::add));
+
+        results.sort(Comparator.comparingDouble(SearchResultJson::rank).reversed());
+        return new SearchResponseJson(
+                query,
+                results.stream().limit(limit).toList(),
+                List.copyOf(unavailable)
+        );
+    }
+
+    static @Nonnull String normalize(@Nullable String query) {
+        return query == null
+                ? ""
+                : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,236 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.utils.ConditionalResponse;
+import guru.qa.rococo.service.utils.HttpQueryPaginationAndSort;
+import guru.qa.rococo.service.utils.ImageResponse;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Неблокирующий клиент микросервиса художников (профиль {@code reactive}).
+ * Формирует те же запросы, что и {@link RestArtistClient}, но возвращает {@link Mono}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveArtistClient {
+    private final WebClient webClient;
+    private final String rococoArtistBaseUri;
+
+    @Autowired
+    public ReactiveArtistClient(@Qualifier("artistWebClient") WebClient webClient, @Value("${rococo-artist.base-uri}") String rococoArtistBaseUri) {
+        this.webClient = webClient;
+        this.rococoArtistBaseUri = rococoArtistBaseUri + "/internal";
+    }
+
+    /**
+     * Получает страницу художников с фильтрацией по имени.
+     *
+     * @param pageable Параметры пагинации
+     * @param name     Фильтр по имени (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница художников {@link RestPage<ArtistJson>}
+     */
+    public @Nonnull Mono<RestPage<ArtistJson>> getAllArtists(@Nonnull Pageable pageable,
+                                                             @Nullable String name,
+                                                             @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist")
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams());
+
+        if (StringUtils.hasText(name)) {
+            uriBuilder.queryParam("name", name.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestPage<ArtistJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/artist GET]")));
+    }
+
+    /**
+     * Полнотекстовый поиск художников; возвращает только заголовок, фрагмент и ранг, без изображений.
+     *
+     * @param query Поисковая строка
+     * @param limit Максимальное число результатов
+     * @return Найденные художники, отсортированные по рангу
+     */
+    public @Nonnull Mono<List<SearchHitJson>> searchArtists(@Nonnull String query, int limit) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/search")
+                .queryParam("query", query)
+                .queryParam("page", 0)
+                .queryParam("size", limit)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestPage<SearchHitJson>>() {
+                })
+                .map(Page::getContent)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/artist/search GET]")));
+    }
+
+    /**
+     * Получает художников с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after   Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size    Размер страницы
+     * @param name    Фильтр по имени (может быть null)
+     * @param variant Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<ArtistJson>}
+     */
+    public @Nonnull Mono<RestSlice<ArtistJson>> scrollArtists(@Nullable String after,
+                                                              int size,
+                                                              @Nullable String name,
+                                                              @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(name)) {
+            uriBuilder.queryParam("name", name.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestSlice<ArtistJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/artist/scroll GET]")));
+    }
+
+    /**
+     * Получает художника с поддержкой условного запроса.
+     *
+     * @param id          Идентификатор художника
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Художник с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<ArtistJson>> getArtistById(@Nonnull UUID id, @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(ArtistJson.class)
+                .map(response -> ConditionalResponse.of(response, "No REST response is given [/internal/artist/{id} GET]"));
+    }
+
+    /**
+     * Получает фото художника в бинарном виде.
+     *
+     * @param id          Идентификатор художника
+     * @param variant     Вариант изображения, например {@code thumb} (может быть null)
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Изображение с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<byte[]>> getArtistImage(@Nonnull UUID id,
+                                                                @Nullable String variant,
+                                                                @Nullable String ifNoneMatch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/{id}/image");
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(byte[].class)
+                .map(ImageResponse::of);
+    }
+
+    public @Nonnull Mono<ArtistJson> addArtist(@Nonnull ArtistJson artist) {
+        return webClient.post()
+                .uri(artistUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(artist)
+                .retrieve()
+                .bodyToMono(ArtistJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/artist POST]")));
+    }
+
+    public @Nonnull Mono<ArtistJson> updateArtist(@Nonnull ArtistJson artist) {
+        return webClient.patch()
+                .uri(artistUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(artist)
+                .retrieve()
+                .bodyToMono(ArtistJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/artist PATCH]")));
+    }
+
+    private @Nonnull URI artistUri() {
+        return UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist")
+                .build()
+                .toUri();
+    }
+}
@@ -0,0 +1,294 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.utils.ConditionalResponse;
+import guru.qa.rococo.service.utils.HttpQueryPaginationAndSort;
+import guru.qa.rococo.service.utils.ImageResponse;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Неблокирующий клиент микросервиса музеев и стран (профиль {@code reactive}).
+ * Формирует те же запросы, что и {@link RestMuseumClient}, но возвращает {@link Mono}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMuseumClient {
+    private final WebClient webClient;
+    private final String rococoMuseumBaseUri;
+
+    @Autowired
+    public ReactiveMuseumClient(@Qualifier("museumWebClient") WebClient webClient, @Value("${rococo-museum.base-uri}") String rococoMuseumBaseUri) {
+        this.webClient = webClient;
+        this.rococoMuseumBaseUri = rococoMuseumBaseUri + "/internal";
+    }
+
+    /**
+     * Получает страницу музеев с фильтрацией по названию.
+     *
+     * @param pageable Параметры пагинации
+     * @param title    Фильтр по названию (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница музеев {@link RestPage<MuseumJson>}
+     */
+    public @Nonnull Mono<RestPage<MuseumJson>> getAllMuseums(@Nonnull Pageable pageable,
+                                                             @Nullable String title,
+                                                             @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum")
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams());
+
+        if (StringUtils.hasText(title)) {
+            uriBuilder.queryParam("title", title.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestPage<MuseumJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/museum GET]")));
+    }
+
+    /**
+     * Получает музеи с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after   Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size    Размер страницы
+     * @param title   Фильтр по названию (может быть null)
+     * @param variant Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<MuseumJson>}
+     */
+    public @Nonnull Mono<RestSlice<MuseumJson>> scrollMuseums(@Nullable String after,
+                                                              int size,
+                                                              @Nullable String title,
+                                                              @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(title)) {
+            uriBuilder.queryParam("title", title.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestSlice<MuseumJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/museum/scroll GET]")));
+    }
+
+    /**
+     * Получает страны с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size  Размер страницы
+     * @return Страница {@link RestSlice<CountryJson>}
+     */
+    public @Nonnull Mono<RestSlice<CountryJson>> scrollCountries(@Nullable String after,
+                                                                 int size) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/country/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestSlice<CountryJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/country/scroll GET]")));
+    }
+
+    /**
+     * Полнотекстовый поиск музеев; возвращает только заголовок, фрагмент и ранг, без изображений.
+     *
+     * @param query Поисковая строка
+     * @param limit Максимальное число результатов
+     * @return Найденные музеи, отсортированные по рангу
+     */
+    public @Nonnull Mono<List<SearchHitJson>> searchMuseums(@Nonnull String query, int limit) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/search")
+                .queryParam("query", query)
+                .queryParam("page", 0)
+                .queryParam("size", limit)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestPage<SearchHitJson>>() {
+                })
+                .map(Page::getContent)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/museum/search GET]")));
+    }
+
+    /**
+     * Получает музей с поддержкой условного запроса.
+     *
+     * @param id          Идентификатор музея
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Музей с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<MuseumJson>> getMuseumById(@Nonnull UUID id, @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(MuseumJson.class)
+                .map(response -> ConditionalResponse.of(response, "No REST response is given [/internal/museum/{id} GET]"));
+    }
+
+    /**
+     * Получает фото музея в бинарном виде.
+     *
+     * @param id          Идентификатор музея
+     * @param variant     Вариант изображения, например {@code thumb} (может быть null)
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Изображение с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<byte[]>> getMuseumImage(@Nonnull UUID id,
+                                                                @Nullable String variant,
+                                                                @Nullable String ifNoneMatch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/{id}/image");
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(byte[].class)
+                .map(ImageResponse::of);
+    }
+
+    /**
+     * Получает страницу справочника стран с поддержкой условного запроса.
+     *
+     * @param pageable    Параметры пагинации
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Страница стран с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<RestPage<CountryJson>>> getAllCountries(@Nonnull Pageable pageable,
+                                                                                @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/country")
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams())
+                .build()
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(new ParameterizedTypeReference<RestPage<CountryJson>>() {
+                })
+                .map(response -> ConditionalResponse.of(response, "No REST response is given [/internal/country GET]"));
+    }
+
+    public @Nonnull Mono<MuseumJson> addMuseum(@Nonnull MuseumJson museum) {
+        return webClient.post()
+                .uri(museumUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(museum)
+                .retrieve()
+                .bodyToMono(MuseumJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/museum POST]")));
+    }
+
+    public @Nonnull Mono<MuseumJson> updateMuseum(@Nonnull MuseumJson museum) {
+        return webClient.patch()
+                .uri(museumUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(museum)
+                .retrieve()
+                .bodyToMono(MuseumJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/museum PATCH]")));
+    }
+
+    private @Nonnull URI museumUri() {
+        return UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum")
+                .build()
+                .toUri();
+    }
+}
@@ -0,0 +1,300 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.PaintingJson;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.utils.ConditionalResponse;
+import guru.qa.rococo.service.utils.HttpQueryPaginationAndSort;
+import guru.qa.rococo.service.utils.ImageResponse;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Неблокирующий клиент микросервиса картин (профиль {@code reactive}).
+ * Формирует те же запросы, что и {@link RestPaintingClient}, но возвращает {@link Mono}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePaintingClient {
+    private final WebClient webClient;
+    private final String rococoPaintingBaseUri;
+
+    @Autowired
+    public ReactivePaintingClient(@Qualifier("paintingWebClient") WebClient webClient, @Value("${rococo-painting.base-uri}") String rococoPaintingBaseUri) {
+        this.webClient = webClient;
+        this.rococoPaintingBaseUri = rococoPaintingBaseUri + "/internal";
+    }
+
+    /**
+     * Получает страницу картин с фильтрацией по названию.
+     *
+     * @param pageable Параметры пагинации и сортировки
+     * @param title    Фильтр по названию (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница картин {@link RestPage<PaintingJson>}
+     */
+    public @Nonnull Mono<RestPage<PaintingJson>> getAllPaintings(@Nonnull Pageable pageable,
+                                                                 @Nullable String title,
+                                                                 @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting")
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams());
+
+        if (StringUtils.hasText(title)) {
+            uriBuilder.queryParam("title", title.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return getPage(uri, "No REST response is given [/internal/painting GET]");
+    }
+
+    /**
+     * Получает картины с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after   Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size    Размер страницы
+     * @param title   Фильтр по названию (может быть null)
+     * @param variant Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<PaintingJson>}
+     */
+    public @Nonnull Mono<RestSlice<PaintingJson>> scrollPaintings(@Nullable String after,
+                                                                  int size,
+                                                                  @Nullable String title,
+                                                                  @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(title)) {
+            uriBuilder.queryParam("title", title.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        return getSlice(uri, "No REST response is given [/internal/painting/scroll GET]");
+    }
+
+    /**
+     * Получает картины художника с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param id      Идентификатор художника
+     * @param after   Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size    Размер страницы
+     * @param variant Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<PaintingJson>}
+     */
+    public @Nonnull Mono<RestSlice<PaintingJson>> scrollPaintingsByAuthorId(@Nonnull UUID id,
+                                                                            @Nullable String after,
+                                                                            int size,
+                                                                            @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/author/{id}/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        return getSlice(uri, "No REST response is given [/internal/painting/author/{id}/scroll GET]");
+    }
+
+    /**
+     * Полнотекстовый поиск картин; возвращает только заголовок, фрагмент и ранг, без изображений.
+     *
+     * @param query Поисковая строка
+     * @param limit Максимальное число результатов
+     * @return Найденные картины, отсортированные по рангу
+     */
+    public @Nonnull Mono<List<SearchHitJson>> searchPaintings(@Nonnull String query, int limit) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/search")
+                .queryParam("query", query)
+                .queryParam("page", 0)
+                .queryParam("size", limit)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestPage<SearchHitJson>>() {
+                })
+                .map(Page::getContent)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/painting/search GET]")));
+    }
+
+    /**
+     * Получает картину с поддержкой условного запроса.
+     *
+     * @param id          UUID картины
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Картина с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<PaintingJson>> getPaintingById(@Nonnull UUID id, @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(PaintingJson.class)
+                .map(response -> ConditionalResponse.of(response, "No REST response is given [/internal/painting/{id} GET]"));
+    }
+
+    /**
+     * Получает изображение картины в бинарном виде.
+     *
+     * @param id          Идентификатор картины
+     * @param variant     Вариант изображения, например {@code thumb} (может быть null)
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Изображение с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull Mono<ResponseEntity<byte[]>> getPaintingImage(@Nonnull UUID id,
+                                                                  @Nullable String variant,
+                                                                  @Nullable String ifNoneMatch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/{id}/image");
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .toEntity(byte[].class)
+                .map(ImageResponse::of);
+    }
+
+    /**
+     * Получает страницу картин художника.
+     *
+     * @param id       Идентификатор художника
+     * @param pageable Параметры пагинации
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница картин {@link RestPage<PaintingJson>}
+     */
+    public @Nonnull Mono<RestPage<PaintingJson>> getPaintingsByAuthorId(@Nonnull UUID id,
+                                                                        @Nonnull Pageable pageable,
+                                                                        @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/author/{id}")
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams());
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        return getPage(uri, "No REST response is given [/internal/painting/author/{id} GET]");
+    }
+
+    public @Nonnull Mono<PaintingJson> addPainting(@Nonnull PaintingJson painting) {
+        return webClient.post()
+                .uri(paintingUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(painting)
+                .retrieve()
+                .bodyToMono(PaintingJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/painting POST]")));
+    }
+
+    public @Nonnull Mono<PaintingJson> updatePainting(@Nonnull PaintingJson painting) {
+        return webClient.patch()
+                .uri(paintingUri())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(painting)
+                .retrieve()
+                .bodyToMono(PaintingJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException("No REST response is given [/internal/painting PATCH]")));
+    }
+
+    private @Nonnull Mono<RestPage<PaintingJson>> getPage(@Nonnull URI uri, @Nonnull String noResponseMessage) {
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestPage<PaintingJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException(noResponseMessage)));
+    }
+
+    private @Nonnull Mono<RestSlice<PaintingJson>> getSlice(@Nonnull URI uri, @Nonnull String noResponseMessage) {
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<RestSlice<PaintingJson>>() {
+                })
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException(noResponseMessage)));
+    }
+
+    private @Nonnull URI paintingUri() {
+        return UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting")
+                .build()
+                .toUri();
+    }
+}
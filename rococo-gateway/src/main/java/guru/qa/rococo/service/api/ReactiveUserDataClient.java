@@ -0,0 +1,83 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.UserJson;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Неблокирующий клиент микросервиса пользовательских данных (профиль {@code reactive}).
+ * Формирует те же запросы, что и {@link RestUserDataClient}, но возвращает {@link Mono}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserDataClient {
+    private final WebClient webClient;
+    private final String rococoUserBaseUri;
+
+    @Autowired
+    public ReactiveUserDataClient(@Qualifier("userdataWebClient") WebClient webClient,
+                                  @Value("${rococo-userdata.base-uri}") String rococoUserBaseUri) {
+        this.webClient = webClient;
+        this.rococoUserBaseUri = rococoUserBaseUri + "/internal";
+    }
+
+    /**
+     * Получает информацию о пользователе по имени.
+     *
+     * @param username Имя пользователя (не null)
+     * @return Объект пользователя {@link UserJson}
+     */
+    public @Nonnull Mono<UserJson> getUser(@Nonnull String username) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoUserBaseUri)
+                .path("/user")
+                .queryParam("username", username)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(UserJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException(
+                        "No REST response is given [/internal/user GET]"
+                )));
+    }
+
+    /**
+     * Обновляет информацию о пользователе.
+     *
+     * @param user Объект с обновленными данными пользователя (не null)
+     * @return Обновленный объект пользователя {@link UserJson}
+     */
+    public @Nonnull Mono<UserJson> updateUserInfo(@Nonnull UserJson user) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoUserBaseUri)
+                .path("/user")
+                .build()
+                .toUri();
+
+        return webClient.patch()
+                .uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(user)
+                .retrieve()
+                .bodyToMono(UserJson.class)
+                .switchIfEmpty(Mono.error(() -> new NoRestResponseException(
+                        "No REST response is given [/internal/user PATCH]"
+                )));
+    }
+}
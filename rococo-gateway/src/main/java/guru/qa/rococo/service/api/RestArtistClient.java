@@ -2,12 +2,18 @@ package guru.qa.rococo.service.api;
 
 import guru.qa.rococo.ex.NoRestResponseException;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.SearchHitJson;
 import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.utils.ConditionalResponse;
 import guru.qa.rococo.service.utils.HttpQueryPaginationAndSort;
+import guru.qa.rococo.service.utils.ImageResponse;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +25,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 /**
@@ -26,13 +33,18 @@ import java.util.UUID;
  * Обеспечивает управление данными о художниках.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestArtistClient {
     private final RestTemplate restTemplate;
     private final String rococoArtistBaseUri;
+    private final SingleFlight singleFlight;
 
     @Autowired
-    public RestArtistClient(RestTemplate restTemplate, @Value("${rococo-artist.base-uri}") String rococoArtistBaseUri) {
+    public RestArtistClient(@Qualifier("artistRestTemplate") RestTemplate restTemplate,
+                            @Value("${rococo-artist.base-uri}") String rococoArtistBaseUri,
+                            SingleFlight singleFlight) {
         this.restTemplate = restTemplate;
+        this.singleFlight = singleFlight;
         this.rococoArtistBaseUri = rococoArtistBaseUri + "/internal";
     }
 
@@ -42,11 +54,13 @@ public class RestArtistClient {
      *
      * @param pageable Параметры пагинации
      * @param name     Фильтр по имени (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
      * @return Страница художников {@link Page<ArtistJson>}
      * @throws NoRestResponseException Если ответ сервиса отсутствует
      */
     public @Nonnull Page<ArtistJson> getAllArtists(@Nonnull Pageable pageable,
-                                                   @Nullable String name) {
+                                                   @Nullable String name,
+                                                   @Nullable String variant) {
         // 1. Безопасное формирование URL с параметрами пагинации и сортировки
         UriComponentsBuilder uriBuilder = UriComponentsBuilder
                 .fromUriString(rococoArtistBaseUri)
@@ -58,10 +72,44 @@ public class RestArtistClient {
             uriBuilder.queryParam("name", name.trim());
         }
 
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
         URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
 
         // 2. Выполнение запроса
-        ResponseEntity<RestPage<ArtistJson>> response = restTemplate.exchange(
+        ResponseEntity<RestPage<ArtistJson>> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<RestPage<ArtistJson>>() {
+                })
+        );
+
+        // 3. Возврат результата
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/artist GET]"));
+    }
+
+    /**
+     * Полнотекстовый поиск художников; возвращает только заголовок, фрагмент и ранг, без изображений.
+     *
+     * @param query Поисковая строка
+     * @param limit Максимальное число результатов
+     * @return Найденные художники, отсортированные по рангу
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull List<SearchHitJson> searchArtists(@Nonnull String query, int limit) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/search")
+                .queryParam("query", query)
+                .queryParam("page", 0)
+                .queryParam("size", limit)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        ResponseEntity<RestPage<SearchHitJson>> response = restTemplate.exchange(
                 uri,
                 HttpMethod.GET,
                 null,
@@ -69,9 +117,54 @@ public class RestArtistClient {
                 }
         );
 
-        // 3. Возврат результата
         return Optional.ofNullable(response.getBody())
-                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/artist GET]"));
+                .map(Page::getContent)
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/artist/search GET]"));
+    }
+
+    /**
+     * Получает художников с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after    Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size     Размер страницы
+     * @param name     Фильтр по имени (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<ArtistJson>}
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull RestSlice<ArtistJson> scrollArtists(@Nullable String after,
+                                                        int size,
+                                                        @Nullable String name,
+                                                        @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(name)) {
+            uriBuilder.queryParam("name", name.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        ResponseEntity<RestSlice<ArtistJson>> response = restTemplate.exchange(
+                uri,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/artist/scroll GET]"));
     }
 
     public @Nonnull ArtistJson getArtistById(@Nonnull UUID id) {
@@ -81,12 +174,76 @@ public class RestArtistClient {
                 .buildAndExpand(id)
                 .toUri();
 
-        ResponseEntity<ArtistJson> response = restTemplate.exchange(uri, HttpMethod.GET, null, ArtistJson.class);
+        ResponseEntity<ArtistJson> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, ArtistJson.class)
+        );
 
         return Optional.ofNullable(response.getBody())
                 .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/artist/{id} GET]"));
     }
 
+    /**
+     * Получает художника с поддержкой условного запроса.
+     *
+     * @param id          Идентификатор художника
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Художник с заголовками кэширования или 304 Not Modified
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull ResponseEntity<ArtistJson> getArtistById(@Nonnull UUID id, @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ConditionalResponse.of(
+                singleFlight.execute(
+                        SingleFlight.key(uri, ifNoneMatch),
+                        () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), ArtistJson.class)
+                ),
+                "No REST response is given [/internal/artist/{id} GET]"
+        );
+    }
+
+    /**
+     * Получает фото художника в бинарном виде.
+     *
+     * @param id          Идентификатор художника
+     * @param variant     Вариант изображения, например {@code thumb} (может быть null)
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Изображение с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull ResponseEntity<byte[]> getArtistImage(@Nonnull UUID id,
+                                                          @Nullable String variant,
+                                                          @Nullable String ifNoneMatch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/artist/{id}/image");
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ImageResponse.of(singleFlight.execute(
+                SingleFlight.key(uri, ifNoneMatch),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class)
+        ));
+    }
+
     /**
      * Добавляет нового художника.
      *
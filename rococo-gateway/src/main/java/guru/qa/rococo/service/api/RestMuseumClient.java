@@ -3,12 +3,18 @@ package guru.qa.rococo.service.api;
 import guru.qa.rococo.ex.NoRestResponseException;
 import guru.qa.rococo.model.CountryJson;
 import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.SearchHitJson;
 import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.utils.ConditionalResponse;
 import guru.qa.rococo.service.utils.HttpQueryPaginationAndSort;
+import guru.qa.rococo.service.utils.ImageResponse;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,6 +26,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,13 +35,18 @@ import java.util.UUID;
  * Обеспечивает управление данными о музеях и странах.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestMuseumClient {
     private final RestTemplate restTemplate;
     private final String rococoMuseumBaseUri;
+    private final SingleFlight singleFlight;
 
     @Autowired
-    public RestMuseumClient(RestTemplate restTemplate, @Value("${rococo-museum.base-uri}") String rococoMuseumBaseUri) {
+    public RestMuseumClient(@Qualifier("museumRestTemplate") RestTemplate restTemplate,
+                            @Value("${rococo-museum.base-uri}") String rococoMuseumBaseUri,
+                            SingleFlight singleFlight) {
         this.restTemplate = restTemplate;
+        this.singleFlight = singleFlight;
         this.rococoMuseumBaseUri = rococoMuseumBaseUri + "/internal";
     }
 
@@ -43,11 +55,13 @@ public class RestMuseumClient {
      *
      * @param pageable Параметры пагинации
      * @param title    Фильтр по названию (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
      * @return Страница музеев {@link Page<MuseumJson>}
      * @throws NoRestResponseException Если ответ отсутствует
      */
     public @Nonnull Page<MuseumJson> getAllMuseums(@Nonnull Pageable pageable,
-                                                   @Nullable String title) {
+                                                   @Nullable String title,
+                                                   @Nullable String variant) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder
                 .fromUriString(rococoMuseumBaseUri)
                 .path("/museum")
@@ -57,9 +71,56 @@ public class RestMuseumClient {
             uriBuilder.queryParam("title", title.trim());
         }
 
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        ResponseEntity<RestPage<MuseumJson>> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<RestPage<MuseumJson>>() {
+                })
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/museum GET]"));
+    }
+
+    /**
+     * Получает музеи с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after    Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size     Размер страницы
+     * @param title    Фильтр по названию (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<MuseumJson>}
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull RestSlice<MuseumJson> scrollMuseums(@Nullable String after,
+                                                        int size,
+                                                        @Nullable String title,
+                                                        @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(title)) {
+            uriBuilder.queryParam("title", title.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
         URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
 
-        ResponseEntity<RestPage<MuseumJson>> response = restTemplate.exchange(
+        ResponseEntity<RestSlice<MuseumJson>> response = restTemplate.exchange(
                 uri,
                 HttpMethod.GET,
                 null,
@@ -68,27 +129,151 @@ public class RestMuseumClient {
         );
 
         return Optional.ofNullable(response.getBody())
-                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/museum GET]"));
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/museum/scroll GET]"));
     }
 
-    public @Nonnull MuseumJson getMuseumById(@Nonnull UUID id) {
+    /**
+     * Получает страны с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after    Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size     Размер страницы
+     * @return Страница {@link RestSlice<CountryJson>}
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull RestSlice<CountryJson> scrollCountries(@Nullable String after,
+                                                           int size) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/country/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        ResponseEntity<RestSlice<CountryJson>> response = restTemplate.exchange(
+                uri,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/country/scroll GET]"));
+    }
+
+    /**
+     * Полнотекстовый поиск музеев; возвращает только заголовок, фрагмент и ранг, без изображений.
+     *
+     * @param query Поисковая строка
+     * @param limit Максимальное число результатов
+     * @return Найденные музеи, отсортированные по рангу
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull List<SearchHitJson> searchMuseums(@Nonnull String query, int limit) {
         URI uri = UriComponentsBuilder
                 .fromUriString(rococoMuseumBaseUri)
-                .path("/museum/{id}")
-                .buildAndExpand(id)
+                .path("/museum/search")
+                .queryParam("query", query)
+                .queryParam("page", 0)
+                .queryParam("size", limit)
+                .encode(StandardCharsets.UTF_8)
+                .build()
                 .toUri();
 
-        ResponseEntity<MuseumJson> response = restTemplate.exchange(
+        ResponseEntity<RestPage<SearchHitJson>> response = restTemplate.exchange(
                 uri,
                 HttpMethod.GET,
                 null,
-                MuseumJson.class
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .map(Page::getContent)
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/museum/search GET]"));
+    }
+
+    public @Nonnull MuseumJson getMuseumById(@Nonnull UUID id) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        ResponseEntity<MuseumJson> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, MuseumJson.class)
         );
 
         return Optional.ofNullable(response.getBody())
                 .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/museum/{id} GET]"));
     }
 
+    /**
+     * Получает музей с поддержкой условного запроса.
+     *
+     * @param id          Идентификатор музея
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Музей с заголовками кэширования или 304 Not Modified
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull ResponseEntity<MuseumJson> getMuseumById(@Nonnull UUID id, @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ConditionalResponse.of(
+                singleFlight.execute(
+                        SingleFlight.key(uri, ifNoneMatch),
+                        () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), MuseumJson.class)
+                ),
+                "No REST response is given [/internal/museum/{id} GET]"
+        );
+    }
+
+    /**
+     * Получает фото музея в бинарном виде.
+     *
+     * @param id          Идентификатор музея
+     * @param variant     Вариант изображения, например {@code thumb} (может быть null)
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Изображение с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull ResponseEntity<byte[]> getMuseumImage(@Nonnull UUID id,
+                                                          @Nullable String variant,
+                                                          @Nullable String ifNoneMatch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/museum/{id}/image");
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ImageResponse.of(singleFlight.execute(
+                SingleFlight.key(uri, ifNoneMatch),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class)
+        ));
+    }
+
     public @Nonnull Page<CountryJson> getAllCountries(@Nonnull Pageable pageable) {
         URI uri = UriComponentsBuilder
                 .fromUriString(rococoMuseumBaseUri)
@@ -97,18 +282,48 @@ public class RestMuseumClient {
                 .build()
                 .toUri();
 
-        ResponseEntity<RestPage<CountryJson>> response = restTemplate.exchange(
-                uri,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<>() {
-                }
+        ResponseEntity<RestPage<CountryJson>> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<RestPage<CountryJson>>() {
+                })
         );
 
         return Optional.ofNullable(response.getBody())
                 .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/country GET]"));
     }
 
+    /**
+     * Получает страницу справочника стран с поддержкой условного запроса.
+     *
+     * @param pageable    Параметры пагинации
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Страница стран с заголовками кэширования или 304 Not Modified
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull ResponseEntity<RestPage<CountryJson>> getAllCountries(@Nonnull Pageable pageable,
+                                                                          @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/country")
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams())
+                .build()
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ConditionalResponse.of(
+                singleFlight.execute(
+                        SingleFlight.key(uri, ifNoneMatch),
+                        () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), new ParameterizedTypeReference<RestPage<CountryJson>>() {
+                        })
+                ),
+                "No REST response is given [/internal/country GET]"
+        );
+    }
+
     /**
      * Добавляет новый музей.
      *
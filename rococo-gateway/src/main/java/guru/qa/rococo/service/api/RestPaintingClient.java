@@ -2,12 +2,18 @@ package guru.qa.rococo.service.api;
 
 import guru.qa.rococo.ex.NoRestResponseException;
 import guru.qa.rococo.model.PaintingJson;
+import guru.qa.rococo.model.SearchHitJson;
 import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
+import guru.qa.rococo.service.utils.ConditionalResponse;
 import guru.qa.rococo.service.utils.HttpQueryPaginationAndSort;
+import guru.qa.rococo.service.utils.ImageResponse;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +25,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,13 +34,18 @@ import java.util.UUID;
  * Обеспечивает управление данными о картинах.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestPaintingClient {
     private final RestTemplate restTemplate;
     private final String rococoPaintingBaseUri;
+    private final SingleFlight singleFlight;
 
     @Autowired
-    public RestPaintingClient(RestTemplate restTemplate, @Value("${rococo-painting.base-uri}") String rococoPaintingBaseUri) {
+    public RestPaintingClient(@Qualifier("paintingRestTemplate") RestTemplate restTemplate,
+                              @Value("${rococo-painting.base-uri}") String rococoPaintingBaseUri,
+                              SingleFlight singleFlight) {
         this.restTemplate = restTemplate;
+        this.singleFlight = singleFlight;
         this.rococoPaintingBaseUri = rococoPaintingBaseUri + "/internal";
     }
 
@@ -42,11 +54,13 @@ public class RestPaintingClient {
      *
      * @param pageable Параметры пагинации и сортировки
      * @param title    Фильтр по названию (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
      * @return Страница картин {@link Page<PaintingJson>}
      * @throws NoRestResponseException Если ответ от сервиса отсутствует
      */
     public @Nonnull Page<PaintingJson> getAllPaintings(@Nonnull Pageable pageable,
-                                                       @Nullable String title) {
+                                                       @Nullable String title,
+                                                       @Nullable String variant) {
         UriComponentsBuilder uriBuilder = UriComponentsBuilder
                 .fromUriString(rococoPaintingBaseUri)
                 .path("/painting")
@@ -56,9 +70,56 @@ public class RestPaintingClient {
             uriBuilder.queryParam("title", title.trim());
         }
 
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
+
+        ResponseEntity<RestPage<PaintingJson>> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<RestPage<PaintingJson>>() {
+                })
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/painting GET]"));
+    }
+
+    /**
+     * Получает картины с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param after    Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size     Размер страницы
+     * @param title    Фильтр по названию (может быть null)
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<PaintingJson>}
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull RestSlice<PaintingJson> scrollPaintings(@Nullable String after,
+                                                            int size,
+                                                            @Nullable String title,
+                                                            @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(title)) {
+            uriBuilder.queryParam("title", title.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
         URI uri = uriBuilder.encode(StandardCharsets.UTF_8).build().toUri();
 
-        ResponseEntity<RestPage<PaintingJson>> response = restTemplate.exchange(
+        ResponseEntity<RestSlice<PaintingJson>> response = restTemplate.exchange(
                 uri,
                 HttpMethod.GET,
                 null,
@@ -67,7 +128,80 @@ public class RestPaintingClient {
         );
 
         return Optional.ofNullable(response.getBody())
-                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/painting GET]"));
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/painting/scroll GET]"));
+    }
+
+    /**
+     * Получает картины художника с keyset-пагинацией (без подсчета общего числа записей).
+     *
+     * @param id       Идентификатор художника
+     * @param after    Курсор из поля {@code next} предыдущей страницы (null - первая страница)
+     * @param size     Размер страницы
+     * @param variant  Вариант изображений, например {@code thumb} (может быть null)
+     * @return Страница {@link RestSlice<PaintingJson>}
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull RestSlice<PaintingJson> scrollPaintingsByAuthorId(@Nonnull UUID id,
+                                                                      @Nullable String after,
+                                                                      int size,
+                                                                      @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/author/{id}/scroll")
+                .queryParam("size", size);
+
+        if (StringUtils.hasText(after)) {
+            uriBuilder.queryParam("after", after.trim());
+        }
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        ResponseEntity<RestSlice<PaintingJson>> response = restTemplate.exchange(
+                uri,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/painting/author/{id}/scroll GET]"));
+    }
+
+    /**
+     * Полнотекстовый поиск картин; возвращает только заголовок, фрагмент и ранг, без изображений.
+     *
+     * @param query Поисковая строка
+     * @param limit Максимальное число результатов
+     * @return Найденные картины, отсортированные по рангу
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull List<SearchHitJson> searchPaintings(@Nonnull String query, int limit) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/search")
+                .queryParam("query", query)
+                .queryParam("page", 0)
+                .queryParam("size", limit)
+                .encode(StandardCharsets.UTF_8)
+                .build()
+                .toUri();
+
+        ResponseEntity<RestPage<SearchHitJson>> response = restTemplate.exchange(
+                uri,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                }
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .map(Page::getContent)
+                .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/painting/search GET]"));
     }
 
     /**
@@ -84,38 +218,102 @@ public class RestPaintingClient {
                 .buildAndExpand(id)
                 .toUri();
 
-        ResponseEntity<PaintingJson> response = restTemplate.exchange(
-                uri,
-                HttpMethod.GET,
-                null,
-                PaintingJson.class
+        ResponseEntity<PaintingJson> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, PaintingJson.class)
         );
 
         return Optional.ofNullable(response.getBody())
                 .orElseThrow(() -> new NoRestResponseException("No REST response is given [/internal/painting/{id} GET]"));
     }
 
+    /**
+     * Получает картину с поддержкой условного запроса.
+     *
+     * @param id          UUID картины
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Картина с заголовками кэширования или 304 Not Modified
+     * @throws NoRestResponseException Если ответ сервиса отсутствует
+     */
+    public @Nonnull ResponseEntity<PaintingJson> getPaintingById(@Nonnull UUID id, @Nullable String ifNoneMatch) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/{id}")
+                .buildAndExpand(id)
+                .toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ConditionalResponse.of(
+                singleFlight.execute(
+                        SingleFlight.key(uri, ifNoneMatch),
+                        () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), PaintingJson.class)
+                ),
+                "No REST response is given [/internal/painting/{id} GET]"
+        );
+    }
+
+    /**
+     * Получает изображение картины в бинарном виде.
+     *
+     * @param id          Идентификатор картины
+     * @param variant     Вариант изображения, например {@code thumb} (может быть null)
+     * @param ifNoneMatch ETag из кэша клиента (может быть null)
+     * @return Изображение с заголовками кэширования или 304 Not Modified
+     */
+    public @Nonnull ResponseEntity<byte[]> getPaintingImage(@Nonnull UUID id,
+                                                            @Nullable String variant,
+                                                            @Nullable String ifNoneMatch) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
+                .fromUriString(rococoPaintingBaseUri)
+                .path("/painting/{id}/image");
+
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        HttpHeaders headers = new HttpHeaders();
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+
+        return ImageResponse.of(singleFlight.execute(
+                SingleFlight.key(uri, ifNoneMatch),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), byte[].class)
+        ));
+    }
+
     /**
      * Получение картин по ID автора с пагинацией
      *
      * @param id       UUID автора
      * @param pageable параметры пагинации
+     * @param variant  вариант изображений, например {@code thumb} (может быть null)
      * @return страница картин
      */
-    public @Nonnull Page<PaintingJson> getPaintingsByAuthorId(@Nonnull UUID id, @Nonnull Pageable pageable) {
-        URI uri = UriComponentsBuilder
+    public @Nonnull Page<PaintingJson> getPaintingsByAuthorId(@Nonnull UUID id,
+                                                              @Nonnull Pageable pageable,
+                                                              @Nullable String variant) {
+        UriComponentsBuilder uriBuilder = UriComponentsBuilder
                 .fromUriString(rococoPaintingBaseUri)
                 .path("/painting/author/{id}")
-                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams())
-                .buildAndExpand(id)
-                .toUri();
+                .queryParams(new HttpQueryPaginationAndSort(pageable).toQueryParams());
 
-        ResponseEntity<RestPage<PaintingJson>> response = restTemplate.exchange(
-                uri,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<>() {
-                }
+        if (StringUtils.hasText(variant)) {
+            uriBuilder.queryParam("variant", variant.trim());
+        }
+
+        URI uri = uriBuilder.buildAndExpand(id).encode(StandardCharsets.UTF_8).toUri();
+
+        ResponseEntity<RestPage<PaintingJson>> response = singleFlight.execute(
+                SingleFlight.key(uri, null),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<RestPage<PaintingJson>>() {
+                })
         );
 
         return Optional.ofNullable(response.getBody())
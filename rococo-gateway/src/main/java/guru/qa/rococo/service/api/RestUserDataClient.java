@@ -4,7 +4,9 @@ import guru.qa.rococo.ex.NoRestResponseException;
 import guru.qa.rococo.model.UserJson;
 import jakarta.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -19,12 +21,13 @@ import java.util.Optional;
  * Обеспечивает получение и обновление информации о пользователях.
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class RestUserDataClient {
     private final RestTemplate restTemplate;
     private final String rococoUserBaseUri;
 
     @Autowired
-    public RestUserDataClient(RestTemplate restTemplate,
+    public RestUserDataClient(@Qualifier("userdataRestTemplate") RestTemplate restTemplate,
                               @Value("${rococo-userdata.base-uri}") String rococoUserBaseUri) {
         this.restTemplate = restTemplate;
         this.rococoUserBaseUri = rococoUserBaseUri + "/internal";
@@ -0,0 +1,28 @@
+package guru.qa.rococo.service.cache;
+
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Ответ микросервиса, сохраненный gateway для повторной отдачи без обращения к сервису.
+ *
+ * @param status       HTTP статус
+ * @param contentType  Content-Type ответа
+ * @param etag         валидатор {@code ETag} (если сервис его вернул)
+ * @param cacheControl заголовок {@code Cache-Control}
+ * @param body         тело ответа
+ */
+public record CachedResponse(int status,
+                             @Nullable String contentType,
+                             @Nullable String etag,
+                             @Nullable String cacheControl,
+                             @Nonnull byte[] body) {
+
+    /**
+     * Кэшируются только успешные ответы: ошибки и 304 должны перепроверяться у сервиса.
+     */
+    public boolean isCacheable() {
+        return status == HttpStatus.OK.value();
+    }
+}
@@ -0,0 +1,169 @@
+package guru.qa.rococo.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import jakarta.servlet.ServletException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Общий кэш ответов каталога (художники, музеи, картины, страны) для анонимных запросов.
+ * <p>
+ * Размер ограничен суммарным объемом тел ответов, записи живут {@code ttl}. Одновременные
+ * промахи по одному ключу объединяются: в сервис идет только первый запрос, остальные ждут
+ * его ответ не дольше {@code coalesce-timeout}, после чего обращаются к сервису сами.
+ * <p>
+ * Метрики: {@code cache.gets{cache=gateway-response}}, {@code rococo.gateway.response-cache.bytes},
+ * {@code rococo.gateway.response-cache.hit-ratio} и {@code rococo.gateway.response-cache.coalesced}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "rococo-gateway.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CatalogResponseCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogResponseCache.class);
+
+    /**
+     * Загрузка ответа из микросервиса (выполнение цепочки фильтров).
+     */
+    @FunctionalInterface
+    public interface Loader {
+        @Nonnull
+        CachedResponse load() throws IOException, ServletException;
+    }
+
+    private final Cache<String, CachedResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    // Увеличивается при каждой инвалидации, чтобы загрузка, начатая до изменения, не попала в кэш
+    private final AtomicLong generation = new AtomicLong();
+    private final Duration coalesceTimeout;
+    private final Counter coalesced;
+
+    @Autowired
+    public CatalogResponseCache(MeterRegistry meterRegistry,
+                                @Value("${rococo-gateway.response-cache.ttl:30s}") Duration ttl,
+                                @Value("${rococo-gateway.response-cache.max-bytes:64MB}") DataSize maxBytes,
+                                @Value("${rococo-gateway.response-cache.coalesce-timeout:5s}") Duration coalesceTimeout) {
+        this.coalesceTimeout = coalesceTimeout;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxBytes.toBytes())
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-response");
+        Gauge.builder("rococo.gateway.response-cache.bytes", cache, CatalogResponseCache::weightedSize)
+                .description("Объем ответов в кэше gateway")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("rococo.gateway.response-cache.hit-ratio", cache, c -> c.stats().hitRate())
+                .description("Доля запросов каталога, обслуженных из кэша gateway")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("rococo.gateway.response-cache.coalesced")
+                .description("Запросы, дождавшиеся ответа параллельного запроса с тем же ключом")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает ответ из кэша или загружает его. Для холодного ключа загрузка выполняется
+     * один раз, параллельные запросы получают тот же ответ.
+     *
+     * @param key    ключ запроса (путь и нормализованные параметры)
+     * @param loader загрузка ответа из сервиса
+     * @return ответ сервиса
+     */
+    public @Nonnull CachedResponse get(@Nonnull String key, @Nonnull Loader loader) throws IOException, ServletException {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<CachedResponse> call = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            CachedResponse shared = await(key, leader);
+            if (shared != null) {
+                coalesced.increment();
+                return shared;
+            }
+            return loader.load();
+        }
+
+        try {
+            // Предыдущая загрузка могла завершиться между проверкой кэша и регистрацией
+            cached = cache.asMap().get(key);
+            if (cached != null) {
+                call.complete(cached);
+                return cached;
+            }
+            long startedAt = generation.get();
+            CachedResponse response = loader.load();
+            if (response.isCacheable() && generation.get() == startedAt) {
+                cache.put(key, response);
+            }
+            call.complete(response);
+            return response;
+        } catch (IOException | ServletException | RuntimeException e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Удаляет ответы, путь которых начинается с одного из префиксов.
+     *
+     * @param pathPrefixes префиксы путей, например {@code /api/painting}
+     */
+    public void invalidate(@Nonnull List<String> pathPrefixes) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> pathPrefixes.stream().anyMatch(
+                prefix -> key.equals(prefix) || key.startsWith(prefix + "/") || key.startsWith(prefix + "?")
+        ));
+    }
+
+    private @Nullable CachedResponse await(@Nonnull String key, @Nonnull CompletableFuture<CachedResponse> leader) {
+        try {
+            return leader.get(coalesceTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("### Response cache: {} not loaded in {} ms, calling service directly", key, coalesceTimeout.toMillis());
+            return null;
+        } catch (ExecutionException e) {
+            // Ошибку первого запроса не тиражируем: каждый ожидающий повторяет запрос сам
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static double weightedSize(@Nonnull Cache<String, CachedResponse> cache) {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,210 @@
+package guru.qa.rococo.service.cache;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр, отдающий анонимные GET-запросы каталога из {@link CatalogResponseCache}.
+ * <p>
+ * Кэшируются {@code /api/artist/**}, {@code /api/museum/**}, {@code /api/painting/**} и
+ * {@code /api/country/**}, кроме изображений. Ключ - путь и параметры запроса, отсортированные
+ * по имени; сортировка приводится к виду {@code property,asc|desc}, как ее передает
+ * {@code HttpQueryPaginationAndSort}. Запросы авторизованных пользователей идут в сервисы напрямую.
+ * <p>
+ * Успешные POST/PATCH через gateway сбрасывают затронутые разделы: изменение художника или
+ * музея меняет и вложенные в картины данные.
+ * <p>
+ * Пути из {@code streamed} не кэшируются: их отдает {@code StreamingProxyFilter}, и буферизация
+ * тела в {@link ContentCachingResponseWrapper} свела бы потоковую передачу на нет.
+ * <p>
+ * Регистрируется в {@link guru.qa.rococo.config.RococoGatewayServiceConfig} после фильтров Spring Security.
+ */
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern CATALOG_READ = Pattern.compile("^/api/(artist|museum|painting|country)(/.*)?$");
+    private static final Pattern IMAGE = Pattern.compile("/image/?$");
+    private static final Map<String, List<String>> INVALIDATED_ON_WRITE = Map.of(
+            "/api/artist", List.of("/api/artist", "/api/painting"),
+            "/api/museum", List.of("/api/museum", "/api/painting", "/api/country"),
+            "/api/painting", List.of("/api/painting")
+    );
+    private static final Set<String> CONDITIONAL_HEADERS = Set.of(
+            HttpHeaders.IF_NONE_MATCH.toLowerCase(Locale.ROOT),
+            HttpHeaders.IF_MODIFIED_SINCE.toLowerCase(Locale.ROOT)
+    );
+
+    private final CatalogResponseCache cache;
+    private final Predicate<String> streamed;
+
+    public CatalogResponseCacheFilter(CatalogResponseCache cache) {
+        this(cache, path -> false);
+    }
+
+    /**
+     * @param streamed пути, которые передаются клиенту потоком и в кэш не попадают
+     */
+    public CatalogResponseCacheFilter(CatalogResponseCache cache, Predicate<String> streamed) {
+        this.cache = cache;
+        this.streamed = streamed;
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request,
+                                    @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        if (HttpMethod.GET.matches(request.getMethod()) && isCachedPath(path) && !streamed.test(path) && isAnonymous()) {
+            CachedResponse cached = cache.get(cacheKey(request), () -> load(request, response, filterChain));
+            write(cached, request, response);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+
+        List<String> invalidated = INVALIDATED_ON_WRITE.get(path);
+        if (invalidated != null
+                && (HttpMethod.POST.matches(request.getMethod()) || HttpMethod.PATCH.matches(request.getMethod()))
+                && response.getStatus() >= 200 && response.getStatus() < 300) {
+            cache.invalidate(invalidated);
+        }
+    }
+
+    /**
+     * Формирует ключ кэша: путь и параметры, отсортированные по имени, без пустых значений.
+     *
+     * @param request HTTP запрос
+     * @return ключ кэша
+     */
+    private static @Nonnull String cacheKey(@Nonnull HttpServletRequest request) {
+        StringJoiner query = new StringJoiner("&", request.getRequestURI() + "?", "");
+        for (Map.Entry<String, String[]> param : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            for (String value : param.getValue()) {
+                String normalized = "sort".equals(param.getKey()) ? normalizeSort(value) : value.trim();
+                if (!normalized.isEmpty()) {
+                    query.add(param.getKey() + "=" + normalized);
+                }
+            }
+        }
+        return query.toString();
+    }
+
+    private static @Nonnull String normalizeSort(@Nonnull String value) {
+        String[] parts = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .toArray(String[]::new);
+        if (parts.length == 0) {
+            return "";
+        }
+        String direction = parts.length > 1 ? parts[1].toLowerCase(Locale.ROOT) : "asc";
+        return parts[0] + "," + direction;
+    }
+
+    private static boolean isCachedPath(@Nonnull String path) {
+        return CATALOG_READ.matcher(path).matches() && !IMAGE.matcher(path).find();
+    }
+
+    private static boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated();
+    }
+
+    private static @Nonnull CachedResponse load(@Nonnull HttpServletRequest request,
+                                                @Nonnull HttpServletResponse response,
+                                                @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        // Тело остается в буфере и пишется в write(), заголовки сервиса уже переданы в ответ
+        ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(new UnconditionalRequest(request), buffered);
+        return new CachedResponse(
+                buffered.getStatus(),
+                buffered.getContentType(),
+                buffered.getHeader(HttpHeaders.ETAG),
+                buffered.getHeader(HttpHeaders.CACHE_CONTROL),
+                buffered.getContentAsByteArray()
+        );
+    }
+
+    private static void write(@Nonnull CachedResponse cached,
+                              @Nonnull HttpServletRequest request,
+                              @Nonnull HttpServletResponse response) throws IOException {
+        response.setStatus(cached.status());
+        if (cached.contentType() != null) {
+            response.setContentType(cached.contentType());
+        }
+        if (cached.cacheControl() != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        }
+        if (cached.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.etag());
+            if (cached.isCacheable() && new ServletWebRequest(request, response).checkNotModified(cached.etag())) {
+                return;
+            }
+        }
+        response.setContentLength(cached.body().length);
+        response.getOutputStream().write(cached.body());
+    }
+
+    /**
+     * Запрос без условных заголовков: в кэш должен попасть полный ответ, а 304 для клиента
+     * вычисляется уже по сохраненному {@code ETag}.
+     */
+    private static final class UnconditionalRequest extends HttpServletRequestWrapper {
+
+        UnconditionalRequest(@Nonnull HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isConditional(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isConditional(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public long getDateHeader(String name) {
+            return isConditional(name) ? -1 : super.getDateHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isConditional(name))
+                    .toList());
+        }
+
+        private static boolean isConditional(String name) {
+            return name != null && CONDITIONAL_HEADERS.contains(name.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -47,32 +48,55 @@ public class CorsCustomizer {
   public void corsCustomizer(@Nonnull HttpSecurity http) throws Exception {
     http.cors(c -> {
       // Создаем источник конфигурации CORS.
-      CorsConfigurationSource source = s -> {
-        // Создаем объект CorsConfiguration для настройки правил CORS.
-        CorsConfiguration cc = new CorsConfiguration();
+      CorsConfigurationSource source = s -> corsConfiguration();
 
-        // Разрешаем использование учетных данных (например, куки, заголовки авторизации).
-        // Это важно, если ваш API использует аутентификацию через куки или токены.
-        cc.setAllowCredentials(true);
+      // Устанавливаем источник конфигурации CORS для HttpSecurity.
+      c.configurationSource(source);
+    });
+  }
 
-        // Указываем список доменов, с которых разрешены запросы.
-        // В данном случае разрешен только домен, указанный в переменной rococoFrontUri.
-        cc.setAllowedOrigins(List.of(rococoFrontUri));
+  /**
+   * Настраивает ту же политику CORS для неблокирующего режима (профиль {@code reactive}).
+   *
+   * @param http Объект {@link ServerHttpSecurity}, используемый для настройки CORS.
+   */
+  public void corsCustomizer(@Nonnull ServerHttpSecurity http) {
+    http.cors(c -> {
+      org.springframework.web.cors.reactive.CorsConfigurationSource source = exchange -> corsConfiguration();
+      c.configurationSource(source);
+    });
+  }
 
-        // Разрешаем все заголовки в запросах.
-        // Это позволяет клиенту отправлять любые заголовки, включая кастомные.
-        cc.setAllowedHeaders(List.of("*"));
+  /**
+   * Создает правила CORS:
+   * 1. Разрешает запросы от указанного фронтенд-приложения.
+   * 2. Разрешает использование учетных данных (куки, заголовки авторизации).
+   * 3. Разрешает все HTTP-методы (GET, POST, PUT, DELETE и т.д.).
+   * 4. Разрешает все заголовки.
+   *
+   * @return Конфигурация CORS.
+   */
+  private @Nonnull CorsConfiguration corsConfiguration() {
+    // Создаем объект CorsConfiguration для настройки правил CORS.
+    CorsConfiguration cc = new CorsConfiguration();
 
-        // Разрешаем все HTTP-методы (GET, POST, PUT, DELETE и т.д.).
-        // Это позволяет клиенту использовать любые методы для взаимодействия с API.
-        cc.setAllowedMethods(List.of("*"));
+    // Разрешаем использование учетных данных (например, куки, заголовки авторизации).
+    // Это важно, если ваш API использует аутентификацию через куки или токены.
+    cc.setAllowCredentials(true);
 
-        // Возвращаем настроенную конфигурацию CORS.
-        return cc;
-      };
+    // Указываем список доменов, с которых разрешены запросы.
+    // В данном случае разрешен только домен, указанный в переменной rococoFrontUri.
+    cc.setAllowedOrigins(List.of(rococoFrontUri));
 
-      // Устанавливаем источник конфигурации CORS для HttpSecurity.
-      c.configurationSource(source);
-    });
+    // Разрешаем все заголовки в запросах.
+    // Это позволяет клиенту отправлять любые заголовки, включая кастомные.
+    cc.setAllowedHeaders(List.of("*"));
+
+    // Разрешаем все HTTP-методы (GET, POST, PUT, DELETE и т.д.).
+    // Это позволяет клиенту использовать любые методы для взаимодействия с API.
+    cc.setAllowedMethods(List.of("*"));
+
+    // Возвращаем настроенную конфигурацию CORS.
+    return cc;
   }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package guru.qa.rococo.service.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nonnull;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Кэш проверенных JWT поверх {@link JwtDecoder}.
+ * <p>
+ * Разбор токена и проверка RSA-подписи выполняются на каждый аутентифицированный запрос, хотя
+ * активная сессия шлет один и тот же токен (например, опрос {@code /api/user}). Уже проверенный
+ * токен хранится по SHA-256 от его значения и отдается без повторной проверки подписи до истечения
+ * {@code exp}, но не дольше {@code maxTtl}. Токены с ошибкой не кэшируются.
+ * <p>
+ * Метрики: {@code cache.gets{cache=jwt}} (попадания/промахи) и {@code rococo.gateway.jwt.verification} -
+ * время полной проверки токена при промахе.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Duration maxTtl;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+    private final Timer verification;
+
+    public CachingJwtDecoder(@Nonnull JwtDecoder delegate,
+                             @Nonnull MeterRegistry meterRegistry,
+                             long maximumSize,
+                             @Nonnull Duration maxTtl) {
+        this(delegate, meterRegistry, maximumSize, maxTtl, Clock.systemUTC());
+    }
+
+    public CachingJwtDecoder(@Nonnull JwtDecoder delegate,
+                             @Nonnull MeterRegistry meterRegistry,
+                             long maximumSize,
+                             @Nonnull Duration maxTtl,
+                             @Nonnull Clock clock) {
+        this.delegate = delegate;
+        this.maxTtl = maxTtl;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        return ttl(jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return ttl(jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt");
+        this.verification = Timer.builder("rococo.gateway.jwt.verification")
+                .description("Разбор и проверка подписи JWT при промахе кэша")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null && notExpired(cached)) {
+            return cached;
+        }
+
+        Jwt jwt = verification.record(() -> delegate.decode(token));
+        if (notExpired(jwt)) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private boolean notExpired(@Nonnull Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt == null || expiresAt.isAfter(clock.instant());
+    }
+
+    private @Nonnull Duration ttl(@Nonnull Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxTtl;
+        }
+        Duration untilExpiry = Duration.between(clock.instant(), expiresAt);
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    private static @Nonnull String hash(@Nonnull String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package guru.qa.rococo.service.proxy;
+
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Потоковое проксирование чтений каталога без разбора JSON в gateway.
+ * <p>
+ * Ответы {@code GET /api/artist}, {@code /api/museum}, {@code /api/painting} (страницы, scroll,
+ * карточки и картины художника) содержат изображения в data URI и весят мегабайты. Вместо чтения
+ * их в {@code RestPage}/{@code *Json} и повторной сериализации тело сервиса копируется клиенту
+ * буфером фиксированного размера; проверяются только статус и заголовки.
+ * <p>
+ * Путь и параметры передаются сервису как есть ({@code /api/...} -> {@code /internal/...}),
+ * контроллеры gateway для этих запросов - такие же сквозные. Ошибки сервиса оформляются
+ * {@code GlobalExceptionHandler} так же, как при обычном вызове через RestTemplate.
+ * Запросы идут через пулы соединений и защиту сервисов из {@code PooledRestTemplateFactory}.
+ */
+public class StreamingProxyFilter extends OncePerRequestFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingProxyFilter.class);
+
+    private static final String UUID = "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+    private static final List<Pattern> ROUTES = List.of(
+            Pattern.compile("^/api/(artist|museum|painting)(/scroll)?$"),
+            Pattern.compile("^/api/(artist|museum|painting)/" + UUID + "$"),
+            Pattern.compile("^/api/painting/author/" + UUID + "(/scroll)?$")
+    );
+    private static final List<String> PASS_THROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LAST_MODIFIED
+    );
+
+    /**
+     * Микросервис: RestTemplate с пулом соединений и базовый URI.
+     */
+    public record Downstream(@Nonnull RestTemplate restTemplate, @Nonnull String baseUri) {
+    }
+
+    private final Map<String, Downstream> downstreams;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    /**
+     * @param downstreams       сервисы по имени раздела ({@code artist}, {@code museum}, {@code painting})
+     * @param exceptionResolver обработчик, формирующий ответы об ошибках как у контроллеров
+     */
+    public StreamingProxyFilter(@Nonnull Map<String, Downstream> downstreams,
+                                @Nonnull HandlerExceptionResolver exceptionResolver) {
+        this.downstreams = Map.copyOf(downstreams);
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(@Nonnull HttpServletRequest request,
+                                    @Nonnull HttpServletResponse response,
+                                    @Nonnull FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        Downstream downstream = HttpMethod.GET.matches(request.getMethod()) && isProxied(path)
+                ? downstreams.get(path.split("/")[2])
+                : null;
+        if (downstream == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String query = request.getQueryString();
+        URI uri = URI.create(downstream.baseUri() + "/internal" + path.substring("/api".length())
+                + (query != null ? "?" + query : ""));
+        try {
+            proxy(downstream.restTemplate(), uri, request, response);
+        } catch (RuntimeException e) {
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
+            if (exceptionResolver.resolveException(request, response, null, e) == null) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, если GET-запрос по этому пути передается потоком
+     */
+    public static boolean isProxied(@Nonnull String path) {
+        return ROUTES.stream().anyMatch(route -> route.matcher(path).matches());
+    }
+
+    private static void proxy(@Nonnull RestTemplate restTemplate,
+                              @Nonnull URI uri,
+                              @Nonnull HttpServletRequest request,
+                              @Nonnull HttpServletResponse response) throws IOException {
+        ClientHttpRequest downstreamRequest = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+        downstreamRequest.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            downstreamRequest.getHeaders().set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+
+        ClientHttpResponse downstreamResponse;
+        try {
+            downstreamResponse = downstreamRequest.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+
+        try (downstreamResponse) {
+            HttpStatusCode status = downstreamResponse.getStatusCode();
+            if (status.isError()) {
+                // Бросает HttpClientErrorException/HttpServerErrorException с телом ошибки сервиса
+                restTemplate.getErrorHandler().handleError(uri, HttpMethod.GET, downstreamResponse);
+                return;
+            }
+
+            response.setStatus(status.value());
+            for (String name : PASS_THROUGH_HEADERS) {
+                String value = downstreamResponse.getHeaders().getFirst(name);
+                if (value != null) {
+                    response.setHeader(name, value);
+                }
+            }
+            if (!status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                long copied = StreamUtils.copy(downstreamResponse.getBody(), response.getOutputStream());
+                LOG.debug("### Streamed {} bytes from {}", copied, uri);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package guru.qa.rococo.service.resilience;
+
+import jakarta.annotation.Nonnull;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ограничение одновременных запросов к одному сервису с очередью ожидания и адаптивным лимитом (AIMD).
+ * <p>
+ * Лимит растет примерно на 1 за каждые {@code limit} быстрых успешных ответов, пока запросы
+ * упираются в него, и умножается на {@code backoffRatio} при ошибке или ответе медленнее
+ * {@code latencyThreshold}. Так медленный сервис получает меньше потоков gateway, а не все.
+ * <p>
+ * Блокировка - {@link ReentrantLock}, поэтому ожидание не закрепляет виртуальные потоки.
+ */
+public class AdaptiveBulkhead {
+
+    public enum Rejection {
+        NONE, QUEUE_FULL, QUEUE_TIMEOUT
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int queued;
+
+    public AdaptiveBulkhead(int initialLimit,
+                            int minLimit,
+                            int maxLimit,
+                            @Nonnull Duration latencyThreshold,
+                            double backoffRatio,
+                            int maxQueue,
+                            @Nonnull Duration queueTimeout) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+    }
+
+    /**
+     * Занимает место для запроса, при необходимости ожидая в очереди.
+     *
+     * @return {@link Rejection#NONE}, если место получено, иначе причина отказа
+     */
+    public @Nonnull Rejection acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < currentLimit()) {
+                inFlight++;
+                return Rejection.NONE;
+            }
+            if (queued >= maxQueue) {
+                return Rejection.QUEUE_FULL;
+            }
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        return Rejection.QUEUE_TIMEOUT;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+            } finally {
+                queued--;
+            }
+            inFlight++;
+            return Rejection.NONE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место после успешного ответа и корректирует лимит по времени ответа.
+     */
+    public void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                decrease();
+            } else if (inFlight >= currentLimit()) {
+                // Увеличиваем лимит, только если он действительно ограничивает нагрузку
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место после ошибки или таймаута и уменьшает лимит.
+     */
+    public void onFailure() {
+        lock.lock();
+        try {
+            decrease();
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает место без изменения лимита (вызов не состоялся).
+     */
+    public void onIgnore() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        lock.lock();
+        try {
+            return currentLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private void decrease() {
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    private void release() {
+        inFlight--;
+        // Лимит мог вырасти: будим всех, лишние снова уснут
+        available.signalAll();
+    }
+}
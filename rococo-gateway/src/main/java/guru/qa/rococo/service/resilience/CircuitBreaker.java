@@ -0,0 +1,207 @@
+package guru.qa.rococo.service.resilience;
+
+import jakarta.annotation.Nonnull;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker по доле ошибок среди последних {@code slidingWindow} вызовов.
+ * <p>
+ * В состоянии {@link State#OPEN} вызовы отклоняются сразу. После {@code openDuration}
+ * пропускается не больше {@code halfOpenProbes} пробных вызовов ({@link State#HALF_OPEN}):
+ * если все они успешны, цепь замыкается, первая же ошибка снова размыкает ее.
+ * <p>
+ * Каждая смена состояния начинает новый цикл. Разрешение помнит цикл, в котором выдано, и результат
+ * вызова из прошлого цикла (например, пробы, пережившей повторное размыкание) не учитывается.
+ * Блокировка - {@link ReentrantLock}, как в {@link AdaptiveBulkhead}, чтобы не закреплять виртуальные потоки.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    public enum Kind {
+        REJECTED, CALL, PROBE
+    }
+
+    /**
+     * Результат проверки перед вызовом.
+     *
+     * @param cycle цикл состояний, в котором выдано разрешение
+     */
+    public record Admission(@Nonnull Kind kind, long cycle) {
+
+        public static final Admission REJECTED = new Admission(Kind.REJECTED, -1);
+
+        public boolean rejected() {
+            return kind == Kind.REJECTED;
+        }
+    }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Кольцевой буфер результатов: true - ошибка
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long cycle;
+    private long openedAt;
+    private int probesInFlight;
+    private int probesSucceeded;
+
+    public CircuitBreaker(int slidingWindow,
+                          int minimumCalls,
+                          int failureRateThreshold,
+                          @Nonnull Duration openDuration,
+                          int halfOpenProbes,
+                          @Nonnull LongSupplier nanoClock) {
+        this.window = new boolean[Math.max(1, slidingWindow)];
+        this.minimumCalls = Math.min(Math.max(1, minimumCalls), window.length);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.nanoClock = nanoClock;
+    }
+
+    public @Nonnull Admission tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openDurationNanos) {
+                    return Admission.REJECTED;
+                }
+                halfOpen();
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight + probesSucceeded >= halfOpenProbes) {
+                    return Admission.REJECTED;
+                }
+                probesInFlight++;
+                return new Admission(Kind.PROBE, cycle);
+            }
+            return new Admission(Kind.CALL, cycle);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(@Nonnull Admission admission) {
+        lock.lock();
+        try {
+            if (admission.cycle() != cycle) {
+                return;
+            }
+            if (admission.kind() == Kind.PROBE) {
+                probesInFlight--;
+                if (++probesSucceeded >= halfOpenProbes) {
+                    close();
+                }
+            } else if (admission.kind() == Kind.CALL) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onFailure(@Nonnull Admission admission) {
+        lock.lock();
+        try {
+            if (admission.cycle() != cycle) {
+                return;
+            }
+            if (admission.kind() == Kind.PROBE) {
+                open();
+            } else if (admission.kind() == Kind.CALL) {
+                record(true);
+                if (windowCalls >= minimumCalls && windowFailures * 100 >= failureRateThreshold * windowCalls) {
+                    open();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает разрешение без результата (вызов не состоялся, например, отклонен bulkhead).
+     */
+    public void release(@Nonnull Admission admission) {
+        lock.lock();
+        try {
+            if (admission.kind() == Kind.PROBE && admission.cycle() == cycle) {
+                probesInFlight--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public @Nonnull State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return доля ошибок в окне в процентах
+     */
+    public double failureRate() {
+        lock.lock();
+        try {
+            return windowCalls == 0 ? 0 : windowFailures * 100.0 / windowCalls;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        cycle++;
+        openedAt = nanoClock.getAsLong();
+    }
+
+    private void halfOpen() {
+        state = State.HALF_OPEN;
+        cycle++;
+        probesInFlight = 0;
+        probesSucceeded = 0;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        cycle++;
+        windowPosition = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,155 @@
+package guru.qa.rococo.service.resilience;
+
+import guru.qa.rococo.config.ResilienceProperties;
+import guru.qa.rococo.ex.NoRestResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Защита вызовов одного микросервиса: circuit breaker и адаптивный bulkhead.
+ * <p>
+ * Отклоненный вызов завершается {@link NoRestResponseException}, которое
+ * {@code GlobalExceptionHandler} превращает в 503, не занимая поток gateway ожиданием сервиса.
+ * <p>
+ * Метрики с тегом {@code downstream}: {@code rococo.gateway.downstream.limit},
+ * {@code rococo.gateway.downstream.in-flight}, {@code rococo.gateway.downstream.queued},
+ * {@code rococo.gateway.downstream.circuit.state} (0 - closed, 1 - half-open, 2 - open)
+ * и {@code rococo.gateway.downstream.rejected} с тегом {@code reason}.
+ */
+public class DownstreamGuard {
+
+    /**
+     * Состояние защиты для actuator.
+     */
+    public record Snapshot(@Nonnull CircuitBreaker.State circuit,
+                           double failureRate,
+                           int limit,
+                           int inFlight,
+                           int queued) {
+    }
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveBulkhead bulkhead;
+    private final Map<Reason, Counter> rejected = new EnumMap<>(Reason.class);
+
+    private enum Reason {
+        CIRCUIT_OPEN, QUEUE_FULL, QUEUE_TIMEOUT
+    }
+
+    public DownstreamGuard(@Nonnull String name,
+                           @Nonnull ResilienceProperties.Route route,
+                           @Nonnull MeterRegistry meterRegistry) {
+        this.name = name;
+        this.circuitBreaker = new CircuitBreaker(
+                route.slidingWindow(),
+                route.minimumCalls(),
+                route.failureRateThreshold(),
+                route.openDuration(),
+                route.halfOpenProbes(),
+                System::nanoTime
+        );
+        this.bulkhead = new AdaptiveBulkhead(
+                route.initialLimit(),
+                route.minLimit(),
+                route.maxLimit(),
+                route.latencyThreshold(),
+                route.backoffRatio(),
+                route.maxQueue(),
+                route.queueTimeout()
+        );
+
+        Gauge.builder("rococo.gateway.downstream.limit", bulkhead, AdaptiveBulkhead::limit)
+                .description("Текущий адаптивный лимит одновременных запросов к сервису")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        Gauge.builder("rococo.gateway.downstream.in-flight", bulkhead, AdaptiveBulkhead::inFlight)
+                .description("Запросы к сервису в работе")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        Gauge.builder("rococo.gateway.downstream.queued", bulkhead, AdaptiveBulkhead::queued)
+                .description("Запросы, ожидающие места в bulkhead")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        Gauge.builder("rococo.gateway.downstream.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .description("Состояние circuit breaker: 0 - closed, 1 - half-open, 2 - open")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        for (Reason reason : Reason.values()) {
+            rejected.put(reason, Counter.builder("rococo.gateway.downstream.rejected")
+                    .description("Запросы, отклоненные без обращения к сервису")
+                    .tag("downstream", name)
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Получает разрешение на вызов сервиса.
+     *
+     * @return разрешение, по которому нужно сообщить результат вызова
+     * @throws NoRestResponseException Если цепь разомкнута или нет места в bulkhead
+     */
+    public @Nonnull Permit acquire() {
+        CircuitBreaker.Admission admission = circuitBreaker.tryAcquire();
+        if (admission.rejected()) {
+            rejected.get(Reason.CIRCUIT_OPEN).increment();
+            throw new NoRestResponseException("rococo-" + name + " is unavailable: circuit breaker is open");
+        }
+
+        AdaptiveBulkhead.Rejection rejection;
+        try {
+            rejection = bulkhead.acquire();
+        } catch (InterruptedException e) {
+            circuitBreaker.release(admission);
+            Thread.currentThread().interrupt();
+            throw new NoRestResponseException("Interrupted while waiting for rococo-" + name);
+        }
+        if (rejection != AdaptiveBulkhead.Rejection.NONE) {
+            circuitBreaker.release(admission);
+            rejected.get(Reason.valueOf(rejection.name())).increment();
+            throw new NoRestResponseException("rococo-" + name + " is overloaded: too many concurrent requests");
+        }
+        return new Permit(admission, System.nanoTime());
+    }
+
+    public @Nonnull Snapshot snapshot() {
+        return new Snapshot(
+                circuitBreaker.state(),
+                circuitBreaker.failureRate(),
+                bulkhead.limit(),
+                bulkhead.inFlight(),
+                bulkhead.queued()
+        );
+    }
+
+    /**
+     * Разрешение на один вызов; результат нужно сообщить ровно один раз.
+     */
+    public final class Permit {
+
+        private final CircuitBreaker.Admission admission;
+        private final long startedAt;
+
+        private Permit(@Nonnull CircuitBreaker.Admission admission, long startedAt) {
+            this.admission = admission;
+            this.startedAt = startedAt;
+        }
+
+        public void success() {
+            bulkhead.onSuccess(System.nanoTime() - startedAt);
+            circuitBreaker.onSuccess(admission);
+        }
+
+        public void failure() {
+            bulkhead.onFailure();
+            circuitBreaker.onFailure(admission);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package guru.qa.rococo.service.resilience;
+
+import jakarta.annotation.Nonnull;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.client5.http.classic.ExecChainHandler;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpException;
+
+import java.io.IOException;
+
+/**
+ * Пропускает запросы Apache HttpClient к сервису через {@link DownstreamGuard}.
+ * <p>
+ * Стоит первым в цепочке, поэтому ожидание соединения из пула тоже считается временем вызова.
+ * Ошибкой считаются отсутствие ответа (таймауты, обрыв соединения) и ответы 5xx; ответы 4xx -
+ * нормальная работа сервиса. Место в bulkhead освобождается по получении ответа, до чтения тела.
+ */
+public class DownstreamGuardHandler implements ExecChainHandler {
+
+    private final DownstreamGuard guard;
+
+    public DownstreamGuardHandler(@Nonnull DownstreamGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    public ClassicHttpResponse execute(ClassicHttpRequest request,
+                                       ExecChain.Scope scope,
+                                       ExecChain chain) throws IOException, HttpException {
+        DownstreamGuard.Permit permit = guard.acquire();
+        try {
+            ClassicHttpResponse response = chain.proceed(request, scope);
+            if (response.getCode() >= 500) {
+                permit.failure();
+            } else {
+                permit.success();
+            }
+            return response;
+        } catch (IOException | HttpException | RuntimeException e) {
+            permit.failure();
+            throw e;
+        }
+    }
+}
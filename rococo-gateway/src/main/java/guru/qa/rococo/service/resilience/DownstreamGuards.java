@@ -0,0 +1,39 @@
+package guru.qa.rococo.service.resilience;
+
+import guru.qa.rococo.config.ResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Реестр {@link DownstreamGuard}: по одному на каждый микросервис.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DownstreamGuards {
+
+    private final ResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, DownstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public DownstreamGuards(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public @Nonnull DownstreamGuard guard(@Nonnull String name) {
+        return guards.computeIfAbsent(name, n -> new DownstreamGuard(n, properties.route(n), meterRegistry));
+    }
+
+    public @Nonnull Map<String, DownstreamGuard.Snapshot> snapshot() {
+        Map<String, DownstreamGuard.Snapshot> result = new TreeMap<>();
+        guards.forEach((name, guard) -> result.put(name, guard.snapshot()));
+        return result;
+    }
+}
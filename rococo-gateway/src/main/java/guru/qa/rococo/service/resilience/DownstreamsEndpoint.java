@@ -0,0 +1,29 @@
+package guru.qa.rococo.service.resilience;
+
+import jakarta.annotation.Nonnull;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Состояние защиты вызовов микросервисов: {@code GET /actuator/downstreams}.
+ */
+@Component
+@Endpoint(id = "downstreams")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class DownstreamsEndpoint {
+
+    private final DownstreamGuards guards;
+
+    public DownstreamsEndpoint(DownstreamGuards guards) {
+        this.guards = guards;
+    }
+
+    @ReadOperation
+    public @Nonnull Map<String, DownstreamGuard.Snapshot> downstreams() {
+        return guards.snapshot();
+    }
+}
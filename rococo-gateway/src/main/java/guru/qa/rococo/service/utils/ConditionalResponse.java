@@ -0,0 +1,49 @@
+package guru.qa.rococo.service.utils;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import jakarta.annotation.Nonnull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Утилита для проксирования JSON-ответов микросервисов на условные запросы ({@code If-None-Match}).
+ * <p>
+ * Тело перечитывается и сериализуется gateway заново, поэтому из ответа сервиса переносятся
+ * только валидатор {@code ETag} и {@code Cache-Control}; ответ 304 передается клиенту без тела.
+ */
+public final class ConditionalResponse {
+
+    private static final List<String> PASS_THROUGH_HEADERS = List.of(
+            HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL
+    );
+
+    private ConditionalResponse() {
+    }
+
+    /**
+     * Формирует ответ gateway из ответа микросервиса (200 с телом или 304 без тела).
+     *
+     * @param response          ответ микросервиса
+     * @param noResponseMessage сообщение об ошибке, если ответ 200 пришел без тела
+     * @return ответ для клиента
+     * @throws NoRestResponseException Если ответ сервиса не содержит тела
+     */
+    public static @Nonnull <T> ResponseEntity<T> of(@Nonnull ResponseEntity<T> response,
+                                                    @Nonnull String noResponseMessage) {
+        if (!response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && response.getBody() == null) {
+            throw new NoRestResponseException(noResponseMessage);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : PASS_THROUGH_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+}
@@ -0,0 +1,47 @@
+package guru.qa.rococo.service.utils;
+
+import jakarta.annotation.Nonnull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Утилита для проксирования изображений из микросервисов.
+ * <p>
+ * Из ответа сервиса переносятся только заголовки, нужные клиенту для отображения и кэширования:
+ * <ul>
+ *   <li>{@code Content-Type} и {@code Content-Length}</li>
+ *   <li>{@code ETag} - для условных запросов с {@code If-None-Match}</li>
+ *   <li>{@code Cache-Control}</li>
+ * </ul>
+ */
+public final class ImageResponse {
+
+    private static final List<String> PASS_THROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.ETAG,
+            HttpHeaders.CACHE_CONTROL
+    );
+
+    private ImageResponse() {
+    }
+
+    /**
+     * Формирует ответ gateway из ответа микросервиса (200 с телом или 304 без тела).
+     *
+     * @param response ответ микросервиса
+     * @return ответ для клиента
+     */
+    public static @Nonnull ResponseEntity<byte[]> of(@Nonnull ResponseEntity<byte[]> response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : PASS_THROUGH_HEADERS) {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
+}
@@ -4,6 +4,7 @@ import guru.qa.rococo.RococoGatewayApplication;
 import guru.qa.rococo.config.SecurityConfigLocal;
 import guru.qa.rococo.controller.ArtistController;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.page.RestSlice;
 import guru.qa.rococo.service.api.RestArtistClient;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +14,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,6 +30,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -50,21 +56,93 @@ class ArtistControllerTest {
 
     @Test
     void getArtistById() throws Exception {
-        when(restArtistClient.getArtistById(artistId)).thenReturn(artist);
+        when(restArtistClient.getArtistById(artistId, null)).thenReturn(ResponseEntity.ok(artist));
 
         mockMvc.perform(get("/api/artist/{id}", artistId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(artistId.toString()))
                 .andExpect(jsonPath("$.name").value("Van Gogh"));
 
-        verify(restArtistClient).getArtistById(artistId);
+        verify(restArtistClient).getArtistById(artistId, null);
+    }
+
+    @Test
+    void getArtistByIdShouldPassThroughEtag() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"3\"");
+        headers.setCacheControl("no-cache");
+        when(restArtistClient.getArtistById(artistId, null))
+                .thenReturn(new ResponseEntity<>(artist, headers, HttpStatus.OK));
+
+        mockMvc.perform(get("/api/artist/{id}", artistId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$.id").value(artistId.toString()));
+    }
+
+    @Test
+    void getArtistByIdNotModified() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"3\"");
+        when(restArtistClient.getArtistById(artistId, "\"3\""))
+                .thenReturn(new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED));
+
+        mockMvc.perform(get("/api/artist/{id}", artistId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void scrollArtists() throws Exception {
+        when(restArtistClient.scrollArtists("cursor-1", 10, "Van", null))
+                .thenReturn(new RestSlice<>(List.of(artist), 10, true, "cursor-2"));
+
+        mockMvc.perform(get("/api/artist/scroll")
+                        .param("after", "cursor-1")
+                        .param("size", "10")
+                        .param("name", "Van"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(artistId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.next").value("cursor-2"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(restArtistClient).scrollArtists("cursor-1", 10, "Van", null);
+    }
+
+    @Test
+    void getArtistImage() throws Exception {
+        byte[] image = {1, 2, 3};
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_PNG);
+        headers.setETag("\"abc\"");
+        when(restArtistClient.getArtistImage(artistId, null, null))
+                .thenReturn(new ResponseEntity<>(image, headers, HttpStatus.OK));
+
+        mockMvc.perform(get("/api/artist/{id}/image", artistId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().bytes(image));
+    }
+
+    @Test
+    void getArtistImageNotModified() throws Exception {
+        when(restArtistClient.getArtistImage(artistId, null, "\"abc\""))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+
+        mockMvc.perform(get("/api/artist/{id}/image", artistId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified());
     }
 
     @Test
     void getAllArtistsWithoutName() throws Exception {
         Page<ArtistJson> page = new PageImpl<>(List.of(artist));
         // 1. Используем любой Pageable в заглушке
-        when(restArtistClient.getAllArtists(any(Pageable.class), isNull()))
+        when(restArtistClient.getAllArtists(any(Pageable.class), isNull(), isNull()))
                 .thenReturn(page);
 
         mockMvc.perform(get("/api/artist"))
@@ -77,6 +155,7 @@ class ArtistControllerTest {
                         pageable.getPageNumber() == 0 &&
                                 pageable.getPageSize() == 10
                 ),
+                isNull(),
                 isNull()
         );
     }
@@ -84,7 +163,7 @@ class ArtistControllerTest {
     @Test
     void getAllArtistsWithName() throws Exception {
         Page<ArtistJson> page = new PageImpl<>(List.of(artist));
-        when(restArtistClient.getAllArtists(any(Pageable.class), eq("Van")))
+        when(restArtistClient.getAllArtists(any(Pageable.class), eq("Van"), isNull()))
                 .thenReturn(page);
 
         mockMvc.perform(get("/api/artist")
@@ -92,7 +171,7 @@ class ArtistControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].name").value("Van Gogh"));
 
-        verify(restArtistClient).getAllArtists(PageRequest.of(0, 10), "Van");
+        verify(restArtistClient).getAllArtists(PageRequest.of(0, 10), "Van", null);
     }
 
     @Test
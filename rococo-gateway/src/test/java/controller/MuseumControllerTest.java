@@ -6,6 +6,7 @@ import guru.qa.rococo.controller.MuseumController;
 import guru.qa.rococo.model.CountryJson;
 import guru.qa.rococo.model.GeoJson;
 import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.page.RestPage;
 import guru.qa.rococo.service.api.RestMuseumClient;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -53,21 +55,21 @@ public class MuseumControllerTest {
     // Тест получения музея по ID
     @Test
     void getMuseumById() throws Exception {
-        when(restMuseumClient.getMuseumById(museumId)).thenReturn(museum);
+        when(restMuseumClient.getMuseumById(museumId, null)).thenReturn(ResponseEntity.ok(museum));
 
         mockMvc.perform(get("/api/museum/{id}", museumId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.title").value("Лувр"))
                 .andExpect(jsonPath("$.geo.country.name").value("Франция"));;
 
-        verify(restMuseumClient).getMuseumById(museumId);
+        verify(restMuseumClient).getMuseumById(museumId, null);
     }
 
     // Тест получения всех музеев с фильтром по названию
     @Test
     void getAllMuseumsWithTitle() throws Exception {
         Page<MuseumJson> page = new PageImpl<>(List.of(museum));
-        when(restMuseumClient.getAllMuseums(any(), eq("Лувр"))).thenReturn(page);
+        when(restMuseumClient.getAllMuseums(any(), eq("Лувр"), isNull())).thenReturn(page);
 
         mockMvc.perform(get("/api/museum")
                         .param("title", "Лувр"))
@@ -76,7 +78,8 @@ public class MuseumControllerTest {
 
         verify(restMuseumClient).getAllMuseums(
                 argThat(p -> p.getPageNumber() == 0 && p.getPageSize() == 10),
-                eq("Лувр")
+                eq("Лувр"),
+                isNull()
         );
     }
 
@@ -109,8 +112,8 @@ public class MuseumControllerTest {
     // Тест получения всех стран
     @Test
     void getAllCountries() throws Exception {
-        Page<CountryJson> page = new PageImpl<>(List.of(new CountryJson(UUID.randomUUID(), "Россия")));
-        when(restMuseumClient.getAllCountries(any())).thenReturn(page);
+        RestPage<CountryJson> page = new RestPage<>(List.of(new CountryJson(UUID.randomUUID(), "Россия")));
+        when(restMuseumClient.getAllCountries(any(), isNull())).thenReturn(ResponseEntity.ok(page));
 
         mockMvc.perform(get("/api/country"))
                 .andExpect(status().isOk())
@@ -14,6 +14,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.servlet.MockMvc;
@@ -54,7 +55,7 @@ public class PaintingControllerTest {
 
     @Test
     void getPaintingById() throws Exception {
-        when(restPaintingClient.getPaintingById(paintingId)).thenReturn(painting);
+        when(restPaintingClient.getPaintingById(paintingId, null)).thenReturn(ResponseEntity.ok(painting));
 
         mockMvc.perform(get("/api/painting/{id}", paintingId))
                 .andExpect(status().isOk())
@@ -64,13 +65,34 @@ public class PaintingControllerTest {
                 .andExpect(jsonPath("$.artist.id").value(artistId.toString()))
                 .andExpect(jsonPath("$.museum.id").value(museumId.toString()));
 
-        verify(restPaintingClient).getPaintingById(paintingId);
+        verify(restPaintingClient).getPaintingById(paintingId, null);
+    }
+
+    @Test
+    void getPaintingByIdShouldExposeSlimArtistAndMuseum() throws Exception {
+        PaintingJson enriched = new PaintingJson(
+                paintingId,
+                painting.title(),
+                painting.description(),
+                painting.content(),
+                new ArtistRef(artistId, "Иван Шишкин"),
+                new MuseumRef(museumId, "Третьяковская галерея")
+        );
+        when(restPaintingClient.getPaintingById(paintingId, null)).thenReturn(ResponseEntity.ok(enriched));
+
+        mockMvc.perform(get("/api/painting/{id}", paintingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.artist.name").value("Иван Шишкин"))
+                .andExpect(jsonPath("$.artist.photo").doesNotExist())
+                .andExpect(jsonPath("$.artist.biography").doesNotExist())
+                .andExpect(jsonPath("$.museum.title").value("Третьяковская галерея"))
+                .andExpect(jsonPath("$.museum.photo").doesNotExist());
     }
 
     @Test
     void getAllPaintingWithTitle() throws Exception {
         Page<PaintingJson> page = new PageImpl<>(List.of(painting));
-        when(restPaintingClient.getAllPaintings(any(), eq("Самая лучшая картина в мире"))).thenReturn(page);
+        when(restPaintingClient.getAllPaintings(any(), eq("Самая лучшая картина в мире"), isNull())).thenReturn(page);
 
         mockMvc.perform(get("/api/painting")
                         .param("title", "Самая лучшая картина в мире"))
@@ -79,7 +101,8 @@ public class PaintingControllerTest {
 
         verify(restPaintingClient).getAllPaintings(
                 argThat(p -> p.getPageNumber() == 0 && p.getPageSize() == 10),
-                eq("Самая лучшая картина в мире")
+                eq("Самая лучшая картина в мире"),
+                isNull()
         );
     }
 
@@ -122,7 +145,7 @@ public class PaintingControllerTest {
                         new ArtistRef(UUID.randomUUID()),
                         new MuseumRef(UUID.randomUUID()))));
 
-        when(restPaintingClient.getAllPaintings(any(), eq(null))).thenReturn(page);
+        when(restPaintingClient.getAllPaintings(any(), eq(null), eq(null))).thenReturn(page);
 
         mockMvc.perform(get("/api/painting"))
                 .andExpect(status().isOk())
@@ -0,0 +1,194 @@
+package controller;
+
+import guru.qa.rococo.RococoGatewayApplication;
+import guru.qa.rococo.config.SecurityConfigReactive;
+import guru.qa.rococo.controller.reactive.ReactiveArtistController;
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.service.api.ReactiveArtistClient;
+import guru.qa.rococo.service.cors.CorsCustomizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockJwt;
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.springSecurity;
+
+@WebFluxTest(ReactiveArtistController.class)
+@ContextConfiguration(classes = {RococoGatewayApplication.class, SecurityConfigReactive.class, CorsCustomizer.class})
+class ReactiveArtistControllerTest {
+
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveArtistClient artistClient;
+
+    @MockBean
+    private ReactiveJwtDecoder jwtDecoder;
+
+    private final UUID artistId = UUID.randomUUID();
+    private final ArtistJson artist = new ArtistJson(
+            artistId,
+            "Van Gogh",
+            "Dutch painter...",
+            "data:image/png;base64,iVBORw0KGg..."
+    );
+
+    @BeforeEach
+    void setUp(ApplicationContext context) {
+        webTestClient = WebTestClient.bindToApplicationContext(context)
+                .apply(springSecurity())
+                .configureClient()
+                .build();
+    }
+
+    @Test
+    void getArtistByIdShouldBeAvailableAnonymously() {
+        when(artistClient.getArtistById(artistId, null)).thenReturn(Mono.just(ResponseEntity.ok(artist)));
+
+        webTestClient.get().uri("/api/artist/{id}", artistId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(artistId.toString())
+                .jsonPath("$.name").isEqualTo("Van Gogh");
+    }
+
+    @Test
+    void getAllArtistsShouldResolvePageable() {
+        when(artistClient.getAllArtists(any(), any(), any()))
+                .thenReturn(Mono.just(new RestPage<>(List.of(artist), PageRequest.of(1, 5), 6)));
+
+        webTestClient.get().uri("/api/artist?page=1&size=5&name=Van")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].name").isEqualTo("Van Gogh")
+                .jsonPath("$.totalElements").isEqualTo(6);
+
+        verify(artistClient).getAllArtists(PageRequest.of(1, 5), "Van", null);
+    }
+
+    @Test
+    void getAllArtistsShouldUsePageableDefault() {
+        when(artistClient.getAllArtists(any(), any(), any()))
+                .thenReturn(Mono.just(new RestPage<>(List.of(artist))));
+
+        webTestClient.get().uri("/api/artist")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(artistClient).getAllArtists(argThat(pageable ->
+                pageable.getPageNumber() == 0 && pageable.getPageSize() == 10
+        ), isNull(), isNull());
+    }
+
+    @Test
+    void addArtistShouldRequireToken() {
+        webTestClient.post().uri("/api/artist")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(artist)
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        verifyNoInteractions(artistClient);
+    }
+
+    @Test
+    void addArtist() {
+        when(artistClient.addArtist(any(ArtistJson.class))).thenReturn(Mono.just(artist));
+
+        webTestClient.mutateWith(mockJwt())
+                .post().uri("/api/artist")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {
+                            "name": "Van Gogh",
+                            "biography": "Dutch painter...",
+                            "photo": "data:image/png;base64,iVBORw0KGg..."
+                        }""")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(artistId.toString());
+
+        verify(artistClient).addArtist(argThat(a -> a.name().equals("Van Gogh")));
+    }
+
+    @Test
+    void unsupportedMediaTypeShouldBeReportedWithItsOwnReason() {
+        webTestClient.mutateWith(mockJwt())
+                .post().uri("/api/artist")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("Van Gogh")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .expectBody()
+                .jsonPath("$.type").value(type -> assertTrue(((String) type).endsWith(": Unsupported Media Type")))
+                .jsonPath("$.status").isEqualTo(415);
+
+        verifyNoInteractions(artistClient);
+    }
+
+    @Test
+    void apiDocsShouldBeAvailableWithoutToken() {
+        webTestClient.get().uri("/v3/api-docs")
+                .exchange()
+                .expectStatus().value(status -> assertTrue(status != 401 && status != 403));
+    }
+
+    @Test
+    void errorStatusOfServiceShouldBeForwarded() {
+        when(artistClient.getArtistById(artistId, null)).thenReturn(Mono.error(WebClientResponseException.create(
+                HttpStatus.NOT_FOUND.value(), "Not Found", HttpHeaders.EMPTY, new byte[0], null
+        )));
+
+        webTestClient.get().uri("/api/artist/{id}", artistId)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void unreachableServiceShouldReturnServiceUnavailable() {
+        when(artistClient.getArtistById(artistId, null)).thenReturn(Mono.error(new WebClientRequestException(
+                new ConnectException("Connection refused"),
+                HttpMethod.GET,
+                URI.create("http://127.0.0.1:8282/internal/artist/" + artistId),
+                HttpHeaders.EMPTY
+        )));
+
+        webTestClient.get().uri("/api/artist/{id}", artistId)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503);
+    }
+}
@@ -0,0 +1,73 @@
+package controller;
+
+import guru.qa.rococo.RococoGatewayApplication;
+import guru.qa.rococo.config.SecurityConfigLocal;
+import guru.qa.rococo.controller.SearchController;
+import guru.qa.rococo.model.SearchResponseJson;
+import guru.qa.rococo.model.SearchResultJson;
+import guru.qa.rococo.service.SearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SearchController.class)
+@ContextConfiguration(classes = {RococoGatewayApplication.class, SecurityConfigLocal.class})
+@WithMockUser
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchService searchService;
+
+    private final UUID artistId = UUID.randomUUID();
+    private final UUID paintingId = UUID.randomUUID();
+
+    @Test
+    void search() throws Exception {
+        when(searchService.search("van")).thenReturn(new SearchResponseJson(
+                "van",
+                List.of(
+                        new SearchResultJson("artist", artistId, "Van Gogh", "<mark>Van</mark> Gogh", 1.5),
+                        new SearchResultJson("painting", paintingId, "Vanitas", "<mark>Van</mark>itas", 0.4)
+                ),
+                List.of("museum")
+        ));
+
+        mockMvc.perform(get("/api/search").param("q", "van"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.query").value("van"))
+                .andExpect(jsonPath("$.results[0].type").value("artist"))
+                .andExpect(jsonPath("$.results[0].id").value(artistId.toString()))
+                .andExpect(jsonPath("$.results[1].type").value("painting"))
+                .andExpect(jsonPath("$.results[0].photo").doesNotExist())
+                .andExpect(jsonPath("$.unavailable[0]").value("museum"));
+
+        verify(searchService).search("van");
+    }
+
+    @Test
+    @WithAnonymousUser
+    void searchIsAvailableWithoutAuthentication() throws Exception {
+        when(searchService.search("van")).thenReturn(new SearchResponseJson("van", List.of(), List.of()));
+
+        mockMvc.perform(get("/api/search").param("q", "van"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results").isEmpty());
+    }
+}
@@ -0,0 +1,175 @@
+package service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import guru.qa.rococo.service.jwt.CachingJwtDecoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingJwtDecoderTest {
+
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2000;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger verifications = new AtomicInteger();
+    private RSAKey rsaKey;
+    private JwtDecoder nimbusDecoder;
+    private JwtDecoder countingDecoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        rsaKey = new RSAKeyGenerator(2048).keyID("rococo").generate();
+        nimbusDecoder = NimbusJwtDecoder.withPublicKey(rsaKey.toRSAPublicKey()).build();
+        countingDecoder = token -> {
+            verifications.incrementAndGet();
+            return nimbusDecoder.decode(token);
+        };
+    }
+
+    @Test
+    void repeatedTokenShouldBeVerifiedOnce() throws Exception {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(countingDecoder, meterRegistry, 100, Duration.ofMinutes(10));
+        String token = token("duck", Instant.now().plus(Duration.ofHours(1)));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+        decoder.decode(token("bee", Instant.now().plus(Duration.ofHours(1))));
+
+        assertEquals("duck", second.getSubject());
+        assertEquals(first, second);
+        assertEquals(2, verifications.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(2, meterRegistry.get("rococo.gateway.jwt.verification").timer().count());
+    }
+
+    @Test
+    void invalidTokenShouldNotBeCached() throws Exception {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(countingDecoder, meterRegistry, 100, Duration.ofMinutes(10));
+        String token = token("duck", Instant.now().plus(Duration.ofHours(1)));
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertThrows(JwtException.class, () -> decoder.decode(tampered));
+        assertThrows(JwtException.class, () -> decoder.decode(tampered));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void cachedTokenShouldNotOutliveExpiry() throws Exception {
+        MutableClock clock = new MutableClock(Instant.now());
+        Instant expiresAt = clock.instant().plus(Duration.ofMinutes(1));
+        JwtDecoder delegate = token -> {
+            verifications.incrementAndGet();
+            return Jwt.withTokenValue(token)
+                    .header("alg", "RS256")
+                    .subject("duck")
+                    .expiresAt(expiresAt)
+                    .build();
+        };
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, meterRegistry, 100, Duration.ofMinutes(10), clock);
+
+        decoder.decode("token");
+        clock.advance(Duration.ofSeconds(59));
+        decoder.decode("token");
+        assertEquals(1, verifications.get());
+
+        clock.advance(Duration.ofSeconds(2));
+        decoder.decode("token");
+        assertEquals(2, verifications.get());
+    }
+
+    /**
+     * Бенчмарк накладных расходов аутентификации на запрос: полная проверка (разбор и RSA-подпись)
+     * против повторного токена активной сессии из кэша. Только печатает замеры: время на общей CI-машине
+     * нестабильно, поэтому тест исключен из {@code test} и запускается задачей {@code benchmark}.
+     */
+    @Test
+    @Tag("BENCHMARK")
+    void perRequestAuthOverhead() throws Exception {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(nimbusDecoder, meterRegistry, 100, Duration.ofMinutes(10));
+        String token = token("duck", Instant.now().plus(Duration.ofHours(1)));
+
+        long verifyNanos = averageNanos(nimbusDecoder, token);
+        long cachedNanos = averageNanos(decoder, token);
+
+        System.out.printf("per-request auth overhead: verify %d us, cached %d us%n",
+                verifyNanos / 1000, cachedNanos / 1000);
+    }
+
+    private static long averageNanos(JwtDecoder decoder, String token) {
+        for (int i = 0; i < WARMUP; i++) {
+            decoder.decode(token);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            decoder.decode(token);
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private String token(String subject, Instant expiresAt) throws Exception {
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(rsaKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .subject(subject)
+                        .issuer("http://127.0.0.1:9000")
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(expiresAt))
+                        .build()
+        );
+        jwt.sign(new RSASSASigner(rsaKey));
+        return jwt.serialize();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package service;
+
+import guru.qa.rococo.service.cache.CatalogResponseCache;
+import guru.qa.rococo.service.cache.CatalogResponseCacheFilter;
+import guru.qa.rococo.service.proxy.StreamingProxyFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResponseCacheFilterTest {
+
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogResponseCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CatalogResponseCache cache = new CatalogResponseCache(
+                meterRegistry,
+                Duration.ofMinutes(1),
+                DataSize.ofMegabytes(1),
+                Duration.ofSeconds(5)
+        );
+        filter = new CatalogResponseCacheFilter(cache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedReadWithReorderedParamsShouldBeServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("/api/artist", "page", "0", "size", "9", "sort", "name,ASC");
+        MockHttpServletResponse second = get("/api/artist", "sort", "name", "size", "9", "page", "0");
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(200, second.getStatus());
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+        assertEquals("\"v1\"", second.getHeader(HttpHeaders.ETAG));
+        assertTrue(meterRegistry.get("rococo.gateway.response-cache.bytes").gauge().value() > 0);
+        assertEquals(0.5, meterRegistry.get("rococo.gateway.response-cache.hit-ratio").gauge().value());
+    }
+
+    @Test
+    void concurrentColdReadsShouldCallServiceOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowChain = (request, response) -> {
+            downstreamCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writeBody(response);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(request("GET", "/api/painting"), response, slowChain);
+                    return response;
+                }));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals("{\"call\":1}", response.get(5, TimeUnit.SECONDS).getContentAsString());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    @Test
+    void successfulWriteShouldInvalidateAffectedSections() throws Exception {
+        get("/api/painting");
+        get("/api/museum");
+
+        MockHttpServletResponse patch = new MockHttpServletResponse();
+        filter.doFilter(request("PATCH", "/api/artist"), patch, (request, response) -> {
+        });
+
+        get("/api/painting");
+        get("/api/museum");
+        assertEquals(3, downstreamCalls.get());
+    }
+
+    @Test
+    void cachedReadShouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        get("/api/museum/8a6b8a5e-4c1b-4a2b-9d55-0d2f7e8c1a11");
+
+        MockHttpServletRequest conditional = request("GET", "/api/museum/8a6b8a5e-4c1b-4a2b-9d55-0d2f7e8c1a11");
+        conditional.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(conditional, response, this::countingChain);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentLength());
+        assertEquals(1, downstreamCalls.get());
+    }
+
+    @Test
+    void authenticatedReadShouldBypassCache() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("user", null, List.of())
+        );
+
+        get("/api/artist");
+        get("/api/artist");
+
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    @Test
+    void imageReadShouldBypassCache() throws Exception {
+        get("/api/artist/8a6b8a5e-4c1b-4a2b-9d55-0d2f7e8c1a11/image");
+        get("/api/artist/8a6b8a5e-4c1b-4a2b-9d55-0d2f7e8c1a11/image");
+
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    @Test
+    void streamedReadShouldBypassCacheWithoutBuffering() throws Exception {
+        filter = new CatalogResponseCacheFilter(
+                new CatalogResponseCache(meterRegistry, Duration.ofMinutes(1), DataSize.ofMegabytes(1), Duration.ofSeconds(5)),
+                StreamingProxyFilter::isProxied
+        );
+        List<ServletResponse> seen = new ArrayList<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/painting"), response, (req, res) -> {
+            seen.add(res);
+            countingChain(req, res);
+        });
+        get("/api/painting");
+        get("/api/country");
+        get("/api/country");
+
+        assertSame(response, seen.getFirst());
+        assertEquals(3, downstreamCalls.get());
+    }
+
+    private MockHttpServletResponse get(String path, String... params) throws Exception {
+        MockHttpServletRequest request = request("GET", path);
+        for (int i = 0; i < params.length; i += 2) {
+            request.addParameter(params[i], params[i + 1]);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, this::countingChain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRequestURI(path);
+        return request;
+    }
+
+    private void countingChain(ServletRequest request, ServletResponse response) throws IOException {
+        downstreamCalls.incrementAndGet();
+        writeBody(response);
+    }
+
+    private void writeBody(ServletResponse response) throws IOException {
+        HttpServletResponse http = (HttpServletResponse) response;
+        http.setStatus(200);
+        http.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        http.setHeader(HttpHeaders.ETAG, "\"v1\"");
+        http.getOutputStream().write(("{\"call\":" + downstreamCalls.get() + "}").getBytes(StandardCharsets.UTF_8));
+    }
+}
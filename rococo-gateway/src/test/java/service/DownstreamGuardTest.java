@@ -0,0 +1,173 @@
+package service;
+
+import guru.qa.rococo.config.ResilienceProperties;
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.service.resilience.AdaptiveBulkhead;
+import guru.qa.rococo.service.resilience.CircuitBreaker;
+import guru.qa.rococo.service.resilience.DownstreamGuard;
+import guru.qa.rococo.service.resilience.DownstreamGuardHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.classic.ExecChain;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.message.BasicClassicHttpRequest;
+import org.apache.hc.core5.http.message.BasicClassicHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DownstreamGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void circuitBreakerShouldOpenOnFailuresAndCloseAfterSuccessfulProbes() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 50, Duration.ofSeconds(10), 2, clock::get);
+
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.Admission.REJECTED, circuitBreaker.tryAcquire());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        CircuitBreaker.Admission first = circuitBreaker.tryAcquire();
+        CircuitBreaker.Admission second = circuitBreaker.tryAcquire();
+        assertEquals(CircuitBreaker.Kind.PROBE, first.kind());
+        assertEquals(CircuitBreaker.Kind.PROBE, second.kind());
+        // Пробных запросов не больше half-open-probes
+        assertEquals(CircuitBreaker.Admission.REJECTED, circuitBreaker.tryAcquire());
+
+        circuitBreaker.onSuccess(first);
+        circuitBreaker.onSuccess(second);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertEquals(0.0, circuitBreaker.failureRate());
+    }
+
+    @Test
+    void failedProbeShouldOpenCircuitAgain() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 2, 50, Duration.ofSeconds(10), 1, clock::get);
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(CircuitBreaker.Admission.REJECTED, circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void probeFromPreviousHalfOpenCycleShouldNotCount() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 2, 50, Duration.ofSeconds(10), 2, clock::get);
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        CircuitBreaker.Admission stale = circuitBreaker.tryAcquire();
+        circuitBreaker.onFailure(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+        CircuitBreaker.Admission probe = circuitBreaker.tryAcquire();
+        // Проба, выданная до повторного размыкания, не закрывает новый цикл и не освобождает его место
+        circuitBreaker.onSuccess(stale);
+        circuitBreaker.onSuccess(probe);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.state());
+        circuitBreaker.onSuccess(circuitBreaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void adaptiveLimitShouldShrinkOnSlowResponsesAndGrowOnFastOnes() throws Exception {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead(
+                10, 2, 12, Duration.ofMillis(100), 0.5, 0, Duration.ZERO
+        );
+
+        bulkhead.acquire();
+        bulkhead.onSuccess(Duration.ofMillis(500).toNanos());
+        assertEquals(5, bulkhead.limit());
+        bulkhead.acquire();
+        bulkhead.onFailure();
+        assertEquals(2, bulkhead.limit());
+
+        // Лимит растет, только пока запросы в него упираются
+        for (int i = 0; i < 20; i++) {
+            assertEquals(AdaptiveBulkhead.Rejection.NONE, bulkhead.acquire());
+            assertEquals(AdaptiveBulkhead.Rejection.NONE, bulkhead.acquire());
+            bulkhead.onSuccess(Duration.ofMillis(10).toNanos());
+            bulkhead.onSuccess(Duration.ofMillis(10).toNanos());
+        }
+        assertTrue(bulkhead.limit() > 2);
+        assertEquals(0, bulkhead.inFlight());
+    }
+
+    @Test
+    void fullBulkheadShouldRejectWithoutCallingService() {
+        DownstreamGuard guard = new DownstreamGuard("painting", route(1, 0, 20), meterRegistry);
+
+        DownstreamGuard.Permit permit = guard.acquire();
+        assertThrows(NoRestResponseException.class, guard::acquire);
+        permit.success();
+        guard.acquire().success();
+
+        assertEquals(1.0, meterRegistry.get("rococo.gateway.downstream.rejected")
+                .tag("downstream", "painting")
+                .tag("reason", "queue-full")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void handlerShouldOpenCircuitOnServerErrors() throws Exception {
+        DownstreamGuard guard = new DownstreamGuard("painting", route(10, 10, 2), meterRegistry);
+        DownstreamGuardHandler handler = new DownstreamGuardHandler(guard);
+        ExecChain chain = mock(ExecChain.class);
+        when(chain.proceed(any(ClassicHttpRequest.class), any())).thenReturn(new BasicClassicHttpResponse(503));
+        ClassicHttpRequest request = new BasicClassicHttpRequest("GET", "/internal/painting");
+
+        handler.execute(request, null, chain);
+        handler.execute(request, null, chain);
+
+        assertThrows(NoRestResponseException.class, () -> handler.execute(request, null, chain));
+        verify(chain, times(2)).proceed(any(ClassicHttpRequest.class), any());
+        assertEquals(CircuitBreaker.State.OPEN, guard.snapshot().circuit());
+        assertEquals(2.0, meterRegistry.get("rococo.gateway.downstream.circuit.state")
+                .tag("downstream", "painting")
+                .gauge()
+                .value());
+    }
+
+    private static ResilienceProperties.Route route(int limit, int maxQueue, int slidingWindow) {
+        return new ResilienceProperties.Route(
+                limit,
+                1,
+                limit,
+                Duration.ofSeconds(1),
+                0.9,
+                maxQueue,
+                Duration.ZERO,
+                slidingWindow,
+                slidingWindow,
+                50,
+                Duration.ofSeconds(10),
+                1
+        );
+    }
+}
@@ -0,0 +1,82 @@
+package service;
+
+import guru.qa.rococo.config.HttpClientProperties;
+import guru.qa.rococo.config.PooledRestTemplateFactory;
+import guru.qa.rococo.config.ResilienceProperties;
+import guru.qa.rococo.service.resilience.DownstreamGuards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class PooledRestTemplateFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PooledRestTemplateFactory factory = new PooledRestTemplateFactory(
+            new RestTemplateBuilder(),
+            new HttpClientProperties(Map.of(
+                    "artist", new HttpClientProperties.Route(
+                            7,
+                            Duration.ofSeconds(1),
+                            Duration.ofSeconds(2),
+                            Duration.ofMillis(500),
+                            Duration.ofMinutes(1),
+                            Duration.ofSeconds(10)
+                    )
+            )),
+            meterRegistry,
+            new DownstreamGuards(new ResilienceProperties(Map.of()), meterRegistry)
+    );
+
+    @AfterEach
+    void tearDown() throws Exception {
+        factory.destroy();
+    }
+
+    @Test
+    void createShouldUsePooledHttpClient() {
+        RestTemplate restTemplate = factory.create("artist");
+
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, restTemplate.getRequestFactory());
+    }
+
+    @Test
+    void createShouldPublishPoolMetricsPerDownstream() {
+        factory.create("artist");
+        factory.create("museum");
+
+        assertEquals(7.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "artist")
+                .gauge()
+                .value());
+        // Для сервиса без настроек используются значения по умолчанию
+        assertEquals(50.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "museum")
+                .gauge()
+                .value());
+    }
+
+    @Test
+    void createShouldGuardEachDownstream() {
+        factory.create("artist");
+        factory.create("museum");
+
+        assertEquals(0.0, meterRegistry.get("rococo.gateway.downstream.circuit.state")
+                .tag("downstream", "artist")
+                .gauge()
+                .value());
+        assertEquals(20.0, meterRegistry.get("rococo.gateway.downstream.limit")
+                .tag("downstream", "museum")
+                .gauge()
+                .value());
+    }
+}
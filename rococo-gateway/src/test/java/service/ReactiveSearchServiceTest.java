@@ -0,0 +1,126 @@
+package service;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchResponseJson;
+import guru.qa.rococo.model.SearchResultJson;
+import guru.qa.rococo.service.ReactiveSearchService;
+import guru.qa.rococo.service.api.ReactiveArtistClient;
+import guru.qa.rococo.service.api.ReactiveMuseumClient;
+import guru.qa.rococo.service.api.ReactivePaintingClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveSearchServiceTest {
+
+    @Mock
+    private ReactiveArtistClient artistClient;
+    @Mock
+    private ReactiveMuseumClient museumClient;
+    @Mock
+    private ReactivePaintingClient paintingClient;
+
+    private ReactiveSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new ReactiveSearchService(
+                artistClient,
+                museumClient,
+                paintingClient,
+                new SimpleMeterRegistry(),
+                Duration.ofMillis(300),
+                2,
+                4,
+                Duration.ofMinutes(1),
+                100
+        );
+    }
+
+    @Test
+    void searchShouldMergeResultsByRankWithLimits() {
+        when(artistClient.searchArtists("van", 2)).thenReturn(Mono.just(List.of(
+                hit("Van Gogh", 0.9),
+                hit("Van Dyck", 0.5),
+                hit("Vanloo", 0.1)
+        )));
+        when(museumClient.searchMuseums("van", 2)).thenReturn(Mono.just(List.of(hit("Vantaa Art Museum", 0.7))));
+        when(paintingClient.searchPaintings("van", 2)).thenReturn(Mono.just(List.of(
+                hit("Vanitas", 0.95),
+                hit("Caravan", 0.2)
+        )));
+
+        SearchResponseJson response = searchService.search("  Van ").block();
+
+        assertEquals("van", response.query());
+        assertTrue(response.unavailable().isEmpty());
+        assertEquals(
+                List.of("Vanitas", "Van Gogh", "Vantaa Art Museum", "Van Dyck"),
+                response.results().stream().map(SearchResultJson::title).toList()
+        );
+    }
+
+    @Test
+    void searchShouldSkipFailedAndSlowServices() {
+        when(artistClient.searchArtists("van", 2)).thenReturn(Mono.just(List.of(hit("Van Gogh", 0.9))));
+        when(museumClient.searchMuseums("van", 2)).thenReturn(Mono.error(new NoRestResponseException("down")));
+        when(paintingClient.searchPaintings("van", 2)).thenReturn(Mono.never());
+
+        long start = System.nanoTime();
+        SearchResponseJson response = searchService.search("van").block();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 2_000, "search should not wait for the slow service");
+        assertFalse(response.isComplete());
+        assertEquals(List.of("museum", "painting"), response.unavailable());
+        assertEquals(List.of("Van Gogh"), response.results().stream().map(SearchResultJson::title).toList());
+    }
+
+    @Test
+    void searchShouldCacheOnlyCompleteResponses() {
+        when(artistClient.searchArtists("van", 2)).thenReturn(Mono.just(List.of(hit("Van Gogh", 0.9))));
+        when(museumClient.searchMuseums("van", 2)).thenReturn(Mono.just(List.of()));
+        when(paintingClient.searchPaintings("van", 2)).thenReturn(Mono.just(List.of()));
+        when(artistClient.searchArtists("gogh", 2)).thenReturn(Mono.just(List.of(hit("Van Gogh", 0.9))));
+        when(museumClient.searchMuseums("gogh", 2)).thenReturn(Mono.error(new NoRestResponseException("down")));
+        when(paintingClient.searchPaintings("gogh", 2)).thenReturn(Mono.just(List.of()));
+
+        searchService.search("van").block();
+        searchService.search("VAN").block();
+        searchService.search("gogh").block();
+        searchService.search("gogh").block();
+
+        verify(artistClient, times(1)).searchArtists("van", 2);
+        verify(museumClient, times(2)).searchMuseums("gogh", 2);
+    }
+
+    @Test
+    void searchShouldReturnEmptyResponseForBlankQuery() {
+        SearchResponseJson response = searchService.search("   ").block();
+
+        assertTrue(response.results().isEmpty());
+        verifyNoInteractions(artistClient, museumClient, paintingClient);
+    }
+
+    private static SearchHitJson hit(String title, double rank) {
+        return new SearchHitJson(UUID.randomUUID(), title, title, rank);
+    }
+}
@@ -1,8 +1,13 @@
 package service;
 
+import guru.qa.rococo.ex.NoRestResponseException;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.SearchHitJson;
 import guru.qa.rococo.model.page.RestPage;
+import guru.qa.rococo.model.page.RestSlice;
 import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +21,17 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -31,6 +42,8 @@ class RestArtistClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private RestArtistClient restArtistClient;
     private final String baseUri = "http://localhost:8080/internal";
     private final UUID artistId = UUID.randomUUID();
@@ -43,7 +56,11 @@ class RestArtistClientTest {
 
     @BeforeEach
     void setUp() {
-        restArtistClient = new RestArtistClient(restTemplate, "http://localhost:8080");
+        restArtistClient = new RestArtistClient(
+                restTemplate,
+                "http://localhost:8080",
+                new SingleFlight(meterRegistry, Duration.ofSeconds(5))
+        );
     }
 
     @Test
@@ -69,7 +86,7 @@ class RestArtistClientTest {
                 eq(typeRef))
         ).thenReturn(new ResponseEntity<>(new RestPage<>(), HttpStatus.OK));
 
-        Page<ArtistJson> result = restArtistClient.getAllArtists(pageable, searchName);
+        Page<ArtistJson> result = restArtistClient.getAllArtists(pageable, searchName, null);
 
         assertNotNull(result);
         verify(restTemplate).exchange(
@@ -100,7 +117,7 @@ class RestArtistClientTest {
                 eq(typeRef))
         ).thenReturn(new ResponseEntity<>(new RestPage<>(), HttpStatus.OK));
 
-        restArtistClient.getAllArtists(pageable, null);
+        restArtistClient.getAllArtists(pageable, null, null);
 
         verify(restTemplate).exchange(
                 eq(expectedUri),
@@ -164,4 +181,141 @@ class RestArtistClientTest {
 
         assertEquals(artist, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getArtistImageShouldPassThroughCacheHeaders() {
+        URI expectedUri = URI.create(baseUri + "/artist/" + artistId + "/image");
+        byte[] image = {1, 2, 3};
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_PNG);
+        headers.setContentLength(image.length);
+        headers.setETag("\"abc\"");
+        headers.setCacheControl("max-age=600, public");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+
+        when(restTemplate.exchange(
+                eq(expectedUri),
+                eq(HttpMethod.GET),
+                argThat((HttpEntity<?> request) -> request.getHeaders().getIfNoneMatch().isEmpty()),
+                eq(byte[].class))
+        ).thenReturn(new ResponseEntity<>(image, headers, HttpStatus.OK));
+
+        ResponseEntity<byte[]> result = restArtistClient.getArtistImage(artistId, null, null);
+
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertArrayEquals(image, result.getBody());
+        assertEquals(MediaType.IMAGE_PNG, result.getHeaders().getContentType());
+        assertEquals("\"abc\"", result.getHeaders().getETag());
+        assertEquals("max-age=600, public", result.getHeaders().getCacheControl());
+        assertTrue(result.getHeaders().getConnection().isEmpty());
+    }
+
+    @Test
+    void getArtistImageShouldForwardIfNoneMatch() {
+        URI expectedUri = URI.create(baseUri + "/artist/" + artistId + "/image");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+
+        when(restTemplate.exchange(
+                eq(expectedUri),
+                eq(HttpMethod.GET),
+                argThat((HttpEntity<?> request) -> request.getHeaders().getIfNoneMatch().contains("\"abc\"")),
+                eq(byte[].class))
+        ).thenReturn(new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED));
+
+        ResponseEntity<byte[]> result = restArtistClient.getArtistImage(artistId, null, "\"abc\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+        assertEquals("\"abc\"", result.getHeaders().getETag());
+    }
+
+    @Test
+    void getArtistByIdShouldForwardIfNoneMatch() {
+        URI expectedUri = URI.create(baseUri + "/artist/" + artistId);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"3\"");
+
+        when(restTemplate.exchange(
+                eq(expectedUri),
+                eq(HttpMethod.GET),
+                argThat((HttpEntity<?> request) -> request.getHeaders().getIfNoneMatch().contains("\"3\"")),
+                eq(ArtistJson.class))
+        ).thenReturn(new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED));
+
+        ResponseEntity<ArtistJson> result = restArtistClient.getArtistById(artistId, "\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, result.getStatusCode());
+        assertNull(result.getBody());
+        assertEquals("\"3\"", result.getHeaders().getETag());
+    }
+
+    @Test
+    void getArtistByIdShouldThrowOnEmptyConditionalResponse() {
+        URI expectedUri = URI.create(baseUri + "/artist/" + artistId);
+
+        when(restTemplate.exchange(
+                eq(expectedUri),
+                eq(HttpMethod.GET),
+                argThat((HttpEntity<?> request) -> request.getHeaders().getIfNoneMatch().isEmpty()),
+                eq(ArtistJson.class))
+        ).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        assertThrows(NoRestResponseException.class, () -> restArtistClient.getArtistById(artistId, null));
+    }
+
+    @Test
+    void searchArtists() {
+        URI expectedUri = UriComponentsBuilder
+                .fromUriString(baseUri + "/artist/search")
+                .queryParam("query", "van gogh")
+                .queryParam("page", 0)
+                .queryParam("size", 5)
+                .encode()
+                .build()
+                .toUri();
+        SearchHitJson hit = new SearchHitJson(artistId, "Van Gogh", "<mark>Van</mark> Gogh", 0.9);
+
+        ParameterizedTypeReference<RestPage<SearchHitJson>> typeRef =
+                new ParameterizedTypeReference<>() {
+                };
+
+        when(restTemplate.exchange(
+                eq(expectedUri),
+                eq(HttpMethod.GET),
+                isNull(),
+                eq(typeRef))
+        ).thenReturn(new ResponseEntity<>(new RestPage<>(List.of(hit)), HttpStatus.OK));
+
+        List<SearchHitJson> result = restArtistClient.searchArtists("van gogh", 5);
+
+        assertEquals(List.of(hit), result);
+    }
+
+    @Test
+    void scrollArtistsShouldPassCursorAndSize() {
+        URI expectedUri = UriComponentsBuilder
+                .fromUriString(baseUri + "/artist/scroll")
+                .queryParam("size", 10)
+                .queryParam("after", "abc")
+                .queryParam("variant", "thumb")
+                .build()
+                .toUri();
+
+        ParameterizedTypeReference<RestSlice<ArtistJson>> typeRef =
+                new ParameterizedTypeReference<>() {
+                };
+
+        when(restTemplate.exchange(
+                eq(expectedUri),
+                eq(HttpMethod.GET),
+                isNull(),
+                eq(typeRef))
+        ).thenReturn(new ResponseEntity<>(new RestSlice<>(List.of(artist), 10, false, null), HttpStatus.OK));
+
+        RestSlice<ArtistJson> result = restArtistClient.scrollArtists("abc", 10, null, "thumb");
+
+        assertEquals(List.of(artist), result.content());
+        assertNull(result.next());
+    }
+}
@@ -5,6 +5,8 @@ import guru.qa.rococo.model.GeoJson;
 import guru.qa.rococo.model.MuseumJson;
 import guru.qa.rococo.model.page.RestPage;
 import guru.qa.rococo.service.api.RestMuseumClient;
+import guru.qa.rococo.service.api.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,6 +21,7 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -33,6 +36,8 @@ class RestMuseumClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private RestMuseumClient restMuseumClient;
 
@@ -47,7 +52,11 @@ class RestMuseumClientTest {
 
     @BeforeEach
     void setUp() {
-        restMuseumClient = new RestMuseumClient(restTemplate, "http://localhost:8283");
+        restMuseumClient = new RestMuseumClient(
+                restTemplate,
+                "http://localhost:8283",
+                new SingleFlight(meterRegistry, Duration.ofSeconds(5))
+        );
     }
 
     // Тест получения музея по ID
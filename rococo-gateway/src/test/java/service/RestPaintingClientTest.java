@@ -6,6 +6,8 @@ import guru.qa.rococo.model.MuseumRef;
 import guru.qa.rococo.model.PaintingJson;
 import guru.qa.rococo.model.page.RestPage;
 import guru.qa.rococo.service.api.RestPaintingClient;
+import guru.qa.rococo.service.api.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,14 +21,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.*;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +48,8 @@ class RestPaintingClientTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private RestPaintingClient restPaintingClient;
 
@@ -59,7 +73,11 @@ class RestPaintingClientTest {
 
     @BeforeEach
     void setup() {
-        restPaintingClient = new RestPaintingClient(restTemplate, "http://localhost:8284");
+        restPaintingClient = new RestPaintingClient(
+                restTemplate,
+                "http://localhost:8284",
+                new SingleFlight(meterRegistry, Duration.ofSeconds(5))
+        );
     }
 
     @Test
@@ -77,7 +95,7 @@ class RestPaintingClientTest {
         )).thenReturn(response);
 
         // When
-        Page<PaintingJson> result = restPaintingClient.getAllPaintings(pageable, "test");
+        Page<PaintingJson> result = restPaintingClient.getAllPaintings(pageable, "test", null);
 
         // Then
         verify(restTemplate).exchange(
@@ -138,7 +156,7 @@ class RestPaintingClientTest {
         ).thenReturn(response);
 
         // When
-        Page<PaintingJson> result = restPaintingClient.getPaintingsByAuthorId(artistId, pageable);
+        Page<PaintingJson> result = restPaintingClient.getPaintingsByAuthorId(artistId, pageable, null);
 
         // Then
         verify(restTemplate).exchange(
@@ -222,7 +240,7 @@ class RestPaintingClientTest {
 
         // When & Then
         assertThrows(NoRestResponseException.class, () ->
-                restPaintingClient.getAllPaintings(PageRequest.of(0, 10), null)
+                restPaintingClient.getAllPaintings(PageRequest.of(0, 10), null, null)
         );
     }
 
@@ -242,4 +260,73 @@ class RestPaintingClientTest {
                 restPaintingClient.getPaintingById(paintingId)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPaintingById_ConcurrentCallsShouldShareOneRequest() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), isNull(), eq(PaintingJson.class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new ResponseEntity<>(testPainting, HttpStatus.OK);
+                });
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<PaintingJson>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> restPaintingClient.getPaintingById(paintingId)));
+            }
+            awaitSharedCalls(3);
+            release.countDown();
+
+            // Then
+            for (Future<PaintingJson> result : results) {
+                assertEquals(testPainting, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), isNull(), eq(PaintingJson.class));
+    }
+
+    @Test
+    void getPaintingById_ConcurrentCallsShouldShareFailure() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), isNull(), eq(PaintingJson.class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                });
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<PaintingJson>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> restPaintingClient.getPaintingById(paintingId)));
+            }
+            awaitSharedCalls(2);
+            release.countDown();
+
+            // Then
+            for (Future<PaintingJson> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(HttpServerErrorException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(restTemplate, times(1)).exchange(any(URI.class), eq(HttpMethod.GET), isNull(), eq(PaintingJson.class));
+    }
+
+    private void awaitSharedCalls(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("rococo.gateway.single-flight.shared").counter().count() < expected
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
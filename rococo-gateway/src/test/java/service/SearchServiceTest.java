@@ -0,0 +1,146 @@
+package service;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchResponseJson;
+import guru.qa.rococo.model.SearchResultJson;
+import guru.qa.rococo.service.SearchService;
+import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.RestMuseumClient;
+import guru.qa.rococo.service.api.RestPaintingClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+
+    @Mock
+    private RestArtistClient restArtistClient;
+    @Mock
+    private RestMuseumClient restMuseumClient;
+    @Mock
+    private RestPaintingClient restPaintingClient;
+
+    private SearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new SearchService(
+                restArtistClient,
+                restMuseumClient,
+                restPaintingClient,
+                new SimpleMeterRegistry(),
+                Duration.ofMillis(300),
+                2,
+                4,
+                Duration.ofMinutes(1),
+                100
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        searchService.shutdown();
+    }
+
+    @Test
+    void searchShouldMergeResultsByRankWithLimits() {
+        when(restArtistClient.searchArtists("van", 2)).thenReturn(List.of(
+                hit("Van Gogh", 0.9),
+                hit("Van Dyck", 0.5),
+                hit("Vanloo", 0.1)
+        ));
+        when(restMuseumClient.searchMuseums("van", 2)).thenReturn(List.of(hit("Vantaa Art Museum", 0.7)));
+        when(restPaintingClient.searchPaintings("van", 2)).thenReturn(List.of(
+                hit("Vanitas", 0.95),
+                hit("Caravan", 0.2)
+        ));
+
+        SearchResponseJson response = searchService.search("  Van ");
+
+        assertEquals("van", response.query());
+        assertTrue(response.unavailable().isEmpty());
+        assertEquals(
+                List.of("Vanitas", "Van Gogh", "Vantaa Art Museum", "Van Dyck"),
+                response.results().stream().map(SearchResultJson::title).toList()
+        );
+        assertEquals(
+                List.of("painting", "artist", "museum", "artist"),
+                response.results().stream().map(SearchResultJson::type).toList()
+        );
+    }
+
+    @Test
+    void searchShouldSkipFailedAndSlowServices() {
+        when(restArtistClient.searchArtists("van", 2)).thenReturn(List.of(hit("Van Gogh", 0.9)));
+        when(restMuseumClient.searchMuseums("van", 2)).thenThrow(new NoRestResponseException("down"));
+        when(restPaintingClient.searchPaintings("van", 2)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of(hit("Vanitas", 0.95));
+        });
+
+        long start = System.nanoTime();
+        SearchResponseJson response = searchService.search("van");
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 2_000, "search should not wait for the slow service");
+        assertFalse(response.isComplete());
+        assertEquals(List.of("museum", "painting"), response.unavailable());
+        assertEquals(List.of("Van Gogh"), response.results().stream().map(SearchResultJson::title).toList());
+    }
+
+    @Test
+    void searchShouldCacheCompleteResponses() {
+        when(restArtistClient.searchArtists("van", 2)).thenReturn(List.of(hit("Van Gogh", 0.9)));
+        when(restMuseumClient.searchMuseums("van", 2)).thenReturn(List.of());
+        when(restPaintingClient.searchPaintings("van", 2)).thenReturn(List.of());
+
+        SearchResponseJson first = searchService.search("van");
+        SearchResponseJson second = searchService.search("VAN");
+
+        assertEquals(first, second);
+        verify(restArtistClient, times(1)).searchArtists("van", 2);
+    }
+
+    @Test
+    void searchShouldNotCachePartialResponses() {
+        when(restArtistClient.searchArtists("van", 2)).thenReturn(List.of(hit("Van Gogh", 0.9)));
+        when(restMuseumClient.searchMuseums("van", 2)).thenThrow(new NoRestResponseException("down"));
+        when(restPaintingClient.searchPaintings("van", 2)).thenReturn(List.of());
+
+        searchService.search("van");
+        searchService.search("van");
+
+        verify(restMuseumClient, times(2)).searchMuseums("van", 2);
+    }
+
+    @Test
+    void searchShouldReturnEmptyResponseForBlankQuery() {
+        SearchResponseJson response = searchService.search("   ");
+
+        assertTrue(response.results().isEmpty());
+        assertTrue(response.unavailable().isEmpty());
+        verifyNoInteractions(restArtistClient, restMuseumClient, restPaintingClient);
+    }
+
+    private static SearchHitJson hit(String title, double rank) {
+        return new SearchHitJson(UUID.randomUUID(), title, title, rank);
+    }
+}
@@ -0,0 +1,132 @@
+package service;
+
+import guru.qa.rococo.service.proxy.StreamingProxyFilter;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class StreamingProxyFilterTest {
+
+    private static final String ARTIST_BASE_URI = "http://localhost:8282";
+    private static final String PAINTING_BASE_URI = "http://localhost:8284";
+    private static final String ID = "3fa85f64-5717-4562-b3fc-2c963f66afa6";
+
+    private MockRestServiceServer artistServer;
+    private MockRestServiceServer paintingServer;
+    private HandlerExceptionResolver exceptionResolver;
+    private FilterChain filterChain;
+    private StreamingProxyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate artistRestTemplate = new RestTemplate();
+        RestTemplate paintingRestTemplate = new RestTemplate();
+        artistServer = MockRestServiceServer.bindTo(artistRestTemplate).build();
+        paintingServer = MockRestServiceServer.bindTo(paintingRestTemplate).build();
+        exceptionResolver = mock(HandlerExceptionResolver.class);
+        filterChain = mock(FilterChain.class);
+        filter = new StreamingProxyFilter(Map.of(
+                "artist", new StreamingProxyFilter.Downstream(artistRestTemplate, ARTIST_BASE_URI),
+                "painting", new StreamingProxyFilter.Downstream(paintingRestTemplate, PAINTING_BASE_URI)
+        ), exceptionResolver);
+    }
+
+    @Test
+    void pageShouldBeStreamedFromServiceAsIs() throws Exception {
+        String body = "{\"content\":[{\"id\":\"" + ID + "\",\"name\":\"Репин\"}],\"number\":0,\"size\":9}";
+        artistServer.expect(requestTo(ARTIST_BASE_URI + "/internal/artist?page=0&size=9&name=%D0%A0%D0%B5"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/artist");
+        request.setQueryString("page=0&size=9&name=%D0%A0%D0%B5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        artistServer.verify();
+        verifyNoInteractions(filterChain);
+        assertEquals(200, response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(body, response.getContentAsString());
+    }
+
+    @Test
+    void conditionalReadShouldForwardIfNoneMatchAndReturnNotModified() throws Exception {
+        paintingServer.expect(requestTo(PAINTING_BASE_URI + "/internal/painting/" + ID))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, "\"v1\""));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/painting/" + ID);
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        paintingServer.verify();
+        assertEquals(304, response.getStatus());
+        assertEquals("\"v1\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serviceErrorShouldBeHandledLikeControllerError() throws Exception {
+        paintingServer.expect(requestTo(PAINTING_BASE_URI + "/internal/painting/author/" + ID + "/scroll"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"title\":\"Not Found\"}"));
+        when(exceptionResolver.resolveException(any(), any(), isNull(), any())).thenReturn(new ModelAndView());
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/painting/author/" + ID + "/scroll");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+
+        paintingServer.verify();
+        verify(exceptionResolver).resolveException(
+                eq(request), eq(response), isNull(), any(HttpClientErrorException.NotFound.class)
+        );
+    }
+
+    @Test
+    void otherRequestsShouldGoThroughControllers() throws Exception {
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{
+                new MockHttpServletRequest("GET", "/api/artist/" + ID + "/image"),
+                new MockHttpServletRequest("GET", "/api/museum"),
+                new MockHttpServletRequest("GET", "/api/country"),
+                new MockHttpServletRequest("GET", "/api/artist/not-a-uuid"),
+                new MockHttpServletRequest("POST", "/api/artist")
+        }) {
+            filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+            verify(filterChain).doFilter(eq(request), any());
+        }
+
+        artistServer.verify();
+        verify(exceptionResolver, never()).resolveException(any(), any(), any(), any());
+    }
+}
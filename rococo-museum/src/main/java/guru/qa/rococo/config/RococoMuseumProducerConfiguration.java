@@ -0,0 +1,63 @@
+package guru.qa.rococo.config;
+
+import guru.qa.rococo.model.MuseumJson;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
+
+@Configuration
+public class RococoMuseumProducerConfiguration {
+
+    private final KafkaProperties kafkaProperties;
+
+    @Autowired
+    public RococoMuseumProducerConfiguration(KafkaProperties kafkaProperties) {
+        this.kafkaProperties = kafkaProperties;
+    }
+
+    @Bean
+    public Map<String, Object> producerConfiguration() {
+        Map<String, Object> properties = new HashMap<>(kafkaProperties.buildProducerProperties(
+                new DefaultSslBundleRegistry()
+        ));
+
+        properties.put(KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+
+        properties.put(VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+
+        return properties;
+    }
+
+    @Bean
+    public ProducerFactory<String, MuseumJson> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfiguration());
+    }
+
+    @Bean
+    public KafkaTemplate<String, MuseumJson> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    @Bean
+    public NewTopic topic() {
+        return TopicBuilder.name("museum-updated")
+                .partitions(10)
+                .replicas(1)
+                .build();
+    }
+}
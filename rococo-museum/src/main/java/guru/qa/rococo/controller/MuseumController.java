@@ -1,13 +1,37 @@
 package guru.qa.rococo.controller;
 
+import guru.qa.rococo.config.ImageSettings;
+import guru.qa.rococo.model.BulkResultJson;
 import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.ExportFormat;
+import guru.qa.rococo.model.ExportImages;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
 import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.MuseumRef;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.Tagged;
+import guru.qa.rococo.service.MuseumExportService;
+import guru.qa.rococo.service.MuseumImportService;
 import guru.qa.rococo.service.MuseumService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -15,25 +39,95 @@ import java.util.UUID;
 public class MuseumController {
 
     private final MuseumService museumGeoService;
+    private final MuseumImportService museumImportService;
+    private final MuseumExportService museumExportService;
+    private final ImageSettings imageSettings;
 
     @Autowired
-    public MuseumController(MuseumService museumGeoService) {
+    public MuseumController(MuseumService museumGeoService,
+                            MuseumImportService museumImportService,
+                            MuseumExportService museumExportService,
+                            ImageSettings imageSettings) {
         this.museumGeoService = museumGeoService;
+        this.museumImportService = museumImportService;
+        this.museumExportService = museumExportService;
+        this.imageSettings = imageSettings;
     }
 
     @GetMapping("/country")
-    public Page<CountryJson> getAllCountries(Pageable pageable) {
-        return museumGeoService.getAllCountries(pageable);
+    public ResponseEntity<Page<CountryJson>> getAllCountries(Pageable pageable) {
+        Page<CountryJson> countries = museumGeoService.getAllCountries(pageable);
+        // При совпадении If-None-Match ответ 304 без тела формирует Spring MVC
+        return ResponseEntity.ok()
+                .eTag(MuseumService.etag(countries))
+                .cacheControl(CacheControl.noCache())
+                .body(countries);
+    }
+
+    @GetMapping("/country/scroll")
+    public SliceJson<CountryJson> scrollCountries(@RequestParam(required = false) String after,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        return museumGeoService.scrollCountries(after, size);
     }
 
     @GetMapping("/museum/{id}")
-    public MuseumJson getMuseumById(@PathVariable UUID id) {
-        return museumGeoService.getMuseumById(id);
+    public ResponseEntity<MuseumJson> getMuseumById(@PathVariable UUID id, WebRequest request) {
+        Tagged<MuseumJson> museum = museumGeoService.getMuseumIfModified(id, request::checkNotModified);
+        if (museum.notModified()) {
+            // 304 Not Modified без загрузки фото
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(museum.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(museum.body());
+    }
+
+    @GetMapping("/museum/{id}/ref")
+    public MuseumRef getMuseumRefById(@PathVariable UUID id) {
+        return museumGeoService.getMuseumRefById(id);
+    }
+
+    @GetMapping("/museum/{id}/image")
+    public ResponseEntity<Resource> getMuseumImage(@PathVariable UUID id,
+                                                   @RequestParam(required = false) String variant) {
+        ImageData image = museumGeoService.getMuseumImage(id, ImageVariant.fromParam(variant));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.mimeType()))
+                .contentLength(image.content().length)
+                .eTag(image.etag())
+                .cacheControl(imageSettings.cacheControl())
+                .body(new ByteArrayResource(image.content()));
+    }
+
+    @GetMapping("/museum/refs")
+    public List<MuseumRef> getMuseumRefsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return museumGeoService.getMuseumRefsByIds(ids);
+    }
+
+    @GetMapping("/museum/batch")
+    public List<MuseumJson> getMuseumsByIds(@RequestParam(name = "ids") List<UUID> ids) {
+        return museumGeoService.getMuseumsByIds(ids);
     }
 
     @GetMapping("/museum")
-    public Page<MuseumJson> getAllMuseums(Pageable pageable, @RequestParam(required = false) String title) {
-        return museumGeoService.getAllMuseum(pageable, title);
+    public Page<MuseumJson> getAllMuseums(Pageable pageable,
+                                          @RequestParam(required = false) String title,
+                                          @RequestParam(required = false) String variant) {
+        return museumGeoService.getAllMuseum(pageable, title, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/museum/scroll")
+    public SliceJson<MuseumJson> scrollMuseums(@RequestParam(required = false) String after,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(required = false) String title,
+                                               @RequestParam(required = false) String variant) {
+        return museumGeoService.scrollMuseums(after, size, title, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/museum/search")
+    public Page<SearchHitJson> searchMuseums(Pageable pageable, @RequestParam String query) {
+        return museumGeoService.searchMuseums(query, pageable);
     }
 
     @PostMapping("/museum")
@@ -45,4 +139,23 @@ public class MuseumController {
     public MuseumJson updateMuseum(@RequestBody MuseumJson museum) {
         return museumGeoService.updateMuseum(museum);
     }
+
+    // Тело - NDJSON, по одному музею на строку; читается потоком, без загрузки в память целиком
+    @PostMapping(path = "/museum/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkResultJson importMuseums(InputStream ndjson) throws IOException {
+        return museumImportService.importMuseums(ndjson);
+    }
+
+    // Ответ пишется построчно по мере чтения из БД, поэтому объем выгрузки не ограничен памятью
+    @GetMapping("/museum/export")
+    public void exportMuseums(@RequestParam(name = "format", required = false) String format,
+                              @RequestParam(name = "images", required = false) String images,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        ExportImages exportImages = ExportImages.fromParam(images);
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("museums." + exportFormat.extension()).build().toString());
+        museumExportService.exportMuseums(response.getOutputStream(), exportFormat, exportImages);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package guru.qa.rococo.data;
 
+import guru.qa.rococo.data.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -17,8 +18,8 @@ import java.util.UUID;
 @Table(name = "geo", schema = "public")
 public class GeoEntity implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    @Column(name = "id", nullable = false, columnDefinition = "UUID default gen_random_uuid()")
+    @UuidV7
+    @Column(name = "id", nullable = false, columnDefinition = "UUID")
     private UUID id;
 
     @Column(name = "city", nullable = false)
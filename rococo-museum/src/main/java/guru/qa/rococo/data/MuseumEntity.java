@@ -1,8 +1,11 @@
 package guru.qa.rococo.data;
 
+import guru.qa.rococo.data.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.LazyGroup;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serializable;
@@ -17,8 +20,8 @@ import java.util.UUID;
 public class MuseumEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    @Column(name = "id", nullable = false, columnDefinition = "UUID default gen_random_uuid()")
+    @UuidV7
+    @Column(name = "id", nullable = false, columnDefinition = "UUID")
     private UUID id;
 
     @Column(name = "title", nullable = false, unique = true)
@@ -27,13 +30,55 @@ public class MuseumEntity implements Serializable {
     @Column(name = "description", nullable = false, columnDefinition = "TEXT", length = 1000)
     private String description;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("photo")
     @Column(columnDefinition = "bytea", nullable = false)
     private byte[] photo;
 
+    @Column(name = "photo_mime", length = 50)
+    private String photoMime;
+
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("thumb")
+    @Column(name = "photo_thumb", columnDefinition = "bytea")
+    private byte[] photoThumb;
+
+    // Превью не строится из сохранённого изображения: догенерация при старте его пропускает
+    @Column(name = "photo_thumb_failed", nullable = false, columnDefinition = "boolean default false not null")
+    private boolean photoThumbFailed;
+
+    @Formula("coalesce(octet_length(photo), 0)")
+    private Integer photoSize;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "geo_id", nullable = false)
     private GeoEntity geo;
 
+    /**
+     * Растет при каждом сохранении, включая смену города; служит оптимистической блокировкой и основой ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Вместе с фото обновляет размер: формула photoSize пересчитывается только при чтении из БД,
+     * и без этого hasPhoto() после замены фото в той же сессии отражал бы прежнее состояние.
+     */
+    public void setPhoto(byte[] photo) {
+        this.photo = photo;
+        this.photoSize = photo != null ? photo.length : 0;
+    }
+
+    /**
+     * Проверяет наличие фото по размеру, не загружая саму колонку.
+     */
+    public boolean hasPhoto() {
+        return photoSize != null
+                ? photoSize > 0
+                : photo != null && photo.length > 0;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
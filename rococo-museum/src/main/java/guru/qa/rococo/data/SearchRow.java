@@ -0,0 +1,17 @@
+package guru.qa.rococo.data;
+
+import java.util.UUID;
+
+/**
+ * Строка результата полнотекстового поиска (native-проекция).
+ */
+public interface SearchRow {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getSnippet();
+
+    Double getRank();
+}
@@ -1,14 +1,27 @@
 package guru.qa.rococo.data.repository;
 
 import guru.qa.rococo.data.GeoEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import guru.qa.rococo.data.CountryEntity;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface CountryRepository extends JpaRepository<CountryEntity, UUID> {
-    Optional<CountryEntity> findByName(String name);
-    boolean existsByName(String name);
+    // Без учета регистра, как в снимке GeoDictionary: режим справочника не меняет результат
+    Optional<CountryEntity> findByNameIgnoreCase(String name);
+
+    boolean existsByNameIgnoreCase(String name);
+
+    // Keyset-пагинация: страница ищется по индексу (name, id) без OFFSET и count(*)
+    @Query("select c from CountryEntity c order by c.name, c.id")
+    Slice<CountryEntity> findSlice(Pageable pageable);
+
+    @Query("select c from CountryEntity c where (c.name, c.id) > (:name, :id) order by c.name, c.id")
+    Slice<CountryEntity> findSliceAfter(@Param("name") String name, @Param("id") UUID id, Pageable pageable);
 }
@@ -1,6 +1,7 @@
 package guru.qa.rococo.data.repository;
 
 import guru.qa.rococo.data.GeoEntity;
+import guru.qa.rococo.model.GeoRef;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,4 +19,8 @@ public interface GeoRepository extends JpaRepository<GeoEntity, UUID> {
 
     @Query("SELECT g FROM GeoEntity g WHERE LOWER(g.city) = LOWER(:city) AND g.country.id = :countryId")
     Optional<GeoEntity> findByCityAndCountryId(@Param("city") String city, @Param("countryId") UUID countryId);
+
+    // Загрузка справочника городов: только id, город и id страны, без join-а с country
+    @Query("select new guru.qa.rococo.model.GeoRef(g.id, g.city, g.country.id) from GeoEntity g")
+    List<GeoRef> findAllRefs();
 }
@@ -1,12 +1,116 @@
 package guru.qa.rococo.data.repository;
 
+import guru.qa.rococo.model.MuseumRef;
+import guru.qa.rococo.model.StoredImage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import guru.qa.rococo.data.MuseumEntity;
+import guru.qa.rococo.data.SearchRow;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface MuseumRepository extends JpaRepository<MuseumEntity, UUID> {
-    Page<MuseumEntity> findAllByTitleContainsIgnoreCase(Pageable pageable, String title);
-}
+
+    // Город и страна читаются тем же запросом, что и музей (MuseumJson всегда содержит geo);
+    // count(*) для страниц - отдельный запрос без join-ов
+    @Override
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    @Query(value = "select m from MuseumEntity m",
+            countQuery = "select count(m) from MuseumEntity m")
+    Page<MuseumEntity> findAll(Pageable pageable);
+
+    // escape(...) экранирует % и _ в фильтре, как в производных запросах ...Containing
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    @Query(value = """
+            select m from MuseumEntity m
+            where upper(m.title) like upper(concat('%', :#{escape(#title)}, '%')) escape :#{escapeCharacter()}
+            """,
+            countQuery = """
+                    select count(m) from MuseumEntity m
+                    where upper(m.title) like upper(concat('%', :#{escape(#title)}, '%')) escape :#{escapeCharacter()}
+                    """)
+    Page<MuseumEntity> findAllByTitleContainsIgnoreCase(Pageable pageable, @Param("title") String title);
+
+    @Override
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    Optional<MuseumEntity> findById(UUID id);
+
+    @Override
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    List<MuseumEntity> findAllById(Iterable<UUID> ids);
+
+    // Keyset-пагинация: страница ищется по индексу (title, id) без OFFSET и count(*)
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    @Query("select m from MuseumEntity m order by m.title, m.id")
+    Slice<MuseumEntity> findSlice(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    @Query("select m from MuseumEntity m where (m.title, m.id) > (:title, :id) order by m.title, m.id")
+    Slice<MuseumEntity> findSliceAfter(@Param("title") String title, @Param("id") UUID id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    @Query("""
+            select m from MuseumEntity m
+            where upper(m.title) like upper(concat('%', :#{escape(#filter)}, '%')) escape :#{escapeCharacter()}
+            order by m.title, m.id
+            """)
+    Slice<MuseumEntity> findSliceByTitle(@Param("filter") String filter, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"geo", "geo.country"})
+    @Query("""
+            select m from MuseumEntity m
+            where upper(m.title) like upper(concat('%', :#{escape(#filter)}, '%')) escape :#{escapeCharacter()}
+              and (m.title, m.id) > (:title, :id)
+            order by m.title, m.id
+            """)
+    Slice<MuseumEntity> findSliceByTitleAfter(@Param("filter") String filter,
+                                              @Param("title") String title,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
+
+    @Query("select new guru.qa.rococo.model.MuseumRef(m.id, m.title) from MuseumEntity m where m.id = :id")
+    Optional<MuseumRef> findRefById(@Param("id") UUID id);
+
+    @Query("select new guru.qa.rococo.model.MuseumRef(m.id, m.title) from MuseumEntity m where m.id in :ids")
+    List<MuseumRef> findRefsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new guru.qa.rococo.model.StoredImage(m.id, m.photoMime, m.photo) from MuseumEntity m where m.id in :ids")
+    List<StoredImage> findPhotosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new guru.qa.rococo.model.StoredImage(m.id, m.photoMime, m.photoThumb) from MuseumEntity m where m.id in :ids and m.photoThumb is not null")
+    List<StoredImage> findThumbnailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select m.id from MuseumEntity m where m.photo is not null and m.photoThumb is null and m.photoThumbFailed = false")
+    List<UUID> findIdsWithoutThumbnail();
+
+    // Полнотекстовый поиск с префиксами слов и нечёткий поиск по триграммам названия, ранжирование по сумме оценок
+    // Совпадения в snippet отмечены символами U+E000/U+E001, теги <mark> ставит SearchHitJson после экранирования текста
+    @Query(nativeQuery = true,
+            value = """
+                    select m.id as id,
+                           m.title as title,
+                           ts_headline('russian', m.description, to_tsquery('russian', :tsQuery),
+                                       'MaxFragments=1, MaxWords=25, MinWords=10, StartSel=\uE000, StopSel=\uE001') as snippet,
+                           cast(ts_rank_cd(m.search_vector, to_tsquery('russian', :tsQuery))
+                                + similarity(upper(m.title), upper(:term)) as double precision) as rank
+                    from museum m
+                    where m.search_vector @@ to_tsquery('russian', :tsQuery)
+                       or upper(m.title) % upper(:term)
+                    order by rank desc, m.title
+                    """,
+            countQuery = """
+                    select count(*)
+                    from museum m
+                    where m.search_vector @@ to_tsquery('russian', :tsQuery)
+                       or upper(m.title) % upper(:term)
+                    """)
+    Page<SearchRow> search(@Param("term") String term, @Param("tsQuery") String tsQuery, Pageable pageable);
+}
\ No newline at end of file
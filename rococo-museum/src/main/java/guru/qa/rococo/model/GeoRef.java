@@ -0,0 +1,13 @@
+package guru.qa.rococo.model;
+
+import java.util.UUID;
+
+/**
+ * Город без страны и музеев - запись справочника {@link guru.qa.rococo.service.GeoDictionary}.
+ */
+public record GeoRef(
+        UUID id,
+        String city,
+        UUID countryId
+) {
+}
@@ -5,7 +5,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import guru.qa.rococo.data.MuseumEntity;
 
 import jakarta.annotation.Nonnull;
-import java.nio.charset.StandardCharsets;
+import jakarta.annotation.Nullable;
 import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -18,23 +18,40 @@ public record MuseumJson(
 ) {
 
     public static @Nonnull MuseumJson fromEntity(@Nonnull MuseumEntity entity) {
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
         return new MuseumJson(
                 entity.getId(),
                 entity.getTitle(),
                 entity.getDescription(),
-                entity.getPhoto() != null && entity.getPhoto().length > 0
-                        ? new String(entity.getPhoto(), StandardCharsets.UTF_8)
-                        : null,
+                photo != null ? photo.toDataUri() : null,
                 GeoJson.fromEntity(entity.getGeo())
         );
     }
 
+    public static @Nonnull MuseumJson fromEntity(@Nonnull MuseumEntity entity, @Nullable String photo) {
+        return new MuseumJson(
+                entity.getId(),
+                entity.getTitle(),
+                entity.getDescription(),
+                entity.hasPhoto() ? photo : null,
+                GeoJson.fromEntity(entity.getGeo())
+        );
+    }
+
+    public @Nonnull MuseumJson withoutPhoto() {
+        return new MuseumJson(id, title, description, null, geo);
+    }
+
     public @Nonnull MuseumEntity toEntity() {
         MuseumEntity entity = new MuseumEntity();
         entity.setId(this.id);
         entity.setTitle(this.title);
         entity.setDescription(this.description);
-        entity.setPhoto(this.photo != null ? this.photo.getBytes(StandardCharsets.UTF_8) : null);
+        if (this.photo != null) {
+            ImageData image = ImageData.fromDataUri(this.photo);
+            entity.setPhoto(image.content());
+            entity.setPhotoMime(image.mimeType());
+        }
         entity.setGeo(this.geo != null ? this.geo.toEntity() : null);
         return entity;
     }
@@ -0,0 +1,16 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.UUID;
+
+/**
+ * Облегченное представление музея без описания, фото и геоданных - для ссылок из других сервисов.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MuseumRef(
+        @JsonProperty("id") UUID id,
+        @JsonProperty("title") String title
+) {
+}
@@ -0,0 +1,19 @@
+package guru.qa.rococo.model;
+
+import jakarta.annotation.Nullable;
+
+import java.util.UUID;
+
+/**
+ * Изображение записи, выбранное отдельным запросом без остальных колонок.
+ */
+public record StoredImage(
+        UUID id,
+        @Nullable String mimeType,
+        @Nullable byte[] content
+) {
+
+    public @Nullable ImageData image() {
+        return ImageData.fromStored(content, mimeType);
+    }
+}
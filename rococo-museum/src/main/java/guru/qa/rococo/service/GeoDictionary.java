@@ -0,0 +1,359 @@
+package guru.qa.rococo.service;
+
+import guru.qa.rococo.data.CountryEntity;
+import guru.qa.rococo.data.GeoEntity;
+import guru.qa.rococo.data.repository.CountryRepository;
+import guru.qa.rococo.data.repository.GeoRepository;
+import guru.qa.rococo.ex.BadRequestException;
+import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.Cursor;
+import guru.qa.rococo.model.GeoRef;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static guru.qa.rococo.service.tx.TransactionCallbacks.afterCommit;
+
+/**
+ * Справочник стран и городов в памяти.
+ * <p>
+ * Страны и города музеев загружаются при старте в неизменяемый снимок: поиск страны по id или
+ * названию и города по названию и стране, а также список стран обходятся без запросов к БД.
+ * Названия сравниваются без учета регистра и пробелов по краям. Новая страна или город попадают
+ * в справочник копированием снимка после коммита транзакции, поэтому читатели видят снимок целиком
+ * и без блокировок.
+ * <p>
+ * Записи, созданные другим экземпляром сервиса, ищутся в БД при промахе и добавляются в снимок;
+ * снимок старше {@code reload-interval} перечитывается в фоне, а запросы тем временем обслуживает
+ * прежний снимок. Пока снимка нет (загрузка при старте не удалась), запросы идут в БД. При
+ * {@code rococo-museum.dictionary.enabled=false} все запросы идут напрямую в БД; сортировка и порядок
+ * стран в обоих режимах одинаковы.
+ */
+@Component
+public class GeoDictionary implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GeoDictionary.class);
+
+    // Тот же порядок, что у keyset-запросов CountryRepository
+    private static final Comparator<CountryJson> BY_NAME = Comparator.comparing(CountryJson::name)
+            .thenComparing(CountryJson::id);
+
+    private final CountryRepository countryRepository;
+    private final GeoRepository geoRepository;
+    private final boolean enabled;
+    private final Duration reloadInterval;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final Executor reloadExecutor;
+
+    @Autowired
+    public GeoDictionary(CountryRepository countryRepository,
+                         GeoRepository geoRepository,
+                         @Value("${rococo-museum.dictionary.enabled:true}") boolean enabled,
+                         @Value("${rococo-museum.dictionary.reload-interval:10m}") Duration reloadInterval) {
+        this(countryRepository, geoRepository, enabled, reloadInterval,
+                task -> Thread.ofVirtual().name("geo-dictionary-reload").start(task));
+    }
+
+    /**
+     * @param reloadExecutor исполнитель фоновой перезагрузки снимка
+     */
+    public GeoDictionary(CountryRepository countryRepository,
+                         GeoRepository geoRepository,
+                         boolean enabled,
+                         Duration reloadInterval,
+                         Executor reloadExecutor) {
+        this.countryRepository = countryRepository;
+        this.geoRepository = geoRepository;
+        this.enabled = enabled;
+        this.reloadInterval = reloadInterval;
+        this.reloadExecutor = reloadExecutor;
+    }
+
+    @Override
+    public void onApplicationEvent(@Nonnull ApplicationReadyEvent event) {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Перечитывает справочник из БД и атомарно подменяет снимок.
+     */
+    public void reload() {
+        Snapshot loaded = Snapshot.of(
+                countryRepository.findAll().stream().map(CountryJson::fromEntity).toList(),
+                geoRepository.findAllRefs()
+        );
+        snapshot.set(loaded);
+        LOG.info("### Geo dictionary loaded: {} countries, {} cities", loaded.countries().size(), loaded.geoIds().size());
+    }
+
+    public @Nonnull Optional<CountryJson> countryById(@Nonnull UUID id) {
+        Snapshot current = snapshot();
+        if (current == null) {
+            return countryRepository.findById(id).map(CountryJson::fromEntity);
+        }
+        CountryJson country = current.countriesById().get(id);
+        if (country != null) {
+            return Optional.of(country);
+        }
+        return countryRepository.findById(id).map(this::loaded);
+    }
+
+    public @Nonnull Optional<CountryJson> countryByName(@Nonnull String name) {
+        Snapshot current = snapshot();
+        if (current == null) {
+            return countryRepository.findByNameIgnoreCase(name.trim()).map(CountryJson::fromEntity);
+        }
+        CountryJson country = current.countriesByName().get(normalize(name));
+        if (country != null) {
+            return Optional.of(country);
+        }
+        return countryRepository.findByNameIgnoreCase(name.trim()).map(this::loaded);
+    }
+
+    /**
+     * Id города {@code city} в стране {@code countryId}, если он уже есть.
+     */
+    public @Nonnull Optional<UUID> geoId(@Nonnull String city, @Nonnull UUID countryId) {
+        Snapshot current = snapshot();
+        if (current == null) {
+            return geoRepository.findByCityAndCountryId(city, countryId).map(GeoEntity::getId);
+        }
+        UUID id = current.geoIds().get(geoKey(city, countryId));
+        if (id != null) {
+            return Optional.of(id);
+        }
+        return geoRepository.findByCityAndCountryId(city, countryId)
+                .map(geo -> {
+                    GeoRef ref = new GeoRef(geo.getId(), geo.getCity(), countryId);
+                    afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : current.withGeo(ref)));
+                    return geo.getId();
+                });
+    }
+
+    /**
+     * Страница стран; сортировка поддерживается по {@code name} и {@code id}, по умолчанию - по названию.
+     * Равные по заданной сортировке страны упорядочиваются по (name, id).
+     *
+     * @throws BadRequestException Если сортировка задана по другому полю
+     */
+    public @Nonnull Page<CountryJson> countries(@Nonnull Pageable pageable) {
+        Comparator<CountryJson> comparator = comparator(pageable.getSort());
+        Snapshot current = snapshot();
+        if (current == null) {
+            Sort sort = pageable.getSort();
+            for (String property : List.of("name", "id")) {
+                if (sort.getOrderFor(property) == null) {
+                    sort = sort.and(Sort.by(property));
+                }
+            }
+            Pageable request = pageable.isPaged()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                    : Pageable.unpaged(sort);
+            return countryRepository.findAll(request).map(CountryJson::fromEntity);
+        }
+        List<CountryJson> countries = current.countries();
+        if (pageable.getSort().isSorted()) {
+            countries = countries.stream().sorted(comparator).toList();
+        }
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(countries);
+        }
+        int from = (int) Math.min(pageable.getOffset(), countries.size());
+        int to = Math.min(from + pageable.getPageSize(), countries.size());
+        return new PageImpl<>(countries.subList(from, to), pageable, countries.size());
+    }
+
+    /**
+     * Порция стран после {@code after} в порядке (name, id) - как {@link CountryRepository#findSliceAfter}.
+     */
+    public @Nonnull Slice<CountryJson> countries(@Nullable Cursor after, @Nonnull Pageable request) {
+        Snapshot current = snapshot();
+        if (current == null) {
+            Slice<CountryEntity> entities = after == null
+                    ? countryRepository.findSlice(request)
+                    : countryRepository.findSliceAfter(after.key(), after.id(), request);
+            return entities.map(CountryJson::fromEntity);
+        }
+        List<CountryJson> countries = current.countries();
+        int from = 0;
+        if (after != null) {
+            int index = Collections.binarySearch(countries, new CountryJson(after.id(), after.key()), BY_NAME);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = Math.min(from + request.getPageSize(), countries.size());
+        return new SliceImpl<>(countries.subList(from, to), request, to < countries.size());
+    }
+
+    /**
+     * Добавляет созданную страну в справочник после коммита текущей транзакции.
+     */
+    public void countryAdded(@Nonnull CountryEntity country) {
+        if (enabled) {
+            CountryJson json = CountryJson.fromEntity(country);
+            afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : current.withCountry(json)));
+        }
+    }
+
+    /**
+     * Добавляет созданный город в справочник после коммита текущей транзакции.
+     */
+    public void geoAdded(@Nonnull GeoEntity geo) {
+        if (enabled) {
+            GeoRef ref = new GeoRef(geo.getId(), geo.getCity(), geo.getCountry().getId());
+            afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : current.withGeo(ref)));
+        }
+    }
+
+    /**
+     * Текущий снимок; {@code null}, если справочник выключен или еще не загружен - тогда запрос идет в БД.
+     * Отсутствующий или устаревший снимок перечитывается в фоне, поток запроса загрузку не ждет.
+     */
+    private @Nullable Snapshot snapshot() {
+        if (!enabled) {
+            return null;
+        }
+        Snapshot current = snapshot.get();
+        if ((current == null || current.olderThan(reloadInterval)) && reloading.compareAndSet(false, true)) {
+            try {
+                reloadExecutor.execute(() -> {
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        LOG.warn("### Geo dictionary reload failed: {}", e.getMessage());
+                    } finally {
+                        reloading.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                reloading.set(false);
+                LOG.warn("### Geo dictionary reload was not started: {}", e.getMessage());
+            }
+        }
+        return current;
+    }
+
+    private @Nonnull CountryJson loaded(@Nonnull CountryEntity entity) {
+        CountryJson country = CountryJson.fromEntity(entity);
+        afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : current.withCountry(country)));
+        return country;
+    }
+
+    private static @Nonnull Comparator<CountryJson> comparator(@Nonnull Sort sort) {
+        Comparator<CountryJson> result = BY_NAME;
+        boolean first = true;
+        for (Sort.Order order : sort) {
+            Comparator<CountryJson> next = switch (order.getProperty()) {
+                case "name" -> Comparator.comparing(CountryJson::name);
+                case "id" -> Comparator.comparing(CountryJson::id);
+                default -> throw new BadRequestException("Сортировка стран возможна только по name и id");
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            result = first ? next : result.thenComparing(next);
+            first = false;
+        }
+        return first ? result : result.thenComparing(BY_NAME);
+    }
+
+    static @Nonnull String normalize(@Nonnull String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static @Nonnull String geoKey(@Nonnull String city, @Nonnull UUID countryId) {
+        return countryId + "|" + normalize(city);
+    }
+
+    /**
+     * Неизменяемый снимок справочника; изменения - только через копию.
+     */
+    private record Snapshot(List<CountryJson> countries,
+                            Map<UUID, CountryJson> countriesById,
+                            Map<String, CountryJson> countriesByName,
+                            Map<String, UUID> geoIds,
+                            long loadedAt) {
+
+        static @Nonnull Snapshot of(@Nonnull List<CountryJson> countries, @Nonnull List<GeoRef> geos) {
+            Map<UUID, CountryJson> byId = new HashMap<>();
+            Map<String, CountryJson> byName = new HashMap<>();
+            for (CountryJson country : countries) {
+                byId.put(country.id(), country);
+                byName.put(normalize(country.name()), country);
+            }
+            Map<String, UUID> geoIds = new HashMap<>();
+            for (GeoRef geo : geos) {
+                geoIds.put(geoKey(geo.city(), geo.countryId()), geo.id());
+            }
+            return new Snapshot(
+                    countries.stream().sorted(BY_NAME).toList(),
+                    Map.copyOf(byId),
+                    Map.copyOf(byName),
+                    Map.copyOf(geoIds),
+                    System.nanoTime()
+            );
+        }
+
+        boolean olderThan(@Nonnull Duration interval) {
+            return System.nanoTime() - loadedAt > interval.toNanos();
+        }
+
+        @Nonnull Snapshot withCountry(@Nonnull CountryJson country) {
+            if (country.equals(countriesById.get(country.id()))) {
+                return this;
+            }
+            Map<UUID, CountryJson> byId = new HashMap<>(countriesById);
+            CountryJson previous = byId.put(country.id(), country);
+            Map<String, CountryJson> byName = new HashMap<>(countriesByName);
+            if (previous != null) {
+                byName.remove(normalize(previous.name()));
+            }
+            byName.put(normalize(country.name()), country);
+            return new Snapshot(
+                    byId.values().stream().sorted(BY_NAME).toList(),
+                    Map.copyOf(byId),
+                    Map.copyOf(byName),
+                    geoIds,
+                    loadedAt
+            );
+        }
+
+        @Nonnull Snapshot withGeo(@Nonnull GeoRef geo) {
+            String key = geoKey(geo.city(), geo.countryId());
+            if (geo.id().equals(geoIds.get(key))) {
+                return this;
+            }
+            Map<String, UUID> copy = new HashMap<>(geoIds);
+            copy.put(key, geo.id());
+            return new Snapshot(countries, countriesById, countriesByName, Map.copyOf(copy), loadedAt);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package guru.qa.rococo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.config.ImageSettings;
+import guru.qa.rococo.model.ExportFormat;
+import guru.qa.rococo.model.ExportImages;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.service.export.ExportWriter;
+import guru.qa.rococo.service.export.JdbcExporter;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Выгрузка всех музеев ({@code GET /internal/museum/export}) потоком, без сущностей JPA.
+ * Город и страна выбираются тем же запросом; фото читается из БД только в режиме {@link ExportImages#INLINE}.
+ */
+@Service
+public class MuseumExportService {
+
+    private static final String SQL = """
+            select m.id, m.title, m.description, g.city, c.name as country, %s
+            from museum m
+            join geo g on g.id = m.geo_id
+            join country c on c.id = g.country_id
+            where m.id > ?
+            order by m.id
+            limit ?
+            """;
+
+    private final JdbcExporter jdbcExporter;
+    private final ImageSettings imageSettings;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public MuseumExportService(JdbcExporter jdbcExporter, ImageSettings imageSettings, ObjectMapper objectMapper) {
+        this.jdbcExporter = jdbcExporter;
+        this.imageSettings = imageSettings;
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportMuseums(@Nonnull OutputStream out,
+                              @Nonnull ExportFormat format,
+                              @Nonnull ExportImages images) throws IOException {
+        List<String> columns = images == ExportImages.NONE
+                ? List.of("id", "title", "description", "city", "country")
+                : List.of("id", "title", "description", "city", "country", "photo");
+        String imageColumns = images == ExportImages.INLINE
+                ? "m.photo, m.photo_mime"
+                : "case when m.photo is null then false else true end as has_photo";
+        try (ExportWriter writer = ExportWriter.create(format, objectMapper, out, columns)) {
+            jdbcExporter.export(SQL.formatted(imageColumns), images == ExportImages.INLINE, rs -> {
+                UUID id = rs.getObject("id", UUID.class);
+                List<String> values = new ArrayList<>(columns.size());
+                values.add(id.toString());
+                values.add(rs.getString("title"));
+                values.add(rs.getString("description"));
+                values.add(rs.getString("city"));
+                values.add(rs.getString("country"));
+                if (images != ExportImages.NONE) {
+                    values.add(photo(rs, id, images));
+                }
+                writer.write(values);
+            });
+        }
+    }
+
+    private @Nullable String photo(@Nonnull ResultSet rs, @Nonnull UUID id, @Nonnull ExportImages images) throws SQLException {
+        if (images == ExportImages.URL) {
+            return rs.getBoolean("has_photo") ? imageSettings.imageUrl(id) : null;
+        }
+        ImageData photo = ImageData.fromStored(rs.getBytes("photo"), rs.getString("photo_mime"));
+        return photo != null ? photo.toDataUri() : null;
+    }
+}
@@ -0,0 +1,83 @@
+package guru.qa.rococo.service;
+
+import guru.qa.rococo.data.MuseumEntity;
+import guru.qa.rococo.data.repository.MuseumRepository;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.service.bulk.BulkImporter;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Массовый импорт музеев из NDJSON ({@code POST /internal/museum/bulk}).
+ * <p>
+ * Проверки те же, что у одиночного добавления. Страна и город ищутся в {@link GeoDictionary} без
+ * запросов к БД, новые создаются в транзакции порции. Превью генерируются до открытия транзакции.
+ * Кэш ответов gateway импорт не сбрасывает: закэшированные страницы {@code /api/museum} и
+ * {@code /api/country} остаются прежними до истечения {@code rococo-gateway.response-cache.ttl}.
+ */
+@Service
+public class MuseumImportService {
+
+    private final MuseumService museumService;
+    private final MuseumRepository museumRepository;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BulkImporter bulkImporter;
+
+    @Autowired
+    public MuseumImportService(MuseumService museumService,
+                               MuseumRepository museumRepository,
+                               ThumbnailGenerator thumbnailGenerator,
+                               BulkImporter bulkImporter) {
+        this.museumService = museumService;
+        this.museumRepository = museumRepository;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.bulkImporter = bulkImporter;
+    }
+
+    public @Nonnull BulkResultJson importMuseums(@Nonnull InputStream ndjson) throws IOException {
+        return bulkImporter.importNdjson(ndjson, MuseumJson.class, this::importBatch);
+    }
+
+    private @Nonnull List<BulkErrorJson> importBatch(@Nonnull List<BulkImporter.Line<MuseumJson>> batch) {
+        List<BulkErrorJson> errors = new ArrayList<>();
+        List<BulkImporter.Line<Supplier<MuseumEntity>>> prepared = new ArrayList<>();
+        for (BulkImporter.Line<MuseumJson> line : batch) {
+            try {
+                MuseumJson museum = line.value();
+                museumService.validateRequest(museum);
+                museumService.checkPhoto(museum.photo());
+                prepared.add(line.with(prepare(museum)));
+            } catch (RuntimeException e) {
+                errors.add(line.error(e.getMessage()));
+            }
+        }
+        errors.addAll(bulkImporter.save(prepared, museumRepository::saveAll));
+        return errors;
+    }
+
+    private @Nonnull Supplier<MuseumEntity> prepare(@Nonnull MuseumJson museum) {
+        ImageData photo = ImageData.fromDataUri(museum.photo());
+        byte[] thumb = thumbnailGenerator.generate(photo);
+        return () -> {
+            MuseumEntity entity = new MuseumEntity();
+            entity.setTitle(museum.title().trim());
+            entity.setDescription(museum.description().trim());
+            entity.setPhoto(photo.content());
+            entity.setPhotoMime(photo.mimeType());
+            entity.setPhotoThumb(thumb);
+            // Вызывается внутри транзакции порции: новая страна или город сохраняются вместе с музеем
+            entity.setGeo(museumService.resolveGeo(museum.geo()));
+            return entity;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package guru.qa.rococo.service;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.data.CountryEntity;
 import guru.qa.rococo.data.GeoEntity;
 import guru.qa.rococo.data.MuseumEntity;
@@ -9,67 +10,201 @@ import guru.qa.rococo.data.repository.MuseumRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.Cursor;
+import guru.qa.rococo.model.GeoJson;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
 import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.MuseumRef;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchQuery;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.StoredImage;
+import guru.qa.rococo.model.Tagged;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static guru.qa.rococo.service.tx.TransactionCallbacks.afterCommit;
 
 @Service
 public class MuseumService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(MuseumService.class);
+
     private final MuseumRepository museumRepository;
     private final CountryRepository countryRepository;
     private final GeoRepository geoRepository;
+    private final KafkaTemplate<String, MuseumJson> kafkaTemplate;
+    private final ImageSettings imageSettings;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final GeoDictionary geoDictionary;
 
     @Autowired
-    public MuseumService(MuseumRepository museumRepository, CountryRepository countryRepository, GeoRepository geoRepository) {
+    public MuseumService(MuseumRepository museumRepository, CountryRepository countryRepository, GeoRepository geoRepository,
+                         KafkaTemplate<String, MuseumJson> kafkaTemplate, ImageSettings imageSettings,
+                         ThumbnailGenerator thumbnailGenerator, GeoDictionary geoDictionary) {
         this.museumRepository = museumRepository;
         this.countryRepository = countryRepository;
         this.geoRepository = geoRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.imageSettings = imageSettings;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.geoDictionary = geoDictionary;
     }
 
     @Transactional(readOnly = true)
     public @Nonnull Page<MuseumJson> getAllMuseum(@Nonnull Pageable pageable,
                                                   @Nullable String title) {
+        return getAllMuseum(pageable, title, ImageVariant.FULL);
+    }
 
+    @Transactional(readOnly = true)
+    public @Nonnull Page<MuseumJson> getAllMuseum(@Nonnull Pageable pageable,
+                                                  @Nullable String title,
+                                                  @Nonnull ImageVariant variant) {
         Page<MuseumEntity> entities = (title != null && !title.isBlank())
                 ? museumRepository.findAllByTitleContainsIgnoreCase(pageable, title.trim())
                 : museumRepository.findAll(pageable);
-        return entities.map(MuseumJson::fromEntity);
+        return toJson(entities, variant);
+    }
+
+    /**
+     * Keyset-пагинация по (title, id): страница без count(*) и курсор следующей страницы.
+     */
+    @Transactional(readOnly = true)
+    public @Nonnull SliceJson<MuseumJson> scrollMuseums(@Nullable String after,
+                                                        int size,
+                                                        @Nullable String title,
+                                                        @Nonnull ImageVariant variant) {
+        Cursor cursor = Cursor.parse(after);
+        Pageable request = SliceJson.request(size);
+        Slice<MuseumEntity> entities;
+        if (title != null && !title.isBlank()) {
+            entities = cursor == null
+                    ? museumRepository.findSliceByTitle(title.trim(), request)
+                    : museumRepository.findSliceByTitleAfter(title.trim(), cursor.key(), cursor.id(), request);
+        } else {
+            entities = cursor == null
+                    ? museumRepository.findSlice(request)
+                    : museumRepository.findSliceAfter(cursor.key(), cursor.id(), request);
+        }
+        return SliceJson.of(toJson(entities, variant), museum -> new Cursor(museum.title(), museum.id()));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull Page<SearchHitJson> searchMuseums(@Nullable String query, @Nonnull Pageable pageable) {
+        SearchQuery search = SearchQuery.parse(query);
+        // Порядок задаётся рангом совпадения, сортировка из запроса не применяется
+        return museumRepository.search(search.term(), search.tsQuery(), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(SearchHitJson::fromRow);
     }
 
     @Transactional(readOnly = true)
     public @Nonnull MuseumJson getMuseumById(@Nonnull UUID id) {
-        return MuseumJson.fromEntity(
+        return toJson(
                 museumRepository.findById(id)
                         .orElseThrow(() -> new NotFoundException("Музей не найден по id: " + id))
         );
     }
 
+    /**
+     * Карточка музея для условного запроса с {@code If-None-Match}.
+     * Strong ETag строится по версии записи, а тело - по той же записи в той же транзакции.
+     * Если {@code notModified} подтверждает совпадение тега, фото не загружается.
+     */
+    @Transactional(readOnly = true)
+    public @Nonnull Tagged<MuseumJson> getMuseumIfModified(@Nonnull UUID id, @Nonnull Predicate<String> notModified) {
+        MuseumEntity entity = museumRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Музей не найден по id: " + id));
+        String etag = etag(entity);
+        return new Tagged<>(etag, notModified.test(etag) ? null : toJson(entity));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ImageData getMuseumImage(@Nonnull UUID id) {
+        return getMuseumImage(id, ImageVariant.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ImageData getMuseumImage(@Nonnull UUID id, @Nonnull ImageVariant variant) {
+        MuseumEntity entity = museumRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Музей не найден по id: " + id));
+        if (variant == ImageVariant.THUMB && entity.getPhotoThumb() != null) {
+            return thumbnailOf(entity);
+        }
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
+        if (photo == null) {
+            throw new NotFoundException("Фото музея не найдено по id: " + id);
+        }
+        return photo.binary()
+                .orElseThrow(() -> new NotFoundException("Фото музея не найдено по id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull List<MuseumJson> getMuseumsByIds(@Nonnull Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<MuseumEntity> entities = museumRepository.findAllById(ids);
+        Map<UUID, String> photos = inlinePhotos(entities, ImageVariant.FULL);
+        return entities.stream()
+                .map(entity -> toJson(entity, ImageVariant.FULL, photos))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull MuseumRef getMuseumRefById(@Nonnull UUID id) {
+        return museumRepository.findRefById(id)
+                .orElseThrow(() -> new NotFoundException("Музей не найден по id: " + id));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull List<MuseumRef> getMuseumRefsByIds(@Nonnull Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return museumRepository.findRefsByIdIn(ids);
+    }
+
     @Transactional
     public @Nonnull MuseumJson addMuseum(@Nonnull MuseumJson museum) {
         validateRequest(museum);
         checkPhoto(museum.photo());
 
-        CountryEntity countryEntity = resolveCountry(museum.geo().country());
+        UUID countryId = resolveCountry(museum.geo().country());
 
-        GeoEntity geoEntity = getOrCreateGeo(museum.geo().city().trim(), countryEntity.getId());
+        GeoEntity geoEntity = getOrCreateGeo(museum.geo().city().trim(), countryId);
 
         MuseumEntity entity = new MuseumEntity();
         entity.setTitle(museum.title().trim());
         entity.setDescription(museum.description().trim());
-        entity.setPhoto(museum.photo().getBytes(StandardCharsets.UTF_8));
+        setPhoto(entity, museum.photo());
         entity.setGeo(geoEntity);
 
-        return MuseumJson.fromEntity(museumRepository.save(entity));
+        return toJson(museumRepository.save(entity));
     }
 
     @Transactional
@@ -83,23 +218,69 @@ public class MuseumService {
         Optional.ofNullable(museum.title()).ifPresent(title -> entity.setTitle(title.trim()));
         Optional.ofNullable(museum.description()).ifPresent(desc -> entity.setDescription(desc.trim()));
 
-        entity.setPhoto(museum.photo().getBytes(StandardCharsets.UTF_8));
+        setPhoto(entity, museum.photo());
 
-        CountryEntity countryEntity = resolveCountry(museum.geo().country());
-        GeoEntity geoEntity = getOrCreateGeo(museum.geo().city().trim(), countryEntity.getId());
+        UUID countryId = resolveCountry(museum.geo().country());
+        GeoEntity geoEntity = getOrCreateGeo(museum.geo().city().trim(), countryId);
         entity.setGeo(geoEntity);
 
-        return MuseumJson.fromEntity(museumRepository.save(entity));
+        MuseumJson updated = toJson(museumRepository.save(entity));
+        // Сбрасывает кэш метаданных музея в rococo-painting после коммита,
+        // чтобы painting не перечитал старую версию
+        afterCommit(() -> {
+            kafkaTemplate.send("museum-updated", updated.id().toString(), updated.withoutPhoto());
+            LOG.info("### Kafka topic [museum-updated] sent message: {}", updated.id());
+        });
+        return updated;
     }
 
     @Transactional(readOnly = true)
+    public @Nonnull List<UUID> getMuseumIdsWithoutThumbnail() {
+        return museumRepository.findIdsWithoutThumbnail();
+    }
+
+    @Transactional
+    public boolean generateThumbnail(@Nonnull UUID id) {
+        MuseumEntity entity = museumRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Музей не найден по id: " + id));
+        ImageData photo = ImageData.fromStored(entity.getPhoto(), entity.getPhotoMime());
+        byte[] thumb = photo != null ? thumbnailGenerator.generate(photo) : null;
+        if (thumb == null) {
+            // Изображение не декодируется: без отметки запись повторялась бы при каждом старте
+            entity.setPhotoThumbFailed(true);
+            museumRepository.save(entity);
+            return false;
+        }
+        entity.setPhotoThumb(thumb);
+        museumRepository.save(entity);
+        return true;
+    }
+
     public @Nonnull Page<CountryJson> getAllCountries(@Nonnull Pageable pageable) {
-        return countryRepository.findAll(pageable)
-                .map(CountryJson::fromEntity);
+        return geoDictionary.countries(pageable);
+    }
+
+    /**
+     * Strong ETag страницы справочника стран - хэш ее содержимого и параметров.
+     */
+    public static @Nonnull String etag(@Nonnull Page<CountryJson> countries) {
+        StringBuilder content = new StringBuilder()
+                .append(countries.getNumber()).append(':')
+                .append(countries.getSize()).append(':')
+                .append(countries.getTotalElements());
+        for (CountryJson country : countries) {
+            content.append(':').append(country.id()).append('=').append(country.name());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public @Nonnull SliceJson<CountryJson> scrollCountries(@Nullable String after, int size) {
+        Slice<CountryJson> countries = geoDictionary.countries(Cursor.parse(after), SliceJson.request(size));
+        return SliceJson.of(countries, country -> new Cursor(country.name(), country.id()));
     }
 
     // Вспомогательные методы
-    private void validateRequest(@Nonnull MuseumJson museum) {
+    void validateRequest(@Nonnull MuseumJson museum) {
         if (museum.title() == null || museum.title().isBlank()) {
             throw new BadRequestException("Название музея не должно быть пустым или содержать одни пробелы");
         } else if (museum.description() == null || museum.description().isBlank()) {
@@ -111,37 +292,132 @@ public class MuseumService {
         }
     }
 
-    private @Nonnull CountryEntity resolveCountry(@Nonnull CountryJson countryJson) {
+    /**
+     * Город музея; страна и город создаются, если их еще нет.
+     */
+    @Nonnull GeoEntity resolveGeo(@Nonnull GeoJson geo) {
+        return getOrCreateGeo(geo.city().trim(), resolveCountry(geo.country()));
+    }
+
+    private @Nonnull UUID resolveCountry(@Nonnull CountryJson countryJson) {
         if (countryJson.id() != null) {
-            return countryRepository.findById(countryJson.id())
-                    .orElseThrow(() -> new NotFoundException("Страна не найдена по ID: " + countryJson.id()));
+            return geoDictionary.countryById(countryJson.id())
+                    .orElseThrow(() -> new NotFoundException("Страна не найдена по ID: " + countryJson.id()))
+                    .id();
         } else {
             String countryName = countryJson.name().trim();
-            return countryRepository.findByName(countryName)
+            return geoDictionary.countryByName(countryName)
+                    .map(CountryJson::id)
                     .orElseGet(() -> {
-                        if (countryRepository.existsByName(countryName)) {
+                        if (countryRepository.existsByNameIgnoreCase(countryName)) {
                             throw new BadRequestException("Страна '" + countryName + "' уже существует");
                         }
                         CountryEntity newCountry = new CountryEntity();
                         newCountry.setName(countryName);
-                        return countryRepository.save(newCountry);
+                        CountryEntity saved = countryRepository.save(newCountry);
+                        geoDictionary.countryAdded(saved);
+                        return saved.getId();
                     });
         }
     }
 
-    private void checkPhoto(String photo) {
+    void checkPhoto(String photo) {
         if (photo == null || photo.isEmpty() || !photo.startsWith("data:image")) {
             throw new BadRequestException("Фото должно быть в формате data:image");
         }
     }
 
+    private void setPhoto(@Nonnull MuseumEntity entity, @Nonnull String photo) {
+        ImageData image = ImageData.fromDataUri(photo);
+        entity.setPhoto(image.content());
+        entity.setPhotoMime(image.mimeType());
+        entity.setPhotoThumb(thumbnailGenerator.generate(image));
+        entity.setPhotoThumbFailed(false);
+    }
+
+    private @Nonnull MuseumJson toJson(@Nonnull MuseumEntity entity) {
+        return toJson(entity, ImageVariant.FULL);
+    }
+
+    // Режим выдачи фото (data URI или ссылка) меняет представление, поэтому входит в тег
+    private @Nonnull String etag(@Nonnull MuseumEntity entity) {
+        return "\"" + entity.getVersion() + (imageSettings.isInline() ? "" : "-ref") + "\"";
+    }
+
+    private @Nonnull MuseumJson toJson(@Nonnull MuseumEntity entity, @Nonnull ImageVariant variant) {
+        if (!imageSettings.isInline()) {
+            return MuseumJson.fromEntity(entity, imageSettings.imageUrl(entity.getId(), variant));
+        }
+        if (variant == ImageVariant.THUMB && entity.getPhotoThumb() != null) {
+            return MuseumJson.fromEntity(entity, thumbnailOf(entity).toDataUri());
+        }
+        return MuseumJson.fromEntity(entity);
+    }
+
+    private @Nonnull Page<MuseumJson> toJson(@Nonnull Page<MuseumEntity> entities, @Nonnull ImageVariant variant) {
+        Map<UUID, String> photos = inlinePhotos(entities.getContent(), variant);
+        return entities.map(entity -> toJson(entity, variant, photos));
+    }
+
+    private @Nonnull Slice<MuseumJson> toJson(@Nonnull Slice<MuseumEntity> entities, @Nonnull ImageVariant variant) {
+        Map<UUID, String> photos = inlinePhotos(entities.getContent(), variant);
+        return entities.map(entity -> toJson(entity, variant, photos));
+    }
+
+    private @Nonnull MuseumJson toJson(@Nonnull MuseumEntity entity,
+                                       @Nonnull ImageVariant variant,
+                                       @Nonnull Map<UUID, String> photos) {
+        return imageSettings.isInline()
+                ? MuseumJson.fromEntity(entity, photos.get(entity.getId()))
+                : MuseumJson.fromEntity(entity, imageSettings.imageUrl(entity.getId(), variant));
+    }
+
+    // Фото списка догружаются одним запросом вместо ленивой загрузки по каждой записи
+    private @Nonnull Map<UUID, String> inlinePhotos(@Nonnull List<MuseumEntity> entities,
+                                                    @Nonnull ImageVariant variant) {
+        if (!imageSettings.isInline()) {
+            return Map.of();
+        }
+        Set<UUID> ids = entities.stream()
+                .filter(MuseumEntity::hasPhoto)
+                .map(MuseumEntity::getId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, String> photos = new HashMap<>();
+        if (variant == ImageVariant.THUMB) {
+            for (StoredImage thumb : museumRepository.findThumbnailsByIdIn(ids)) {
+                photos.put(thumb.id(), new ImageData(ThumbnailGenerator.THUMBNAIL_MIME, thumb.content()).toDataUri());
+            }
+        }
+        Set<UUID> missing = new HashSet<>(ids);
+        missing.removeAll(photos.keySet());
+        if (!missing.isEmpty()) {
+            for (StoredImage photo : museumRepository.findPhotosByIdIn(missing)) {
+                ImageData image = photo.image();
+                if (image != null) {
+                    photos.put(photo.id(), image.toDataUri());
+                }
+            }
+        }
+        return photos;
+    }
+
+    private @Nonnull ImageData thumbnailOf(@Nonnull MuseumEntity entity) {
+        return new ImageData(ThumbnailGenerator.THUMBNAIL_MIME, entity.getPhotoThumb());
+    }
+
     private @Nonnull GeoEntity getOrCreateGeo(String city, UUID countryId) {
-        return geoRepository.findByCityAndCountryId(city, countryId)
+        return geoDictionary.geoId(city, countryId)
+                .map(geoRepository::getReferenceById)
                 .orElseGet(() -> {
                     GeoEntity newGeo = new GeoEntity();
                     newGeo.setCity(city);
                     newGeo.setCountry(countryRepository.getReferenceById(countryId));
-                    return geoRepository.save(newGeo);
+                    GeoEntity saved = geoRepository.save(newGeo);
+                    geoDictionary.geoAdded(saved);
+                    return saved;
                 });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package guru.qa.rococo.service;
+
+import guru.qa.rococo.model.ImageData;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import net.coobird.thumbnailator.Thumbnails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Генерирует JPEG-превью для карточек в списках.
+ */
+@Component
+public class ThumbnailGenerator {
+
+    public static final String THUMBNAIL_MIME = "image/jpeg";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThumbnailGenerator.class);
+
+    private final int size;
+    private final double quality;
+
+    public ThumbnailGenerator(@Value("${rococo-museum.image.thumb-size:320}") int size,
+                              @Value("${rococo-museum.image.thumb-quality:0.8}") double quality) {
+        this.size = size;
+        this.quality = quality;
+    }
+
+    /**
+     * @return превью или null, если изображение не удалось декодировать
+     */
+    public @Nullable byte[] generate(@Nonnull ImageData image) {
+        Optional<ImageData> binary = image.binary();
+        if (binary.isEmpty()) {
+            return null;
+        }
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(binary.get().content()));
+            if (source == null) {
+                // Формат не поддерживается ImageIO (например, webp или svg)
+                return null;
+            }
+            BufferedImage scaled = source.getWidth() > size || source.getHeight() > size
+                    ? Thumbnails.of(source).size(size, size).asBufferedImage()
+                    : source;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Thumbnails.of(flatten(scaled))
+                    .scale(1.0)
+                    .outputFormat("jpg")
+                    .outputQuality(quality)
+                    .toOutputStream(out);
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("### Thumbnail generation failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // JPEG не поддерживает прозрачность, поэтому фон заливается белым
+    private static @Nonnull BufferedImage flatten(@Nonnull BufferedImage image) {
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+}
@@ -0,0 +1,111 @@
+package guru.qa.rococo.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.model.ExportFormat;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Построчная запись выгрузки в поток ответа. Строка пишется сразу, в памяти держится только
+ * буфер вывода; {@link #close()} дописывает буфер, но не закрывает сам поток.
+ */
+public abstract class ExportWriter implements AutoCloseable {
+
+    protected final List<String> columns;
+
+    protected ExportWriter(@Nonnull List<String> columns) {
+        this.columns = columns;
+    }
+
+    public static @Nonnull ExportWriter create(@Nonnull ExportFormat format,
+                                               @Nonnull ObjectMapper objectMapper,
+                                               @Nonnull OutputStream out,
+                                               @Nonnull List<String> columns) throws IOException {
+        return format == ExportFormat.CSV
+                ? new CsvWriter(out, columns)
+                : new NdjsonWriter(objectMapper, out, columns);
+    }
+
+    /**
+     * Значения в порядке {@code columns}; {@code null} - пустое поле CSV или {@code null} в JSON.
+     */
+    public abstract void write(@Nonnull List<String> values) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    private static final class NdjsonWriter extends ExportWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Объекты разделяются переводом строки, а не пробелом по умолчанию
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(@Nonnull List<String> values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                generator.writeStringField(columns.get(i), values.get(i));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class CsvWriter extends ExportWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out, List<String> columns) throws IOException {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            write(columns);
+        }
+
+        @Override
+        public void write(@Nonnull List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            // RFC 4180: строки разделяются CRLF
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+
+        static @Nonnull String escape(@Nullable String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
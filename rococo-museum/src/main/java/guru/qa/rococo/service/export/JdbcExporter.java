@@ -0,0 +1,101 @@
+package guru.qa.rococo.service.export;
+
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Чтение таблицы целиком для выгрузки без загрузки в память.
+ * <p>
+ * Строки читаются порциями по {@code chunk-size} в порядке id (keyset: {@code id > последний}),
+ * каждая порция - в своей короткой read-only транзакции, так что выгрузка не держит транзакцию и
+ * соединение все время. Строки пишутся клиенту внутри транзакции порции, поэтому медленный клиент
+ * держит ее, пока не примет порцию; для выгрузки с изображениями порция -
+ * {@code inline-chunk-size}. Внутри порции PostgreSQL отдает строки серверным курсором по
+ * {@code fetch-size} штук; для выгрузки с изображениями используется меньший
+ * {@code inline-fetch-size}. Сущности JPA не создаются, поэтому память не растет с размером
+ * таблицы.
+ */
+@Component
+public class JdbcExporter {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final DataSource dataSource;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final int inlineChunkSize;
+    private final int fetchSize;
+    private final int inlineFetchSize;
+
+    @Autowired
+    public JdbcExporter(DataSource dataSource,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${rococo-museum.export.chunk-size:10000}") int chunkSize,
+                        @Value("${rococo-museum.export.inline-chunk-size:100}") int inlineChunkSize,
+                        @Value("${rococo-museum.export.fetch-size:500}") int fetchSize,
+                        @Value("${rococo-museum.export.inline-fetch-size:20}") int inlineFetchSize) {
+        this.dataSource = dataSource;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.inlineChunkSize = inlineChunkSize;
+        this.fetchSize = fetchSize;
+        this.inlineFetchSize = inlineFetchSize;
+    }
+
+    /**
+     * @param sql       запрос с параметрами {@code id > ?} и {@code limit ?}, упорядоченный по id;
+     *                  колонка {@code id} обязательна
+     * @param withImages строки содержат изображения: порции и курсор меньше
+     */
+    public void export(@Nonnull String sql, boolean withImages, @Nonnull RowWriter rowWriter) throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(withImages ? inlineFetchSize : fetchSize);
+        int limit = withImages ? inlineChunkSize : chunkSize;
+        UUID after = MIN_ID;
+        try {
+            while (true) {
+                Chunk chunk = new Chunk();
+                UUID from = after;
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, rs -> {
+                    try {
+                        rowWriter.write(rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    chunk.rows++;
+                    chunk.last = rs.getObject("id", UUID.class);
+                }, from, limit));
+                if (chunk.rows < limit) {
+                    return;
+                }
+                after = chunk.last;
+            }
+        } catch (UncheckedIOException e) {
+            // Клиент закрыл соединение: выгрузка прекращается без чтения оставшихся порций
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(@Nonnull ResultSet rs) throws SQLException, IOException;
+    }
+
+    private static final class Chunk {
+        private int rows;
+        private UUID last;
+    }
+}
@@ -0,0 +1,24 @@
+alter table museum
+    add column if not exists photo_mime varchar(50);
+
+-- Перевод фото музеев из текстового data URI в бинарный вид.
+-- Записи с невалидным base64 остаются в legacy-формате (photo_mime is null).
+with raw as (select id, convert_from(photo, 'UTF8') as uri
+             from museum
+             where photo_mime is null
+               and substring(photo from 1 for 5) = 'data:'::bytea),
+     parsed as (select id,
+                       substring(uri from '^data:([A-Za-z0-9.+-]{1,24}/[A-Za-z0-9.+-]{1,24});base64,') as mime,
+                       substring(uri from '^data:[A-Za-z0-9.+-]{1,24}/[A-Za-z0-9.+-]{1,24};base64,(.*)$') as payload
+                from raw)
+update museum a
+set photo      = decode(p.payload, 'base64'),
+    photo_mime = p.mime
+from parsed p
+where a.id = p.id
+  and p.mime is not null
+  and case
+          when p.payload ~ '^([A-Za-z0-9+/]{4})*([A-Za-z0-9+/]{2}==|[A-Za-z0-9+/]{3}=)?$'
+              then replace(encode(decode(p.payload, 'base64'), 'base64'), E'\n', '') = p.payload
+          else false
+      end;
@@ -0,0 +1,2 @@
+alter table museum
+    add column if not exists photo_thumb bytea;
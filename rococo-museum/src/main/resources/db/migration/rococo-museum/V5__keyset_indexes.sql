@@ -0,0 +1,6 @@
+-- Keyset-пагинация: выборка следующей страницы по (title, id) > (:title, :id) идет по индексу без OFFSET
+create index if not exists idx_museum_title_id
+    on "museum" (title, id);
+
+create index if not exists idx_country_name_id
+    on "country" (name, id);
@@ -0,0 +1,2 @@
+-- Поиск страны по названию без учета регистра (CountryRepository.findByNameIgnoreCase: upper(name) = upper(?))
+create index if not exists idx_country_name_upper on "country" (upper(name));
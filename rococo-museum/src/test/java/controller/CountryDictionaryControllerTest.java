@@ -0,0 +1,91 @@
+package controller;
+
+import guru.qa.rococo.RococoMuseumApplication;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.service.GeoDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Список стран при включенном справочнике: ответы строятся из снимка {@link GeoDictionary}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = RococoMuseumApplication.class,
+        properties = "rococo-museum.dictionary.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@Sql("/countryListShouldBeReturned.sql")
+class CountryDictionaryControllerTest {
+
+    private static final UUID FRANCE_ID = UUID.fromString("111e4567-e89b-12d3-a456-426614174000");
+    private static final UUID ITALY_ID = UUID.fromString("222e4567-e89b-12d3-a456-426614174001");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private GeoDictionary geoDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private KafkaTemplate<String, MuseumJson> kafkaTemplate;
+
+    @BeforeEach
+    void loadDictionary() {
+        // Данные @Sql еще не закоммичены - снимок перечитывается в транзакции теста
+        geoDictionary.reload();
+    }
+
+    @Test
+    void getAllCountries_ShouldBeServedFromSnapshot() throws Exception {
+        jdbcTemplate.update("INSERT INTO country (id, name) VALUES (?, ?)",
+                UUID.fromString("333e4567-e89b-12d3-a456-426614174002"), "Spain");
+
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(FRANCE_ID.toString()))
+                .andExpect(jsonPath("$.content[1].id").value(ITALY_ID.toString()));
+    }
+
+    @Test
+    void getAllCountries_WithDescendingSort_ShouldReturnSameOrderAsDatabase() throws Exception {
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .param("sort", "name,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Italy"))
+                .andExpect(jsonPath("$.content[1].name").value("France"));
+    }
+
+    @Test
+    void getAllCountries_WithUnsupportedSort_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .param("sort", "title"))
+                .andExpect(status().isBadRequest());
+    }
+}
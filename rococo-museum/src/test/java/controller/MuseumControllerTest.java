@@ -9,15 +9,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Base64;
 import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +41,9 @@ class MuseumControllerTest {
     @Autowired
     private ObjectMapper om;
 
+    @MockBean
+    private KafkaTemplate<String, MuseumJson> kafkaTemplate;
+
     // Константы для ID
     private static final UUID LOUVRE_ID = UUID.fromString("555e4567-e89b-12d3-a456-426614174000");
     private static final UUID UFFIZI_ID = UUID.fromString("666e4567-e89b-12d3-a456-426614174001");
@@ -92,6 +102,16 @@ class MuseumControllerTest {
                 .andExpect(jsonPath("$.content[1].name").value("Italy"));
     }
 
+    @Test
+    @Sql("/countryListShouldBeReturned.sql")
+    void getAllCountries_WithUnsupportedSort_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .param("sort", "title"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Sql("/museumListShouldBeReturned.sql")
     void getAllMuseums_ShouldReturnMuseums() throws Exception {
@@ -123,6 +143,23 @@ class MuseumControllerTest {
                 .andExpect(jsonPath("$.content[0].title").value("Louvre Museum"));
     }
 
+    @Test
+    @Sql("/museumListShouldBeReturned.sql")
+    void getAllMuseums_WithWildcardInTitleFilter_ShouldMatchLiterally() throws Exception {
+        mockMvc.perform(get("/internal/museum")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .param("title", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+
+        mockMvc.perform(get("/internal/museum/scroll")
+                        .param("size", "10")
+                        .param("title", "_ouvre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0));
+    }
+
     @Test
     @Sql("/museumShouldBeReturnedById.sql")
     void getMuseumById_ShouldReturnMuseum() throws Exception {
@@ -135,6 +172,127 @@ class MuseumControllerTest {
                 .andExpect(jsonPath("$.geo.country.name").value("France"));
     }
 
+    @Test
+    @Sql("/museumShouldBeReturnedById.sql")
+    void getMuseumById_ShouldReturnNotModifiedForMatchingEtag() throws Exception {
+        MvcResult museum = mockMvc.perform(get("/internal/museum/{id}", LOUVRE_ID))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn();
+
+        mockMvc.perform(get("/internal/museum/{id}", LOUVRE_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, museum.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @Sql("/countryListShouldBeReturned.sql")
+    void getAllCountries_ShouldReturnNotModifiedForMatchingEtag() throws Exception {
+        MvcResult countries = mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, countries.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "1")
+                        .header(HttpHeaders.IF_NONE_MATCH, countries.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Sql("/museumShouldBeReturnedById.sql")
+    void getMuseumImage_ShouldReturnBinaryPhotoWithCacheHeaders() throws Exception {
+        byte[] jpeg = Base64.getMimeDecoder().decode("/9j/4AAQSkZ");
+        MvcResult image = mockMvc.perform(get("/internal/museum/{id}/image", LOUVRE_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, jpeg.length))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andExpect(content().bytes(jpeg))
+                .andReturn();
+
+        mockMvc.perform(get("/internal/museum/{id}/image", LOUVRE_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, image.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Sql("/museumListShouldBeReturned.sql")
+    void getMuseumsByIds_ShouldReturnOnlyExistingMuseums() throws Exception {
+        mockMvc.perform(get("/internal/museum/batch")
+                        .param("ids", LOUVRE_ID.toString(), UFFIZI_ID.toString(), NON_EXISTENT_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.title == 'Louvre Museum')].geo.city").value("Paris"))
+                .andExpect(jsonPath("$[?(@.title == 'Uffizi Gallery')].geo.city").value("Florence"));
+    }
+
+    @Test
+    @Sql("/museumShouldBeReturnedById.sql")
+    void getMuseumRefById_ShouldReturnOnlyIdAndTitle() throws Exception {
+        mockMvc.perform(get("/internal/museum/{id}/ref", LOUVRE_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(LOUVRE_ID.toString()))
+                .andExpect(jsonPath("$.title").value("Louvre Museum"))
+                .andExpect(jsonPath("$.photo").doesNotExist())
+                .andExpect(jsonPath("$.geo").doesNotExist());
+    }
+
+    @Test
+    @Sql("/museumListShouldBeReturned.sql")
+    void getMuseumRefsByIds_ShouldReturnRefs() throws Exception {
+        mockMvc.perform(get("/internal/museum/refs")
+                        .param("ids", LOUVRE_ID.toString(), UFFIZI_ID.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[?(@.title == 'Uffizi Gallery')].id").value(UFFIZI_ID.toString()));
+    }
+
+    @Test
+    @Sql("/museumListShouldBeReturned.sql")
+    void exportMuseums_ShouldStreamCsvWithGeoAndImageUrls() throws Exception {
+        // В профиле test chunk-size = 1: каждый музей читается отдельной порцией
+        mockMvc.perform(get("/internal/museum/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"museums.csv\""))
+                .andExpect(content().string(
+                        "id,title,description,city,country,photo\r\n" +
+                        LOUVRE_ID + ",Louvre Museum,Famous museum in Paris,Paris,France,/api/museum/" + LOUVRE_ID + "/image\r\n" +
+                        UFFIZI_ID + ",Uffizi Gallery,Historic museum in Florence,Florence,Italy,/api/museum/" + UFFIZI_ID + "/image\r\n"
+                ));
+    }
+
+    @Test
+    @Sql("/museumListShouldBeReturned.sql")
+    void exportMuseums_ShouldStreamNdjsonWithoutImages() throws Exception {
+        mockMvc.perform(get("/internal/museum/export").param("images", "none"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":\"" + LOUVRE_ID + "\",\"title\":\"Louvre Museum\",\"description\":\"Famous museum in Paris\",\"city\":\"Paris\",\"country\":\"France\"}\n" +
+                        "{\"id\":\"" + UFFIZI_ID + "\",\"title\":\"Uffizi Gallery\",\"description\":\"Historic museum in Florence\",\"city\":\"Florence\",\"country\":\"Italy\"}\n"
+                ));
+    }
+
+    @Test
+    void getMuseumRefById_WhenNotFound_ShouldReturn404() throws Exception {
+        mockMvc.perform(get("/internal/museum/{id}/ref", NON_EXISTENT_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Музей не найден по id: " + NON_EXISTENT_ID));
+    }
+
     @Test
     void getMuseumById_WhenNotFound_ShouldReturn404() throws Exception {
         mockMvc.perform(get("/internal/museum/{id}", NON_EXISTENT_ID))
@@ -162,6 +320,31 @@ class MuseumControllerTest {
                 .andExpect(jsonPath("$.geo.country.name").value("United Kingdom"));
     }
 
+    @Test
+    @Sql("/countryListShouldBeReturned.sql")
+    void addMuseum_WithCountryNameInOtherCase_ShouldReuseExistingCountry() throws Exception {
+        // В профиле test справочник выключен: страна ищется в БД
+        MuseumJson newMuseum = createValidMuseumJson(
+                null,
+                "Musée d'Orsay",
+                "Paris",
+                createCountryJson(null, " france ")
+        );
+
+        mockMvc.perform(post("/internal/museum")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(newMuseum)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.geo.country.id").value(FRANCE_ID.toString()))
+                .andExpect(jsonPath("$.geo.country.name").value("France"));
+
+        mockMvc.perform(get("/internal/country")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
     @Test
     @Sql("/museumShouldBeUpdated.sql")
     void updateMuseum_ShouldUpdateExistingMuseum() throws Exception {
@@ -0,0 +1,245 @@
+package service;
+
+import guru.qa.rococo.data.CountryEntity;
+import guru.qa.rococo.data.GeoEntity;
+import guru.qa.rococo.data.repository.CountryRepository;
+import guru.qa.rococo.data.repository.GeoRepository;
+import guru.qa.rococo.ex.BadRequestException;
+import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.Cursor;
+import guru.qa.rococo.model.GeoRef;
+import guru.qa.rococo.service.GeoDictionary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GeoDictionaryTest {
+
+    private static final UUID FRANCE_ID = UUID.fromString("11111111-0000-0000-0000-000000000001");
+    private static final UUID ITALY_ID = UUID.fromString("11111111-0000-0000-0000-000000000002");
+    private static final UUID SPAIN_ID = UUID.fromString("11111111-0000-0000-0000-000000000003");
+    private static final UUID PARIS_ID = UUID.fromString("22222222-0000-0000-0000-000000000001");
+
+    @Mock
+    private CountryRepository countryRepository;
+
+    @Mock
+    private GeoRepository geoRepository;
+
+    // Фоновые перезагрузки копятся здесь и выполняются тестом явно
+    private final List<Runnable> reloads = new ArrayList<>();
+
+    private GeoDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new GeoDictionary(countryRepository, geoRepository, true, Duration.ofMinutes(10), reloads::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lookupsShouldBeServedFromSnapshot() {
+        load();
+
+        assertEquals(FRANCE_ID, dictionary.countryByName("  france ").orElseThrow().id());
+        assertEquals("Italy", dictionary.countryById(ITALY_ID).orElseThrow().name());
+        assertEquals(Optional.of(PARIS_ID), dictionary.geoId("PARIS", FRANCE_ID));
+
+        verify(countryRepository, never()).findByNameIgnoreCase("france");
+        verify(countryRepository, never()).findById(ITALY_ID);
+        verify(geoRepository, never()).findByCityAndCountryId("PARIS", FRANCE_ID);
+    }
+
+    @Test
+    void countriesShouldBePagedAndScrolledInNameOrder() {
+        load();
+
+        Page<CountryJson> page = dictionary.countries(PageRequest.of(1, 1));
+        assertEquals(List.of("Italy"), page.getContent().stream().map(CountryJson::name).toList());
+        assertEquals(2, page.getTotalElements());
+
+        Page<CountryJson> sorted = dictionary.countries(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "name")));
+        assertEquals(List.of("Italy", "France"), sorted.getContent().stream().map(CountryJson::name).toList());
+
+        Slice<CountryJson> first = dictionary.countries(null, PageRequest.of(0, 1));
+        assertEquals("France", first.getContent().get(0).name());
+        assertTrue(first.hasNext());
+
+        Slice<CountryJson> next = dictionary.countries(new Cursor("France", FRANCE_ID), PageRequest.of(0, 1));
+        assertEquals("Italy", next.getContent().get(0).name());
+        assertFalse(next.hasNext());
+
+        verify(countryRepository, never()).findAll(PageRequest.of(1, 1));
+    }
+
+    @Test
+    void addedCountryShouldBeVisibleOnlyAfterCommit() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+        when(countryRepository.findByNameIgnoreCase("Spain")).thenReturn(Optional.empty());
+
+        dictionary.countryAdded(country(SPAIN_ID, "Spain"));
+
+        assertTrue(dictionary.countryByName("Spain").isEmpty());
+        commit();
+        assertEquals(SPAIN_ID, dictionary.countryByName("spain").orElseThrow().id());
+        assertEquals(List.of("France", "Italy", "Spain"),
+                dictionary.countries(PageRequest.of(0, 10)).getContent().stream().map(CountryJson::name).toList());
+        verify(countryRepository, times(1)).findByNameIgnoreCase("Spain");
+    }
+
+    @Test
+    void addedGeoShouldBeVisibleWithoutTransaction() {
+        load();
+        GeoEntity rome = new GeoEntity();
+        rome.setId(UUID.randomUUID());
+        rome.setCity("Rome");
+        rome.setCountry(country(ITALY_ID, "Italy"));
+
+        dictionary.geoAdded(rome);
+
+        assertEquals(Optional.of(rome.getId()), dictionary.geoId("rome", ITALY_ID));
+        verify(geoRepository, never()).findByCityAndCountryId("rome", ITALY_ID);
+    }
+
+    @Test
+    void missShouldFallBackToDatabaseOnce() {
+        load();
+        when(countryRepository.findById(SPAIN_ID)).thenReturn(Optional.of(country(SPAIN_ID, "Spain")));
+
+        assertEquals("Spain", dictionary.countryById(SPAIN_ID).orElseThrow().name());
+        assertEquals("Spain", dictionary.countryById(SPAIN_ID).orElseThrow().name());
+
+        verify(countryRepository, times(1)).findById(SPAIN_ID);
+    }
+
+    @Test
+    void staleSnapshotShouldBeServedWhileReloadRunsInBackground() {
+        dictionary = new GeoDictionary(countryRepository, geoRepository, true, Duration.ZERO, reloads::add);
+        load();
+        when(countryRepository.findAll()).thenReturn(List.of(country(SPAIN_ID, "Spain")));
+
+        assertEquals("Italy", dictionary.countryById(ITALY_ID).orElseThrow().name());
+        assertEquals("France", dictionary.countryByName("France").orElseThrow().name());
+        assertEquals(1, reloads.size());
+        verify(countryRepository, never()).findById(ITALY_ID);
+
+        reloads.remove(0).run();
+        assertEquals(List.of("Spain"),
+                dictionary.countries(PageRequest.of(0, 10)).getContent().stream().map(CountryJson::name).toList());
+    }
+
+    @Test
+    void missingSnapshotShouldBeReadFromDatabaseUntilLoaded() {
+        when(countryRepository.findById(FRANCE_ID)).thenReturn(Optional.of(country(FRANCE_ID, "France")));
+
+        assertEquals("France", dictionary.countryById(FRANCE_ID).orElseThrow().name());
+        assertEquals(1, reloads.size());
+
+        when(countryRepository.findAll()).thenReturn(List.of(country(FRANCE_ID, "France")));
+        when(geoRepository.findAllRefs()).thenReturn(List.of());
+        reloads.remove(0).run();
+        assertEquals("France", dictionary.countryById(FRANCE_ID).orElseThrow().name());
+        verify(countryRepository, times(1)).findById(FRANCE_ID);
+    }
+
+    @Test
+    void failedReloadShouldKeepPreviousSnapshotAndAllowRetry() {
+        dictionary = new GeoDictionary(countryRepository, geoRepository, true, Duration.ZERO, reloads::add);
+        load();
+        when(countryRepository.findAll()).thenThrow(new IllegalStateException("db is down"));
+
+        dictionary.countryById(ITALY_ID);
+        reloads.remove(0).run();
+
+        assertEquals("Italy", dictionary.countryById(ITALY_ID).orElseThrow().name());
+        assertEquals(1, reloads.size());
+    }
+
+    @Test
+    void unsupportedSortShouldBeRejectedInBothModes() {
+        load();
+        PageRequest bySize = PageRequest.of(0, 10, Sort.by("size"));
+        assertThrows(BadRequestException.class, () -> dictionary.countries(bySize));
+
+        GeoDictionary disabled = new GeoDictionary(countryRepository, geoRepository, false, Duration.ofMinutes(10), reloads::add);
+        assertThrows(BadRequestException.class, () -> disabled.countries(bySize));
+        verify(countryRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void disabledDictionaryShouldSortByNameAndIdLikeSnapshot() {
+        GeoDictionary disabled = new GeoDictionary(countryRepository, geoRepository, false, Duration.ofMinutes(10), reloads::add);
+        Sort expected = Sort.by(Sort.Direction.DESC, "name").and(Sort.by("id"));
+        when(countryRepository.findAll(PageRequest.of(0, 10, expected)))
+                .thenReturn(new PageImpl<>(List.of(country(ITALY_ID, "Italy"), country(FRANCE_ID, "France"))));
+
+        Page<CountryJson> page = disabled.countries(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "name")));
+
+        assertEquals(List.of("Italy", "France"), page.getContent().stream().map(CountryJson::name).toList());
+        assertTrue(reloads.isEmpty());
+    }
+
+    @Test
+    void disabledDictionaryShouldQueryDatabase() {
+        dictionary = new GeoDictionary(countryRepository, geoRepository, false, Duration.ofMinutes(10), reloads::add);
+        when(countryRepository.findByNameIgnoreCase("France")).thenReturn(Optional.of(country(FRANCE_ID, "France")));
+
+        assertEquals(FRANCE_ID, dictionary.countryByName(" France ").orElseThrow().id());
+        verify(countryRepository, never()).findAll();
+        assertTrue(reloads.isEmpty());
+    }
+
+    private void load() {
+        when(countryRepository.findAll()).thenReturn(List.of(country(ITALY_ID, "Italy"), country(FRANCE_ID, "France")));
+        when(geoRepository.findAllRefs()).thenReturn(List.of(new GeoRef(PARIS_ID, "Paris", FRANCE_ID)));
+        dictionary.reload();
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static CountryEntity country(UUID id, String name) {
+        CountryEntity entity = new CountryEntity();
+        entity.setId(id);
+        entity.setName(name);
+        return entity;
+    }
+}
@@ -0,0 +1,120 @@
+package service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.config.ImageSettings;
+import guru.qa.rococo.data.CountryEntity;
+import guru.qa.rococo.data.GeoEntity;
+import guru.qa.rococo.data.MuseumEntity;
+import guru.qa.rococo.data.repository.CountryRepository;
+import guru.qa.rococo.data.repository.GeoRepository;
+import guru.qa.rococo.data.repository.MuseumRepository;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.service.GeoDictionary;
+import guru.qa.rococo.service.MuseumImportService;
+import guru.qa.rococo.service.MuseumService;
+import guru.qa.rococo.service.ThumbnailGenerator;
+import guru.qa.rococo.service.bulk.BulkImporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MuseumImportServiceTest {
+
+    private static final UUID FRANCE_ID = UUID.fromString("11111111-0000-0000-0000-000000000001");
+    private static final UUID UNKNOWN_ID = UUID.fromString("11111111-0000-0000-0000-000000000009");
+    private static final String PHOTO = "data:image/jpeg;base64,/9j/4AAQSkZJRg==";
+
+    @Mock
+    private MuseumRepository museumRepository;
+    @Mock
+    private CountryRepository countryRepository;
+    @Mock
+    private GeoRepository geoRepository;
+    @Mock
+    private KafkaTemplate<String, MuseumJson> kafkaTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MuseumImportService museumImportService;
+    private final List<List<String>> savedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ThumbnailGenerator thumbnailGenerator = new ThumbnailGenerator(320, 0.8);
+        MuseumService museumService = new MuseumService(museumRepository, countryRepository, geoRepository, kafkaTemplate,
+                new ImageSettings(true, "/api/museum", Duration.ofMinutes(10)), thumbnailGenerator,
+                new GeoDictionary(countryRepository, geoRepository, false, Duration.ZERO));
+        museumImportService = new MuseumImportService(museumService, museumRepository, thumbnailGenerator,
+                new BulkImporter(new ObjectMapper(), transactionManager, 10, DataSize.ofMegabytes(16)));
+    }
+
+    @Test
+    void importShouldRejectInvalidRecordsAndKeepValidOnes() throws Exception {
+        CountryEntity france = new CountryEntity();
+        france.setId(FRANCE_ID);
+        france.setName("France");
+        GeoEntity paris = new GeoEntity();
+        paris.setId(UUID.randomUUID());
+        paris.setCity("Paris");
+        paris.setCountry(france);
+        when(countryRepository.findById(FRANCE_ID)).thenReturn(Optional.of(france));
+        when(countryRepository.findById(UNKNOWN_ID)).thenReturn(Optional.empty());
+        when(geoRepository.findByCityAndCountryId("Paris", FRANCE_ID)).thenReturn(Optional.of(paris));
+        when(geoRepository.getReferenceById(paris.getId())).thenReturn(paris);
+        when(museumRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<MuseumEntity> entities = invocation.getArgument(0);
+            entities.forEach(entity -> assertSame(paris, entity.getGeo()));
+            savedBatches.add(entities.stream().map(MuseumEntity::getTitle).toList());
+            return entities;
+        });
+        String ndjson = String.join("\n",
+                museum("Louvre", PHOTO, FRANCE_ID),
+                museum(" ", PHOTO, FRANCE_ID),
+                museum("Orsay", "https://example.com/orsay.jpg", FRANCE_ID),
+                museum("Atlantis", PHOTO, UNKNOWN_ID)
+        );
+
+        BulkResultJson result = museumImportService.importMuseums(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(4, result.total());
+        assertEquals(1, result.imported());
+        assertEquals(List.of(2, 3, 4), result.errors().stream().map(BulkErrorJson::line).toList());
+        assertTrue(result.errors().get(2).message().contains(UNKNOWN_ID.toString()));
+        // Страна не найдена внутри транзакции порции: порция откатывается, Louvre сохраняется отдельно
+        assertEquals(List.of(List.of("Louvre")), savedBatches);
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    private static String museum(String title, String photo, UUID countryId) {
+        return """
+                {"title":"%s","description":"Музей","photo":"%s","geo":{"city":"Paris","country":{"id":"%s"}}}"""
+                .formatted(title, photo, countryId);
+    }
+}
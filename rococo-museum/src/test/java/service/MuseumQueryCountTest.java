@@ -0,0 +1,106 @@
+package service;
+
+import guru.qa.rococo.RococoMuseumApplication;
+import guru.qa.rococo.model.ImageVariant;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.service.MuseumService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Число SQL-запросов на чтение музеев не зависит от размера страницы: город и страна
+ * загружаются вместе с музеями, фото списка - одним запросом.
+ */
+@SpringBootTest(classes = RococoMuseumApplication.class,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@Sql("/museumListShouldBeReturned.sql")
+class MuseumQueryCountTest {
+
+    private static final UUID LOUVRE_ID = UUID.fromString("555e4567-e89b-12d3-a456-426614174000");
+    private static final UUID UFFIZI_ID = UUID.fromString("666e4567-e89b-12d3-a456-426614174001");
+
+    @Autowired
+    private MuseumService museumService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private KafkaTemplate<String, MuseumJson> kafkaTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void museumPageShouldBeLoadedWithFixedStatementCount() {
+        Page<MuseumJson> page = museumService.getAllMuseum(PageRequest.of(0, 10, Sort.by("title")), null);
+
+        assertEquals(2, page.getContent().size());
+        assertEquals("France", page.getContent().get(0).geo().country().name());
+        assertEquals("Italy", page.getContent().get(1).geo().country().name());
+        // Страница с join geo/country + фото; count не нужен, страница неполная
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void fullPageShouldAddOnlySeparateCountStatement() {
+        Page<MuseumJson> page = museumService.getAllMuseum(PageRequest.of(0, 1, Sort.by("title")), "museum");
+
+        assertEquals(1, page.getContent().size());
+        assertEquals("Paris", page.getContent().get(0).geo().city());
+        // Страница + отдельный count без join-ов + фото
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void museumSliceShouldBeLoadedWithFixedStatementCount() {
+        SliceJson<MuseumJson> slice = museumService.scrollMuseums(null, 10, null, ImageVariant.FULL);
+
+        assertEquals(2, slice.content().size());
+        assertEquals("Florence", slice.content().get(1).geo().city());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void museumsByIdsShouldBeLoadedWithFixedStatementCount() {
+        List<MuseumJson> museums = museumService.getMuseumsByIds(List.of(LOUVRE_ID, UFFIZI_ID));
+
+        assertEquals(2, museums.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void museumCardShouldBeLoadedWithGeoInSameStatement() {
+        MuseumJson museum = museumService.getMuseumById(LOUVRE_ID);
+
+        assertEquals("France", museum.geo().country().name());
+        // Музей с geo/country + ленивая группа photo
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
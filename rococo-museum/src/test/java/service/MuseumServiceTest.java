@@ -1,29 +1,49 @@
 package service;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.data.CountryEntity;
 import guru.qa.rococo.data.GeoEntity;
 import guru.qa.rococo.data.MuseumEntity;
+import guru.qa.rococo.data.SearchRow;
 import guru.qa.rococo.data.repository.CountryRepository;
 import guru.qa.rococo.data.repository.GeoRepository;
 import guru.qa.rococo.data.repository.MuseumRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.Cursor;
 import guru.qa.rococo.model.GeoJson;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
 import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.StoredImage;
+import guru.qa.rococo.service.GeoDictionary;
 import guru.qa.rococo.service.MuseumService;
+import guru.qa.rococo.service.ThumbnailGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,7 +62,15 @@ class MuseumServiceTest {
     @Mock
     private GeoRepository geoRepository;
 
-    @InjectMocks
+    @Mock
+    private KafkaTemplate<String, MuseumJson> kafkaTemplate;
+
+    @Spy
+    private ImageSettings imageSettings = new ImageSettings(true, "/api/museum", Duration.ofMinutes(10));
+
+    @Spy
+    private ThumbnailGenerator thumbnailGenerator = new ThumbnailGenerator(320, 0.8);
+
     private MuseumService museumService;
 
     private UUID museumId;
@@ -55,6 +83,10 @@ class MuseumServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Справочник без снимка в памяти: поиск стран и городов идет в замоканные репозитории
+        museumService = new MuseumService(museumRepository, countryRepository, geoRepository, kafkaTemplate,
+                imageSettings, thumbnailGenerator, new GeoDictionary(countryRepository, geoRepository, false, Duration.ZERO));
+
         museumId = UUID.randomUUID();
         countryId = UUID.randomUUID();
         geoId = UUID.randomUUID();
@@ -130,6 +162,25 @@ class MuseumServiceTest {
         assertThrows(NotFoundException.class, () -> museumService.getMuseumById(museumId));
     }
 
+    @Test
+    void getMuseumsByIds_ShouldReturnMuseumsInOneQuery() {
+        List<UUID> ids = List.of(museumId);
+        when(museumRepository.findAllById(ids)).thenReturn(List.of(museumEntity));
+
+        List<MuseumJson> result = museumService.getMuseumsByIds(ids);
+
+        verify(museumRepository, times(1)).findAllById(ids);
+        assertEquals(1, result.size());
+        assertEquals("Pushkin Museum", result.get(0).title());
+        assertEquals("Moscow", result.get(0).geo().city());
+    }
+
+    @Test
+    void getMuseumsByIds_WithEmptyIds_ShouldNotQueryRepository() {
+        assertTrue(museumService.getMuseumsByIds(List.of()).isEmpty());
+        verifyNoInteractions(museumRepository);
+    }
+
     @Test
     void addMuseum_ShouldCreateNewMuseum() {
         MuseumJson newMuseum = new MuseumJson(
@@ -140,7 +191,7 @@ class MuseumServiceTest {
                 new GeoJson( "SPB", new CountryJson(null, "Russia"))
         );
 
-        when(countryRepository.findByName("Russia")).thenReturn(Optional.of(countryEntity));
+        when(countryRepository.findByNameIgnoreCase("Russia")).thenReturn(Optional.of(countryEntity));
         when(geoRepository.findByCityAndCountryId("SPB", countryId)).thenReturn(Optional.empty());
         when(geoRepository.save(any(GeoEntity.class))).thenReturn(geoEntity);
         when(museumRepository.save(any(MuseumEntity.class))).thenReturn(museumEntity);
@@ -152,6 +203,145 @@ class MuseumServiceTest {
         verify(museumRepository, times(1)).save(any(MuseumEntity.class));
     }
 
+    @Test
+    void addMuseum_ShouldStoreDecodedPhotoWithMimeType() {
+        MuseumJson newMuseum = new MuseumJson(
+                null,
+                "New Museum",
+                "Description",
+                "data:image/jpeg;base64,/9j/4AAQSkZJRg==",
+                new GeoJson("Moscow", new CountryJson(countryId, "Russia"))
+        );
+
+        when(countryRepository.findById(countryId)).thenReturn(Optional.of(countryEntity));
+        when(geoRepository.findByCityAndCountryId("Moscow", countryId)).thenReturn(Optional.of(geoEntity));
+        when(geoRepository.getReferenceById(geoId)).thenReturn(geoEntity);
+        when(museumRepository.save(any(MuseumEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        MuseumJson result = museumService.addMuseum(newMuseum);
+
+        ArgumentCaptor<MuseumEntity> captor = ArgumentCaptor.forClass(MuseumEntity.class);
+        verify(museumRepository).save(captor.capture());
+        assertArrayEquals(Base64.getDecoder().decode("/9j/4AAQSkZJRg=="), captor.getValue().getPhoto());
+        assertEquals("image/jpeg", captor.getValue().getPhotoMime());
+        assertEquals(newMuseum.photo(), result.photo());
+    }
+
+    @Test
+    void getMuseumById_WithInlineModeDisabled_ShouldReturnPhotoUrl() {
+        museumService = new MuseumService(museumRepository, countryRepository, geoRepository, kafkaTemplate,
+                new ImageSettings(false, "http://127.0.0.1:8090/api/museum", Duration.ofMinutes(10)), thumbnailGenerator,
+                new GeoDictionary(countryRepository, geoRepository, false, Duration.ZERO));
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+
+        MuseumJson result = museumService.getMuseumById(museumId);
+
+        assertEquals("http://127.0.0.1:8090/api/museum/" + museumId + "/image", result.photo());
+    }
+
+    @Test
+    void getAllMuseum_WithThumbVariant_ShouldReturnThumbnail() {
+        Pageable pageable = Pageable.ofSize(10);
+        when(museumRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(museumEntity)));
+        when(museumRepository.findThumbnailsByIdIn(Set.of(museumId)))
+                .thenReturn(List.of(new StoredImage(museumId, "image/png", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})));
+
+        Page<MuseumJson> result = museumService.getAllMuseum(pageable, null, ImageVariant.THUMB);
+
+        assertEquals("data:image/jpeg;base64,/9j/", result.getContent().get(0).photo());
+    }
+
+    @Test
+    void getAllMuseum_ShouldLoadPhotosWithSingleQuery() {
+        Pageable pageable = Pageable.ofSize(10);
+        when(museumRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(museumEntity)));
+        when(museumRepository.findPhotosByIdIn(Set.of(museumId)))
+                .thenReturn(List.of(new StoredImage(museumId, "image/png", new byte[]{1, 2, 3})));
+
+        Page<MuseumJson> result = museumService.getAllMuseum(pageable, null);
+
+        verify(museumRepository, times(1)).findPhotosByIdIn(Set.of(museumId));
+        assertEquals("data:image/png;base64,AQID", result.getContent().get(0).photo());
+    }
+
+    @Test
+    void getMuseumImage_WithThumbVariant_ShouldReturnThumbnail() {
+        museumEntity.setPhotoThumb(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+
+        ImageData image = museumService.getMuseumImage(museumId, ImageVariant.THUMB);
+
+        assertEquals("image/jpeg", image.mimeType());
+        assertArrayEquals(museumEntity.getPhotoThumb(), image.content());
+    }
+
+    @Test
+    void generateThumbnail_ShouldStoreJpegThumbnail() {
+        museumEntity.setPhoto(Base64.getDecoder().decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg=="));
+        museumEntity.setPhotoMime("image/png");
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+
+        assertTrue(museumService.generateThumbnail(museumId));
+
+        verify(museumRepository).save(museumEntity);
+        assertEquals((byte) 0xFF, museumEntity.getPhotoThumb()[0]);
+        assertEquals((byte) 0xD8, museumEntity.getPhotoThumb()[1]);
+    }
+
+    @Test
+    void generateThumbnail_WithUndecodablePhoto_ShouldMarkFailure() {
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+
+        assertFalse(museumService.generateThumbnail(museumId));
+
+        // Отметка исключает запись из догенерации при следующих стартах
+        verify(museumRepository).save(museumEntity);
+        assertNull(museumEntity.getPhotoThumb());
+        assertTrue(museumEntity.isPhotoThumbFailed());
+    }
+
+    @Test
+    void searchMuseums_ShouldBuildPrefixQueryAndMapRanks() {
+        SearchRow row = mock(SearchRow.class);
+        when(row.getId()).thenReturn(museumId);
+        when(row.getTitle()).thenReturn("Pushkin Museum");
+        when(row.getSnippet()).thenReturn("Great \uE000art\uE001 museum");
+        when(row.getRank()).thenReturn(0.5);
+        when(museumRepository.search("pushkin art", "pushkin:* & art:*", PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        Page<SearchHitJson> result = museumService.searchMuseums("Pushkin  art", Pageable.ofSize(10));
+
+        assertEquals(
+                List.of(new SearchHitJson(museumId, "Pushkin Museum", "Great <mark>art</mark> museum", 0.5)),
+                result.getContent()
+        );
+    }
+
+    @Test
+    void searchMuseums_WithBlankQuery_ShouldThrowException() {
+        assertThrows(BadRequestException.class, () -> museumService.searchMuseums("   ", Pageable.ofSize(10)));
+        verifyNoInteractions(museumRepository);
+    }
+
+    @Test
+    void getMuseumImage_ShouldDecodeLegacyPhoto() {
+        museumEntity.setPhoto("data:image/jpeg;base64,/9j/4AAQSkZJRg==".getBytes(StandardCharsets.UTF_8));
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+
+        ImageData image = museumService.getMuseumImage(museumId);
+
+        assertEquals("image/jpeg", image.mimeType());
+        assertArrayEquals(Base64.getDecoder().decode("/9j/4AAQSkZJRg=="), image.content());
+    }
+
+    @Test
+    void getMuseumImage_WithUndecodablePhoto_ShouldThrowException() {
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+
+        assertThrows(NotFoundException.class, () -> museumService.getMuseumImage(museumId));
+    }
+
     @Test
     void addMuseum_WithInvalidPhoto_ShouldThrowException() {
         MuseumJson invalidMuseum = new MuseumJson(
@@ -178,12 +368,43 @@ class MuseumServiceTest {
         when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
         when(countryRepository.findById(countryId)).thenReturn(Optional.of(countryEntity));
         when(geoRepository.findByCityAndCountryId("Moscow", countryId)).thenReturn(Optional.of(geoEntity));
+        when(geoRepository.getReferenceById(geoId)).thenReturn(geoEntity);
         when(museumRepository.save(any(MuseumEntity.class))).thenReturn(museumEntity);
 
         MuseumJson result = museumService.updateMuseum(updatedMuseum);
 
         assertNotNull(result);
         verify(museumRepository, times(1)).save(any(MuseumEntity.class));
+        verify(kafkaTemplate).send("museum-updated", museumId.toString(), result.withoutPhoto());
+    }
+
+    @Test
+    void updateMuseum_ShouldSendEventOnlyAfterCommit() {
+        MuseumJson updatedMuseum = new MuseumJson(
+                museumId,
+                "Updated Museum",
+                "Updated description",
+                "data:image/jpeg;base64,updated_photo",
+                new GeoJson( "Moscow", new CountryJson(countryId, "Russia"))
+        );
+
+        when(museumRepository.findById(museumId)).thenReturn(Optional.of(museumEntity));
+        when(countryRepository.findById(countryId)).thenReturn(Optional.of(countryEntity));
+        when(geoRepository.findByCityAndCountryId("Moscow", countryId)).thenReturn(Optional.of(geoEntity));
+        when(geoRepository.getReferenceById(geoId)).thenReturn(geoEntity);
+        when(museumRepository.save(any(MuseumEntity.class))).thenReturn(museumEntity);
+
+        MuseumJson result;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            result = museumService.updateMuseum(updatedMuseum);
+            verifyNoInteractions(kafkaTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(kafkaTemplate).send("museum-updated", museumId.toString(), result.withoutPhoto());
     }
 
     @Test
@@ -205,6 +426,32 @@ class MuseumServiceTest {
         assertEquals("Russia", result.getContent().get(0).name());
     }
 
+    @Test
+    void scrollCountries_ShouldSeekAfterCursorWithoutCount() {
+        UUID lastId = UUID.randomUUID();
+        PageRequest request = PageRequest.of(0, 1);
+        when(countryRepository.findSliceAfter("Norway", lastId, request))
+                .thenReturn(new SliceImpl<>(List.of(countryEntity), request, true));
+
+        SliceJson<CountryJson> result = museumService.scrollCountries(new Cursor("Norway", lastId).encode(), 1);
+
+        assertEquals(List.of("Russia"), result.content().stream().map(CountryJson::name).toList());
+        assertTrue(result.hasNext());
+        assertEquals(new Cursor("Russia", countryId), Cursor.parse(result.next()));
+        verify(countryRepository, never()).count();
+    }
+
+    @Test
+    void scrollCountries_ShouldClampPageSize() {
+        when(countryRepository.findSlice(PageRequest.of(0, SliceJson.MAX_SIZE)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        SliceJson<CountryJson> result = museumService.scrollCountries(null, 10_000);
+
+        assertTrue(result.content().isEmpty());
+        assertNull(result.next());
+    }
+
     @Test
     void addMuseum_WithExistingCountryByName_ShouldUseExistingCountry() {
         MuseumJson newMuseum = new MuseumJson(
@@ -215,8 +462,9 @@ class MuseumServiceTest {
                 new GeoJson( "SPB", new CountryJson(null, "Russia"))
         );
 
-        when(countryRepository.findByName("Russia")).thenReturn(Optional.of(countryEntity));
+        when(countryRepository.findByNameIgnoreCase("Russia")).thenReturn(Optional.of(countryEntity));
         when(geoRepository.findByCityAndCountryId("SPB", countryId)).thenReturn(Optional.of(geoEntity));
+        when(geoRepository.getReferenceById(geoId)).thenReturn(geoEntity);
         when(museumRepository.save(any(MuseumEntity.class))).thenReturn(museumEntity);
 
         MuseumJson result = museumService.addMuseum(newMuseum);
@@ -239,8 +487,8 @@ class MuseumServiceTest {
         newCountry.setId(UUID.randomUUID());
         newCountry.setName("France");
 
-        when(countryRepository.findByName("France")).thenReturn(Optional.empty());
-        when(countryRepository.existsByName("France")).thenReturn(false);
+        when(countryRepository.findByNameIgnoreCase("France")).thenReturn(Optional.empty());
+        when(countryRepository.existsByNameIgnoreCase("France")).thenReturn(false);
         when(countryRepository.save(any(CountryEntity.class))).thenReturn(newCountry);
         when(geoRepository.findByCityAndCountryId("SPB", newCountry.getId())).thenReturn(Optional.empty());
         when(geoRepository.save(any(GeoEntity.class))).thenReturn(geoEntity);
@@ -264,6 +512,7 @@ class MuseumServiceTest {
 
         when(countryRepository.findById(countryId)).thenReturn(Optional.of(countryEntity));
         when(geoRepository.findByCityAndCountryId("Moscow", countryId)).thenReturn(Optional.of(geoEntity));
+        when(geoRepository.getReferenceById(geoId)).thenReturn(geoEntity);
         when(museumRepository.save(any(MuseumEntity.class))).thenReturn(museumEntity);
 
         MuseumJson result = museumService.addMuseum(newMuseum);
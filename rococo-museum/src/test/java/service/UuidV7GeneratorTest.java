@@ -0,0 +1,92 @@
+package service;
+
+import guru.qa.rococo.data.id.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @Test
+    void idShouldCarryVersionVariantAndCreationTime() {
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        UUID id = generator.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(NOW.toEpochMilli(), id.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void idsWithinSameMillisecondShouldBeStrictlyIncreasing() {
+        UuidV7Generator generator = new UuidV7Generator(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        List<UUID> ids = new ArrayList<>();
+        // Больше 4096 id за миллисекунду: счетчик переполняется в метку времени
+        for (int i = 0; i < 5000; i++) {
+            ids.add(generator.generate());
+        }
+
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(compareAsPostgres(ids.get(i - 1), ids.get(i)) < 0);
+        }
+    }
+
+    @Test
+    void idsShouldStayOrderedWhenClockGoesBackwards() {
+        MutableClock clock = new MutableClock(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock);
+
+        UUID before = generator.generate();
+        clock.now = NOW.minusSeconds(5);
+        UUID after = generator.generate();
+
+        assertTrue(compareAsPostgres(before, after) < 0);
+    }
+
+    // PostgreSQL сравнивает uuid побайтно без знака, UUID.compareTo - как два long со знаком
+    private static int compareAsPostgres(UUID left, UUID right) {
+        int msb = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return msb != 0
+                ? msb
+                : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
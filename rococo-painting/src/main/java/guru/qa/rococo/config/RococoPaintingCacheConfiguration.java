@@ -0,0 +1,34 @@
+package guru.qa.rococo.config;
+
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.service.api.MetadataCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class RococoPaintingCacheConfiguration {
+
+    private final Duration ttl;
+    private final long maximumSize;
+
+    public RococoPaintingCacheConfiguration(@Value("${rococo-painting.cache.ttl:10m}") Duration ttl,
+                                            @Value("${rococo-painting.cache.max-size:10000}") long maximumSize) {
+        this.ttl = ttl;
+        this.maximumSize = maximumSize;
+    }
+
+    @Bean
+    public MetadataCache<ArtistJson> artistCache(MeterRegistry meterRegistry) {
+        return new MetadataCache<>("artist", ttl, maximumSize, meterRegistry);
+    }
+
+    @Bean
+    public MetadataCache<MuseumJson> museumCache(MeterRegistry meterRegistry) {
+        return new MetadataCache<>("museum", ttl, maximumSize, meterRegistry);
+    }
+}
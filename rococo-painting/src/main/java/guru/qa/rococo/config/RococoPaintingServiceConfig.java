@@ -8,7 +8,7 @@ import io.swagger.v3.oas.models.security.SecurityScheme;
 import io.swagger.v3.oas.models.servers.Server;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
@@ -16,12 +16,18 @@ import org.springframework.web.client.RestTemplate;
 import java.util.List;
 
 @Configuration
+@EnableConfigurationProperties(HttpClientProperties.class)
 public class RococoPaintingServiceConfig {
 
     public static final int ONE_MB = 1024 * 1024;
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate artistRestTemplate(PooledRestTemplateFactory factory) {
+        return factory.create("artist");
+    }
+
+    @Bean
+    public RestTemplate museumRestTemplate(PooledRestTemplateFactory factory) {
+        return factory.create("museum");
     }
 }
\ No newline at end of file
@@ -1,14 +1,36 @@
 package guru.qa.rococo.controller;
 
+import guru.qa.rococo.config.ImageSettings;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.ExportFormat;
+import guru.qa.rococo.model.ExportImages;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
 import guru.qa.rococo.model.PaintingRequestJson;
 import guru.qa.rococo.model.PaintingResponseJson;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.Tagged;
+import guru.qa.rococo.service.PaintingExportService;
+import guru.qa.rococo.service.PaintingImportService;
 import guru.qa.rococo.service.PaintingService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 @RestController
@@ -16,27 +38,81 @@ import java.util.UUID;
 public class PaintingController {
 
     private final PaintingService paintingService;
+    private final PaintingImportService paintingImportService;
+    private final PaintingExportService paintingExportService;
+    private final ImageSettings imageSettings;
 
     @Autowired
-    public PaintingController(PaintingService paintingService) {
+    public PaintingController(PaintingService paintingService,
+                              PaintingImportService paintingImportService,
+                              PaintingExportService paintingExportService,
+                              ImageSettings imageSettings) {
         this.paintingService = paintingService;
+        this.paintingImportService = paintingImportService;
+        this.paintingExportService = paintingExportService;
+        this.imageSettings = imageSettings;
     }
 
     @GetMapping("/{paintingId}")
-    public PaintingResponseJson getPainting(@PathVariable(name = "paintingId") UUID paintingId) {
-        return paintingService.getPaintingById(paintingId);
+    public ResponseEntity<PaintingResponseJson> getPainting(@PathVariable(name = "paintingId") UUID paintingId,
+                                                            WebRequest request) {
+        Tagged<PaintingResponseJson> painting = paintingService.getPaintingIfModified(paintingId, request::checkNotModified);
+        if (painting.notModified()) {
+            // 304 Not Modified без загрузки изображения
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(painting.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(painting.body());
+    }
+
+    @GetMapping("/{paintingId}/image")
+    public ResponseEntity<Resource> getPaintingImage(@PathVariable(name = "paintingId") UUID paintingId,
+                                                     @RequestParam(name = "variant", required = false) String variant) {
+        ImageData image = paintingService.getPaintingImage(paintingId, ImageVariant.fromParam(variant));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(image.mimeType()))
+                .contentLength(image.content().length)
+                .eTag(image.etag())
+                .cacheControl(imageSettings.cacheControl())
+                .body(new ByteArrayResource(image.content()));
     }
 
     @GetMapping
     public Page<PaintingResponseJson> getAllPaintings(@PageableDefault Pageable pageable,
-                                                      @RequestParam(name = "title", required = false) String title) {
-        return paintingService.getAllPaintings(pageable, title);
+                                                      @RequestParam(name = "title", required = false) String title,
+                                                      @RequestParam(name = "variant", required = false) String variant) {
+        return paintingService.getAllPaintings(pageable, title, ImageVariant.fromParam(variant));
     }
 
     @GetMapping("/author/{authorId}")
     public Page<PaintingResponseJson> getPaintingsByAuthorId(@PageableDefault Pageable pageable,
-                                                             @PathVariable(name = "authorId") UUID authorId) {
-        return paintingService.getPaintingsByAuthor(pageable, authorId);
+                                                             @PathVariable(name = "authorId") UUID authorId,
+                                                             @RequestParam(name = "variant", required = false) String variant) {
+        return paintingService.getPaintingsByAuthor(pageable, authorId, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/scroll")
+    public SliceJson<PaintingResponseJson> scrollPaintings(@RequestParam(name = "after", required = false) String after,
+                                                           @RequestParam(name = "size", defaultValue = "20") int size,
+                                                           @RequestParam(name = "title", required = false) String title,
+                                                           @RequestParam(name = "variant", required = false) String variant) {
+        return paintingService.scrollPaintings(after, size, title, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/author/{authorId}/scroll")
+    public SliceJson<PaintingResponseJson> scrollPaintingsByAuthorId(@PathVariable(name = "authorId") UUID authorId,
+                                                                     @RequestParam(name = "after", required = false) String after,
+                                                                     @RequestParam(name = "size", defaultValue = "20") int size,
+                                                                     @RequestParam(name = "variant", required = false) String variant) {
+        return paintingService.scrollPaintingsByAuthor(authorId, after, size, ImageVariant.fromParam(variant));
+    }
+
+    @GetMapping("/search")
+    public Page<SearchHitJson> searchPaintings(@PageableDefault Pageable pageable,
+                                               @RequestParam(name = "query") String query) {
+        return paintingService.searchPaintings(query, pageable);
     }
 
     @PostMapping
@@ -48,4 +124,23 @@ public class PaintingController {
     public PaintingResponseJson updatePainting(@RequestBody PaintingRequestJson painting) {
         return paintingService.updatePainting(painting);
     }
+
+    // Тело - NDJSON, по одной картине на строку; читается потоком, без загрузки в память целиком
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkResultJson importPaintings(InputStream ndjson) throws IOException {
+        return paintingImportService.importPaintings(ndjson);
+    }
+
+    // Ответ пишется построчно по мере чтения из БД, поэтому объем выгрузки не ограничен памятью
+    @GetMapping("/export")
+    public void exportPaintings(@RequestParam(name = "format", required = false) String format,
+                                @RequestParam(name = "images", required = false) String images,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        ExportImages exportImages = ExportImages.fromParam(images);
+        response.setContentType(exportFormat.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("paintings." + exportFormat.extension()).build().toString());
+        paintingExportService.exportPaintings(response.getOutputStream(), exportFormat, exportImages);
+    }
 }
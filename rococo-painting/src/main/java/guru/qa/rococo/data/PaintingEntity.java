@@ -1,10 +1,13 @@
 package guru.qa.rococo.data;
 
+import guru.qa.rococo.data.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.LazyGroup;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serializable;
@@ -21,8 +24,8 @@ import java.util.UUID;
 public class PaintingEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    @Column(name = "id", unique = true, nullable = false, columnDefinition = "UUID default gen_random_uuid()")
+    @UuidV7
+    @Column(name = "id", unique = true, nullable = false, columnDefinition = "UUID")
     private UUID id;
 
     @Column(name = "title", nullable = false)
@@ -37,9 +40,51 @@ public class PaintingEntity implements Serializable {
     @Column(name = "museum_id", nullable = false)
     private UUID museum;
 
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("content")
     @Column(name = "content", columnDefinition = "bytea", nullable = false)
     private byte[] content;
 
+    @Column(name = "content_mime", length = 50)
+    private String contentMime;
+
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("thumb")
+    @Column(name = "content_thumb", columnDefinition = "bytea")
+    private byte[] contentThumb;
+
+    // Превью не строится из сохранённого изображения: догенерация при старте его пропускает
+    @Column(name = "content_thumb_failed", nullable = false, columnDefinition = "boolean default false not null")
+    private boolean contentThumbFailed;
+
+    @Formula("coalesce(octet_length(content), 0)")
+    private Integer contentSize;
+
+    /**
+     * Растет при каждом сохранении; служит оптимистической блокировкой и основой ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Вместе с изображением обновляет размер: формула contentSize пересчитывается только при чтении из БД,
+     * и без этого hasContent() после замены изображения в той же сессии отражал бы прежнее состояние.
+     */
+    public void setContent(byte[] content) {
+        this.content = content;
+        this.contentSize = content != null ? content.length : 0;
+    }
+
+    /**
+     * Проверяет наличие изображения по размеру, не загружая саму колонку.
+     */
+    public boolean hasContent() {
+        return contentSize != null
+                ? contentSize > 0
+                : content != null && content.length > 0;
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -2,14 +2,92 @@ package guru.qa.rococo.data.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import guru.qa.rococo.data.PaintingEntity;
+import guru.qa.rococo.data.SearchRow;
+import guru.qa.rococo.model.StoredImage;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface PaintingRepository extends JpaRepository<PaintingEntity, UUID> {
     Page<PaintingEntity> findAllByArtist(Pageable pageable, UUID artistId);
 
     Page<PaintingEntity> findAllByTitleContainingIgnoreCase(Pageable pageable, String title);
+
+    // Keyset-пагинация: страница ищется по индексам (title, id) и (artist_id, title, id) без OFFSET и count(*)
+    @Query("select p from PaintingEntity p order by p.title, p.id")
+    Slice<PaintingEntity> findSlice(Pageable pageable);
+
+    @Query("select p from PaintingEntity p where (p.title, p.id) > (:title, :id) order by p.title, p.id")
+    Slice<PaintingEntity> findSliceAfter(@Param("title") String title, @Param("id") UUID id, Pageable pageable);
+
+    // escape(...) экранирует % и _ в фильтре, как в производных запросах ...Containing
+    @Query("""
+            select p from PaintingEntity p
+            where upper(p.title) like upper(concat('%', :#{escape(#filter)}, '%')) escape :#{escapeCharacter()}
+            order by p.title, p.id
+            """)
+    Slice<PaintingEntity> findSliceByTitle(@Param("filter") String filter, Pageable pageable);
+
+    @Query("""
+            select p from PaintingEntity p
+            where upper(p.title) like upper(concat('%', :#{escape(#filter)}, '%')) escape :#{escapeCharacter()}
+              and (p.title, p.id) > (:title, :id)
+            order by p.title, p.id
+            """)
+    Slice<PaintingEntity> findSliceByTitleAfter(@Param("filter") String filter,
+                                                @Param("title") String title,
+                                                @Param("id") UUID id,
+                                                Pageable pageable);
+
+    @Query("select p from PaintingEntity p where p.artist = :artistId order by p.title, p.id")
+    Slice<PaintingEntity> findSliceByArtist(@Param("artistId") UUID artistId, Pageable pageable);
+
+    @Query("""
+            select p from PaintingEntity p
+            where p.artist = :artistId
+              and (p.title, p.id) > (:title, :id)
+            order by p.title, p.id
+            """)
+    Slice<PaintingEntity> findSliceByArtistAfter(@Param("artistId") UUID artistId,
+                                                 @Param("title") String title,
+                                                 @Param("id") UUID id,
+                                                 Pageable pageable);
+
+    @Query("select new guru.qa.rococo.model.StoredImage(p.id, p.contentMime, p.content) from PaintingEntity p where p.id in :ids")
+    List<StoredImage> findContentsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select new guru.qa.rococo.model.StoredImage(p.id, p.contentMime, p.contentThumb) from PaintingEntity p where p.id in :ids and p.contentThumb is not null")
+    List<StoredImage> findThumbnailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select p.id from PaintingEntity p where p.content is not null and p.contentThumb is null and p.contentThumbFailed = false")
+    List<UUID> findIdsWithoutThumbnail();
+
+    // Полнотекстовый поиск с префиксами слов и нечёткий поиск по триграммам названия, ранжирование по сумме оценок
+    // Совпадения в snippet отмечены символами U+E000/U+E001, теги <mark> ставит SearchHitJson после экранирования текста
+    @Query(nativeQuery = true,
+            value = """
+                    select p.id as id,
+                           p.title as title,
+                           ts_headline('russian', p.description, to_tsquery('russian', :tsQuery),
+                                       'MaxFragments=1, MaxWords=25, MinWords=10, StartSel=\uE000, StopSel=\uE001') as snippet,
+                           cast(ts_rank_cd(p.search_vector, to_tsquery('russian', :tsQuery))
+                                + similarity(upper(p.title), upper(:term)) as double precision) as rank
+                    from painting p
+                    where p.search_vector @@ to_tsquery('russian', :tsQuery)
+                       or upper(p.title) % upper(:term)
+                    order by rank desc, p.title
+                    """,
+            countQuery = """
+                    select count(*)
+                    from painting p
+                    where p.search_vector @@ to_tsquery('russian', :tsQuery)
+                       or upper(p.title) % upper(:term)
+                    """)
+    Page<SearchRow> search(@Param("term") String term, @Param("tsQuery") String tsQuery, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package guru.qa.rococo.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Запись массового импорта, которая не была сохранена: номер строки NDJSON и причина.
+ */
+public record BulkErrorJson(
+        @JsonProperty("line")
+        int line,
+        @JsonProperty("message")
+        String message
+) {
+}
@@ -0,0 +1,41 @@
+package guru.qa.rococo.model;
+
+import guru.qa.rococo.ex.BadRequestException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Формат выгрузки каталога: NDJSON (JSON-объект на строку) или CSV с заголовком.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public static @Nonnull ExportFormat fromParam(@Nullable String value) {
+        if (value == null || value.isBlank()) {
+            return NDJSON;
+        }
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new BadRequestException("format: Неизвестный формат выгрузки '" + value + "'");
+    }
+
+    public @Nonnull String contentType() {
+        return contentType;
+    }
+
+    public @Nonnull String extension() {
+        return extension;
+    }
+}
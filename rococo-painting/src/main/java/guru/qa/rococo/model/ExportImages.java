@@ -0,0 +1,26 @@
+package guru.qa.rococo.model;
+
+import guru.qa.rococo.ex.BadRequestException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+/**
+ * Изображения в выгрузке каталога: без них, ссылкой на {@code /image} или data URI в самой строке.
+ */
+public enum ExportImages {
+    NONE,
+    URL,
+    INLINE;
+
+    public static @Nonnull ExportImages fromParam(@Nullable String value) {
+        if (value == null || value.isBlank()) {
+            return URL;
+        }
+        for (ExportImages images : values()) {
+            if (images.name().equalsIgnoreCase(value.trim())) {
+                return images;
+            }
+        }
+        throw new BadRequestException("images: Неизвестный режим изображений '" + value + "'");
+    }
+}
@@ -0,0 +1,28 @@
+package guru.qa.rococo.model;
+
+import guru.qa.rococo.ex.BadRequestException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+import java.util.Locale;
+
+public enum ImageVariant {
+    FULL,
+    THUMB;
+
+    public static @Nonnull ImageVariant fromParam(@Nullable String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.name().equalsIgnoreCase(value.trim())) {
+                return variant;
+            }
+        }
+        throw new BadRequestException("variant: Неизвестный вариант изображения '" + value + "'");
+    }
+
+    public @Nonnull String toParam() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
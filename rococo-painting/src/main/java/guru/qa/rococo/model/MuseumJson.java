@@ -1,9 +1,11 @@
 package guru.qa.rococo.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.UUID;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record MuseumJson(
         @JsonProperty("id") UUID id,
         @JsonProperty("title") String title,
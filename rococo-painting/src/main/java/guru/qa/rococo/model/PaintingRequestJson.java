@@ -4,7 +4,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import guru.qa.rococo.data.PaintingEntity;
 import jakarta.annotation.Nonnull;
 
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 public record PaintingRequestJson(
@@ -23,13 +22,12 @@ public record PaintingRequestJson(
 ) {
 
     public static @Nonnull PaintingRequestJson fromEntity(@Nonnull PaintingEntity entity) {
+        ImageData content = ImageData.fromStored(entity.getContent(), entity.getContentMime());
         return new PaintingRequestJson(
                 entity.getId(),
                 entity.getTitle(),
                 entity.getDescription(),
-                entity.getContent() != null && entity.getContent().length > 0
-                        ? new String(entity.getContent(), StandardCharsets.UTF_8)
-                        : null,
+                content != null ? content.toDataUri() : null,
                 new ArtistRef(entity.getArtist()),
                 new MuseumRef(entity.getMuseum())
         );
@@ -4,8 +4,8 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import guru.qa.rococo.data.PaintingEntity;
 import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -27,13 +27,26 @@ public record PaintingResponseJson(
     public static @Nonnull PaintingResponseJson fromEntity(@Nonnull PaintingEntity entity,
                                                            @Nonnull ArtistJson artist,
                                                            @Nonnull MuseumJson museum) {
+        ImageData content = ImageData.fromStored(entity.getContent(), entity.getContentMime());
         return new PaintingResponseJson(
                 entity.getId(),
                 entity.getTitle(),
                 entity.getDescription(),
-                entity.getContent() != null && entity.getContent().length > 0
-                        ? new String(entity.getContent(), StandardCharsets.UTF_8)
-                        : null,
+                content != null ? content.toDataUri() : null,
+                artist,
+                museum
+        );
+    }
+
+    public static @Nonnull PaintingResponseJson fromEntity(@Nonnull PaintingEntity entity,
+                                                           @Nullable String content,
+                                                           @Nonnull ArtistJson artist,
+                                                           @Nonnull MuseumJson museum) {
+        return new PaintingResponseJson(
+                entity.getId(),
+                entity.getTitle(),
+                entity.getDescription(),
+                entity.hasContent() ? content : null,
                 artist,
                 museum
         );
@@ -2,6 +2,7 @@ package guru.qa.rococo.service;
 
 
 import guru.qa.rococo.ex.BadRequestException;
+import guru.qa.rococo.ex.NoRestResponseException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.ErrorJson;
 import jakarta.annotation.Nonnull;
@@ -10,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -17,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -75,6 +78,32 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
     );
   }
 
+  // ResourceAccessException - таймаут подключения, ожидания пула или ответа HTTP-клиента
+  @ExceptionHandler({NoRestResponseException.class, ResourceAccessException.class})
+  public ResponseEntity<ErrorJson> handleNoRestResponseException(@Nonnull RuntimeException ex,
+                                                                 @Nonnull HttpServletRequest request) {
+    LOG.warn("No REST response: {}", ex.getMessage());
+    return withStatus(
+        "API Error",
+        HttpStatus.SERVICE_UNAVAILABLE,
+        ex.getMessage(),
+        request
+    );
+  }
+
+  // Запись изменена параллельным запросом после чтения (проверка версии при сохранении)
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorJson> handleOptimisticLockingFailureException(@Nonnull OptimisticLockingFailureException ex,
+                                                                           @Nonnull HttpServletRequest request) {
+    LOG.warn("Concurrent modification: {}", ex.getMessage());
+    return withStatus(
+        "Conflict",
+        HttpStatus.CONFLICT,
+        ex.getMessage(),
+        request
+    );
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorJson> handleException(@Nonnull Exception ex,
                                                    @Nonnull HttpServletRequest request) {
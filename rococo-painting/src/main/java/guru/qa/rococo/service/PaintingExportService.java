@@ -0,0 +1,83 @@
+package guru.qa.rococo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.config.ImageSettings;
+import guru.qa.rococo.model.ExportFormat;
+import guru.qa.rococo.model.ExportImages;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.service.export.ExportWriter;
+import guru.qa.rococo.service.export.JdbcExporter;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Выгрузка всех картин ({@code GET /internal/painting/export}) потоком, без сущностей JPA.
+ * Художник и музей выгружаются идентификаторами, без обращений к rococo-artist и rococo-museum;
+ * изображение читается из БД только в режиме {@link ExportImages#INLINE}.
+ */
+@Service
+public class PaintingExportService {
+
+    private static final String SQL = """
+            select p.id, p.title, p.description, p.artist_id, p.museum_id, %s
+            from painting p
+            where p.id > ?
+            order by p.id
+            limit ?
+            """;
+
+    private final JdbcExporter jdbcExporter;
+    private final ImageSettings imageSettings;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public PaintingExportService(JdbcExporter jdbcExporter, ImageSettings imageSettings, ObjectMapper objectMapper) {
+        this.jdbcExporter = jdbcExporter;
+        this.imageSettings = imageSettings;
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportPaintings(@Nonnull OutputStream out,
+                                @Nonnull ExportFormat format,
+                                @Nonnull ExportImages images) throws IOException {
+        List<String> columns = images == ExportImages.NONE
+                ? List.of("id", "title", "description", "artistId", "museumId")
+                : List.of("id", "title", "description", "artistId", "museumId", "content");
+        String imageColumns = images == ExportImages.INLINE
+                ? "p.content, p.content_mime"
+                : "case when p.content is null then false else true end as has_content";
+        try (ExportWriter writer = ExportWriter.create(format, objectMapper, out, columns)) {
+            jdbcExporter.export(SQL.formatted(imageColumns), images == ExportImages.INLINE, rs -> {
+                UUID id = rs.getObject("id", UUID.class);
+                List<String> values = new ArrayList<>(columns.size());
+                values.add(id.toString());
+                values.add(rs.getString("title"));
+                values.add(rs.getString("description"));
+                values.add(rs.getObject("artist_id", UUID.class).toString());
+                values.add(rs.getObject("museum_id", UUID.class).toString());
+                if (images != ExportImages.NONE) {
+                    values.add(content(rs, id, images));
+                }
+                writer.write(values);
+            });
+        }
+    }
+
+    private @Nullable String content(@Nonnull ResultSet rs, @Nonnull UUID id, @Nonnull ExportImages images) throws SQLException {
+        if (images == ExportImages.URL) {
+            return rs.getBoolean("has_content") ? imageSettings.imageUrl(id) : null;
+        }
+        ImageData content = ImageData.fromStored(rs.getBytes("content"), rs.getString("content_mime"));
+        return content != null ? content.toDataUri() : null;
+    }
+}
@@ -0,0 +1,174 @@
+package guru.qa.rococo.service;
+
+import guru.qa.rococo.data.PaintingEntity;
+import guru.qa.rococo.data.repository.PaintingRepository;
+import guru.qa.rococo.ex.BadRequestException;
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.model.PaintingRequestJson;
+import guru.qa.rococo.service.api.RemoteCallExecutor;
+import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.RestMuseumClient;
+import guru.qa.rococo.service.bulk.BulkImporter;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт картин из NDJSON ({@code POST /internal/painting/bulk}).
+ * <p>
+ * Вместо двух REST-вызовов на картину художники и музеи всей порции проверяются batch-запросами
+ * к rococo-artist и rococo-museum (параллельно, не больше {@link #REF_CHUNK} id на запрос, через кэш
+ * метаданных). Превью генерируются до открытия транзакции, порция ограничена и по объему
+ * ({@code rococo-painting.bulk.batch-bytes}): до сохранения она держит изображения и превью всех записей.
+ * Новые картины появляются в закэшированных gateway списках {@code /api/painting} только по истечении
+ * {@code rococo-gateway.response-cache.ttl}: импорт идет в обход gateway.
+ */
+@Service
+public class PaintingImportService {
+
+    // id передаются в query string: 100 UUID укладываются в лимит длины заголовков запроса
+    private static final int REF_CHUNK = 100;
+
+    private final PaintingService paintingService;
+    private final PaintingRepository paintingRepository;
+    private final RestArtistClient restArtistClient;
+    private final RestMuseumClient restMuseumClient;
+    private final RemoteCallExecutor remoteCallExecutor;
+    private final ThumbnailGenerator thumbnailGenerator;
+    private final BulkImporter bulkImporter;
+
+    @Autowired
+    public PaintingImportService(PaintingService paintingService,
+                                 PaintingRepository paintingRepository,
+                                 RestArtistClient restArtistClient,
+                                 RestMuseumClient restMuseumClient,
+                                 RemoteCallExecutor remoteCallExecutor,
+                                 ThumbnailGenerator thumbnailGenerator,
+                                 BulkImporter bulkImporter) {
+        this.paintingService = paintingService;
+        this.paintingRepository = paintingRepository;
+        this.restArtistClient = restArtistClient;
+        this.restMuseumClient = restMuseumClient;
+        this.remoteCallExecutor = remoteCallExecutor;
+        this.thumbnailGenerator = thumbnailGenerator;
+        this.bulkImporter = bulkImporter;
+    }
+
+    public @Nonnull BulkResultJson importPaintings(@Nonnull InputStream ndjson) throws IOException {
+        return bulkImporter.importNdjson(ndjson, PaintingRequestJson.class, this::importBatch);
+    }
+
+    private @Nonnull List<BulkErrorJson> importBatch(@Nonnull List<BulkImporter.Line<PaintingRequestJson>> batch) {
+        List<BulkErrorJson> errors = new ArrayList<>();
+        List<BulkImporter.Line<PaintingRequestJson>> valid = new ArrayList<>();
+        for (BulkImporter.Line<PaintingRequestJson> line : batch) {
+            try {
+                validate(line.value());
+                valid.add(line);
+            } catch (RuntimeException e) {
+                errors.add(line.error(e.getMessage()));
+            }
+        }
+        if (valid.isEmpty()) {
+            return errors;
+        }
+
+        Set<UUID> artists;
+        Set<UUID> museums;
+        try {
+            CompletableFuture<Set<UUID>> artistsFuture = remoteCallExecutor.submit(() -> existingArtists(valid));
+            CompletableFuture<Set<UUID>> museumsFuture = remoteCallExecutor.submit(() -> existingMuseums(valid));
+            artists = remoteCallExecutor.await(artistsFuture);
+            museums = remoteCallExecutor.await(museumsFuture);
+        } catch (RuntimeException e) {
+            // Ссылки порции не проверить: порция отклоняется целиком, импорт продолжается
+            valid.forEach(line -> errors.add(line.error("Не удалось проверить художника и музей: " + e.getMessage())));
+            return errors;
+        }
+
+        List<BulkImporter.Line<Supplier<PaintingEntity>>> prepared = new ArrayList<>();
+        for (BulkImporter.Line<PaintingRequestJson> line : valid) {
+            PaintingRequestJson painting = line.value();
+            try {
+                if (!artists.contains(painting.artist().id())) {
+                    throw new BadRequestException("Художник не найден: " + painting.artist().id());
+                }
+                if (!museums.contains(painting.museum().id())) {
+                    throw new BadRequestException("Музей не найден: " + painting.museum().id());
+                }
+                prepared.add(line.with(prepare(painting)));
+            } catch (RuntimeException e) {
+                errors.add(line.error(e.getMessage()));
+            }
+        }
+        errors.addAll(bulkImporter.save(prepared, paintingRepository::saveAll));
+        return errors;
+    }
+
+    private @Nonnull Supplier<PaintingEntity> prepare(@Nonnull PaintingRequestJson painting) {
+        ImageData content = ImageData.fromDataUri(painting.content());
+        byte[] thumb = thumbnailGenerator.generate(content);
+        return () -> {
+            PaintingEntity entity = new PaintingEntity();
+            entity.setTitle(painting.title().trim());
+            entity.setDescription(painting.description().trim());
+            entity.setArtist(painting.artist().id());
+            entity.setMuseum(painting.museum().id());
+            entity.setContent(content.content());
+            entity.setContentMime(content.mimeType());
+            entity.setContentThumb(thumb);
+            return entity;
+        };
+    }
+
+    private void validate(@Nonnull PaintingRequestJson painting) {
+        if (painting.title() == null || painting.title().isBlank()) {
+            throw new BadRequestException("Название картины не должно быть пустым");
+        }
+        if (painting.description() == null || painting.description().isBlank()) {
+            throw new BadRequestException("Описание картины не должно быть пустым");
+        }
+        paintingService.validateRequest(painting);
+        paintingService.checkContent(painting.content());
+    }
+
+    private @Nonnull Set<UUID> existingArtists(@Nonnull List<BulkImporter.Line<PaintingRequestJson>> lines) {
+        return existing(lines, painting -> painting.artist().id(),
+                ids -> restArtistClient.getArtistsByIds(ids).stream().map(ArtistJson::id).toList());
+    }
+
+    private @Nonnull Set<UUID> existingMuseums(@Nonnull List<BulkImporter.Line<PaintingRequestJson>> lines) {
+        return existing(lines, painting -> painting.museum().id(),
+                ids -> restMuseumClient.getMuseumsByIds(ids).stream().map(MuseumJson::id).toList());
+    }
+
+    private static @Nonnull Set<UUID> existing(@Nonnull List<BulkImporter.Line<PaintingRequestJson>> lines,
+                                               @Nonnull Function<PaintingRequestJson, UUID> reference,
+                                               @Nonnull Function<List<UUID>, List<UUID>> lookup) {
+        List<UUID> ids = lines.stream()
+                .map(line -> reference.apply(line.value()))
+                .distinct()
+                .collect(Collectors.toList());
+        Set<UUID> found = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += REF_CHUNK) {
+            found.addAll(lookup.apply(ids.subList(from, Math.min(from + REF_CHUNK, ids.size()))));
+        }
+        return found;
+    }
+}
@@ -1,25 +1,50 @@
 package guru.qa.rococo.service;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.data.PaintingEntity;
 import guru.qa.rococo.data.repository.PaintingRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.CountryJson;
+import guru.qa.rococo.model.Cursor;
+import guru.qa.rococo.model.GeoJson;
+import guru.qa.rococo.model.ImageData;
+import guru.qa.rococo.model.ImageVariant;
 import guru.qa.rococo.model.MuseumJson;
 import guru.qa.rococo.model.PaintingRequestJson;
 import guru.qa.rococo.model.PaintingResponseJson;
+import guru.qa.rococo.model.SearchHitJson;
+import guru.qa.rococo.model.SearchQuery;
+import guru.qa.rococo.model.SliceJson;
+import guru.qa.rococo.model.StoredImage;
+import guru.qa.rococo.model.Tagged;
 import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.RemoteCallExecutor;
 import guru.qa.rococo.service.api.RestMuseumClient;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 public class PaintingService {
@@ -27,49 +52,191 @@ public class PaintingService {
     private final PaintingRepository paintingRepository;
     private final RestArtistClient restArtistClient;
     private final RestMuseumClient restMuseumClient;
+    private final RemoteCallExecutor remoteCallExecutor;
+    private final ImageSettings imageSettings;
+    private final ThumbnailGenerator thumbnailGenerator;
 
     @Autowired
     public PaintingService(PaintingRepository paintingRepository,
                            RestArtistClient restArtistClient,
-                           RestMuseumClient restMuseumClient) {
+                           RestMuseumClient restMuseumClient,
+                           RemoteCallExecutor remoteCallExecutor,
+                           ImageSettings imageSettings,
+                           ThumbnailGenerator thumbnailGenerator) {
         this.paintingRepository = paintingRepository;
         this.restArtistClient = restArtistClient;
         this.restMuseumClient = restMuseumClient;
+        this.remoteCallExecutor = remoteCallExecutor;
+        this.imageSettings = imageSettings;
+        this.thumbnailGenerator = thumbnailGenerator;
     }
 
     @Transactional(readOnly = true)
     public @Nonnull PaintingResponseJson getPaintingById(@Nonnull UUID id) {
         PaintingEntity entity = paintingRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Картина не найдена: " + id));
-        ArtistJson artist = restArtistClient.getArtistById(entity.getArtist());
-        MuseumJson museum = restMuseumClient.getMuseumById(entity.getMuseum());
-        return PaintingResponseJson.fromEntity(entity, artist, museum);
+        CompletableFuture<ArtistJson> artist = fetchArtist(entity.getArtist());
+        CompletableFuture<MuseumJson> museum = fetchMuseum(entity.getMuseum());
+        return toJson(
+                entity,
+                remoteCallExecutor.await(artist),
+                remoteCallExecutor.await(museum)
+        );
+    }
+
+    /**
+     * Карточка картины для условного запроса с {@code If-None-Match}.
+     * Strong ETag и тело строятся по одной записи и одним данным художника и музея из кэша метаданных.
+     * Если {@code notModified} подтверждает совпадение тега, изображение не загружается.
+     */
+    @Transactional(readOnly = true)
+    public @Nonnull Tagged<PaintingResponseJson> getPaintingIfModified(@Nonnull UUID id,
+                                                                       @Nonnull Predicate<String> notModified) {
+        PaintingEntity entity = paintingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Картина не найдена: " + id));
+        CompletableFuture<ArtistJson> artistFuture = fetchArtist(entity.getArtist());
+        CompletableFuture<MuseumJson> museumFuture = fetchMuseum(entity.getMuseum());
+        ArtistJson artist = remoteCallExecutor.await(artistFuture);
+        MuseumJson museum = remoteCallExecutor.await(museumFuture);
+        String etag = etag(entity, artist, museum);
+        return new Tagged<>(etag, notModified.test(etag) ? null : toJson(entity, artist, museum));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ImageData getPaintingImage(@Nonnull UUID id) {
+        return getPaintingImage(id, ImageVariant.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull ImageData getPaintingImage(@Nonnull UUID id, @Nonnull ImageVariant variant) {
+        PaintingEntity entity = paintingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Картина не найдена: " + id));
+        if (variant == ImageVariant.THUMB && entity.getContentThumb() != null) {
+            return thumbnailOf(entity);
+        }
+        ImageData content = ImageData.fromStored(entity.getContent(), entity.getContentMime());
+        if (content == null) {
+            throw new NotFoundException("Изображение картины не найдено: " + id);
+        }
+        return content.binary()
+                .orElseThrow(() -> new NotFoundException("Изображение картины не найдено: " + id));
     }
 
     @Transactional(readOnly = true)
     public @Nonnull Page<PaintingResponseJson> getPaintingsByAuthor(@Nonnull Pageable pageable, @Nonnull UUID authorId) {
-        ArtistJson artist = restArtistClient.getArtistById(authorId);
+        return getPaintingsByAuthor(pageable, authorId, ImageVariant.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull Page<PaintingResponseJson> getPaintingsByAuthor(@Nonnull Pageable pageable,
+                                                                    @Nonnull UUID authorId,
+                                                                    @Nonnull ImageVariant variant) {
+        // Художник запрашивается параллельно с выборкой страницы из БД
+        CompletableFuture<ArtistJson> artistFuture = fetchArtist(authorId);
         Page<PaintingEntity> entities = paintingRepository.findAllByArtist(pageable, authorId);
+        CompletableFuture<Map<UUID, MuseumJson>> museumsFuture = remoteCallExecutor.submit(() -> resolveMuseums(entities));
 
+        ArtistJson artist = remoteCallExecutor.await(artistFuture);
+        Map<UUID, MuseumJson> museums = remoteCallExecutor.await(museumsFuture);
+
+        Map<UUID, String> contents = inlineContents(entities.getContent(), variant);
         return entities.map(entity ->
-                PaintingResponseJson.fromEntity(
+                toJson(
                         entity,
                         artist,
-                        restMuseumClient.getMuseumById(entity.getMuseum())
+                        museumOf(museums, entity.getMuseum()),
+                        variant,
+                        contents
                 ));
     }
 
     @Transactional(readOnly = true)
     public Page<PaintingResponseJson> getAllPaintings(@Nonnull Pageable pageable, @Nullable String title) {
+        return getAllPaintings(pageable, title, ImageVariant.FULL);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<PaintingResponseJson> getAllPaintings(@Nonnull Pageable pageable,
+                                                      @Nullable String title,
+                                                      @Nonnull ImageVariant variant) {
         Page<PaintingEntity> entities = (title != null && !title.isBlank())
                 ? paintingRepository.findAllByTitleContainingIgnoreCase(pageable, title)
                 : paintingRepository.findAll(pageable);
 
-        return entities.map(entity -> {
-            ArtistJson artist = restArtistClient.getArtistById(entity.getArtist());
-            MuseumJson museum = restMuseumClient.getMuseumById(entity.getMuseum());
-            return PaintingResponseJson.fromEntity(entity, artist, museum);
-        });
+        CompletableFuture<Map<UUID, ArtistJson>> artistsFuture = remoteCallExecutor.submit(() -> resolveArtists(entities));
+        CompletableFuture<Map<UUID, MuseumJson>> museumsFuture = remoteCallExecutor.submit(() -> resolveMuseums(entities));
+
+        Map<UUID, ArtistJson> artists = remoteCallExecutor.await(artistsFuture);
+        Map<UUID, MuseumJson> museums = remoteCallExecutor.await(museumsFuture);
+
+        Map<UUID, String> contents = inlineContents(entities.getContent(), variant);
+        return entities.map(entity -> toJson(
+                entity,
+                artistOf(artists, entity.getArtist()),
+                museumOf(museums, entity.getMuseum()),
+                variant,
+                contents
+        ));
+    }
+
+    /**
+     * Keyset-пагинация по (title, id): страница без count(*) и курсор следующей страницы.
+     */
+    @Transactional(readOnly = true)
+    public @Nonnull SliceJson<PaintingResponseJson> scrollPaintings(@Nullable String after,
+                                                                    int size,
+                                                                    @Nullable String title,
+                                                                    @Nonnull ImageVariant variant) {
+        Slice<PaintingEntity> entities = findSlice(Cursor.parse(after), SliceJson.request(size), title);
+
+        CompletableFuture<Map<UUID, ArtistJson>> artistsFuture = remoteCallExecutor.submit(() -> resolveArtists(entities));
+        CompletableFuture<Map<UUID, MuseumJson>> museumsFuture = remoteCallExecutor.submit(() -> resolveMuseums(entities));
+
+        Map<UUID, ArtistJson> artists = remoteCallExecutor.await(artistsFuture);
+        Map<UUID, MuseumJson> museums = remoteCallExecutor.await(museumsFuture);
+
+        Map<UUID, String> contents = inlineContents(entities.getContent(), variant);
+        return toSliceJson(entities.map(entity -> toJson(
+                entity,
+                artistOf(artists, entity.getArtist()),
+                museumOf(museums, entity.getMuseum()),
+                variant,
+                contents
+        )));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull SliceJson<PaintingResponseJson> scrollPaintingsByAuthor(@Nonnull UUID authorId,
+                                                                            @Nullable String after,
+                                                                            int size,
+                                                                            @Nonnull ImageVariant variant) {
+        Cursor cursor = Cursor.parse(after);
+        Pageable request = SliceJson.request(size);
+        CompletableFuture<ArtistJson> artistFuture = fetchArtist(authorId);
+        Slice<PaintingEntity> entities = cursor == null
+                ? paintingRepository.findSliceByArtist(authorId, request)
+                : paintingRepository.findSliceByArtistAfter(authorId, cursor.key(), cursor.id(), request);
+        CompletableFuture<Map<UUID, MuseumJson>> museumsFuture = remoteCallExecutor.submit(() -> resolveMuseums(entities));
+
+        ArtistJson artist = remoteCallExecutor.await(artistFuture);
+        Map<UUID, MuseumJson> museums = remoteCallExecutor.await(museumsFuture);
+
+        Map<UUID, String> contents = inlineContents(entities.getContent(), variant);
+        return toSliceJson(entities.map(entity -> toJson(
+                entity,
+                artist,
+                museumOf(museums, entity.getMuseum()),
+                variant,
+                contents
+        )));
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull Page<SearchHitJson> searchPaintings(@Nullable String query, @Nonnull Pageable pageable) {
+        SearchQuery search = SearchQuery.parse(query);
+        // Порядок задаётся рангом совпадения, сортировка из запроса не применяется
+        return paintingRepository.search(search.term(), search.tsQuery(), PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+                .map(SearchHitJson::fromRow);
     }
 
     @Transactional
@@ -77,8 +244,10 @@ public class PaintingService {
         validateRequest(request);
         checkContent(request.content());
 
-        ArtistJson artist = restArtistClient.getArtistById(request.artist().id());
-        MuseumJson museum = restMuseumClient.getMuseumById(request.museum().id());
+        CompletableFuture<ArtistJson> artistFuture = fetchArtist(request.artist().id());
+        CompletableFuture<MuseumJson> museumFuture = fetchMuseum(request.museum().id());
+        ArtistJson artist = remoteCallExecutor.await(artistFuture);
+        MuseumJson museum = remoteCallExecutor.await(museumFuture);
 
         PaintingEntity entity = new PaintingEntity();
         entity.setId(null);
@@ -86,9 +255,9 @@ public class PaintingService {
         entity.setDescription(request.description().trim());
         entity.setArtist(artist.id());
         entity.setMuseum(museum.id());
-        entity.setContent(request.content().getBytes(StandardCharsets.UTF_8));
+        setContent(entity, request.content());
 
-        return PaintingResponseJson.fromEntity(paintingRepository.save(entity), artist, museum);
+        return toJson(paintingRepository.save(entity), artist, museum);
     }
 
     @Transactional
@@ -104,19 +273,44 @@ public class PaintingService {
         entity.setTitle(request.title().trim());
         entity.setDescription(request.description().trim());
         checkContent(request.content());
-        entity.setContent(request.content().getBytes(StandardCharsets.UTF_8));
+        setContent(entity, request.content());
 
-        updateArtistIfChanged(entity, request.artist().id());
-        updateMuseumIfChanged(entity, request.museum().id());
+        // Запрос художника и музея заодно проверяет их существование при смене ссылок
+        CompletableFuture<ArtistJson> artistFuture = fetchArtist(request.artist().id());
+        CompletableFuture<MuseumJson> museumFuture = fetchMuseum(request.museum().id());
+        ArtistJson artist = remoteCallExecutor.await(artistFuture);
+        MuseumJson museum = remoteCallExecutor.await(museumFuture);
 
-        ArtistJson artist = restArtistClient.getArtistById(entity.getArtist());
-        MuseumJson museum = restMuseumClient.getMuseumById(entity.getMuseum());
+        entity.setArtist(request.artist().id());
+        entity.setMuseum(request.museum().id());
         // Сохраняем изменения явно
         entity = paintingRepository.save(entity);
-        return PaintingResponseJson.fromEntity(entity, artist, museum);
+        return toJson(entity, artist, museum);
+    }
+
+    @Transactional(readOnly = true)
+    public @Nonnull List<UUID> getPaintingIdsWithoutThumbnail() {
+        return paintingRepository.findIdsWithoutThumbnail();
     }
 
-    private void validateRequest(@Nonnull PaintingRequestJson request) {
+    @Transactional
+    public boolean generateThumbnail(@Nonnull UUID id) {
+        PaintingEntity entity = paintingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Картина не найдена: " + id));
+        ImageData content = ImageData.fromStored(entity.getContent(), entity.getContentMime());
+        byte[] thumb = content != null ? thumbnailGenerator.generate(content) : null;
+        if (thumb == null) {
+            // Изображение не декодируется: без отметки запись повторялась бы при каждом старте
+            entity.setContentThumbFailed(true);
+            paintingRepository.save(entity);
+            return false;
+        }
+        entity.setContentThumb(thumb);
+        paintingRepository.save(entity);
+        return true;
+    }
+
+    void validateRequest(@Nonnull PaintingRequestJson request) {
         if (request.artist() == null || request.artist().id() == null) {
             throw new BadRequestException("Художник или id художника не может быть null");
         }
@@ -126,24 +320,165 @@ public class PaintingService {
         }
     }
 
-    private void checkContent(String content) {
+    void checkContent(String content) {
         if (content == null || !content.startsWith("data:image")) {
             throw new BadRequestException("Контент должен начинаться на data:image или не может быть пустым");
         }
     }
 
-    private void updateArtistIfChanged(@Nonnull PaintingEntity entity, @Nonnull UUID newArtistId) {
-        if (!newArtistId.equals(entity.getArtist())) {
-            restArtistClient.getArtistById(newArtistId);
-            entity.setArtist(newArtistId);
+    private void setContent(@Nonnull PaintingEntity entity, @Nonnull String content) {
+        ImageData image = ImageData.fromDataUri(content);
+        entity.setContent(image.content());
+        entity.setContentMime(image.mimeType());
+        entity.setContentThumb(thumbnailGenerator.generate(image));
+        entity.setContentThumbFailed(false);
+    }
+
+    private @Nonnull PaintingResponseJson toJson(@Nonnull PaintingEntity entity,
+                                                 @Nonnull ArtistJson artist,
+                                                 @Nonnull MuseumJson museum) {
+        return toJson(entity, artist, museum, ImageVariant.FULL);
+    }
+
+    // Версия картины не меняется при правке художника или музея, поэтому их данные тоже входят в хэш
+    // Хэшируются только поля, попадающие в карточку, а не toString() записей: иначе тег зависел бы
+    // от формата toString() и от полей, которые могут появиться в ArtistJson/MuseumJson позже
+    private @Nonnull String etag(@Nonnull PaintingEntity entity,
+                                 @Nonnull ArtistJson artist,
+                                 @Nonnull MuseumJson museum) {
+        GeoJson geo = museum.geo();
+        CountryJson country = geo != null ? geo.country() : null;
+        String state = String.join("\u0000",
+                String.valueOf(entity.getVersion()),
+                String.valueOf(imageSettings.isInline()),
+                String.valueOf(artist.id()),
+                Objects.toString(artist.name(), ""),
+                Objects.toString(artist.biography(), ""),
+                Objects.toString(artist.photo(), ""),
+                String.valueOf(museum.id()),
+                Objects.toString(museum.title(), ""),
+                Objects.toString(museum.description(), ""),
+                Objects.toString(museum.photo(), ""),
+                geo != null ? Objects.toString(geo.city(), "") : "",
+                country != null ? String.valueOf(country.id()) : "",
+                country != null ? Objects.toString(country.name(), "") : "");
+        return "\"" + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private @Nonnull PaintingResponseJson toJson(@Nonnull PaintingEntity entity,
+                                                 @Nonnull ArtistJson artist,
+                                                 @Nonnull MuseumJson museum,
+                                                 @Nonnull ImageVariant variant) {
+        if (!imageSettings.isInline()) {
+            return PaintingResponseJson.fromEntity(entity, imageSettings.imageUrl(entity.getId(), variant), artist, museum);
         }
+        if (variant == ImageVariant.THUMB && entity.getContentThumb() != null) {
+            return PaintingResponseJson.fromEntity(entity, thumbnailOf(entity).toDataUri(), artist, museum);
+        }
+        return PaintingResponseJson.fromEntity(entity, artist, museum);
     }
 
-    private void updateMuseumIfChanged(@Nonnull PaintingEntity entity, @Nonnull UUID newMuseumId) {
-        if (!newMuseumId.equals(entity.getMuseum())) {
-            restMuseumClient.getMuseumById(newMuseumId);
-            entity.setMuseum(newMuseumId);
+    private @Nonnull PaintingResponseJson toJson(@Nonnull PaintingEntity entity,
+                                                 @Nonnull ArtistJson artist,
+                                                 @Nonnull MuseumJson museum,
+                                                 @Nonnull ImageVariant variant,
+                                                 @Nonnull Map<UUID, String> contents) {
+        return imageSettings.isInline()
+                ? PaintingResponseJson.fromEntity(entity, contents.get(entity.getId()), artist, museum)
+                : PaintingResponseJson.fromEntity(entity, imageSettings.imageUrl(entity.getId(), variant), artist, museum);
+    }
+
+    private @Nonnull Slice<PaintingEntity> findSlice(@Nullable Cursor cursor,
+                                                     @Nonnull Pageable request,
+                                                     @Nullable String title) {
+        if (title != null && !title.isBlank()) {
+            return cursor == null
+                    ? paintingRepository.findSliceByTitle(title.trim(), request)
+                    : paintingRepository.findSliceByTitleAfter(title.trim(), cursor.key(), cursor.id(), request);
         }
+        return cursor == null
+                ? paintingRepository.findSlice(request)
+                : paintingRepository.findSliceAfter(cursor.key(), cursor.id(), request);
     }
 
+    private @Nonnull SliceJson<PaintingResponseJson> toSliceJson(@Nonnull Slice<PaintingResponseJson> paintings) {
+        return SliceJson.of(paintings, painting -> new Cursor(painting.title(), painting.id()));
+    }
+
+    // Изображения страницы догружаются одним запросом вместо ленивой загрузки по каждой картине
+    private @Nonnull Map<UUID, String> inlineContents(@Nonnull List<PaintingEntity> entities,
+                                                      @Nonnull ImageVariant variant) {
+        if (!imageSettings.isInline()) {
+            return Map.of();
+        }
+        Set<UUID> ids = entities.stream()
+                .filter(PaintingEntity::hasContent)
+                .map(PaintingEntity::getId)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, String> contents = new HashMap<>();
+        if (variant == ImageVariant.THUMB) {
+            for (StoredImage thumb : paintingRepository.findThumbnailsByIdIn(ids)) {
+                contents.put(thumb.id(), new ImageData(ThumbnailGenerator.THUMBNAIL_MIME, thumb.content()).toDataUri());
+            }
+        }
+        Set<UUID> missing = new HashSet<>(ids);
+        missing.removeAll(contents.keySet());
+        if (!missing.isEmpty()) {
+            for (StoredImage content : paintingRepository.findContentsByIdIn(missing)) {
+                ImageData image = content.image();
+                if (image != null) {
+                    contents.put(content.id(), image.toDataUri());
+                }
+            }
+        }
+        return contents;
+    }
+
+    private @Nonnull ImageData thumbnailOf(@Nonnull PaintingEntity entity) {
+        return new ImageData(ThumbnailGenerator.THUMBNAIL_MIME, entity.getContentThumb());
+    }
+
+    private @Nonnull CompletableFuture<ArtistJson> fetchArtist(@Nonnull UUID id) {
+        return remoteCallExecutor.submit(() -> restArtistClient.getArtistById(id));
+    }
+
+    private @Nonnull CompletableFuture<MuseumJson> fetchMuseum(@Nonnull UUID id) {
+        return remoteCallExecutor.submit(() -> restMuseumClient.getMuseumById(id));
+    }
+
+    // Художники и музеи страницы запрашиваются одним batch-вызовом на сервис и склеиваются в памяти
+    private @Nonnull Map<UUID, ArtistJson> resolveArtists(@Nonnull Slice<PaintingEntity> entities) {
+        Set<UUID> ids = entities.stream()
+                .map(PaintingEntity::getArtist)
+                .collect(Collectors.toSet());
+        return restArtistClient.getArtistsByIds(ids).stream()
+                .collect(Collectors.toMap(ArtistJson::id, Function.identity()));
+    }
+
+    private @Nonnull Map<UUID, MuseumJson> resolveMuseums(@Nonnull Slice<PaintingEntity> entities) {
+        Set<UUID> ids = entities.stream()
+                .map(PaintingEntity::getMuseum)
+                .collect(Collectors.toSet());
+        return restMuseumClient.getMuseumsByIds(ids).stream()
+                .collect(Collectors.toMap(MuseumJson::id, Function.identity()));
+    }
+
+    private @Nonnull ArtistJson artistOf(@Nonnull Map<UUID, ArtistJson> artists, @Nonnull UUID id) {
+        ArtistJson artist = artists.get(id);
+        if (artist == null) {
+            throw new NotFoundException("Artist not found with id: " + id);
+        }
+        return artist;
+    }
+
+    private @Nonnull MuseumJson museumOf(@Nonnull Map<UUID, MuseumJson> museums, @Nonnull UUID id) {
+        MuseumJson museum = museums.get(id);
+        if (museum == null) {
+            throw new NotFoundException("Museum not found with id: " + id);
+        }
+        return museum;
+    }
 }
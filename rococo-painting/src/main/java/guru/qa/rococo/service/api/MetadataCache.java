@@ -0,0 +1,51 @@
+package guru.qa.rococo.service.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.Nonnull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру и времени жизни кэш метаданных (без фото) художников и музеев.
+ * Счетчики попаданий, промахов и вытеснений публикуются в actuator как метрики cache.*
+ */
+public class MetadataCache<V> {
+
+    private final Cache<UUID, V> cache;
+
+    public MetadataCache(@Nonnull String name,
+                         @Nonnull Duration ttl,
+                         long maximumSize,
+                         @Nonnull MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public @Nonnull V get(@Nonnull UUID id, @Nonnull Function<UUID, V> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Возвращает найденные значения; отсутствующие в кэше загружаются одним вызовом loader.
+     */
+    public @Nonnull Map<UUID, V> getAll(@Nonnull Collection<UUID> ids,
+                                        @Nonnull Function<Set<UUID>, Map<UUID, V>> loader) {
+        return cache.getAll(ids, missing -> loader.apply(Set.copyOf(missing)));
+    }
+
+    public void invalidate(@Nonnull UUID id) {
+        cache.invalidate(id);
+    }
+}
@@ -0,0 +1,56 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.MuseumJson;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Сбрасывает записи кэша по событиям rococo-artist и rococo-museum.
+ * Ключ сообщения - id измененной сущности. У каждого экземпляра сервиса своя consumer group
+ * ({@code rococo-painting.kafka.instance-id}), чтобы событие получили все реплики; id группы
+ * не меняется при перезапуске, поэтому брокер не накапливает брошенные группы.
+ */
+@Component
+public class MetadataCacheInvalidationListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MetadataCacheInvalidationListener.class);
+
+    private final MetadataCache<ArtistJson> artistCache;
+    private final MetadataCache<MuseumJson> museumCache;
+
+    @Autowired
+    public MetadataCacheInvalidationListener(MetadataCache<ArtistJson> artistCache,
+                                             MetadataCache<MuseumJson> museumCache) {
+        this.artistCache = artistCache;
+        this.museumCache = museumCache;
+    }
+
+    @KafkaListener(topics = "artist-updated", groupId = "rococo-painting-artist-${rococo-painting.kafka.instance-id}")
+    public void artistUpdated(ConsumerRecord<String, String> record) {
+        LOG.info("### Kafka topic [artist-updated] received message: {}", record.key());
+        toId(record).ifPresent(artistCache::invalidate);
+    }
+
+    @KafkaListener(topics = "museum-updated", groupId = "rococo-painting-museum-${rococo-painting.kafka.instance-id}")
+    public void museumUpdated(ConsumerRecord<String, String> record) {
+        LOG.info("### Kafka topic [museum-updated] received message: {}", record.key());
+        toId(record).ifPresent(museumCache::invalidate);
+    }
+
+    private Optional<UUID> toId(ConsumerRecord<String, String> record) {
+        try {
+            return Optional.of(UUID.fromString(record.key()));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            LOG.warn("### Kafka topic [{}] message without valid id key: {}", record.topic(), record.key());
+            return Optional.empty();
+        }
+    }
+}
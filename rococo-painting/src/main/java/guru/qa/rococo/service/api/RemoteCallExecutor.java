@@ -0,0 +1,103 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Выполняет вызовы rococo-artist и rococo-museum на виртуальных потоках,
+ * чтобы независимые запросы шли параллельно, а не друг за другом.
+ * Число одновременных вызовов ограничено семафором, каждый вызов - таймаутом.
+ */
+@Component
+public class RemoteCallExecutor {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits;
+    private final Duration timeout;
+
+    @Autowired
+    public RemoteCallExecutor(@Value("${rococo-painting.remote-calls.max-concurrency:64}") int maxConcurrency,
+                              @Value("${rococo-painting.remote-calls.timeout:5s}") Duration timeout) {
+        this.permits = new Semaphore(maxConcurrency);
+        this.timeout = timeout;
+    }
+
+    /**
+     * По таймауту задача вызова прерывается: виртуальный поток, ожидающий ответа в сокете,
+     * выходит из вызова и возвращает разрешение семафора, а не держит его до ответа сервиса.
+     */
+    public @Nonnull <T> CompletableFuture<T> submit(@Nonnull Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            try {
+                acquirePermit();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        });
+        return result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> {
+                    if (error instanceof TimeoutException) {
+                        task.cancel(true);
+                    }
+                });
+    }
+
+    /**
+     * Дожидается результата и пробрасывает исходное исключение вызова,
+     * чтобы GlobalExceptionHandler обрабатывал его так же, как при синхронном вызове.
+     */
+    public @Nonnull <T> T await(@Nonnull CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new NoRestResponseException("No REST response is given in " + timeout.toMillis() + " ms");
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new NoRestResponseException("Too many concurrent REST calls, no permit in " + timeout.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoRestResponseException("Interrupted while waiting for REST call permit");
+        }
+    }
+}
@@ -4,7 +4,9 @@ import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.ArtistJson;
 import jakarta.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -12,25 +14,53 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class RestArtistClient {
 
     private final RestTemplate restTemplate;
     private final String rococoArtistBaseUri;
+    private final MetadataCache<ArtistJson> artistCache;
+    private final SingleFlight singleFlight;
 
     @Autowired
-    public RestArtistClient(RestTemplate restTemplate, @Value("${rococo-artist.base-uri}") String rococoArtistBaseUri) {
+    public RestArtistClient(@Qualifier("artistRestTemplate") RestTemplate restTemplate,
+                            @Value("${rococo-artist.base-uri}") String rococoArtistBaseUri,
+                            MetadataCache<ArtistJson> artistCache,
+                            SingleFlight singleFlight) {
         this.restTemplate = restTemplate;
         this.rococoArtistBaseUri = rococoArtistBaseUri + "/internal/artist";
+        this.artistCache = artistCache;
+        this.singleFlight = singleFlight;
     }
 
+    /**
+     * Облегченное представление (ref-view, без фото) берется из кэша, при промахе - из rococo-artist.
+     * Одновременные промахи по одному id ждут одну загрузку (кэш блокирует ключ на время загрузки).
+     */
     public @Nonnull ArtistJson getArtistById(@Nonnull UUID id) {
+        return artistCache.get(id, this::fetchArtistById);
+    }
+
+    public @Nonnull List<ArtistJson> getArtistsByIds(@Nonnull Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(artistCache.getAll(ids, this::fetchArtistsByIds).values());
+    }
+
+    private @Nonnull ArtistJson fetchArtistById(@Nonnull UUID id) {
         URI uri = UriComponentsBuilder
                 .fromUriString(rococoArtistBaseUri)
-                .path("/{id}")
+                .path("/{id}/ref")
                 .buildAndExpand(id)
                 .toUri();
 
@@ -39,4 +69,25 @@ public class RestArtistClient {
         return Optional.ofNullable(response.getBody())
                 .orElseThrow(() -> new NotFoundException("Artist not found with id: " + id));
     }
+
+    private @Nonnull Map<UUID, ArtistJson> fetchArtistsByIds(@Nonnull Set<UUID> ids) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoArtistBaseUri)
+                .path("/refs")
+                .queryParam("ids", ids.stream().sorted().toArray())
+                .build()
+                .toUri();
+
+        // Одинаковые страницы запрашивают один и тот же набор id: такие запросы объединяются
+        ResponseEntity<List<ArtistJson>> response = singleFlight.execute(
+                uri.toString(),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<List<ArtistJson>>() {
+                })
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElse(List.of())
+                .stream()
+                .collect(Collectors.toMap(ArtistJson::id, Function.identity()));
+    }
 }
@@ -4,7 +4,9 @@ import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.MuseumJson;
 import jakarta.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -12,24 +14,52 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class RestMuseumClient {
     private final RestTemplate restTemplate;
     private final String rococoMuseumBaseUri;
+    private final MetadataCache<MuseumJson> museumCache;
+    private final SingleFlight singleFlight;
 
     @Autowired
-    public RestMuseumClient(RestTemplate restTemplate, @Value("${rococo-museum.base-uri}") String rococoMuseumBaseUri) {
+    public RestMuseumClient(@Qualifier("museumRestTemplate") RestTemplate restTemplate,
+                            @Value("${rococo-museum.base-uri}") String rococoMuseumBaseUri,
+                            MetadataCache<MuseumJson> museumCache,
+                            SingleFlight singleFlight) {
         this.restTemplate = restTemplate;
         this.rococoMuseumBaseUri = rococoMuseumBaseUri + "/internal/museum";
+        this.museumCache = museumCache;
+        this.singleFlight = singleFlight;
     }
 
+    /**
+     * Облегченное представление (ref-view, без фото) берется из кэша, при промахе - из rococo-museum.
+     * Одновременные промахи по одному id ждут одну загрузку (кэш блокирует ключ на время загрузки).
+     */
     public @Nonnull MuseumJson getMuseumById(@Nonnull UUID id) {
+        return museumCache.get(id, this::fetchMuseumById);
+    }
+
+    public @Nonnull List<MuseumJson> getMuseumsByIds(@Nonnull Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(museumCache.getAll(ids, this::fetchMuseumsByIds).values());
+    }
+
+    private @Nonnull MuseumJson fetchMuseumById(@Nonnull UUID id) {
         URI uri = UriComponentsBuilder
                 .fromUriString(rococoMuseumBaseUri)
-                .path("/{id}")
+                .path("/{id}/ref")
                 .buildAndExpand(id)
                 .toUri();
 
@@ -43,4 +73,25 @@ public class RestMuseumClient {
         return Optional.ofNullable(response.getBody())
                 .orElseThrow(() -> new NotFoundException("Museum not found with id: " + id));
     }
+
+    private @Nonnull Map<UUID, MuseumJson> fetchMuseumsByIds(@Nonnull Set<UUID> ids) {
+        URI uri = UriComponentsBuilder
+                .fromUriString(rococoMuseumBaseUri)
+                .path("/refs")
+                .queryParam("ids", ids.stream().sorted().toArray())
+                .build()
+                .toUri();
+
+        // Одинаковые страницы запрашивают один и тот же набор id: такие запросы объединяются
+        ResponseEntity<List<MuseumJson>> response = singleFlight.execute(
+                uri.toString(),
+                () -> restTemplate.exchange(uri, HttpMethod.GET, null, new ParameterizedTypeReference<List<MuseumJson>>() {
+                })
+        );
+
+        return Optional.ofNullable(response.getBody())
+                .orElse(List.of())
+                .stream()
+                .collect(Collectors.toMap(MuseumJson::id, Function.identity()));
+    }
 }
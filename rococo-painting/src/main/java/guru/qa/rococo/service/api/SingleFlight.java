@@ -0,0 +1,92 @@
+package guru.qa.rococo.service.api;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одинаковые одновременные GET-запросы к rococo-artist и rococo-museum (single-flight).
+ * <p>
+ * Первый запрос по ключу выполняется в своем потоке, остальные ждут его результат не дольше
+ * {@code timeout} и получают тот же ответ или то же исключение. После завершения ключ
+ * освобождается: результат не кэшируется, следующий запрос снова идет в сервис.
+ * <p>
+ * Число объединенных запросов: {@code /actuator/metrics/rococo.painting.single-flight.shared}.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final Counter shared;
+
+    @Autowired
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${rococo-painting.remote-calls.timeout:5s}") Duration timeout) {
+        this.timeout = timeout;
+        this.shared = Counter.builder("rococo.painting.single-flight.shared")
+                .description("Запросы, получившие ответ одновременного запроса с тем же ключом")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет вызов или присоединяется к уже выполняющемуся вызову с тем же ключом.
+     * <p>
+     * Вызовы с разным типом результата должны иметь разные ключи (например, разные URI).
+     *
+     * @param key  ключ запроса, например URI
+     * @param call вызов сервиса
+     * @return результат вызова
+     * @throws NoRestResponseException Если общий вызов не завершился за {@code timeout}
+     */
+    @SuppressWarnings("unchecked")
+    public @Nonnull <T> T execute(@Nonnull String key, @Nonnull Supplier<T> call) {
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, own);
+        if (leader != null) {
+            shared.increment();
+            return (T) await(key, leader);
+        }
+
+        try {
+            T result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private @Nonnull Object await(@Nonnull String key, @Nonnull CompletableFuture<Object> leader) {
+        try {
+            return leader.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new NoRestResponseException("No REST response is given in " + timeout.toMillis() + " ms [" + key + "]");
+        } catch (ExecutionException e) {
+            // Ошибку общего вызова получают все ожидающие, как если бы каждый вызвал сервис сам
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new NoRestResponseException("Shared REST call failed [" + key + "]: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoRestResponseException("Interrupted while waiting for shared REST call [" + key + "]");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package guru.qa.rococo.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import jakarta.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Массовый импорт из потока NDJSON: одна JSON-запись на строку.
+ * <p>
+ * Строки читаются из тела запроса по мере поступления и обрабатываются порциями не больше
+ * {@code batch-size} записей и {@code batch-bytes} текста NDJSON, поэтому в памяти находится только
+ * текущая порция, а записи с крупными изображениями не удерживают сотни мегабайт до сохранения.
+ * Порция проверяется целиком (ссылки разрешаются одним запросом на порцию) и сохраняется одной
+ * транзакцией с пакетной вставкой JDBC ({@code hibernate.jdbc.batch_size}). Ошибка разбора или
+ * проверки записи не прерывает импорт, а попадает в отчет с номером строки. Если транзакция порции
+ * откатилась (например, из-за нарушения уникальности), записи порции сохраняются по одной, чтобы
+ * отклонить только ошибочные.
+ */
+@Component
+public class BulkImporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkImporter.class);
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long batchBytes;
+
+    @Autowired
+    public BulkImporter(ObjectMapper objectMapper,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${rococo-painting.bulk.batch-size:100}") int batchSize,
+                        @Value("${rococo-painting.bulk.batch-bytes:16MB}") DataSize batchBytes) {
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.batchBytes = batchBytes.toBytes();
+    }
+
+    /**
+     * Читает NDJSON и передает записи порциями в {@code batchHandler}, который возвращает ошибки
+     * отклоненных записей порции (не больше одной на строку).
+     */
+    public @Nonnull <T> BulkResultJson importNdjson(@Nonnull InputStream ndjson,
+                                                    @Nonnull Class<T> type,
+                                                    @Nonnull Function<List<Line<T>>, List<BulkErrorJson>> batchHandler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        List<BulkErrorJson> errors = new ArrayList<>();
+        List<Line<T>> batch = new ArrayList<>(batchSize);
+        // Объем порции считается по длине строк: изображения приходят в base64, это ASCII
+        long bytes = 0;
+        int total = 0;
+        int number = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            number++;
+            if (text.isBlank()) {
+                continue;
+            }
+            total++;
+            try {
+                batch.add(new Line<>(number, objectMapper.readValue(text, type)));
+                bytes += text.length();
+            } catch (JsonProcessingException e) {
+                errors.add(new BulkErrorJson(number, "Некорректный JSON: " + e.getOriginalMessage()));
+            }
+            if (batch.size() == batchSize || bytes >= batchBytes) {
+                errors.addAll(batchHandler.apply(batch));
+                batch = new ArrayList<>(batchSize);
+                bytes = 0;
+            }
+        }
+        if (!batch.isEmpty()) {
+            errors.addAll(batchHandler.apply(batch));
+        }
+        errors.sort(Comparator.comparingInt(BulkErrorJson::line));
+        LOG.info("### Bulk import of {}: {} records, {} failed", type.getSimpleName(), total, errors.size());
+        return new BulkResultJson(total, total - errors.size(), errors.size(), errors);
+    }
+
+    /**
+     * Сохраняет порцию одной транзакцией, при ошибке - каждую запись в своей транзакции.
+     * Сущности создаются фабриками внутри транзакции, чтобы повторная попытка не получила
+     * сущность с id от откаченной вставки.
+     *
+     * @return ошибки записей, которые не удалось сохранить
+     */
+    public @Nonnull <E> List<BulkErrorJson> save(@Nonnull List<Line<Supplier<E>>> lines,
+                                                 @Nonnull Consumer<List<E>> writer) {
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    writer.accept(lines.stream().map(line -> line.value().get()).toList()));
+            return List.of();
+        } catch (RuntimeException e) {
+            LOG.warn("### Bulk batch of {} records rolled back, saving one by one: {}", lines.size(), message(e));
+        }
+        List<BulkErrorJson> errors = new ArrayList<>();
+        for (Line<Supplier<E>> line : lines) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.accept(List.of(line.value().get())));
+            } catch (RuntimeException e) {
+                errors.add(line.error(message(e)));
+            }
+        }
+        return errors;
+    }
+
+    static @Nonnull String message(@Nonnull RuntimeException e) {
+        if (e instanceof DataAccessException dataAccess) {
+            return dataAccess.getMostSpecificCause().getMessage();
+        }
+        return String.valueOf(e.getMessage());
+    }
+
+    /**
+     * Запись NDJSON с номером строки (с единицы).
+     */
+    public record Line<T>(int number, T value) {
+
+        public @Nonnull <R> Line<R> with(R value) {
+            return new Line<>(number, value);
+        }
+
+        public @Nonnull BulkErrorJson error(String message) {
+            return new BulkErrorJson(number, message);
+        }
+    }
+}
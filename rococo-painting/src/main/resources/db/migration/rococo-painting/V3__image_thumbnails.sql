@@ -0,0 +1,2 @@
+alter table painting
+    add column if not exists content_thumb bytea;
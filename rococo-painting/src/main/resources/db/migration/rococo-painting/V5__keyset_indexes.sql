@@ -0,0 +1,7 @@
+-- Keyset-пагинация: выборка следующей страницы по (title, id) > (:title, :id) идет по индексу без OFFSET
+create index if not exists idx_painting_title_id
+    on painting (title, id);
+
+-- Картины художника: фильтр по artist_id и та же сортировка по (title, id)
+create index if not exists idx_painting_artist_title_id
+    on painting (artist_id, title, id);
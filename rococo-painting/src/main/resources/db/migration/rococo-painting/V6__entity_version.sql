@@ -0,0 +1,3 @@
+-- Версия записи для оптимистической блокировки и strong ETag карточки картины
+alter table painting
+    add column if not exists version bigint not null default 0;
@@ -11,16 +11,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
 
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,13 +62,27 @@ class PaintingControllerTest {
         artistId = UUID.fromString("666e4567-e89b-12d3-a456-426614174001");
         museumId = UUID.fromString("555e4567-e89b-12d3-a456-426614174000");
 
-        when(restArtistClient.getArtistById(artistId)).thenReturn(
-                new ArtistJson(artistId, "Jean-Honoré Fragonard", "Famous Rococo artist", null)
-        );
+        ArtistJson artist = new ArtistJson(artistId, "Jean-Honoré Fragonard", "Famous Rococo artist", null);
+        MuseumJson museum = new MuseumJson(museumId, "Louvre Museum", "A museum in Paris", null, new GeoJson("Paris", new CountryJson(UUID.randomUUID(), "France")));
 
-        when(restMuseumClient.getMuseumById(museumId)).thenReturn(
-                new MuseumJson(museumId, "Louvre Museum", "A museum in Paris", null, new GeoJson("Paris", new CountryJson(UUID.randomUUID(), "France")))
-        );
+        when(restArtistClient.getArtistById(artistId)).thenReturn(artist);
+        when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artist));
+
+        when(restMuseumClient.getMuseumById(museumId)).thenReturn(museum);
+        when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museum));
+    }
+
+    @Test
+    @Sql("/paintingShouldBeReturnedById.sql")
+    void paintingImageShouldBeReturnedAsBinary() throws Exception {
+        byte[] jpeg = Base64.getMimeDecoder().decode("/9j/4AAQSkZ");
+        mockMvc.perform(get("/internal/painting/{id}/image", paintingId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, jpeg.length))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + DigestUtils.md5DigestAsHex(jpeg) + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andExpect(content().bytes(jpeg));
     }
 
     @Test
@@ -74,6 +95,30 @@ class PaintingControllerTest {
                 .andExpect(jsonPath("$.content[1].title").value("Girl with a Pearl Earring"));
     }
 
+    @Test
+    @Sql("/paintingListShouldBeReturned.sql")
+    void paintingsShouldBeExportedAsNdjsonWithInlineContent() throws Exception {
+        // В профиле test chunk-size = 1: каждая картина читается отдельной порцией
+        mockMvc.perform(get("/internal/painting/export").param("images", "inline"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"paintings.ndjson\""))
+                .andExpect(content().string(
+                        "{\"id\":\"777e4567-e89b-12d3-a456-426614174000\",\"title\":\"The Swing\",\"description\":\"A famous Rococo painting\","
+                        + "\"artistId\":\"666e4567-e89b-12d3-a456-426614174001\",\"museumId\":\"555e4567-e89b-12d3-a456-426614174000\","
+                        + "\"content\":\"" + PHOTO_PLACEHOLDER + "\"}\n"
+                        + "{\"id\":\"888e4567-e89b-12d3-a456-426614174002\",\"title\":\"Girl with a Pearl Earring\",\"description\":\"A masterpiece by Vermeer\","
+                        + "\"artistId\":\"666e4567-e89b-12d3-a456-426614174001\",\"museumId\":\"555e4567-e89b-12d3-a456-426614174000\","
+                        + "\"content\":\"" + PHOTO_PLACEHOLDER + "\"}\n"
+                ));
+    }
+
+    @Test
+    void paintingExportShouldRejectUnknownImagesMode() throws Exception {
+        mockMvc.perform(get("/internal/painting/export").param("images", "thumb"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Sql("/paintingShouldBeReturnedById.sql")
     void paintingShouldBeReturnedById() throws Exception {
@@ -0,0 +1,176 @@
+package service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.qa.rococo.config.ImageSettings;
+import guru.qa.rococo.data.PaintingEntity;
+import guru.qa.rococo.data.repository.PaintingRepository;
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.model.BulkErrorJson;
+import guru.qa.rococo.model.BulkResultJson;
+import guru.qa.rococo.model.MuseumJson;
+import guru.qa.rococo.service.PaintingImportService;
+import guru.qa.rococo.service.PaintingService;
+import guru.qa.rococo.service.ThumbnailGenerator;
+import guru.qa.rococo.service.api.RemoteCallExecutor;
+import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.RestMuseumClient;
+import guru.qa.rococo.service.bulk.BulkImporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaintingImportServiceTest {
+
+    private static final UUID ARTIST_ID = UUID.fromString("11111111-0000-0000-0000-000000000001");
+    private static final UUID UNKNOWN_ARTIST_ID = UUID.fromString("11111111-0000-0000-0000-000000000009");
+    private static final UUID MUSEUM_ID = UUID.fromString("22222222-0000-0000-0000-000000000001");
+    private static final String CONTENT = "data:image/jpeg;base64,/9j/4AAQSkZJRg==";
+
+    @Mock
+    private PaintingRepository paintingRepository;
+    @Mock
+    private RestArtistClient restArtistClient;
+    @Mock
+    private RestMuseumClient restMuseumClient;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PaintingImportService paintingImportService;
+
+    @BeforeEach
+    void setUp() {
+        paintingImportService = importService(500, DataSize.ofMegabytes(16));
+    }
+
+    @Test
+    void unknownReferencesShouldBeReportedPerRecord() throws Exception {
+        when(restArtistClient.getArtistsByIds(anyCollection())).thenReturn(List.of(artist(ARTIST_ID)));
+        when(restMuseumClient.getMuseumsByIds(anyCollection())).thenReturn(List.of(museum(MUSEUM_ID)));
+        when(paintingRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String ndjson = String.join("\n",
+                painting("Утро", ARTIST_ID, MUSEUM_ID),
+                painting("Вечер", UNKNOWN_ARTIST_ID, MUSEUM_ID),
+                """
+                        {"title":"Ночь","description":"Без музея","content":"%s","artist":{"id":"%s"}}"""
+                        .formatted(CONTENT, ARTIST_ID)
+        );
+
+        BulkResultJson result = importPaintings(ndjson);
+
+        assertEquals(3, result.total());
+        assertEquals(1, result.imported());
+        assertEquals(List.of(2, 3), result.errors().stream().map(BulkErrorJson::line).toList());
+        assertTrue(result.errors().get(0).message().contains(UNKNOWN_ARTIST_ID.toString()));
+    }
+
+    @Test
+    void referencesShouldBeResolvedInChunksPerBatch() throws Exception {
+        List<UUID> artistIds = IntStream.range(0, 250).mapToObj(i -> UUID.randomUUID()).toList();
+        when(restArtistClient.getArtistsByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            assertTrue(ids.size() <= 100);
+            return ids.stream().map(PaintingImportServiceTest::artist).toList();
+        });
+        when(restMuseumClient.getMuseumsByIds(anyCollection())).thenReturn(List.of(museum(MUSEUM_ID)));
+        when(paintingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PaintingEntity> entities = invocation.getArgument(0);
+            assertEquals(250, entities.size());
+            return entities;
+        });
+
+        BulkResultJson result = importPaintings(artistIds.stream()
+                .map(id -> painting("Картина", id, MUSEUM_ID))
+                .collect(Collectors.joining("\n")));
+
+        assertEquals(250, result.imported());
+        // Одна порция: три запроса к rococo-artist вместо 250, один к rococo-museum
+        verify(restArtistClient, times(3)).getArtistsByIds(anyCollection());
+        verify(restMuseumClient, times(1)).getMuseumsByIds(anyCollection());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void unavailableServiceShouldRejectBatchWithoutAbortingImport() throws Exception {
+        when(restArtistClient.getArtistsByIds(anyCollection())).thenReturn(List.of(artist(ARTIST_ID)));
+        when(restMuseumClient.getMuseumsByIds(anyCollection())).thenThrow(new NoRestResponseException("rococo-museum недоступен"));
+
+        BulkResultJson result = importPaintings(painting("Утро", ARTIST_ID, MUSEUM_ID));
+
+        assertEquals(0, result.imported());
+        assertTrue(result.errors().get(0).message().contains("rococo-museum недоступен"));
+        verify(paintingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void batchShouldBeClosedByTextSize() throws Exception {
+        when(restArtistClient.getArtistsByIds(anyCollection())).thenReturn(List.of(artist(ARTIST_ID)));
+        when(restMuseumClient.getMuseumsByIds(anyCollection())).thenReturn(List.of(museum(MUSEUM_ID)));
+        when(paintingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PaintingEntity> entities = invocation.getArgument(0);
+            assertEquals(2, entities.size());
+            return entities;
+        });
+        String line = painting("Картина", ARTIST_ID, MUSEUM_ID);
+        // Две строки заполняют порцию по объему раньше, чем по числу записей
+        paintingImportService = importService(500, DataSize.ofBytes(line.length() * 2L));
+
+        BulkResultJson result = importPaintings(String.join("\n", line, line, line, line));
+
+        assertEquals(4, result.imported());
+        verify(paintingRepository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    private PaintingImportService importService(int batchSize, DataSize batchBytes) {
+        RemoteCallExecutor remoteCallExecutor = new RemoteCallExecutor(8, Duration.ofSeconds(5));
+        ThumbnailGenerator thumbnailGenerator = new ThumbnailGenerator(320, 0.8);
+        PaintingService paintingService = new PaintingService(paintingRepository, restArtistClient, restMuseumClient,
+                remoteCallExecutor, new ImageSettings(true, "/api/painting", Duration.ofMinutes(10)), thumbnailGenerator);
+        return new PaintingImportService(paintingService, paintingRepository, restArtistClient,
+                restMuseumClient, remoteCallExecutor, thumbnailGenerator,
+                new BulkImporter(new ObjectMapper(), transactionManager, batchSize, batchBytes));
+    }
+
+    private BulkResultJson importPaintings(String ndjson) throws Exception {
+        return paintingImportService.importPaintings(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String painting(String title, UUID artistId, UUID museumId) {
+        return """
+                {"title":"%s","description":"Описание","content":"%s","artist":{"id":"%s"},"museum":{"id":"%s"}}"""
+                .formatted(title, CONTENT, artistId, museumId);
+    }
+
+    private static ArtistJson artist(UUID id) {
+        return new ArtistJson(id, "Художник", null, null);
+    }
+
+    private static MuseumJson museum(UUID id) {
+        return new MuseumJson(id, "Музей", null, null, null);
+    }
+}
@@ -1,11 +1,15 @@
 package service;
 
+import guru.qa.rococo.config.ImageSettings;
 import guru.qa.rococo.data.PaintingEntity;
+import guru.qa.rococo.data.SearchRow;
 import guru.qa.rococo.data.repository.PaintingRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
 import guru.qa.rococo.model.*;
 import guru.qa.rococo.service.PaintingService;
+import guru.qa.rococo.service.ThumbnailGenerator;
+import guru.qa.rococo.service.api.RemoteCallExecutor;
 import guru.qa.rococo.service.api.RestArtistClient;
 import guru.qa.rococo.service.api.RestMuseumClient;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,12 +25,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -93,7 +101,10 @@ public class PaintingServiceTest {
         paintingEntity.setArtist(artistId);
         paintingEntity.setMuseum(museumId);
         paintingEntity.setContent(paintingContent.getBytes(StandardCharsets.UTF_8));
-        paintingService = new PaintingService(paintingRepository, restArtistClient, restMuseumClient);
+        paintingService = new PaintingService(paintingRepository, restArtistClient, restMuseumClient,
+                new RemoteCallExecutor(8, Duration.ofSeconds(5)),
+                new ImageSettings(true, "/api/painting", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
 
         artistJson = new ArtistJson(artistId, artistName, artistBiography, artistPhoto);
         country = new CountryJson(countryId, countryName);
@@ -141,6 +152,43 @@ public class PaintingServiceTest {
                 );
     }
 
+    @Test
+    void getPaintingEtagShouldChangeWhenPaintingOrArtistChanges() {
+        Mockito.when(paintingRepository.findById(paintingId)).thenReturn(Optional.of(paintingEntity));
+        Mockito.when(restArtistClient.getArtistById(artistId))
+                .thenReturn(artistJson, artistJson, new ArtistJson(artistId, "Новое имя", artistBiography, artistPhoto));
+        Mockito.when(restMuseumClient.getMuseumById(museumId)).thenReturn(museumJson);
+
+        paintingEntity.setVersion(1L);
+        String etag = paintingService.getPaintingIfModified(paintingId, tag -> true).etag();
+        assertEquals(etag, paintingService.getPaintingIfModified(paintingId, tag -> true).etag());
+
+        String artistRenamed = paintingService.getPaintingIfModified(paintingId, tag -> true).etag();
+        paintingEntity.setVersion(2L);
+        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
+        String paintingUpdated = paintingService.getPaintingIfModified(paintingId, tag -> true).etag();
+
+        assertThat(List.of(etag, artistRenamed, paintingUpdated)).doesNotHaveDuplicates();
+        Mockito.verify(paintingRepository, Mockito.never()).findContentsByIdIn(any());
+    }
+
+    @Test
+    void getPaintingIfModifiedShouldBuildEtagAndBodyFromOneRead() {
+        Mockito.when(paintingRepository.findById(paintingId)).thenReturn(Optional.of(paintingEntity));
+        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
+        Mockito.when(restMuseumClient.getMuseumById(museumId)).thenReturn(museumJson);
+        paintingEntity.setVersion(1L);
+
+        Tagged<PaintingResponseJson> notModified = paintingService.getPaintingIfModified(paintingId, tag -> true);
+        Tagged<PaintingResponseJson> modified = paintingService.getPaintingIfModified(paintingId, tag -> false);
+
+        assertThat(notModified.notModified()).isTrue();
+        assertEquals(notModified.etag(), modified.etag());
+        assertEquals(paintingTitle, modified.body().title());
+        Mockito.verify(paintingRepository, Mockito.times(2)).findById(paintingId);
+        Mockito.verify(restArtistClient, Mockito.times(2)).getArtistById(artistId);
+    }
+
     @Test
     void getPaintingByIdShouldThrowExceptionForInvalidId() {
         final UUID nonExistentId = UUID.randomUUID();
@@ -159,8 +207,10 @@ public class PaintingServiceTest {
 
         Mockito.when(paintingRepository.findAll(pageable))
                 .thenReturn(new PageImpl<>(List.of(paintingEntity), pageable, 1));
-        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
-        Mockito.when(restMuseumClient.getMuseumById(museumId)).thenReturn(museumJson);
+        Mockito.when(paintingRepository.findContentsByIdIn(Set.of(paintingId)))
+                .thenReturn(List.of(new StoredImage(paintingId, null, paintingContent.getBytes(StandardCharsets.UTF_8))));
+        Mockito.when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artistJson));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museumJson));
 
         Page<PaintingResponseJson> result = paintingService.getAllPaintings(pageable, null);
         assertThat(result).isNotNull();
@@ -178,8 +228,8 @@ public class PaintingServiceTest {
         PageRequest pageable = PageRequest.of(0, 10);
         Mockito.when(paintingRepository.findAllByTitleContainingIgnoreCase(pageable, paintingTitle))
                 .thenReturn(new PageImpl<>(List.of(paintingEntity), pageable, 1));
-        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
-        Mockito.when(restMuseumClient.getMuseumById(museumId)).thenReturn(museumJson);
+        Mockito.when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artistJson));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museumJson));
 
         Page<PaintingResponseJson> result = paintingService.getAllPaintings(pageable, paintingTitle);
 
@@ -188,6 +238,61 @@ public class PaintingServiceTest {
         assertThat(result.getContent().getFirst().title()).isEqualTo(paintingTitle);
     }
 
+    @Test
+    void getAllPaintingShouldResolveDistinctArtistsAndMuseumsInOneCall() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        PaintingEntity sameArtistAndMuseum = new PaintingEntity();
+        sameArtistAndMuseum.setId(UUID.randomUUID());
+        sameArtistAndMuseum.setTitle(paintingUpdateTitle);
+        sameArtistAndMuseum.setDescription(paintingUpdateDescription);
+        sameArtistAndMuseum.setArtist(artistId);
+        sameArtistAndMuseum.setMuseum(museumId);
+        sameArtistAndMuseum.setContent(paintingUpdateContent.getBytes(StandardCharsets.UTF_8));
+        Mockito.when(paintingRepository.findAll(pageable))
+                .thenReturn(new PageImpl<>(List.of(paintingEntity, sameArtistAndMuseum), pageable, 2));
+        Mockito.when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artistJson));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museumJson));
+
+        Page<PaintingResponseJson> result = paintingService.getAllPaintings(pageable, null);
+
+        assertThat(result.getContent())
+                .extracting(PaintingResponseJson::artist, PaintingResponseJson::museum)
+                .containsOnly(tuple(artistJson, museumJson));
+        Mockito.verify(restArtistClient, Mockito.times(1)).getArtistsByIds(Set.of(artistId));
+        Mockito.verify(restMuseumClient, Mockito.times(1)).getMuseumsByIds(Set.of(museumId));
+        Mockito.verify(restArtistClient, Mockito.never()).getArtistById(any());
+        Mockito.verify(restMuseumClient, Mockito.never()).getMuseumById(any());
+    }
+
+    @Test
+    void getAllPaintingShouldThrowExceptionForUnresolvedMuseum() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Mockito.when(paintingRepository.findAll(pageable))
+                .thenReturn(new PageImpl<>(List.of(paintingEntity), pageable, 1));
+        Mockito.when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artistJson));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> paintingService.getAllPaintings(pageable, null))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Museum not found with id: " + museumId);
+    }
+
+    @Test
+    void getPaintingsByAuthorShouldResolveMuseumsInOneCall() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
+        Mockito.when(paintingRepository.findAllByArtist(pageable, artistId))
+                .thenReturn(new PageImpl<>(List.of(paintingEntity), pageable, 1));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museumJson));
+
+        Page<PaintingResponseJson> result = paintingService.getPaintingsByAuthor(pageable, artistId);
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().getFirst().artist()).isEqualTo(artistJson);
+        assertThat(result.getContent().getFirst().museum()).isEqualTo(museumJson);
+        Mockito.verify(restMuseumClient, Mockito.never()).getMuseumById(any());
+    }
+
     @Test
     void addArtistShouldSaveAndReturnPainting() {
         Mockito.when(paintingRepository.save(any(PaintingEntity.class))).thenReturn(paintingEntity);
@@ -224,6 +329,114 @@ public class PaintingServiceTest {
         assertThat(captor.getValue().getMuseum()).isEqualTo(museumId);
     }
 
+    @Test
+    void addPaintingShouldStoreDecodedContentWithMimeType() {
+        String content = "data:image/jpeg;base64,/9j/4AAQSkZJRg==";
+        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
+        Mockito.when(restMuseumClient.getMuseumById(museumId)).thenReturn(museumJson);
+        Mockito.when(paintingRepository.save(any(PaintingEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        PaintingResponseJson result = paintingService.addPainting(
+                new PaintingRequestJson(null, paintingTitle, paintingDescription, content, artistRef, museumRef));
+
+        ArgumentCaptor<PaintingEntity> captor = ArgumentCaptor.forClass(PaintingEntity.class);
+        Mockito.verify(paintingRepository).save(captor.capture());
+        assertThat(captor.getValue().getContent()).isEqualTo(Base64.getDecoder().decode("/9j/4AAQSkZJRg=="));
+        assertThat(captor.getValue().getContentMime()).isEqualTo("image/jpeg");
+        assertThat(result.content()).isEqualTo(content);
+    }
+
+    @Test
+    void getPaintingByIdShouldReturnContentUrlWhenInlineModeIsDisabled() {
+        paintingService = new PaintingService(paintingRepository, restArtistClient, restMuseumClient,
+                new RemoteCallExecutor(8, Duration.ofSeconds(5)),
+                new ImageSettings(false, "http://127.0.0.1:8090/api/painting", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
+        Mockito.when(paintingRepository.findById(paintingId)).thenReturn(Optional.of(paintingEntity));
+        Mockito.when(restArtistClient.getArtistById(artistId)).thenReturn(artistJson);
+        Mockito.when(restMuseumClient.getMuseumById(museumId)).thenReturn(museumJson);
+
+        PaintingResponseJson result = paintingService.getPaintingById(paintingId);
+
+        assertThat(result.content()).isEqualTo("http://127.0.0.1:8090/api/painting/" + paintingId + "/image");
+    }
+
+    @Test
+    void getAllPaintingsShouldReturnThumbnailUrlWhenInlineModeIsDisabled() {
+        paintingService = new PaintingService(paintingRepository, restArtistClient, restMuseumClient,
+                new RemoteCallExecutor(8, Duration.ofSeconds(5)),
+                new ImageSettings(false, "http://127.0.0.1:8090/api/painting", Duration.ofMinutes(10)),
+                new ThumbnailGenerator(320, 0.8));
+        PageRequest pageable = PageRequest.of(0, 10);
+        Mockito.when(paintingRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(paintingEntity), pageable, 1));
+        Mockito.when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artistJson));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museumJson));
+
+        Page<PaintingResponseJson> result = paintingService.getAllPaintings(pageable, null, ImageVariant.THUMB);
+
+        assertThat(result.getContent().getFirst().content())
+                .isEqualTo("http://127.0.0.1:8090/api/painting/" + paintingId + "/image?variant=thumb");
+    }
+
+    @Test
+    void getAllPaintingsShouldReturnThumbnailForThumbVariant() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Mockito.when(paintingRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(paintingEntity), pageable, 1));
+        Mockito.when(paintingRepository.findThumbnailsByIdIn(Set.of(paintingId)))
+                .thenReturn(List.of(new StoredImage(paintingId, "image/jpeg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF})));
+        Mockito.when(restArtistClient.getArtistsByIds(Set.of(artistId))).thenReturn(List.of(artistJson));
+        Mockito.when(restMuseumClient.getMuseumsByIds(Set.of(museumId))).thenReturn(List.of(museumJson));
+
+        Page<PaintingResponseJson> result = paintingService.getAllPaintings(pageable, null, ImageVariant.THUMB);
+
+        assertThat(result.getContent().getFirst().content()).isEqualTo("data:image/jpeg;base64,/9j/");
+    }
+
+    @Test
+    void generateThumbnailShouldStoreJpegThumbnail() {
+        paintingEntity.setContent(Base64.getDecoder().decode("iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg=="));
+        paintingEntity.setContentMime("image/png");
+        Mockito.when(paintingRepository.findById(paintingId)).thenReturn(Optional.of(paintingEntity));
+
+        assertThat(paintingService.generateThumbnail(paintingId)).isTrue();
+
+        Mockito.verify(paintingRepository).save(paintingEntity);
+        assertThat(paintingEntity.getContentThumb()).startsWith((byte) 0xFF, (byte) 0xD8);
+    }
+
+    @Test
+    void searchPaintingsShouldBuildPrefixQueryAndMapRanks() {
+        SearchRow row = Mockito.mock(SearchRow.class);
+        Mockito.when(row.getId()).thenReturn(paintingId);
+        Mockito.when(row.getTitle()).thenReturn(paintingTitle);
+        Mockito.when(row.getSnippet()).thenReturn("\uE000вечер\uE001");
+        Mockito.when(row.getRank()).thenReturn(null);
+        Mockito.when(paintingRepository.search("вечер", "вечер:*", PageRequest.of(1, 5)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        Page<SearchHitJson> result = paintingService.searchPaintings("Вечер", PageRequest.of(1, 5, Sort.by("title")));
+
+        assertThat(result.getContent())
+                .containsExactly(new SearchHitJson(paintingId, paintingTitle, "<mark>вечер</mark>", 0.0));
+    }
+
+    @Test
+    void searchPaintingsShouldRejectEmptyQuery() {
+        assertThatThrownBy(() -> paintingService.searchPaintings(null, PageRequest.of(0, 10)))
+                .isInstanceOf(BadRequestException.class);
+        Mockito.verifyNoInteractions(paintingRepository);
+    }
+
+    @Test
+    void getPaintingImageShouldDecodeLegacyContent() {
+        Mockito.when(paintingRepository.findById(paintingId)).thenReturn(Optional.of(paintingEntity));
+
+        ImageData image = paintingService.getPaintingImage(paintingId);
+
+        assertThat(image.mimeType()).isEqualTo("image/jpeg");
+        assertThat(image.content()).isEqualTo(Base64.getMimeDecoder().decode("/9j/4AAQSkZJRgABAQEASABIAAD"));
+    }
+
     @Test
     void addPaintingShouldValidateContent() {
         PaintingRequestJson nonExistentContent = new PaintingRequestJson
@@ -0,0 +1,95 @@
+package service;
+
+import guru.qa.rococo.ex.NoRestResponseException;
+import guru.qa.rococo.ex.NotFoundException;
+import guru.qa.rococo.service.api.RemoteCallExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RemoteCallExecutorTest {
+
+    private final RemoteCallExecutor remoteCallExecutor = new RemoteCallExecutor(2, Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        remoteCallExecutor.shutdown();
+    }
+
+    @Test
+    void callsShouldRunConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> first = remoteCallExecutor.submit(() -> awaitLatch(bothStarted));
+        CompletableFuture<Boolean> second = remoteCallExecutor.submit(() -> awaitLatch(bothStarted));
+
+        assertThat(remoteCallExecutor.await(first)).isTrue();
+        assertThat(remoteCallExecutor.await(second)).isTrue();
+    }
+
+    @Test
+    void originalExceptionShouldBeRethrown() {
+        CompletableFuture<Object> future = remoteCallExecutor.submit(() -> {
+            throw new NotFoundException("Artist not found with id: 1");
+        });
+
+        assertThatThrownBy(() -> remoteCallExecutor.await(future))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Artist not found with id: 1");
+    }
+
+    @Test
+    void slowCallShouldFailWithTimeout() {
+        CompletableFuture<String> future = remoteCallExecutor.submit(() -> {
+            sleep(2_000);
+            return "late";
+        });
+
+        assertThatThrownBy(() -> remoteCallExecutor.await(future))
+                .isInstanceOf(NoRestResponseException.class)
+                .hasMessage("No REST response is given in 500 ms");
+    }
+
+    @Test
+    void timedOutCallShouldReleaseItsPermit() {
+        RemoteCallExecutor singlePermit = new RemoteCallExecutor(1, Duration.ofMillis(300));
+        try {
+            CompletableFuture<String> hung = singlePermit.submit(() -> {
+                sleep(60_000);
+                return "late";
+            });
+            assertThatThrownBy(() -> singlePermit.await(hung))
+                    .isInstanceOf(NoRestResponseException.class);
+
+            // Зависший вызов прерван по таймауту, разрешение свободно для следующего вызова
+            assertThat(singlePermit.await(singlePermit.submit(() -> "next"))).isEqualTo("next");
+        } finally {
+            singlePermit.shutdown();
+        }
+    }
+
+    private static boolean awaitLatch(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
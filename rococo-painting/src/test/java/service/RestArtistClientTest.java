@@ -0,0 +1,147 @@
+package service;
+
+import guru.qa.rococo.model.ArtistJson;
+import guru.qa.rococo.service.api.MetadataCache;
+import guru.qa.rococo.service.api.RestArtistClient;
+import guru.qa.rococo.service.api.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestArtistClientTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MetadataCache<ArtistJson> artistCache;
+    private RestArtistClient restArtistClient;
+
+    private final UUID artistId = UUID.randomUUID();
+    private final ArtistJson artist = new ArtistJson(artistId, "Van Gogh", null, null);
+
+    @BeforeEach
+    void setUp() {
+        artistCache = new MetadataCache<>("artist", Duration.ofMinutes(10), 100, meterRegistry);
+        restArtistClient = new RestArtistClient(
+                restTemplate,
+                "http://localhost:8282",
+                artistCache,
+                new SingleFlight(meterRegistry, Duration.ofSeconds(5))
+        );
+    }
+
+    @Test
+    void getArtistByIdShouldRequestRefViewOnce() {
+        URI expectedUri = UriComponentsBuilder
+                .fromUriString("http://localhost:8282/internal/artist/{id}/ref")
+                .buildAndExpand(artistId)
+                .toUri();
+        when(restTemplate.exchange(expectedUri, HttpMethod.GET, null, ArtistJson.class))
+                .thenReturn(ResponseEntity.ok(artist));
+
+        ArtistJson first = restArtistClient.getArtistById(artistId);
+        ArtistJson second = restArtistClient.getArtistById(artistId);
+
+        assertThat(first).isEqualTo(artist);
+        assertThat(second).isEqualTo(first);
+        verify(restTemplate, times(1)).exchange(expectedUri, HttpMethod.GET, null, ArtistJson.class);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "artist").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void getArtistsByIdsShouldFetchOnlyMissingIds() {
+        UUID otherId = UUID.randomUUID();
+        ArtistJson other = new ArtistJson(otherId, "Monet", null, null);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenReturn(ResponseEntity.ok(List.of(artist)))
+                .thenReturn(ResponseEntity.ok(List.of(other)));
+
+        restArtistClient.getArtistsByIds(Set.of(artistId));
+        List<ArtistJson> result = restArtistClient.getArtistsByIds(Set.of(artistId, otherId));
+
+        assertThat(result)
+                .extracting(ArtistJson::id)
+                .containsExactlyInAnyOrder(artistId, otherId);
+        verify(restTemplate).exchange(
+                eq(URI.create("http://localhost:8282/internal/artist/refs?ids=" + otherId)),
+                eq(HttpMethod.GET),
+                isNull(),
+                any(ParameterizedTypeReference.class)
+        );
+    }
+
+    @Test
+    void invalidatedArtistShouldBeFetchedAgain() {
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), isNull(), eq(ArtistJson.class)))
+                .thenReturn(ResponseEntity.ok(artist));
+
+        restArtistClient.getArtistById(artistId);
+        artistCache.invalidate(artistId);
+        restArtistClient.getArtistById(artistId);
+
+        verify(restTemplate, times(2)).exchange(any(URI.class), eq(HttpMethod.GET), isNull(), eq(ArtistJson.class));
+    }
+
+    @Test
+    void concurrentBulkLookupsForSameIdsShouldShareOneRequest() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(restTemplate.exchange(any(URI.class), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(List.of(artist));
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<List<ArtistJson>>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> restArtistClient.getArtistsByIds(Set.of(artistId))));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("rococo.painting.single-flight.shared").counter().count() < 2
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<List<ArtistJson>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).containsExactly(artist);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(restTemplate, times(1))
+                .exchange(any(URI.class), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+    }
+}
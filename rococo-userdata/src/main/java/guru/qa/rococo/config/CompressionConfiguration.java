@@ -0,0 +1,22 @@
+package guru.qa.rococo.config;
+
+import guru.qa.rococo.service.compression.CompressionMetricsValve;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики сжатия gzip, включенного в {@code server.compression}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class CompressionConfiguration {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> compressionMetrics(MeterRegistry meterRegistry) {
+        return factory -> factory.addContextValves(new CompressionMetricsValve(meterRegistry));
+    }
+}
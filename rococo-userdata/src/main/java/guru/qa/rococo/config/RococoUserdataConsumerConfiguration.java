@@ -3,10 +3,12 @@ package guru.qa.rococo.config;
 import guru.qa.rococo.model.UserJson;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
@@ -16,10 +18,13 @@ import org.springframework.kafka.support.serializer.JsonDeserializer;
 public class RococoUserdataConsumerConfiguration {
 
     private final KafkaProperties kafkaProperties;
+    private final boolean virtualThreads;
 
     @Autowired
-    public RococoUserdataConsumerConfiguration(KafkaProperties kafkaProperties) {
+    public RococoUserdataConsumerConfiguration(KafkaProperties kafkaProperties,
+                                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
         this.kafkaProperties = kafkaProperties;
+        this.virtualThreads = virtualThreads;
     }
 
     @Bean
@@ -43,6 +48,13 @@ public class RococoUserdataConsumerConfiguration {
 
         concurrentKafkaListenerContainerFactory.setConsumerFactory(consumerFactory(sslBundles));
 
+        // Фабрика объявлена вручную, поэтому spring.threads.virtual.enabled Spring Boot к ней не применяет
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor listenerTaskExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+            listenerTaskExecutor.setVirtualThreads(true);
+            concurrentKafkaListenerContainerFactory.getContainerProperties().setListenerTaskExecutor(listenerTaskExecutor);
+        }
+
         return concurrentKafkaListenerContainerFactory;
     }
 }
\ No newline at end of file
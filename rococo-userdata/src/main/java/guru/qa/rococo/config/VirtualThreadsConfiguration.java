@@ -0,0 +1,27 @@
+package guru.qa.rococo.config;
+
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Режим виртуальных потоков (профиль {@code virtual-threads}, {@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Tomcat, {@code @Async}, {@code @Scheduled} и Kafka listener-ы Spring Boot переводит на виртуальные
+ * потоки сам. Здесь публикуются события JFR {@code jdk.VirtualThreadPinned} (виртуальный поток
+ * удерживает поток-носитель дольше 20 мс, например внутри {@code synchronized}) как метрика
+ * {@code jvm.threads.virtual.pinned}.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+}
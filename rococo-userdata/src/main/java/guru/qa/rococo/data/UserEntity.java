@@ -1,5 +1,6 @@
 package guru.qa.rococo.data;
 
+import guru.qa.rococo.data.id.UuidV7;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,8 +20,8 @@ import java.util.UUID;
 @Table(name = "\"user\"", schema = "public")
 public class UserEntity implements Serializable {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
-    @Column(name = "id", unique = true, nullable = false, columnDefinition = "UUID default gen_random_uuid()")
+    @UuidV7
+    @Column(name = "id", unique = true, nullable = false, columnDefinition = "UUID")
     private UUID id;
 
     @Column(name = "username", nullable = false)
@@ -35,6 +36,13 @@ public class UserEntity implements Serializable {
     @Column(name = "avatar", columnDefinition = "bytea")
     private byte[] avatar;
 
+    @Column(name = "avatar_mime", length = 50)
+    private String avatarMime;
+
+    public UserEntity(UUID id, String username, String firstname, String lastname, byte[] avatar) {
+        this(id, username, firstname, lastname, avatar, null);
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,64 @@
+package guru.qa.rococo.data.id;
+
+import jakarta.annotation.Nonnull;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор UUIDv7 для {@link UuidV7}: 48 бит - время в миллисекундах, 12 бит - счетчик внутри
+ * миллисекунды, 62 бита - случайные (RFC 9562, раздел 6.2, метод 1).
+ * <p>
+ * Значения, выданные одним процессом, строго возрастают: при нескольких id в одну миллисекунду
+ * увеличивается счетчик, а при его переполнении или переводе часов назад - метка времени предыдущего id.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final UuidV7Generator INSTANCE = new UuidV7Generator(Clock.systemUTC());
+
+    private final Clock clock;
+    // Метка времени (старшие биты) и счетчик (младшие 12 бит) последнего выданного id
+    private final AtomicLong last = new AtomicLong();
+
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    public UuidV7Generator(@Nonnull Clock clock) {
+        this.clock = clock;
+    }
+
+    public static @Nonnull UUID next() {
+        return INSTANCE.generate();
+    }
+
+    public @Nonnull UUID generate() {
+        long now = clock.millis() << 12;
+        long state = last.updateAndGet(prev -> Math.max(prev + 1, now));
+        long msb = (state >>> 12) << 16 | VERSION | (state & 0xFFFL);
+        long lsb = VARIANT | (RANDOM.nextLong() & RANDOM_MASK);
+        return new UUID(msb, lsb);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return INSTANCE.generate();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -5,7 +5,6 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import guru.qa.rococo.data.UserEntity;
 import jakarta.annotation.Nonnull;
 
-import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -22,24 +21,25 @@ public record UserJson(
         String avatar
 ) {
     public static @Nonnull UserJson fromEntity(@Nonnull UserEntity entity) {
+        ImageData avatar = ImageData.fromStored(entity.getAvatar(), entity.getAvatarMime());
         return new UserJson(
                 entity.getId(),
                 entity.getUsername(),
                 entity.getFirstname(),
                 entity.getLastname(),
-                entity.getAvatar() != null && entity.getAvatar().length > 0
-                        ? new String(entity.getAvatar(), StandardCharsets.UTF_8)
-                        : null
+                avatar != null ? avatar.toDataUri() : null
         );
     }
 
     public static @Nonnull UserEntity toEntity(@Nonnull UserJson json) {
+        ImageData avatar = ImageData.fromDataUri(json.avatar);
         return new UserEntity(
                 json.id,
                 json.username,
                 json.firstname,
                 json.lastname,
-                json.avatar.getBytes(StandardCharsets.UTF_8)
+                avatar.content(),
+                avatar.mimeType()
         );
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import guru.qa.rococo.data.UserEntity;
 import guru.qa.rococo.data.repository.UserdataRepository;
 import guru.qa.rococo.ex.BadRequestException;
 import guru.qa.rococo.ex.NotFoundException;
+import guru.qa.rococo.model.ImageData;
 import guru.qa.rococo.model.UserJson;
 import lombok.NonNull;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -15,8 +16,6 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-
 @Service
 public class UserdataService {
   private static final Logger LOG = LoggerFactory.getLogger(UserdataService.class);
@@ -66,7 +65,9 @@ public class UserdataService {
     userEntity.setLastname(user.lastname() != null ? user.lastname() : userEntity.getLastname());
 
     if (user.avatar() != null) {
-      userEntity.setAvatar(user.avatar().getBytes(StandardCharsets.UTF_8));
+      ImageData avatar = ImageData.fromDataUri(user.avatar());
+      userEntity.setAvatar(avatar.content());
+      userEntity.setAvatarMime(avatar.mimeType());
     }
 
     return UserJson.fromEntity(userdataRepository.save(userEntity));
@@ -0,0 +1,19 @@
+-- UUIDv7 (RFC 9562) по умолчанию для id, созданных в обход приложения: время в старших битах,
+-- поэтому новые ключи дописываются в конец индекса первичного ключа. Существующие id не меняются.
+create or replace function uuid_generate_v7() returns uuid
+as
+$$
+-- 48 бит времени в миллисекундах поверх случайного UUIDv4, биты версии 0100 заменяются на 0111
+select encode(
+               set_bit(
+                       set_bit(
+                               overlay(uuid_send(gen_random_uuid())
+                                       placing substring(int8send(floor(extract(epoch from clock_timestamp()) * 1000)::bigint) from 3)
+                                       from 1 for 6),
+                               52, 1),
+                       53, 1),
+               'hex')::uuid
+$$ language sql volatile;
+
+alter table "user"
+    alter column id set default uuid_generate_v7();
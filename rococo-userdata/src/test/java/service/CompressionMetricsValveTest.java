@@ -0,0 +1,49 @@
+package service;
+
+import guru.qa.rococo.service.compression.CompressionMetricsValve;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompressionMetricsValveTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CompressionMetricsValve valve;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        valve = new CompressionMetricsValve(meterRegistry);
+    }
+
+    @Test
+    void gzippedResponseShouldBeMetered() {
+        valve.log(mock(Request.class), response("gzip", 40_000, 9_000), 0);
+
+        assertEquals(40_000, meterRegistry.get("rococo.http.compression.bytes.in").counter().count());
+        assertEquals(9_000, meterRegistry.get("rococo.http.compression.bytes.out").counter().count());
+    }
+
+    @Test
+    void uncompressedResponseShouldNotBeMetered() {
+        valve.log(mock(Request.class), response(null, 1_000, 1_000), 0);
+
+        assertEquals(0, meterRegistry.get("rococo.http.compression.bytes.in").counter().count());
+        assertEquals(0, meterRegistry.get("rococo.http.compression.bytes.out").counter().count());
+    }
+
+    private static Response response(String contentEncoding, long contentWritten, long bytesWritten) {
+        Response response = mock(Response.class);
+        when(response.getHeader(HttpHeaders.CONTENT_ENCODING)).thenReturn(contentEncoding);
+        when(response.getContentWritten()).thenReturn(contentWritten);
+        when(response.getBytesWritten(false)).thenReturn(bytesWritten);
+        return response;
+    }
+}
@@ -13,12 +13,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -295,4 +297,19 @@ public class UserdataServiceTest {
         verify(userdataRepository, never()).findByUsername(anyString()); // Не должно быть проверки username
         verify(userdataRepository).save(any(UserEntity.class));
     }
+
+    @Test
+    void updateUserShouldStoreDecodedAvatarWithMimeType() {
+        final String avatar = "data:image/jpeg;base64,/9j/4AAQSkZJRg==";
+        when(userdataRepository.findById(userId)).thenReturn(Optional.of(userEntity));
+        when(userdataRepository.save(any(UserEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        UserJson result = userdataService.update(new UserJson(userId, USER_NAME, FIRST_NAME, LAST_NAME, avatar));
+
+        ArgumentCaptor<UserEntity> captor = ArgumentCaptor.forClass(UserEntity.class);
+        verify(userdataRepository).save(captor.capture());
+        Assertions.assertThat(captor.getValue().getAvatar()).isEqualTo(Base64.getDecoder().decode("/9j/4AAQSkZJRg=="));
+        Assertions.assertThat(captor.getValue().getAvatarMime()).isEqualTo("image/jpeg");
+        assertEquals(avatar, result.avatar());
+    }
 }